@@ -0,0 +1,53 @@
+package com.iua.gestionetudiants.bench;
+
+import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base H2 en mémoire (mode MySQL) à la place de MySQL pour les benchmarks
+ *
+ * Le schéma est créé par Hibernate à partir des entités. L'unité de
+ * persistance reste celle de l'application (persistence.xml) : seules la
+ * connexion et le dialecte sont remplacés.
+ */
+public final class BaseEnMemoire {
+
+    /** Étudiants enregistrés par transaction lors du remplissage */
+    private static final int TAILLE_TRANCHE = 10_000;
+
+    private BaseEnMemoire() {
+    }
+
+    /**
+     * Démarrer la persistance sur une base H2 vide
+     *
+     * @param nom Nom de la base (une base par benchmark)
+     */
+    public static void demarrer(String nom) {
+        Map<String, Object> proprietes = new HashMap<>();
+        proprietes.put("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        proprietes.put("jakarta.persistence.jdbc.url",
+                "jdbc:h2:mem:" + nom + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        proprietes.put("jakarta.persistence.jdbc.user", "sa");
+        proprietes.put("jakarta.persistence.jdbc.password", "");
+        proprietes.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        proprietes.put("hibernate.hbm2ddl.auto", "create-drop");
+        proprietes.put("hibernate.show_sql", "false");
+        proprietes.put("hibernate.format_sql", "false");
+        PersistenceManager.demarrer(proprietes);
+    }
+
+    /**
+     * Enregistrer des étudiants (sans notes) par tranches
+     */
+    public static void remplir(int nombre) {
+        EtudiantDAO etudiantDAO = new EtudiantDAO();
+        for (int premier = 1; premier <= nombre; premier += TAILLE_TRANCHE) {
+            int taille = Math.min(TAILLE_TRANCHE, nombre - premier + 1);
+            etudiantDAO.creerEnLot(JeuDonnees.nouveauxEtudiants(taille, premier));
+        }
+    }
+}
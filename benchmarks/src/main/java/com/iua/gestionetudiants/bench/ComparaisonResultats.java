@@ -0,0 +1,126 @@
+package com.iua.gestionetudiants.bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Comparer deux fichiers de résultats JMH (JSON) : avant / après
+ *
+ * java -cp benchmarks.jar com.iua.gestionetudiants.bench.ComparaisonResultats avant.json apres.json
+ *
+ * Pour chaque benchmark (et jeu de paramètres) présent dans les deux
+ * fichiers : score avant, score après, écart en %, allocation par opération.
+ * Un écart plus grand que la somme des marges d'erreur des deux mesures est
+ * signalé (REGRESSION / AMELIORATION). Le code de sortie vaut 1 s'il y a
+ * au moins une régression.
+ */
+public final class ComparaisonResultats {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private ComparaisonResultats() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : ComparaisonResultats <avant.json> <apres.json>");
+            System.exit(2);
+        }
+        Map<String, Mesure> avant = lire(Path.of(args[0]));
+        Map<String, Mesure> apres = lire(Path.of(args[1]));
+
+        boolean regression = false;
+        System.out.printf("%-70s %14s %14s %9s %14s %14s  %s%n",
+                "benchmark", "avant", "apres", "ecart", "alloc avant", "alloc apres", "verdict");
+        for (Map.Entry<String, Mesure> entree : avant.entrySet()) {
+            Mesure a = entree.getValue();
+            Mesure b = apres.get(entree.getKey());
+            if (b == null) {
+                continue;
+            }
+            double ecart = a.score == 0 ? 0 : (b.score - a.score) / a.score * 100;
+            String verdict = "";
+            if (Math.abs(b.score - a.score) > a.erreur + b.erreur) {
+                boolean pire = a.plusPetitEstMieux ? b.score > a.score : b.score < a.score;
+                verdict = pire ? "REGRESSION" : "AMELIORATION";
+                regression |= pire;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %8.1f%% %14s %14s  %s%n",
+                    entree.getKey(), a.score, b.score, ecart,
+                    allocation(a), allocation(b), verdict);
+        }
+        System.out.println("(scores en " + avant.values().stream().map(m -> m.unite).distinct()
+                .reduce((x, y) -> x + ", " + y).orElse("?") + ", allocation en octets/op)");
+        System.exit(regression ? 1 : 0);
+    }
+
+    private static String allocation(Mesure mesure) {
+        return Double.isNaN(mesure.allocation) ? "-" : String.format("%.0f", mesure.allocation);
+    }
+
+    /**
+     * Lire un fichier JSON de JMH : une mesure par benchmark et paramètres
+     */
+    private static Map<String, Mesure> lire(Path fichier) throws IOException {
+        Map<String, Mesure> mesures = new TreeMap<>();
+        try (Reader lecteur = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            JsonArray resultats = JsonParser.parseReader(lecteur).getAsJsonArray();
+            for (JsonElement element : resultats) {
+                JsonObject resultat = element.getAsJsonObject();
+                String nom = resultat.get("benchmark").getAsString()
+                        .replace("com.iua.gestionetudiants.", "");
+                Map<String, String> parametres = new LinkedHashMap<>();
+                if (resultat.has("params")) {
+                    for (Map.Entry<String, JsonElement> p : resultat.getAsJsonObject("params").entrySet()) {
+                        parametres.put(p.getKey(), p.getValue().getAsString());
+                    }
+                }
+                String cle = parametres.isEmpty() ? nom : nom + parametres;
+
+                JsonObject principal = resultat.getAsJsonObject("primaryMetric");
+                Mesure mesure = new Mesure();
+                mesure.score = principal.get("score").getAsDouble();
+                mesure.erreur = nombre(principal.get("scoreError"));
+                mesure.unite = principal.get("scoreUnit").getAsString();
+                // avgt, sample, ss : un temps par opération ; thrpt : des opérations par unité de temps
+                mesure.plusPetitEstMieux = !"thrpt".equals(resultat.get("mode").getAsString());
+                mesure.allocation = Double.NaN;
+                JsonObject secondaires = resultat.getAsJsonObject("secondaryMetrics");
+                if (secondaires != null && secondaires.has(ALLOCATION)) {
+                    mesure.allocation = secondaires.getAsJsonObject(ALLOCATION).get("score").getAsDouble();
+                }
+                mesures.put(cle, mesure);
+            }
+        }
+        return mesures;
+    }
+
+    /** JMH écrit "NaN" (chaîne) quand la marge d'erreur n'est pas calculable */
+    private static double nombre(JsonElement valeur) {
+        try {
+            double nombre = valeur.getAsDouble();
+            return Double.isNaN(nombre) ? 0 : nombre;
+        } catch (NumberFormatException | UnsupportedOperationException e) {
+            return 0;
+        }
+    }
+
+    private static final class Mesure {
+        double score;
+        double erreur;
+        String unite;
+        boolean plusPetitEstMieux;
+        double allocation;
+    }
+}
@@ -0,0 +1,114 @@
+package com.iua.gestionetudiants.bench;
+
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Étudiants et notes fictifs pour les benchmarks
+ * Graine fixe : deux exécutions mesurent exactement les mêmes données
+ */
+public final class JeuDonnees {
+
+    private static final String[] NOMS = {
+        "KOUASSI", "KONAN", "YAO", "KOFFI", "TRAORE", "DIALLO", "COULIBALY", "OUATTARA", "BAMBA", "N'GUESSAN"
+    };
+    private static final String[] PRENOMS = {
+        "Aya", "Jean", "Awa", "Koffi", "Mariam", "Yves", "Adjoua", "Ibrahim", "Fatou", "Serge"
+    };
+    private static final String[] MATIERES = {
+        "Java EE", "Bases de données", "Réseaux", "Génie logiciel", "Mathématiques",
+        "Anglais", "Systèmes d'exploitation", "Algorithmique"
+    };
+
+    private JeuDonnees() {
+    }
+
+    /**
+     * Étudiants avec leurs notes, identifiants renseignés et agrégats de
+     * notes à jour (comme s'ils venaient d'être lus en base)
+     *
+     * @param nombre           Nombre d'étudiants
+     * @param notesParEtudiant Nombre de notes de chaque étudiant
+     */
+    public static List<Etudiant> etudiants(int nombre, int notesParEtudiant) {
+        List<Etudiant> etudiants = nouveauxEtudiants(nombre, 1);
+        Random aleatoire = new Random(7);
+        long idNote = 1;
+        for (int i = 0; i < nombre; i++) {
+            Etudiant etudiant = etudiants.get(i);
+            etudiant.setId((long) i + 1);
+            for (Note note : notes(aleatoire, notesParEtudiant)) {
+                note.setId(idNote++);
+                etudiant.ajouterNote(note);
+            }
+            remplirAgregats(etudiant);
+        }
+        return etudiants;
+    }
+
+    /**
+     * Étudiants sans identifiant ni notes, prêts à être enregistrés
+     *
+     * @param premier Numéro du premier matricule (ETU2025 + numéro)
+     */
+    public static List<Etudiant> nouveauxEtudiants(int nombre, int premier) {
+        Random aleatoire = new Random(42L + premier);
+        List<Etudiant> etudiants = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            int numero = premier + i;
+            etudiants.add(new Etudiant(
+                    String.format("ETU2025%07d", numero),
+                    NOMS[aleatoire.nextInt(NOMS.length)],
+                    PRENOMS[aleatoire.nextInt(PRENOMS.length)],
+                    "etudiant" + numero + "@iua.ci",
+                    LocalDate.of(1998 + aleatoire.nextInt(8), 1 + aleatoire.nextInt(12), 1 + aleatoire.nextInt(28))));
+        }
+        return etudiants;
+    }
+
+    /**
+     * Notes au quart de point, de 0 à 20, coefficients de 1 à 4
+     * (sans étudiant ni identifiant)
+     */
+    public static List<Note> notes(Random aleatoire, int nombre) {
+        List<Note> notes = new ArrayList<>(nombre);
+        for (int j = 0; j < nombre; j++) {
+            double valeur = aleatoire.nextInt(81) / 4.0;
+            notes.add(new Note(MATIERES[j % MATIERES.length], valeur, 1 + aleatoire.nextInt(4)));
+        }
+        return notes;
+    }
+
+    /**
+     * Renseigner les agrégats de notes d'un étudiant construit en mémoire
+     * (en production ils sont maintenus en base par NoteDAO et n'ont pas de
+     * setter : ils sont écrits ici par réflexion)
+     */
+    public static void remplirAgregats(Etudiant etudiant) {
+        double sommePonderee = 0;
+        long sommeCoefficients = 0;
+        for (Note note : etudiant.getNotes()) {
+            sommePonderee += note.getValeur() * note.getCoefficient();
+            sommeCoefficients += note.getCoefficient();
+        }
+        ecrire(etudiant, "sommePonderee", sommePonderee);
+        ecrire(etudiant, "sommeCoefficients", sommeCoefficients);
+        ecrire(etudiant, "nombreNotes", etudiant.getNotes().size());
+    }
+
+    private static void ecrire(Etudiant etudiant, String champ, Object valeur) {
+        try {
+            Field field = Etudiant.class.getDeclaredField(champ);
+            field.setAccessible(true);
+            field.set(etudiant, valeur);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Champ " + champ + " introuvable sur Etudiant", e);
+        }
+    }
+}
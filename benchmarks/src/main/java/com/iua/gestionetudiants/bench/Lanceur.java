@@ -0,0 +1,54 @@
+package com.iua.gestionetudiants.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Point d'entrée de benchmarks.jar
+ *
+ * Accepte les options habituelles de JMH (filtre de benchmarks, -p, -f, -wi...)
+ * et ajoute, sauf indication contraire sur la ligne de commande :
+ * - le profileur GC (-prof gc) : allocation par opération (gc.alloc.rate.norm)
+ * - des résultats JSON dans resultats/jmh-<version>-<date>.json, à comparer
+ *   entre deux versions avec ComparaisonResultats
+ *
+ * La version vient de -Dversion=... (par défaut "dev")
+ */
+public final class Lanceur {
+
+    private Lanceur() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions ligneCommande = new CommandLineOptions(args);
+        if (ligneCommande.shouldHelp() || ligneCommande.shouldList() || ligneCommande.shouldListWithParams()
+                || ligneCommande.shouldListProfilers() || ligneCommande.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(ligneCommande);
+        if (ligneCommande.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!ligneCommande.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!ligneCommande.getResult().hasValue()) {
+            File dossier = new File("resultats");
+            dossier.mkdirs();
+            String horodatage = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            String version = System.getProperty("version", "dev");
+            options.result(new File(dossier, "jmh-" + version + "-" + horodatage + ".json").getPath());
+        }
+        new Runner(options.build()).run();
+    }
+}
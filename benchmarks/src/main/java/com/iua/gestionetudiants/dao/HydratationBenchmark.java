@@ -0,0 +1,109 @@
+package com.iua.gestionetudiants.dao;
+
+import com.iua.gestionetudiants.bench.BaseEnMemoire;
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.dto.EtudiantResume;
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture et hydratation des entités par les DAO, sur une base H2 en
+ * mémoire (mode MySQL) : coût Hibernate + JDBC, sans latence réseau
+ *
+ * - detailAvecNotes : EtudiantDAO.trouverParIdAvecNotes (détail d'un étudiant)
+ * - premierePage    : première page de la liste (20 étudiants)
+ * - pageFiltree     : page au milieu de l'index (préfixe de nom)
+ * - premierePageResumes, pageFiltreeResumes : les mêmes pages lues par
+ *   projection (EtudiantResume), comme la page JSP et GET /api/etudiants
+ * - revision        : lecture des validateurs HTTP seuls (EtudiantDAO.trouverRevision)
+ *
+ * La table contient "etudiants" lignes ; seul l'étudiant mesuré par
+ * detailAvecNotes a des notes ("notesEtudiantDetail").
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HydratationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int etudiants;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int notesEtudiantDetail;
+
+    private EtudiantDAO etudiantDAO;
+    private Long idDetail;
+
+    @Setup
+    public void preparer() {
+        BaseEnMemoire.demarrer("hydratation");
+        etudiantDAO = new EtudiantDAO();
+        BaseEnMemoire.remplir(etudiants);
+
+        Etudiant detail = etudiantDAO.listerPage(new CritereListeEtudiants()).getElements().get(0);
+        idDetail = detail.getId();
+        List<Note> notes = JeuDonnees.notes(new Random(11), notesEtudiantDetail);
+        for (Note note : notes) {
+            note.setEtudiant(detail);
+        }
+        new NoteDAO().creerEnLot(notes);
+    }
+
+    @TearDown
+    public void arreter() {
+        PersistenceManager.arreter();
+    }
+
+    @Benchmark
+    public Etudiant detailAvecNotes() {
+        return etudiantDAO.trouverParIdAvecNotes(idDetail);
+    }
+
+    @Benchmark
+    public Page<Etudiant> premierePage() {
+        return etudiantDAO.listerPage(new CritereListeEtudiants());
+    }
+
+    @Benchmark
+    public Page<Etudiant> pageFiltree() {
+        CritereListeEtudiants critere = new CritereListeEtudiants();
+        critere.setPrefixeNom("OUATTARA");
+        return etudiantDAO.listerPage(critere);
+    }
+
+    @Benchmark
+    public Page<EtudiantResume> premierePageResumes() {
+        return etudiantDAO.listerPageResumes(new CritereListeEtudiants());
+    }
+
+    @Benchmark
+    public Page<EtudiantResume> pageFiltreeResumes() {
+        CritereListeEtudiants critere = new CritereListeEtudiants();
+        critere.setPrefixeNom("OUATTARA");
+        return etudiantDAO.listerPageResumes(critere);
+    }
+
+    @Benchmark
+    public Object revision() {
+        return etudiantDAO.trouverRevision(idDetail);
+    }
+}
@@ -0,0 +1,72 @@
+package com.iua.gestionetudiants.dao;
+
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.dto.EtudiantResume;
+import com.iua.gestionetudiants.model.Etudiant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche dans l'index en mémoire (IndexRecherche), sans base de données
+ *
+ * - prefixeCourt  : "ko", le cas le plus large (KOUASSI, KONAN, KOFFI...)
+ * - nomPrenom     : "kouassi aya", intersection de deux listes
+ * - matricule     : un matricule complet, plus long que les préfixes indexés
+ * - email         : début d'une adresse ("etudiant4242")
+ *
+ * Objectif : moins de 5 ms par recherche à 100 000 étudiants.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RechercheBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int etudiants;
+
+    @Setup
+    public void preparer() {
+        List<EtudiantResume> resumes = new ArrayList<>(etudiants);
+        for (Etudiant e : JeuDonnees.nouveauxEtudiants(etudiants, 1)) {
+            resumes.add(new EtudiantResume((long) resumes.size() + 1, e.getMatricule(), e.getNom(),
+                    e.getPrenom(), e.getEmail(), e.getDateNaissance(), null, 0, null));
+        }
+        IndexRecherche.charger(resumes);
+    }
+
+    @Benchmark
+    public ResultatRecherche prefixeCourt() {
+        return IndexRecherche.rechercher("ko", 20);
+    }
+
+    @Benchmark
+    public ResultatRecherche nomPrenom() {
+        return IndexRecherche.rechercher("kouassi aya", 20);
+    }
+
+    @Benchmark
+    public ResultatRecherche matricule() {
+        return IndexRecherche.rechercher("ETU20250000420", 20);
+    }
+
+    @Benchmark
+    public ResultatRecherche email() {
+        return IndexRecherche.rechercher("etudiant4242", 20);
+    }
+}
@@ -0,0 +1,70 @@
+package com.iua.gestionetudiants.dao;
+
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.dto.SuggestionMatricule;
+import com.iua.gestionetudiants.model.Etudiant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplétion des matricules (SuggestionsMatricules), sans base de données
+ *
+ * - prefixeLarge : "etu2025", tous les matricules correspondent
+ * - prefixeLong  : un préfixe qui ne laisse qu'une dizaine de matricules
+ * - aucun        : aucun matricule ne commence ainsi
+ * - ecriture     : modification d'un matricule (recopie des tableaux)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SuggestionsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int etudiants;
+
+    private int modification;
+
+    @Setup
+    public void preparer() {
+        List<Etudiant> liste = JeuDonnees.nouveauxEtudiants(etudiants, 1);
+        for (int i = 0; i < liste.size(); i++) {
+            liste.get(i).setId((long) i + 1);
+        }
+        SuggestionsMatricules.charger(liste);
+    }
+
+    @Benchmark
+    public List<SuggestionMatricule> prefixeLarge() {
+        return SuggestionsMatricules.suggerer("etu2025", 10);
+    }
+
+    @Benchmark
+    public List<SuggestionMatricule> prefixeLong() {
+        return SuggestionsMatricules.suggerer("ETU202500004", 10);
+    }
+
+    @Benchmark
+    public List<SuggestionMatricule> aucun() {
+        return SuggestionsMatricules.suggerer("MAT", 10);
+    }
+
+    @Benchmark
+    public void ecriture() {
+        SuggestionsMatricules.enregistrer(1L, "ETU2025M" + (modification++ % 1000));
+    }
+}
@@ -0,0 +1,96 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.dto.EtudiantResume;
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Conversion des entités en Map avant la sérialisation JSON
+ * (EtudiantRestService.convertirEtudiantEnMap / convertirNoteEnMap)
+ *
+ * - etudiant          : un étudiant sans ses notes (une ligne de la liste)
+ * - notes             : toutes les notes d'un étudiant, une Map par note
+ * - etudiantAvecNotes : la réponse complète de GET /api/etudiants/{id}
+ * - pageMaps          : JSON d'une page de la liste (20 lignes) en passant
+ *                       par une Map par étudiant (avant les projections)
+ * - pageResumes       : la même page écrite depuis les EtudiantResume
+ *                       (EtudiantRestService.ecrirePage)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int notesParEtudiant;
+
+    private EtudiantRestService service;
+    private Etudiant etudiant;
+    private List<Etudiant> page;
+    private List<EtudiantResume> pageResumes;
+    private final Gson gson = new Gson();
+
+    @Setup
+    public void preparer() {
+        service = new EtudiantRestService();
+        etudiant = JeuDonnees.etudiants(1, notesParEtudiant).get(0);
+        page = JeuDonnees.etudiants(20, 0);
+        pageResumes = page.stream()
+            .map(e -> new EtudiantResume(e.getId(), e.getMatricule(), e.getNom(), e.getPrenom(),
+                    e.getEmail(), e.getDateNaissance(), e.getDateCreation(),
+                    e.getRevision(), e.getDateModification()))
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Map<String, Object> etudiant() {
+        return service.convertirEtudiantEnMap(etudiant);
+    }
+
+    @Benchmark
+    public void notes(Blackhole trou) {
+        for (Note note : etudiant.getNotes()) {
+            trou.consume(service.convertirNoteEnMap(note));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> etudiantAvecNotes() {
+        return service.convertirEtudiantEnMapAvecNotes(etudiant);
+    }
+
+    @Benchmark
+    public String pageMaps() {
+        return gson.toJson(page.stream()
+            .map(service::convertirEtudiantEnMap)
+            .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public String pageResumes() throws IOException {
+        return service.ecrirePage(pageResumes);
+    }
+}
@@ -0,0 +1,81 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.model.Etudiant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Export de toute la table étudiants en JSON (GET /api/etudiants?stream=true)
+ *
+ * - flux     : chemin actuel, chaque étudiant écrit directement (ecrireEtudiant)
+ * - tableau  : ancien chemin, liste de Map puis une String JSON complète
+ *
+ * Le profileur GC (-prof gc, activé par défaut par le Lanceur) montre la
+ * différence d'allocation par export. Les entités sont en mémoire : seule
+ * la sérialisation est mesurée (la lecture en base est dans HydratationBenchmark).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int etudiants;
+
+    private EtudiantRestService service;
+    private Gson gson;
+    private List<Etudiant> table;
+
+    @Setup
+    public void preparer() {
+        service = new EtudiantRestService();
+        gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .create();
+        table = JeuDonnees.etudiants(etudiants, 0);
+    }
+
+    @Benchmark
+    public void flux() throws IOException {
+        JsonWriter json = new JsonWriter(Writer.nullWriter());
+        json.setSerializeNulls(false);
+        json.beginArray();
+        for (Etudiant etudiant : table) {
+            service.ecrireEtudiant(json, etudiant);
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    @Benchmark
+    public int tableau() {
+        List<Map<String, Object>> maps = table.stream()
+                .map(service::convertirEtudiantEnMap)
+                .collect(Collectors.toList());
+        return gson.toJson(maps).length();
+    }
+}
@@ -0,0 +1,164 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.filter.EncodageContenu;
+import com.iua.gestionetudiants.model.Etudiant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Coût d'une réponse de l'API étudiants, du modèle jusqu'aux octets envoyés
+ *
+ * Chaque réponse suit le chemin de production :
+ * Map (EtudiantRestService) → JSON Gson → indentation si ?pretty=true
+ * (MiseEnFormeJson) → UTF-8 → compression (EncodageContenu, FiltreCompression)
+ *
+ * - liste  : GET /api/etudiants (une page d'étudiants, sans notes)
+ * - detail : GET /api/etudiants/{id} (un étudiant et ses notes)
+ *
+ * Temps CPU par réponse : java -jar target/benchmarks.jar FormatReponseBenchmark
+ * Octets sur le fil     : java -cp target/benchmarks.jar com.iua.gestionetudiants.rest.FormatReponseBenchmark
+ * (les tailles ne dépendent que des données : elles sont calculées une fois)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatReponseBenchmark {
+
+    /** compact : réponse par défaut ; indente : ?pretty=true */
+    @Param({"compact", "indente"})
+    public String format;
+
+    /** aucun, gzip ou deflate (Accept-Encoding du client) */
+    @Param({"aucun", "gzip", "deflate"})
+    public String encodage;
+
+    /** Niveau de compression du filtre (init-param "niveau") */
+    @Param({"6"})
+    public int niveau;
+
+    /** Taille de la page de la liste (paramètre "taille", 20 par défaut) */
+    @Param({"20"})
+    public int etudiantsParPage;
+
+    /** Nombre de notes de l'étudiant du détail */
+    @Param({"20"})
+    public int notesParEtudiant;
+
+    private EtudiantRestService service;
+    private Gson gson;
+    private List<Etudiant> page;
+    private Etudiant etudiant;
+    private EncodageContenu codage;
+
+    @Setup
+    public void preparer() {
+        service = new EtudiantRestService();
+        // Même configuration que EtudiantRestService
+        gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .create();
+        page = JeuDonnees.etudiants(etudiantsParPage, 0);
+        etudiant = JeuDonnees.etudiants(1, notesParEtudiant).get(0);
+        codage = "aucun".equals(encodage) ? null : EncodageContenu.valueOf(encodage.toUpperCase());
+    }
+
+    @Benchmark
+    public long liste() throws IOException {
+        List<Map<String, Object>> etudiants = page.stream()
+                .map(service::convertirEtudiantEnMap)
+                .collect(Collectors.toList());
+        return envoyer(gson.toJson(etudiants));
+    }
+
+    @Benchmark
+    public long detail() throws IOException {
+        return envoyer(gson.toJson(service.convertirEtudiantEnMapAvecNotes(etudiant)));
+    }
+
+    /**
+     * Mettre en forme, encoder et compresser une réponse
+     *
+     * @return Le nombre d'octets du corps envoyé au client
+     */
+    private long envoyer(String json) throws IOException {
+        if ("indente".equals(format)) {
+            json = MiseEnFormeJson.indenter(json);
+        }
+        byte[] corps = json.getBytes(StandardCharsets.UTF_8);
+        CompteurOctets fil = new CompteurOctets();
+        if (codage == null) {
+            fil.write(corps);
+        } else {
+            try (OutputStream sortie = codage.compresser(fil, niveau)) {
+                sortie.write(corps);
+            }
+        }
+        return fil.total;
+    }
+
+    /**
+     * Octets sur le fil pour chaque combinaison (format CSV sur la sortie standard)
+     * Arguments optionnels : étudiants par page, notes par étudiant, niveau
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("ressource;format;encodage;niveau;etudiantsParPage;notesParEtudiant;octets");
+        for (String format : new String[] {"compact", "indente"}) {
+            for (String encodage : new String[] {"aucun", "gzip", "deflate"}) {
+                FormatReponseBenchmark mesure = new FormatReponseBenchmark();
+                mesure.format = format;
+                mesure.encodage = encodage;
+                mesure.etudiantsParPage = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+                mesure.notesParEtudiant = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+                mesure.niveau = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+                mesure.preparer();
+                String suffixe = ";" + format + ";" + encodage + ";" + mesure.niveau + ";"
+                        + mesure.etudiantsParPage + ";" + mesure.notesParEtudiant + ";";
+                System.out.println("liste" + suffixe + mesure.liste());
+                System.out.println("detail" + suffixe + mesure.detail());
+            }
+        }
+    }
+
+    /**
+     * Sortie qui ne garde rien : compte seulement les octets, comme s'ils
+     * partaient sur le réseau
+     */
+    private static final class CompteurOctets extends OutputStream {
+
+        private long total;
+
+        @Override
+        public void write(int octet) {
+            total++;
+        }
+
+        @Override
+        public void write(byte[] octets, int debut, int longueur) {
+            total += longueur;
+        }
+    }
+}
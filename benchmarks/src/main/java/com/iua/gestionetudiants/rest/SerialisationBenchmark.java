@@ -0,0 +1,69 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Gson de la réponse détail et adaptateur LocalDate
+ *
+ * - detail        : Map déjà construite → JSON (le coût Gson seul)
+ * - dateVersJson  : LocalDateAdapter à la sérialisation
+ * - dateDepuisJson: LocalDateAdapter à la désérialisation (saisies JSON)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerialisationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int notesParEtudiant;
+
+    private Gson gson;
+    private Map<String, Object> detail;
+    private LocalDate date;
+
+    @Setup
+    public void preparer() {
+        // Même configuration que EtudiantRestService
+        gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .create();
+        detail = new EtudiantRestService()
+                .convertirEtudiantEnMapAvecNotes(JeuDonnees.etudiants(1, notesParEtudiant).get(0));
+        date = LocalDate.of(2001, 4, 17);
+    }
+
+    @Benchmark
+    public String detail() {
+        return gson.toJson(detail);
+    }
+
+    @Benchmark
+    public String dateVersJson() {
+        return gson.toJson(date);
+    }
+
+    @Benchmark
+    public LocalDate dateDepuisJson() {
+        return gson.fromJson("\"2001-04-17\"", LocalDate.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.bench.BaseEnMemoire;
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+import com.iua.gestionetudiants.model.Note;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Archive des bulletins de toute une promotion (BulletinService.genererZip),
+ * sur une base H2 en mémoire, écrite dans un flux qui ignore les octets
+ *
+ * - threads = 1 : production des bulletins sur un seul thread
+ * - threads = 0 : un thread par processeur (réglage par défaut)
+ *
+ * Le nombre de bulletins par seconde est etudiants / temps moyen. La
+ * lecture des tranches et l'écriture du ZIP restent sur le thread appelant :
+ * l'écart entre les deux réglages est la part gagnée par le parallélisme.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BulletinBenchmark {
+
+    /** Notes de chaque étudiant */
+    private static final int NOTES_PAR_ETUDIANT = 10;
+
+    @Param({"1", "0"})
+    public int threads;
+
+    @Param({"5000"})
+    public int etudiants;
+
+    private BulletinService service;
+
+    @Setup
+    public void preparer() {
+        BaseEnMemoire.demarrer("bulletins");
+        BaseEnMemoire.remplir(etudiants);
+
+        Random aleatoire = new Random(7);
+        NoteDAO noteDAO = new NoteDAO();
+        List<Note> lot = new ArrayList<>();
+        new EtudiantDAO().parcourirTous(etudiant -> {
+            for (Note note : JeuDonnees.notes(aleatoire, NOTES_PAR_ETUDIANT)) {
+                note.setEtudiant(etudiant);
+                lot.add(note);
+            }
+            if (lot.size() >= 10_000) {
+                noteDAO.creerEnLot(lot);
+                lot.clear();
+            }
+        });
+        noteDAO.creerEnLot(lot);
+
+        BulletinService.configurer(threads, Path.of(System.getProperty("java.io.tmpdir"), "bulletins"));
+        service = new BulletinService();
+    }
+
+    @TearDown
+    public void arreter() {
+        BulletinService.arreter();
+        PersistenceManager.arreter();
+    }
+
+    @Benchmark
+    public int genererZip() throws IOException {
+        return service.genererZip(null, OutputStream.nullOutputStream()).getBulletins();
+    }
+}
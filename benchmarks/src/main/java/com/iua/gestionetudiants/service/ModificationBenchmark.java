@@ -0,0 +1,177 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.bench.BaseEnMemoire;
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.dao.CritereListeEtudiants;
+import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+import com.iua.gestionetudiants.dao.StatistiquesRequete;
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modification d'un étudiant et d'une note par les services, sur une base
+ * H2 en mémoire, avec les ordres SQL envoyés (comptés comme pour une requête
+ * HTTP, par StatistiquesRequete) : ordresSql / modifications donne le
+ * nombre d'allers-retours par modification
+ *
+ * - modifierEtudiant       : EtudiantService.modifierEtudiant, UN UPDATE versionné
+ * - modifierEtudiantMerge  : l'ancien chemin, pour comparaison : lecture de
+ *                            l'étudiant par le contrôleur puis par le service,
+ *                            puis merge() (SELECT + UPDATE)
+ * - modifierNote           : lecture de la note (cache de second niveau) puis
+ *                            NoteService.modifierNote : UPDATE versionné de la
+ *                            note et ajustement des agrégats de l'étudiant
+ * - creerNote              : NoteService.creerNote, l'étudiant désigné par son
+ *                            ID : INSERT de la note, ajustement et relecture
+ *                            des agrégats (nouvelle moyenne)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ModificationBenchmark {
+
+    /**
+     * Ordres SQL et modifications de l'itération (totaux affichés par JMH
+     * à côté du temps moyen)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Compteurs {
+
+        public long ordresSql;
+        public long modifications;
+
+        @Setup(Level.Iteration)
+        public void remettreAZero() {
+            ordresSql = 0;
+            modifications = 0;
+        }
+    }
+
+    private EtudiantService etudiantService;
+    private NoteService noteService;
+    private EtudiantDAO etudiantDAO;
+    private Long idEtudiant;
+    private String matricule;
+    private String email;
+    private Long idNote;
+    private long revisionEtudiant;
+    private int numero;
+
+    @Setup
+    public void preparer() {
+        BaseEnMemoire.demarrer("modification");
+        BaseEnMemoire.remplir(1000);
+        etudiantService = new EtudiantService();
+        noteService = new NoteService();
+        etudiantDAO = new EtudiantDAO();
+
+        Etudiant etudiant = etudiantDAO.listerPage(new CritereListeEtudiants()).getElements().get(0);
+        idEtudiant = etudiant.getId();
+        matricule = etudiant.getMatricule();
+        email = etudiant.getEmail();
+        List<Note> notes = JeuDonnees.notes(new Random(7), 10);
+        for (Note note : notes) {
+            note.setEtudiant(etudiant);
+        }
+        new NoteDAO().creerEnLot(notes);
+        idNote = notes.get(0).getId();
+        revisionEtudiant = etudiantDAO.trouverRevision(idEtudiant).getRevision();
+    }
+
+    @TearDown
+    public void arreter() {
+        PersistenceManager.arreter();
+    }
+
+    @Benchmark
+    public void modifierEtudiant(Compteurs compteurs) throws Exception {
+        Etudiant etudiant = nouvelEtat();
+        StatistiquesRequete.demarrer("modifierEtudiant");
+        try {
+            etudiantService.modifierEtudiant(etudiant, revisionEtudiant);
+        } finally {
+            compter(compteurs);
+        }
+        revisionEtudiant++;
+    }
+
+    @Benchmark
+    public void modifierEtudiantMerge(Compteurs compteurs) {
+        StatistiquesRequete.demarrer("modifierEtudiantMerge");
+        try {
+            Etudiant etudiant = etudiantDAO.trouverParId(idEtudiant);
+            etudiantDAO.trouverParId(idEtudiant);
+            etudiant.setNom("NOM" + (numero++ % 100));
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+                em.merge(etudiant);
+                em.getTransaction().commit();
+            } finally {
+                em.close();
+            }
+        } finally {
+            compter(compteurs);
+        }
+        revisionEtudiant++;
+    }
+
+    @Benchmark
+    public void modifierNote(Compteurs compteurs) throws Exception {
+        StatistiquesRequete.demarrer("modifierNote");
+        try {
+            Note note = noteService.trouverParId(idNote);
+            note.setValeur((double) (numero++ % 21));
+            noteService.modifierNote(note);
+        } finally {
+            compter(compteurs);
+        }
+    }
+
+    @Benchmark
+    public void creerNote(Compteurs compteurs) throws Exception {
+        Note note = new Note("Java EE", (double) (numero++ % 21), 2);
+        StatistiquesRequete.demarrer("creerNote");
+        try {
+            noteService.creerNote(note, idEtudiant);
+        } finally {
+            compter(compteurs);
+        }
+    }
+
+    private Etudiant nouvelEtat() {
+        Etudiant etudiant = new Etudiant(matricule, "NOM" + (numero++ % 100), "Prenom", email, null);
+        etudiant.setId(idEtudiant);
+        return etudiant;
+    }
+
+    private static void compter(Compteurs compteurs) {
+        StatistiquesRequete statistiques = StatistiquesRequete.terminer();
+        compteurs.ordresSql += statistiques.getOrdresSql();
+        compteurs.modifications++;
+    }
+}
@@ -0,0 +1,52 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.bench.JeuDonnees;
+import com.iua.gestionetudiants.model.Etudiant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NoteService.calculerMoyenne : à partir des agrégats stockés sur
+ * l'étudiant (temps constant) et à partir de la liste des notes (linéaire)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MoyenneBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int notesParEtudiant;
+
+    private NoteService noteService;
+    private Etudiant etudiant;
+
+    @Setup
+    public void preparer() {
+        noteService = new NoteService();
+        etudiant = JeuDonnees.etudiants(1, notesParEtudiant).get(0);
+    }
+
+    @Benchmark
+    public double agregats() {
+        return noteService.calculerMoyenne(etudiant);
+    }
+
+    @Benchmark
+    public double listeNotes() {
+        return noteService.calculerMoyenne(etudiant.getNotes());
+    }
+}
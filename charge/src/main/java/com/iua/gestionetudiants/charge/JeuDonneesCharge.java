@@ -0,0 +1,105 @@
+package com.iua.gestionetudiants.charge;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Données du test de charge, chargées par l'API d'import CSV
+ *
+ * Passer par HTTP (et non par les DAO) permet de viser aussi bien le Tomcat
+ * embarqué qu'une application déjà déployée (-url).
+ */
+final class JeuDonneesCharge {
+
+    private static final String[] NOMS = {
+        "KOUASSI", "KONE", "TRAORE", "OUATTARA", "YAO", "COULIBALY", "DIALLO", "BAMBA", "N'GUESSAN", "TOURE"
+    };
+    private static final String[] PRENOMS = {
+        "Aya", "Koffi", "Awa", "Moussa", "Adjoua", "Ibrahim", "Fatou", "Yves", "Mariam", "Serge"
+    };
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private JeuDonneesCharge() {
+    }
+
+    /**
+     * Importer les étudiants puis leurs notes
+     *
+     * @param premier Numéro du premier matricule (évite les doublons d'un
+     *                lancement à l'autre sur une base persistante)
+     */
+    static void importer(HttpClient client, URI base, int etudiants, int notesParEtudiant, long premier)
+            throws IOException, InterruptedException {
+        Random aleatoire = new Random(42);
+
+        StringBuilder csv = new StringBuilder("matricule;nom;prenom;email;date_naissance\n");
+        for (int i = 0; i < etudiants; i++) {
+            long numero = premier + i;
+            csv.append(matricule(numero)).append(';')
+               .append(NOMS[aleatoire.nextInt(NOMS.length)]).append(';')
+               .append(PRENOMS[aleatoire.nextInt(PRENOMS.length)]).append(';')
+               .append("etudiant").append(numero).append("@iua.ci").append(';')
+               .append(String.format("%02d/%02d/%d", 1 + aleatoire.nextInt(28), 1 + aleatoire.nextInt(12),
+                       1995 + aleatoire.nextInt(10)))
+               .append('\n');
+        }
+        poster(client, base.resolve(base.getPath() + "/api/import/etudiants"), csv);
+
+        csv = new StringBuilder("matricule;matiere;valeur;coefficient\n");
+        for (int i = 0; i < etudiants; i++) {
+            String matricule = matricule(premier + i);
+            for (int n = 0; n < notesParEtudiant; n++) {
+                csv.append(matricule).append(';')
+                   .append(Route.MATIERES[aleatoire.nextInt(Route.MATIERES.length)]).append(';')
+                   .append(aleatoire.nextInt(81) / 4.0).append(';')
+                   .append(1 + aleatoire.nextInt(4))
+                   .append('\n');
+            }
+        }
+        if (notesParEtudiant > 0) {
+            poster(client, base.resolve(base.getPath() + "/api/import/notes"), csv);
+        }
+    }
+
+    /**
+     * Identifiants de tous les étudiants (export NDJSON de l'API)
+     */
+    static long[] identifiants(HttpClient client, URI base) throws IOException, InterruptedException {
+        HttpRequest requete = HttpRequest.newBuilder(
+                base.resolve(base.getPath() + "/api/etudiants?stream=true&format=ndjson")).GET().build();
+        HttpResponse<Stream<String>> reponse = client.send(requete, HttpResponse.BodyHandlers.ofLines());
+        if (reponse.statusCode() != 200) {
+            throw new IOException("Export des étudiants : statut " + reponse.statusCode());
+        }
+        try (Stream<String> lignes = reponse.body()) {
+            return lignes.map(ID::matcher)
+                    .filter(Matcher::find)
+                    .mapToLong(m -> Long.parseLong(m.group(1)))
+                    .toArray();
+        }
+    }
+
+    private static String matricule(long numero) {
+        return String.format("CHG%09d", numero);
+    }
+
+    private static void poster(HttpClient client, URI uri, CharSequence csv) throws IOException, InterruptedException {
+        HttpRequest requete = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "text/csv; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build();
+        HttpResponse<String> reponse = client.send(requete, HttpResponse.BodyHandlers.ofString());
+        if (reponse.statusCode() != 200) {
+            throw new IOException("Import " + uri.getPath() + " : statut " + reponse.statusCode() + " " + reponse.body());
+        }
+        System.out.println("Import " + uri.getPath() + " : " + reponse.body());
+    }
+}
@@ -0,0 +1,82 @@
+package com.iua.gestionetudiants.charge;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Mélange des routes : poids relatif de chaque route
+ *
+ * Format : "liste=20,detail=30,note=10,api-liste=10,api-detail=20,api-notes=10"
+ * Une route absente (ou de poids 0) n'est jamais tirée.
+ */
+final class Melange {
+
+    static final String PAR_DEFAUT = "liste=20,detail=30,note=10,api-liste=10,api-detail=20,api-notes=10";
+
+    private final Route[] routes;
+    private final int[] cumuls;
+    private final Map<Route, Integer> poids;
+
+    private Melange(Map<Route, Integer> poids) {
+        this.poids = poids;
+        this.routes = new Route[poids.size()];
+        this.cumuls = new int[poids.size()];
+        int i = 0;
+        int cumul = 0;
+        for (Map.Entry<Route, Integer> entree : poids.entrySet()) {
+            cumul += entree.getValue();
+            routes[i] = entree.getKey();
+            cumuls[i] = cumul;
+            i++;
+        }
+    }
+
+    static Melange lire(String texte) {
+        Map<Route, Integer> poids = new EnumMap<>(Route.class);
+        for (String element : texte.split(",")) {
+            String[] paire = element.split("=");
+            if (paire.length != 2) {
+                throw new IllegalArgumentException("Mélange invalide (route=poids attendu) : " + element);
+            }
+            int valeur = Integer.parseInt(paire[1].trim());
+            if (valeur < 0) {
+                throw new IllegalArgumentException("Poids négatif : " + element);
+            }
+            if (valeur > 0) {
+                poids.put(Route.depuisNom(paire[0]), valeur);
+            }
+        }
+        if (poids.isEmpty()) {
+            throw new IllegalArgumentException("Le mélange ne contient aucune route");
+        }
+        return new Melange(poids);
+    }
+
+    /** Tirer une route au hasard selon les poids */
+    Route tirer(Random aleatoire) {
+        int tirage = aleatoire.nextInt(cumuls[cumuls.length - 1]);
+        for (int i = 0; i < cumuls.length; i++) {
+            if (tirage < cumuls[i]) {
+                return routes[i];
+            }
+        }
+        return routes[routes.length - 1];
+    }
+
+    boolean contient(Route route) {
+        return poids.containsKey(route);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texte = new StringBuilder();
+        for (Map.Entry<Route, Integer> entree : poids.entrySet()) {
+            if (texte.length() > 0) {
+                texte.append(',');
+            }
+            texte.append(entree.getKey().getNom()).append('=').append(entree.getValue());
+        }
+        return texte.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.iua.gestionetudiants.charge;
+
+import java.util.Arrays;
+
+/**
+ * Latences relevées pendant la fenêtre de mesure, par route
+ *
+ * Une instance par thread de charge (aucune synchronisation pendant le
+ * test), fusionnées à la fin. Toutes les latences sont gardées : les
+ * percentiles sont exacts (tri), pas estimés.
+ */
+final class Mesures {
+
+    private final long[][] latences = new long[Route.values().length][1024];
+    private final int[] nombres = new int[Route.values().length];
+    private final int[] erreurs = new int[Route.values().length];
+
+    /**
+     * @param dureeNanos Latence de la requête (réponse lue entièrement)
+     * @param succes     false si statut inattendu ou erreur d'entrée-sortie
+     */
+    void enregistrer(Route route, long dureeNanos, boolean succes) {
+        int r = route.ordinal();
+        if (nombres[r] == latences[r].length) {
+            latences[r] = Arrays.copyOf(latences[r], latences[r].length * 2);
+        }
+        latences[r][nombres[r]++] = dureeNanos;
+        if (!succes) {
+            erreurs[r]++;
+        }
+    }
+
+    /** Ajouter les mesures d'un autre thread */
+    void fusionner(Mesures autre) {
+        for (int r = 0; r < nombres.length; r++) {
+            int total = nombres[r] + autre.nombres[r];
+            if (total > latences[r].length) {
+                latences[r] = Arrays.copyOf(latences[r], total);
+            }
+            System.arraycopy(autre.latences[r], 0, latences[r], nombres[r], autre.nombres[r]);
+            nombres[r] = total;
+            erreurs[r] += autre.erreurs[r];
+        }
+    }
+
+    /**
+     * Résultat d'une route (ou de toutes, si route vaut null)
+     *
+     * @param fenetreNanos Durée de la fenêtre de mesure, pour le débit
+     */
+    Resultat resultat(Route route, long fenetreNanos) {
+        long[] triees;
+        int nombreErreurs = 0;
+        if (route != null) {
+            triees = Arrays.copyOf(latences[route.ordinal()], nombres[route.ordinal()]);
+            nombreErreurs = erreurs[route.ordinal()];
+        } else {
+            triees = new long[Arrays.stream(nombres).sum()];
+            int position = 0;
+            for (int r = 0; r < nombres.length; r++) {
+                System.arraycopy(latences[r], 0, triees, position, nombres[r]);
+                position += nombres[r];
+                nombreErreurs += erreurs[r];
+            }
+        }
+        Arrays.sort(triees);
+        return new Resultat(route == null ? "total" : route.getNom(), triees, nombreErreurs, fenetreNanos);
+    }
+
+    /**
+     * Chiffres d'une route : débit et percentiles de latence (en ms)
+     */
+    static final class Resultat {
+        final String route;
+        final int requetes;
+        final int erreurs;
+        final double requetesParSeconde;
+        final double p50;
+        final double p95;
+        final double p99;
+        final double max;
+
+        private Resultat(String route, long[] triees, int erreurs, long fenetreNanos) {
+            this.route = route;
+            this.requetes = triees.length;
+            this.erreurs = erreurs;
+            this.requetesParSeconde = triees.length * 1e9 / fenetreNanos;
+            this.p50 = percentile(triees, 0.50);
+            this.p95 = percentile(triees, 0.95);
+            this.p99 = percentile(triees, 0.99);
+            this.max = triees.length == 0 ? Double.NaN : triees[triees.length - 1] / 1e6;
+        }
+
+        /** Percentile par rang (nearest-rank) sur les latences triées */
+        private static double percentile(long[] triees, double quantile) {
+            if (triees.length == 0) {
+                return Double.NaN;
+            }
+            int rang = (int) Math.ceil(quantile * triees.length);
+            return triees[Math.max(rang, 1) - 1] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.iua.gestionetudiants.charge;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Random;
+
+/**
+ * Routes envoyées par le test de charge
+ *
+ * Chaque route sait construire sa requête pour un étudiant tiré au hasard
+ * et dire si le statut reçu est un succès.
+ */
+enum Route {
+
+    /** GET /etudiants : page JSP de la liste */
+    LISTE("liste") {
+        @Override
+        HttpRequest requete(URI base, long etudiantId, Random aleatoire) {
+            return get(base, "/etudiants");
+        }
+    },
+
+    /** GET /etudiants?action=detail&id= : page JSP du détail (notes + moyenne) */
+    DETAIL("detail") {
+        @Override
+        HttpRequest requete(URI base, long etudiantId, Random aleatoire) {
+            return get(base, "/etudiants?action=detail&id=" + etudiantId);
+        }
+    },
+
+    /** POST /notes (action=creer) : saisie d'une note, suivie d'une redirection */
+    NOTE("note") {
+        @Override
+        HttpRequest requete(URI base, long etudiantId, Random aleatoire) {
+            String formulaire = "action=creer&etudiantId=" + etudiantId
+                    + "&matiere=" + MATIERES[aleatoire.nextInt(MATIERES.length)]
+                    + "&valeur=" + aleatoire.nextInt(21)
+                    + "&coefficient=" + (1 + aleatoire.nextInt(4));
+            return HttpRequest.newBuilder(base.resolve(base.getPath() + "/notes"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(formulaire))
+                    .build();
+        }
+
+        @Override
+        boolean estSucces(int statut) {
+            // Le servlet redirige vers le détail (succès) ou vers la liste (erreur)
+            return statut == 302 || statut == 303;
+        }
+    },
+
+    /** GET /api/etudiants : première page JSON */
+    API_LISTE("api-liste") {
+        @Override
+        HttpRequest requete(URI base, long etudiantId, Random aleatoire) {
+            return get(base, "/api/etudiants");
+        }
+    },
+
+    /** GET /api/etudiants/{id} */
+    API_DETAIL("api-detail") {
+        @Override
+        HttpRequest requete(URI base, long etudiantId, Random aleatoire) {
+            return get(base, "/api/etudiants/" + etudiantId);
+        }
+    },
+
+    /** GET /api/etudiants/{id}/notes */
+    API_NOTES("api-notes") {
+        @Override
+        HttpRequest requete(URI base, long etudiantId, Random aleatoire) {
+            return get(base, "/api/etudiants/" + etudiantId + "/notes");
+        }
+    };
+
+    static final String[] MATIERES = {
+        "Mathematiques", "Physique", "Informatique", "Anglais", "Economie", "Droit"
+    };
+
+    private final String nom;
+
+    Route(String nom) {
+        this.nom = nom;
+    }
+
+    /** Nom court utilisé dans le mélange (-melange) et le rapport */
+    String getNom() {
+        return nom;
+    }
+
+    abstract HttpRequest requete(URI base, long etudiantId, Random aleatoire);
+
+    boolean estSucces(int statut) {
+        return statut >= 200 && statut < 300;
+    }
+
+    static Route depuisNom(String nom) {
+        for (Route route : values()) {
+            if (route.nom.equalsIgnoreCase(nom.trim())) {
+                return route;
+            }
+        }
+        throw new IllegalArgumentException("Route inconnue : " + nom);
+    }
+
+    private static HttpRequest get(URI base, String chemin) {
+        return HttpRequest.newBuilder(base.resolve(base.getPath() + chemin))
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+}
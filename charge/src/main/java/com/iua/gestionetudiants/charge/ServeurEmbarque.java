@@ -0,0 +1,114 @@
+package com.iua.gestionetudiants.charge;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tomcat embarqué qui déploie le WAR de l'application sur une base H2 en
+ * mémoire (mode MySQL)
+ *
+ * Le WAR est déployé tel quel (avec son persistence.xml) : la connexion et
+ * le dialecte sont remplacés par des <context-param> "persistance.*", que
+ * l'ApplicationListener transmet à la persistance. Le driver H2 est chargé
+ * par Tomcat, hors du WAR.
+ *
+ * Les requêtes sont traitées soit par le pool de threads du connecteur
+ * (threads de plateforme, maxThreads), soit par un thread virtuel chacune
+ * (useVirtualThreads, Java 21).
+ */
+final class ServeurEmbarque implements AutoCloseable {
+
+    static final String CHEMIN_CONTEXTE = "/GestionEtudiants";
+
+    private final Tomcat tomcat;
+    private final URI base;
+
+    /**
+     * @param war             Le WAR de l'application (target/GestionEtudiants.war)
+     * @param port            Port HTTP (0 : port libre quelconque)
+     * @param threads         Threads de traitement des requêtes
+     * @param threadsMaximum  Taille du pool du connecteur (threads de plateforme)
+     * @param accesBase       Accès simultanés à la base (0 : borné par le pool de connexions seul)
+     */
+    ServeurEmbarque(Path war, int port, Threads threads, int threadsMaximum, int accesBase)
+            throws IOException, LifecycleException {
+        if (!Files.isRegularFile(war)) {
+            throw new IllegalArgumentException("WAR introuvable : " + war.toAbsolutePath()
+                    + " (lancer d'abord mvn package à la racine du projet)");
+        }
+        if (threads == Threads.VIRTUELS && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Threads virtuels : Java 21 requis (Java " + Runtime.version() + ")");
+        }
+        Path dossier = Files.createTempDirectory("charge-tomcat");
+        Files.createDirectories(dossier.resolve("webapps"));
+
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(dossier.toString());
+        tomcat.setPort(port);
+        Connector connecteur = tomcat.getConnector();
+        if (threads == Threads.VIRTUELS) {
+            if (!connecteur.setProperty("useVirtualThreads", "true")) {
+                throw new IllegalStateException("Ce Tomcat ne sait pas traiter les requêtes sur des threads virtuels");
+            }
+        } else {
+            connecteur.setProperty("maxThreads", String.valueOf(threadsMaximum));
+        }
+
+        Context contexte = tomcat.addWebapp(CHEMIN_CONTEXTE, war.toAbsolutePath().toString());
+        for (Map.Entry<String, String> parametre : parametresPersistance().entrySet()) {
+            contexte.addParameter(parametre.getKey(), parametre.getValue());
+        }
+        contexte.addParameter("pool.accesSimultanesMaximum", String.valueOf(accesBase));
+
+        tomcat.start();
+        if (!contexte.getState().isAvailable()) {
+            close();
+            throw new IllegalStateException("Le déploiement du WAR a échoué (voir les journaux de Tomcat)");
+        }
+        base = URI.create("http://localhost:" + tomcat.getConnector().getLocalPort() + CHEMIN_CONTEXTE);
+    }
+
+    /** URL de l'application déployée */
+    URI getBase() {
+        return base;
+    }
+
+    private static Map<String, String> parametresPersistance() {
+        Map<String, String> parametres = new LinkedHashMap<>();
+        parametres.put("persistance.jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        parametres.put("persistance.jakarta.persistence.jdbc.url",
+                "jdbc:h2:mem:charge;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        parametres.put("persistance.jakarta.persistence.jdbc.user", "sa");
+        parametres.put("persistance.jakarta.persistence.jdbc.password", "");
+        parametres.put("persistance.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        parametres.put("persistance.hibernate.hbm2ddl.auto", "create-drop");
+        parametres.put("persistance.hibernate.show_sql", "false");
+        parametres.put("persistance.hibernate.format_sql", "false");
+        return parametres;
+    }
+
+    /**
+     * Threads qui traitent les requêtes HTTP
+     */
+    enum Threads {
+        /** Pool borné de threads de plateforme (maxThreads) */
+        PLATEFORME,
+        /** Un thread virtuel par requête (Java 21) */
+        VIRTUELS
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
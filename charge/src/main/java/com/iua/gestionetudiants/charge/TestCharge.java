@@ -0,0 +1,218 @@
+package com.iua.gestionetudiants.charge;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Point d'entrée de charge.jar : test de charge reproductible
+ *
+ * 1. Démarre le WAR dans un Tomcat embarqué sur une base H2 en mémoire
+ *    (ou vise une application déjà déployée avec -url)
+ * 2. Importe un jeu de données (étudiants et notes) par l'API d'import CSV
+ * 3. Pour chaque niveau de concurrence : N threads envoient des requêtes
+ *    en boucle fermée (une requête à la fois par thread, sans pause),
+ *    d'abord pendant l'échauffement (non mesuré), puis pendant la durée
+ *    de mesure
+ * 4. Affiche, par route : requêtes, erreurs, débit (req/s), latences
+ *    p50/p95/p99/max en ms ; et les écrit en CSV avec -sortie
+ *
+ * Options (toutes facultatives) :
+ *   -war chemin            WAR à déployer (../target/GestionEtudiants.war)
+ *   -url http://...        application déjà déployée (pas de Tomcat embarqué)
+ *   -port n                port du Tomcat embarqué (0 : port libre)
+ *   -threads plateforme    threads du Tomcat embarqué : plateforme (pool maxThreads)
+ *                          ou virtuels (un thread virtuel par requête, Java 21)
+ *   -threadsMaximum n      taille du pool de threads de plateforme (200)
+ *   -accesBase n           accès simultanés à la base (0 : pool de connexions seul)
+ *   -etudiants n           étudiants importés avant le test (1000 ; 0 : aucun import)
+ *   -notes n               notes importées par étudiant (10)
+ *   -concurrence 1,8,32    niveaux de concurrence, testés l'un après l'autre (8)
+ *   -echauffement s        secondes d'échauffement par niveau (10)
+ *   -duree s               secondes de mesure par niveau (30)
+ *   -melange route=poids,...  (voir Melange.PAR_DEFAUT)
+ *   -graine n              graine des tirages aléatoires (1)
+ *   -sortie fichier.csv    résultats CSV (ajoutés à la fin du fichier)
+ */
+public final class TestCharge {
+
+    private TestCharge() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = lireOptions(args);
+        Melange melange = Melange.lire(options.getOrDefault("melange", Melange.PAR_DEFAUT));
+        int etudiants = Integer.parseInt(options.getOrDefault("etudiants", "1000"));
+        int notes = Integer.parseInt(options.getOrDefault("notes", "10"));
+        int echauffement = Integer.parseInt(options.getOrDefault("echauffement", "10"));
+        int duree = Integer.parseInt(options.getOrDefault("duree", "30"));
+        long graine = Long.parseLong(options.getOrDefault("graine", "1"));
+        ServeurEmbarque.Threads threads = ServeurEmbarque.Threads.valueOf(
+                options.getOrDefault("threads", "plateforme").toUpperCase(Locale.ROOT));
+        List<Integer> niveaux = new ArrayList<>();
+        for (String niveau : options.getOrDefault("concurrence", "8").split(",")) {
+            niveaux.add(Integer.parseInt(niveau.trim()));
+        }
+
+        ServeurEmbarque serveur = null;
+        URI base;
+        long premierMatricule = 1;
+        if (options.containsKey("url")) {
+            base = URI.create(options.get("url").replaceAll("/+$", ""));
+            // Base persistante : matricules différents à chaque lancement
+            premierMatricule = Instant.now().getEpochSecond() * 1000;
+        } else {
+            serveur = new ServeurEmbarque(Path.of(options.getOrDefault("war", "../target/GestionEtudiants.war")),
+                    Integer.parseInt(options.getOrDefault("port", "0")),
+                    threads,
+                    Integer.parseInt(options.getOrDefault("threadsMaximum", "200")),
+                    Integer.parseInt(options.getOrDefault("accesBase", "0")));
+            base = serveur.getBase();
+        }
+        String modeThreads = serveur == null ? "distant" : threads.name().toLowerCase(Locale.ROOT);
+
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            System.out.println("Application : " + base + " (threads : " + modeThreads + ")");
+            if (etudiants > 0) {
+                JeuDonneesCharge.importer(client, base, etudiants, notes, premierMatricule);
+            }
+            long[] ids = JeuDonneesCharge.identifiants(client, base);
+            if (ids.length == 0) {
+                throw new IllegalStateException("Aucun étudiant en base : rien à charger");
+            }
+            System.out.println(ids.length + " étudiant(s), mélange " + melange);
+
+            for (int concurrence : niveaux) {
+                Mesures mesures = executer(client, base, ids, melange, concurrence,
+                        Duration.ofSeconds(echauffement), Duration.ofSeconds(duree), graine);
+                List<Mesures.Resultat> resultats = new ArrayList<>();
+                for (Route route : Route.values()) {
+                    if (melange.contient(route)) {
+                        resultats.add(mesures.resultat(route, Duration.ofSeconds(duree).toNanos()));
+                    }
+                }
+                resultats.add(mesures.resultat(null, Duration.ofSeconds(duree).toNanos()));
+                afficher(resultats);
+                if (options.containsKey("sortie")) {
+                    ecrireCsv(Path.of(options.get("sortie")), modeThreads, concurrence, resultats);
+                }
+            }
+        } finally {
+            if (serveur != null) {
+                serveur.close();
+            }
+        }
+    }
+
+    /**
+     * Un palier de charge : "concurrence" threads en boucle fermée
+     */
+    private static Mesures executer(HttpClient client, URI base, long[] ids, Melange melange, int concurrence,
+                                    Duration echauffement, Duration duree, long graine) throws InterruptedException {
+        long debutMesure = System.nanoTime() + echauffement.toNanos();
+        long fin = debutMesure + duree.toNanos();
+        System.out.printf("%nConcurrence %d : %d s d'échauffement, %d s de mesure%n",
+                concurrence, echauffement.getSeconds(), duree.getSeconds());
+
+        Mesures[] parThread = new Mesures[concurrence];
+        Thread[] threads = new Thread[concurrence];
+        for (int t = 0; t < concurrence; t++) {
+            Mesures mesures = new Mesures();
+            Random aleatoire = new Random(graine * 1_000_003 + t);
+            parThread[t] = mesures;
+            threads[t] = new Thread(() -> {
+                long maintenant;
+                while ((maintenant = System.nanoTime()) < fin) {
+                    Route route = melange.tirer(aleatoire);
+                    HttpRequest requete = route.requete(base, ids[aleatoire.nextInt(ids.length)], aleatoire);
+                    boolean succes;
+                    try {
+                        HttpResponse<Void> reponse = client.send(requete, HttpResponse.BodyHandlers.discarding());
+                        succes = route.estSucces(reponse.statusCode());
+                    } catch (IOException e) {
+                        succes = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (maintenant >= debutMesure) {
+                        mesures.enregistrer(route, System.nanoTime() - maintenant, succes);
+                    }
+                }
+            }, "charge-" + t);
+            threads[t].start();
+        }
+
+        Mesures total = new Mesures();
+        for (int t = 0; t < concurrence; t++) {
+            threads[t].join();
+            total.fusionner(parThread[t]);
+        }
+        return total;
+    }
+
+    private static void afficher(List<Mesures.Resultat> resultats) {
+        System.out.printf("%-12s %10s %8s %10s %10s %10s %10s %10s%n",
+                "route", "requetes", "erreurs", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Mesures.Resultat r : resultats) {
+            System.out.printf(Locale.ROOT, "%-12s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    r.route, r.requetes, r.erreurs, r.requetesParSeconde, r.p50, r.p95, r.p99, r.max);
+        }
+    }
+
+    private static void ecrireCsv(Path fichier, String threads, int concurrence, List<Mesures.Resultat> resultats)
+            throws IOException {
+        boolean nouveau = !Files.exists(fichier);
+        if (fichier.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(fichier.toAbsolutePath().getParent());
+        }
+        try (PrintWriter sortie = new PrintWriter(Files.newBufferedWriter(fichier, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (nouveau) {
+                sortie.println("date;version;threads;concurrence;route;requetes;erreurs;req_s;p50_ms;p95_ms;p99_ms;max_ms");
+            }
+            String date = Instant.now().toString();
+            String version = System.getProperty("version", "dev");
+            for (Mesures.Resultat r : resultats) {
+                sortie.println(String.format(Locale.ROOT, "%s;%s;%s;%d;%s;%d;%d;%.1f;%.3f;%.3f;%.3f;%.3f",
+                        date, version, threads, concurrence, r.route, r.requetes, r.erreurs,
+                        r.requetesParSeconde, r.p50, r.p95, r.p99, r.max));
+            }
+        }
+    }
+
+    /**
+     * Options de la forme "-nom valeur"
+     */
+    private static Map<String, String> lireOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("-") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Option invalide : " + args[i] + " (forme attendue : -nom valeur)");
+            }
+            options.put(args[i].substring(1), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,56 @@
+package com.iua.gestionetudiants.controller;
+
+import com.iua.gestionetudiants.dto.Classement;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+import com.iua.gestionetudiants.service.ClassementService;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Servlet controleur du classement general
+ *
+ * EXEMPLES D'URLS GEREES :
+ * - /classement                  → Premiere page du classement
+ * - /classement?page=3&taille=100 → Troisieme page de 100 etudiants
+ */
+@WebServlet("/classement")
+public class ClassementServlet extends HttpServlet {
+
+    private static final Minuteur MESURE_CLASSER = Metriques.servlet("ClassementServlet.classer");
+
+    private ClassementService classementService = new ClassementService();
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        try {
+            MESURE_CLASSER.mesurerAction(() -> {
+                int page = lireEntier(request.getParameter("page"), 1);
+                int taille = lireEntier(request.getParameter("taille"), ClassementService.TAILLE_PAR_DEFAUT);
+
+                Classement classement = classementService.classer(page, taille);
+                request.setAttribute("classement", classement);
+                request.getRequestDispatcher("/WEB-INF/classement.jsp").forward(request, response);
+            });
+        } catch (Exception e) {
+            request.setAttribute("erreur", e.getMessage());
+            request.getRequestDispatcher("/WEB-INF/erreur.jsp").forward(request, response);
+        }
+    }
+
+    /**
+     * Lire un parametre entier optionnel
+     */
+    private int lireEntier(String valeur, int parDefaut) {
+        if (valeur == null || valeur.trim().isEmpty()) {
+            return parDefaut;
+        }
+        return Integer.parseInt(valeur.trim());
+    }
+}
@@ -1,5 +1,11 @@
 package com.iua.gestionetudiants.controller;
 
+import com.iua.gestionetudiants.dao.CritereListeEtudiants;
+import com.iua.gestionetudiants.dao.Page;
+import com.iua.gestionetudiants.dao.ResultatRecherche;
+import com.iua.gestionetudiants.dto.EtudiantResume;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
 import com.iua.gestionetudiants.model.Etudiant;
 import com.iua.gestionetudiants.service.EtudiantService;
 import com.iua.gestionetudiants.service.NoteService;
@@ -11,7 +17,6 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.util.List;
 
 /**
  * ===========================================================================
@@ -57,7 +62,9 @@ import java.util.List;
  *   seront traitees par ce Servlet
  *
  * EXEMPLES D'URLS GEREES :
- * - /etudiants                           → Liste tous les etudiants
+ * - /etudiants                           → Liste les etudiants (page par page)
+ * - /etudiants?nom=Kou&apres=...         → Page suivante, filtree par nom
+ * - /etudiants?q=kouassi aya             → Recherche (nom, prenom, matricule, email)
  * - /etudiants?action=ajouter            → Affiche formulaire d'ajout
  * - /etudiants?action=detail&id=1        → Affiche details de l'etudiant 1
  * - /etudiants?action=modifier&id=2      → Affiche formulaire de modification
@@ -84,6 +91,18 @@ public class EtudiantServlet extends HttpServlet {
      */
     private NoteService noteService = new NoteService();
 
+    // ===================================================================
+    // MESURES DES ACTIONS (Metriques, GET /api/metrics)
+    // ===================================================================
+    private static final Minuteur MESURE_LISTE = Metriques.servlet("EtudiantServlet.liste");
+    private static final Minuteur MESURE_DETAIL = Metriques.servlet("EtudiantServlet.detail");
+    private static final Minuteur MESURE_AJOUTER = Metriques.servlet("EtudiantServlet.ajouter");
+    private static final Minuteur MESURE_MODIFIER = Metriques.servlet("EtudiantServlet.modifier");
+    private static final Minuteur MESURE_SUPPRIMER = Metriques.servlet("EtudiantServlet.supprimer");
+    private static final Minuteur MESURE_CREER = Metriques.servlet("EtudiantServlet.creer");
+    private static final Minuteur MESURE_ENREGISTRER_MODIFICATION = Metriques.servlet("EtudiantServlet.enregistrerModification");
+    private static final Minuteur MESURE_AUTRE = Metriques.servlet("EtudiantServlet.autre");
+
     // ===================================================================
     // METHODE doGet() - GERER LES REQUETES HTTP GET
     // ===================================================================
@@ -116,36 +135,39 @@ public class EtudiantServlet extends HttpServlet {
         // Exemple : /etudiants?action=detail → action = "detail"
         //           /etudiants                → action = null
         String action = request.getParameter("action");
+        Minuteur mesure = mesureGet(action);
 
         try {
-            // 2. ROUTER LA REQUETE SELON L'ACTION DEMANDEE
-            if (action == null) {
-                // Aucune action specifiee → Afficher la liste par defaut
-                listerEtudiants(request, response);
-            } else {
-                // Une action est specifiee → Router selon le cas
-                switch (action) {
-                    case "detail":
-                        // Afficher les details d'un etudiant avec ses notes
-                        afficherDetail(request, response);
-                        break;
-                    case "ajouter":
-                        // Afficher le formulaire d'ajout d'un nouvel etudiant
-                        afficherFormulaireAjout(request, response);
-                        break;
-                    case "modifier":
-                        // Afficher le formulaire de modification
-                        afficherFormulaireModification(request, response);
-                        break;
-                    case "supprimer":
-                        // Supprimer un etudiant
-                        supprimerEtudiant(request, response);
-                        break;
-                    default:
-                        // Action inconnue → Afficher la liste par securite
-                        listerEtudiants(request, response);
+            mesure.mesurerAction(() -> {
+                // 2. ROUTER LA REQUETE SELON L'ACTION DEMANDEE
+                if (action == null) {
+                    // Aucune action specifiee → Afficher la liste par defaut
+                    listerEtudiants(request, response);
+                } else {
+                    // Une action est specifiee → Router selon le cas
+                    switch (action) {
+                        case "detail":
+                            // Afficher les details d'un etudiant avec ses notes
+                            afficherDetail(request, response);
+                            break;
+                        case "ajouter":
+                            // Afficher le formulaire d'ajout d'un nouvel etudiant
+                            afficherFormulaireAjout(request, response);
+                            break;
+                        case "modifier":
+                            // Afficher le formulaire de modification
+                            afficherFormulaireModification(request, response);
+                            break;
+                        case "supprimer":
+                            // Supprimer un etudiant
+                            supprimerEtudiant(request, response);
+                            break;
+                        default:
+                            // Action inconnue → Afficher la liste par securite
+                            listerEtudiants(request, response);
+                    }
                 }
-            }
+            });
         } catch (Exception e) {
             // 3. GESTION DES ERREURS
             // Si une erreur survient, afficher la page d'erreur
@@ -183,19 +205,22 @@ public class EtudiantServlet extends HttpServlet {
         // 1. EXTRAIRE L'ACTION DU FORMULAIRE
         // Le formulaire contient un champ cache : <input type="hidden" name="action" value="creer">
         String action = request.getParameter("action");
+        Minuteur mesure = mesurePost(action);
 
         try {
-            // 2. ROUTER SELON L'ACTION
-            if ("creer".equals(action)) {
-                // L'utilisateur a soumis le formulaire de creation
-                creerEtudiant(request, response);
-            } else if ("modifier".equals(action)) {
-                // L'utilisateur a soumis le formulaire de modification
-                modifierEtudiant(request, response);
-            } else {
-                // Action inconnue → Rediriger vers la liste
-                response.sendRedirect(request.getContextPath() + "/etudiants");
-            }
+            mesure.mesurerAction(() -> {
+                // 2. ROUTER SELON L'ACTION
+                if ("creer".equals(action)) {
+                    // L'utilisateur a soumis le formulaire de creation
+                    creerEtudiant(request, response);
+                } else if ("modifier".equals(action)) {
+                    // L'utilisateur a soumis le formulaire de modification
+                    modifierEtudiant(request, response);
+                } else {
+                    // Action inconnue → Rediriger vers la liste
+                    response.sendRedirect(request.getContextPath() + "/etudiants");
+                }
+            });
         } catch (Exception e) {
             // 3. GESTION DES ERREURS
             request.setAttribute("erreur", e.getMessage());
@@ -203,42 +228,135 @@ public class EtudiantServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Minuteur de l'action GET (meme routage que doGet)
+     */
+    private static Minuteur mesureGet(String action) {
+        if (action == null) {
+            return MESURE_LISTE;
+        }
+        switch (action) {
+            case "detail":
+                return MESURE_DETAIL;
+            case "ajouter":
+                return MESURE_AJOUTER;
+            case "modifier":
+                return MESURE_MODIFIER;
+            case "supprimer":
+                return MESURE_SUPPRIMER;
+            default:
+                return MESURE_LISTE;
+        }
+    }
+
+    /**
+     * Minuteur de l'action POST (meme routage que doPost)
+     */
+    private static Minuteur mesurePost(String action) {
+        if ("creer".equals(action)) {
+            return MESURE_CREER;
+        }
+        if ("modifier".equals(action)) {
+            return MESURE_ENREGISTRER_MODIFICATION;
+        }
+        return MESURE_AUTRE;
+    }
+
     // ===================================================================
     // METHODES PRIVEES - ACTIONS SPECIFIQUES
     // ===================================================================
 
     /**
      * ========================================================================
-     * ACTION : LISTER TOUS LES ETUDIANTS
+     * ACTION : LISTER LES ETUDIANTS (PAGE PAR PAGE)
      * ========================================================================
-     * Cette methode recupere la liste de tous les etudiants et l'affiche
+     * Cette methode recupere UNE PAGE d'etudiants et l'affiche
+     *
+     * PARAMETRES OPTIONNELS DE L'URL :
+     * - nom       : debut du nom recherche (ex: nom=Kou)
+     * - matricule : debut du matricule recherche (ex: matricule=ETU2025)
+     * - ordre     : "desc" pour trier de Z a A
+     * - taille    : nombre d'etudiants par page (20 par defaut, 100 maximum)
+     * - apres     : curseur renvoye par la page precedente
+     * - q         : texte recherche (voir rechercherEtudiants) ; remplace
+     *               les filtres et la pagination
      *
      * FLUX DE TRAITEMENT :
-     * 1. Appeler le Service pour recuperer les etudiants depuis la BDD
-     * 2. Stocker la liste dans la requete (setAttribute)
-     * 3. Transmettre la requete a la JSP (forward)
-     * 4. La JSP affiche les donnees avec JSTL
+     * 1. Lire les filtres et le curseur depuis l'URL
+     * 2. Appeler le Service pour recuperer la page depuis la BDD
+     * 3. Stocker la page dans la requete (setAttribute)
+     * 4. Transmettre la requete a la JSP (forward)
      *
-     * @param request  Pour stocker la liste d'etudiants
+     * @param request  Pour lire les filtres et stocker la page d'etudiants
      * @param response Non utilise ici
      */
     private void listerEtudiants(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        // ETAPE 1 : Appeler la couche Service pour recuperer les donnees
+        // RECHERCHE : la zone de recherche de la liste envoie "q"
+        String recherche = request.getParameter("q");
+        if (recherche != null && !recherche.trim().isEmpty() && rechercherEtudiants(request, recherche)) {
+            request.getRequestDispatcher("/WEB-INF/liste-etudiants.jsp").forward(request, response);
+            return;
+        }
+
+        // ETAPE 1 : Construire les criteres a partir des parametres de l'URL
+        CritereListeEtudiants critere = new CritereListeEtudiants();
+        critere.setPrefixeNom(request.getParameter("nom"));
+        critere.setPrefixeMatricule(request.getParameter("matricule"));
+        critere.setDecroissant("desc".equalsIgnoreCase(request.getParameter("ordre")));
+        critere.setCurseur(request.getParameter("apres"));
+        String taille = request.getParameter("taille");
+        if (taille != null && !taille.trim().isEmpty()) {
+            critere.setTaille(Integer.parseInt(taille.trim()));
+        }
+
+        // ETAPE 2 : Appeler la couche Service pour recuperer la page
         // Le Service appelle le DAO qui execute la requete SQL
-        List<Etudiant> etudiants = etudiantService.listerTous();
+        // Lecture seule : la JSP n'affiche que quelques champs, inutile de
+        // charger des entites gerees (voir EtudiantResume)
+        Page<EtudiantResume> page = etudiantService.listerPageResumes(critere);
 
-        // ETAPE 2 : Stocker les donnees dans la requete
+        // ETAPE 3 : Stocker les donnees dans la requete
         // setAttribute("nom", valeur) rend les donnees accessibles a la JSP
-        request.setAttribute("etudiants", etudiants);
+        request.setAttribute("etudiants", page.getElements());
+        request.setAttribute("page", page);
+        request.setAttribute("taille", critere.getTaille());
 
-        // ETAPE 3 : Transmettre la requete a la JSP
+        // ETAPE 4 : Transmettre la requete a la JSP
         // forward() = Passer la main a la JSP pour afficher les donnees
         // La JSP peut lire les donnees avec ${etudiants}
         request.getRequestDispatcher("/WEB-INF/liste-etudiants.jsp").forward(request, response);
     }
 
+    /**
+     * Recherche d'etudiants par nom, prenom, matricule ou email
+     *
+     * Le Service interroge un index en memoire (pas de requete SQL) : la
+     * recherche ignore les accents et les majuscules, et chaque mot saisi
+     * doit commencer un mot de l'etudiant ("kou aya" trouve KOUASSI Aya).
+     * Seuls les premiers resultats sont affiches (parametre taille), avec
+     * le nombre total de correspondances.
+     *
+     * @return false si la recherche est indisponible (index non charge) :
+     *         la liste normale est affichee avec un message
+     */
+    private boolean rechercherEtudiants(HttpServletRequest request, String recherche) {
+        String taille = request.getParameter("taille");
+        int limite = taille == null || taille.trim().isEmpty() ? 0 : Integer.parseInt(taille.trim());
+        try {
+            ResultatRecherche resultat = etudiantService.rechercher(recherche, limite);
+            request.setAttribute("etudiants", resultat.getEtudiants());
+            request.setAttribute("recherche", resultat);
+            request.setAttribute("taille", limite <= 0 ? CritereListeEtudiants.TAILLE_PAR_DEFAUT
+                    : Math.min(limite, CritereListeEtudiants.TAILLE_MAXIMUM));
+            return true;
+        } catch (IllegalStateException e) {
+            request.setAttribute("erreurRecherche", e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * ========================================================================
      * ACTION : AFFICHER LES DETAILS D'UN ETUDIANT
@@ -273,7 +391,8 @@ public class EtudiantServlet extends HttpServlet {
 
         // ETAPE 4 : Calculer la moyenne ponderee de l'etudiant
         // Le NoteService applique la formule : Σ(note × coef) / Σ(coef)
-        double moyenne = noteService.calculerMoyenne(etudiant.getNotes());
+        // sur les agregats stockes avec l'etudiant (sans reparcourir les notes)
+        double moyenne = noteService.calculerMoyenne(etudiant);
 
         // ETAPE 5 : Stocker les donnees dans la requete
         request.setAttribute("etudiant", etudiant);
@@ -396,21 +515,22 @@ public class EtudiantServlet extends HttpServlet {
             throws Exception {
 
         // ETAPE 1 : RECUPERER LES PARAMETRES
+        // "revision" est la revision de l'etudiant affiche dans le formulaire
         Long id = Long.parseLong(request.getParameter("id"));
+        long revision = Long.parseLong(request.getParameter("revision"));
         String matricule = request.getParameter("matricule");
         String nom = request.getParameter("nom");
         String prenom = request.getParameter("prenom");
         String email = request.getParameter("email");
         String dateNaissanceStr = request.getParameter("dateNaissance");
 
-        // ETAPE 2 : RECUPERER L'ETUDIANT EXISTANT DEPUIS LA BDD
-        Etudiant etudiant = etudiantService.trouverParId(id);
-        if (etudiant == null) {
-            throw new Exception("Etudiant introuvable");
-        }
+        // ETAPE 2 : PREPARER LES NOUVELLES DONNEES
+        // L'etudiant n'est pas relu : l'UPDATE porte sur la revision du formulaire
+        // et echoue si l'etudiant a ete modifie (ou supprime) depuis
+        Etudiant etudiant = new Etudiant();
+        etudiant.setId(id);
 
         // ETAPE 3 : MODIFIER LES DONNEES
-        // On modifie l'objet existant avec les nouvelles valeurs
         etudiant.setMatricule(matricule);
         etudiant.setNom(nom);
         etudiant.setPrenom(prenom);
@@ -422,8 +542,8 @@ public class EtudiantServlet extends HttpServlet {
         }
 
         // ETAPE 4 : ENREGISTRER LES MODIFICATIONS EN BDD
-        // Le Service va valider puis le DAO va executer un UPDATE SQL
-        etudiantService.modifierEtudiant(etudiant);
+        // Le Service va valider puis le DAO va executer UN UPDATE SQL versionne
+        etudiantService.modifierEtudiant(etudiant, revision);
 
         // ETAPE 5 : REDIRIGER VERS LES DETAILS DE L'ETUDIANT
         response.sendRedirect(request.getContextPath() + "/etudiants?action=detail&id=" + id + "&message=Etudiant modifie avec succes");
@@ -1,5 +1,8 @@
 package com.iua.gestionetudiants.controller;
 
+import com.iua.gestionetudiants.dto.NoteCreee;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
 import com.iua.gestionetudiants.model.Etudiant;
 import com.iua.gestionetudiants.model.Note;
 import com.iua.gestionetudiants.service.EtudiantService;
@@ -77,6 +80,14 @@ public class NoteServlet extends HttpServlet {
      */
     private EtudiantService etudiantService = new EtudiantService();
 
+    // ===================================================================
+    // MESURES DES ACTIONS (Metriques, GET /api/metrics)
+    // ===================================================================
+    private static final Minuteur MESURE_AJOUTER = Metriques.servlet("NoteServlet.ajouter");
+    private static final Minuteur MESURE_SUPPRIMER = Metriques.servlet("NoteServlet.supprimer");
+    private static final Minuteur MESURE_CREER = Metriques.servlet("NoteServlet.creer");
+    private static final Minuteur MESURE_AUTRE = Metriques.servlet("NoteServlet.autre");
+
     // ===================================================================
     // METHODE doGet() - GERER LES REQUETES HTTP GET
     // ===================================================================
@@ -101,19 +112,22 @@ public class NoteServlet extends HttpServlet {
 
         // 1. EXTRAIRE L'ACTION DE L'URL
         String action = request.getParameter("action");
+        Minuteur mesure = mesureGet(action);
 
         try {
-            // 2. ROUTER SELON L'ACTION
-            if ("ajouter".equals(action)) {
-                // Afficher le formulaire pour ajouter une note a un etudiant
-                afficherFormulaireAjout(request, response);
-            } else if ("supprimer".equals(action)) {
-                // Supprimer une note existante
-                supprimerNote(request, response);
-            } else {
-                // Action inconnue ou absente → Rediriger vers la liste des etudiants
-                response.sendRedirect(request.getContextPath() + "/etudiants");
-            }
+            mesure.mesurerAction(() -> {
+                // 2. ROUTER SELON L'ACTION
+                if ("ajouter".equals(action)) {
+                    // Afficher le formulaire pour ajouter une note a un etudiant
+                    afficherFormulaireAjout(request, response);
+                } else if ("supprimer".equals(action)) {
+                    // Supprimer une note existante
+                    supprimerNote(request, response);
+                } else {
+                    // Action inconnue ou absente → Rediriger vers la liste des etudiants
+                    response.sendRedirect(request.getContextPath() + "/etudiants");
+                }
+            });
         } catch (Exception e) {
             // 3. GESTION DES ERREURS
             request.setAttribute("erreur", e.getMessage());
@@ -143,16 +157,19 @@ public class NoteServlet extends HttpServlet {
 
         // 1. EXTRAIRE L'ACTION DU FORMULAIRE
         String action = request.getParameter("action");
+        Minuteur mesure = mesurePost(action);
 
         try {
-            // 2. ROUTER SELON L'ACTION
-            if ("creer".equals(action)) {
-                // L'utilisateur a soumis le formulaire d'ajout de note
-                creerNote(request, response);
-            } else {
-                // Action inconnue → Rediriger vers la liste des etudiants
-                response.sendRedirect(request.getContextPath() + "/etudiants");
-            }
+            mesure.mesurerAction(() -> {
+                // 2. ROUTER SELON L'ACTION
+                if ("creer".equals(action)) {
+                    // L'utilisateur a soumis le formulaire d'ajout de note
+                    creerNote(request, response);
+                } else {
+                    // Action inconnue → Rediriger vers la liste des etudiants
+                    response.sendRedirect(request.getContextPath() + "/etudiants");
+                }
+            });
         } catch (Exception e) {
             // 3. GESTION DES ERREURS
             request.setAttribute("erreur", e.getMessage());
@@ -160,6 +177,26 @@ public class NoteServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Minuteur de l'action GET (meme routage que doGet)
+     */
+    private static Minuteur mesureGet(String action) {
+        if ("ajouter".equals(action)) {
+            return MESURE_AJOUTER;
+        }
+        if ("supprimer".equals(action)) {
+            return MESURE_SUPPRIMER;
+        }
+        return MESURE_AUTRE;
+    }
+
+    /**
+     * Minuteur de l'action POST (meme routage que doPost)
+     */
+    private static Minuteur mesurePost(String action) {
+        return "creer".equals(action) ? MESURE_CREER : MESURE_AUTRE;
+    }
+
     // ===================================================================
     // METHODES PRIVEES - ACTIONS SPECIFIQUES
     // ===================================================================
@@ -215,11 +252,10 @@ public class NoteServlet extends HttpServlet {
      *
      * FLUX DE TRAITEMENT :
      * 1. Recuperer les parametres du formulaire
-     * 2. Verifier que l'etudiant existe
-     * 3. Creer l'objet Note
-     * 4. Associer la note a l'etudiant
-     * 5. Appeler NoteService pour valider et enregistrer
-     * 6. Rediriger vers la page de l'etudiant
+     * 2. Creer l'objet Note
+     * 3. Appeler NoteService pour valider et enregistrer, avec l'ID de
+     *    l'etudiant (sans le charger)
+     * 4. Rediriger vers la page de l'etudiant, avec la nouvelle moyenne
      *
      * EXEMPLE DE FORMULAIRE :
      * - etudiantId = 1
@@ -231,7 +267,7 @@ public class NoteServlet extends HttpServlet {
      * - La matiere est obligatoire
      * - La valeur doit etre entre 0 et 20 (systeme ivoirien)
      * - Le coefficient doit etre > 0
-     * - L'etudiant doit exister
+     * - L'etudiant doit exister (cle etrangere de la table note)
      *
      * @param request  Pour recuperer les donnees du formulaire
      * @param response Pour rediriger apres creation
@@ -246,37 +282,35 @@ public class NoteServlet extends HttpServlet {
         Double valeur = Double.parseDouble(request.getParameter("valeur"));
         Integer coefficient = Integer.parseInt(request.getParameter("coefficient"));
 
-        // ETAPE 2 : VERIFIER QUE L'ETUDIANT EXISTE
-        // IMPORTANT : On ne peut pas ajouter une note a un etudiant inexistant
-        Etudiant etudiant = etudiantService.trouverParId(etudiantId);
-        if (etudiant == null) {
-            throw new Exception("Etudiant introuvable");
-        }
-
-        // ETAPE 3 : CREER L'OBJET NOTE
+        // ETAPE 2 : CREER L'OBJET NOTE
         Note note = new Note();
         note.setMatiere(matiere);
         note.setValeur(valeur);
         note.setCoefficient(coefficient);
 
-        // ETAPE 4 : ASSOCIER LA NOTE A L'ETUDIANT
+        // ETAPE 3 : APPELER NoteService POUR VALIDER ET ENREGISTRER
         // IMPORTANT : Une note est TOUJOURS liee a un etudiant
         // C'est une relation ManyToOne (Plusieurs notes → Un etudiant)
-        note.setEtudiant(etudiant);
-
-        // ETAPE 5 : APPELER NoteService POUR VALIDER ET ENREGISTRER
+        // L'etudiant n'est pas charge : seul son ID est transmis, le DAO
+        // rattache la note par reference et la cle etrangere refuse un
+        // etudiant inexistant
         // Le NoteService va :
         // 1. Valider la matiere (non vide)
         // 2. Valider la valeur (0 <= valeur <= 20)
         // 3. Valider le coefficient (> 0)
         // 4. Appeler NoteDAO pour executer l'INSERT en BDD
-        noteService.creerNote(note);
+        //    (un etudiant inexistant est signale par la cle etrangere)
+        // Il retourne la nouvelle moyenne de l'etudiant
+        NoteCreee creee = noteService.creerNote(note, etudiantId);
 
-        // ETAPE 6 : REDIRIGER VERS LA PAGE DE L'ETUDIANT
+        // ETAPE 4 : REDIRIGER VERS LA PAGE DE L'ETUDIANT
         // L'utilisateur retourne sur la page de details de l'etudiant
         // La nouvelle note apparait dans la liste
-        // La moyenne est recalculee automatiquement
-        response.sendRedirect(request.getContextPath() + "/etudiants?action=detail&id=" + etudiantId + "&message=Note ajoutee avec succes");
+        // Sans resultat : la note est dans la file d'ecriture differee
+        String message = creee != null
+                ? "Note ajoutee avec succes, nouvelle moyenne " + creee.getMoyenne() + "/20"
+                : "Note enregistree, ecriture en cours";
+        response.sendRedirect(request.getContextPath() + "/etudiants?action=detail&id=" + etudiantId + "&message=" + message);
     }
 
     /**
@@ -0,0 +1,90 @@
+package com.iua.gestionetudiants.dao;
+
+import com.iua.gestionetudiants.dto.Classement;
+import com.iua.gestionetudiants.dto.LigneClassement;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+/**
+ * DAO du classement general des etudiants
+ *
+ * Le classement complet est calcule par UNE requete SQL, a partir des
+ * agregats de notes stockes sur chaque etudiant (somme ponderee, somme
+ * des coefficients) : ni jointure sur la table note, ni calcul par etudiant.
+ * Les fonctions de fenetrage (MySQL 8) donnent dans la meme requete le rang,
+ * le nombre d'etudiants classes et le nombre d'admis.
+ */
+public class ClassementDAO {
+
+    // Mesures des methodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_CLASSER = Metriques.dao("ClassementDAO.classer");
+
+    /**
+     * Moyenne arrondie a 2 decimales comme NoteService.calculerMoyenne
+     * (passage en DECIMAL : arrondi exact, les ex aequo le sont a l'affichage)
+     * RANK() : classement "sportif", deux premiers ex aequo puis 3e
+     * Parametres : seuil d'admission, nombre de lignes, decalage
+     */
+    private static final String SQL_CLASSEMENT =
+        "SELECT id, matricule, nom, prenom, nombre_notes, moyenne, "
+        + "RANK() OVER (ORDER BY moyenne DESC) AS rang, "
+        + "COUNT(*) OVER () AS classes, "
+        + "SUM(CASE WHEN moyenne >= ? THEN 1 ELSE 0 END) OVER () AS admis "
+        + "FROM (SELECT id, matricule, nom, prenom, nombre_notes, "
+        + "ROUND(CAST(somme_ponderee / somme_coefficients AS DECIMAL(12, 6)), 2) AS moyenne "
+        + "FROM etudiant WHERE somme_coefficients > 0) m "
+        + "ORDER BY rang, nom, prenom, id "
+        + "LIMIT ? OFFSET ?";
+
+    /**
+     * Lire une page du classement
+     *
+     * @param page        Numero de page (a partir de 1)
+     * @param taille      Nombre d'etudiants par page
+     * @param seuilAdmission Moyenne minimale pour etre admis
+     */
+    public Classement classer(int page, int taille, double seuilAdmission) {
+        return MESURE_CLASSER.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                @SuppressWarnings("unchecked")
+                List<Object[]> resultats = em.createNativeQuery(SQL_CLASSEMENT)
+                    .setParameter(1, seuilAdmission)
+                    .setParameter(2, taille)
+                    .setParameter(3, (long) (page - 1) * taille)
+                    .getResultList();
+
+                Classement classement = new Classement();
+                classement.setPage(page);
+                classement.setTaille(taille);
+                for (Object[] ligne : resultats) {
+                    LigneClassement lc = new LigneClassement();
+                    lc.setEtudiantId(((Number) ligne[0]).longValue());
+                    lc.setMatricule((String) ligne[1]);
+                    lc.setNom((String) ligne[2]);
+                    lc.setPrenom((String) ligne[3]);
+                    lc.setNombreNotes(((Number) ligne[4]).intValue());
+                    lc.setMoyenne(((Number) ligne[5]).doubleValue());
+                    lc.setRang(((Number) ligne[6]).intValue());
+                    lc.setAdmis(lc.getMoyenne() >= seuilAdmission);
+                    classement.getLignes().add(lc);
+                    classement.setEtudiantsClasses(((Number) ligne[7]).longValue());
+                    classement.setNombreAdmis(((Number) ligne[8]).longValue());
+                }
+
+                // Page au-dela de la derniere : les totaux ne sont pas dans le resultat
+                if (resultats.isEmpty() && page > 1) {
+                    Number classes = (Number) em.createNativeQuery(
+                        "SELECT COUNT(*) FROM etudiant WHERE somme_coefficients > 0").getSingleResult();
+                    classement.setEtudiantsClasses(classes.longValue());
+                }
+                return classement;
+            } finally {
+                em.close();
+            }
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package com.iua.gestionetudiants.dao;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fournisseur de connexions qui borne le nombre d'acces simultanes a la
+ * base, devant le pool HikariCP
+ *
+ * Avec des threads virtuels, le nombre de requetes traitees en meme temps
+ * n'est plus borne par le pool de threads du conteneur : des milliers de
+ * threads peuvent demander une connexion au meme moment. Le semaphore
+ * (equitable : premier arrive, premier servi) les fait attendre sans
+ * occuper de thread porteur, et l'attente est exposee dans
+ * statistiquesPool().
+ *
+ * Un permis est pris avant d'emprunter la connexion et rendu apres l'avoir
+ * rendue au pool ; au-dela du delai d'attente, la demande echoue comme une
+ * expiration du pool.
+ */
+class ConnexionsLimitees implements ConnectionProvider, Configurable, Stoppable {
+
+    private final ConnectionProvider pool;
+    private final int maximum;
+    private final long delaiMs;
+    private final Semaphore permis;
+    private final LongAdder nombreRefus = new LongAdder();
+
+    /**
+     * @param pool    Le fournisseur de connexions reel (HikariCP)
+     * @param maximum Nombre maximum de connexions empruntees en meme temps
+     * @param delaiMs Attente maximale d'un permis
+     */
+    ConnexionsLimitees(ConnectionProvider pool, int maximum, long delaiMs) {
+        this.pool = pool;
+        this.maximum = maximum;
+        this.delaiMs = delaiMs;
+        this.permis = new Semaphore(maximum, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try {
+            if (!permis.tryAcquire(delaiMs, TimeUnit.MILLISECONDS)) {
+                nombreRefus.increment();
+                throw new SQLTransientConnectionException("Acces a la base indisponible : " + maximum
+                        + " acces simultanes deja en cours apres " + delaiMs + " ms d'attente");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Attente d'un acces a la base interrompue", e);
+        }
+        try {
+            return pool.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            permis.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void closeConnection(Connection connexion) throws SQLException {
+        try {
+            pool.closeConnection(connexion);
+        } finally {
+            permis.release();
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return pool.supportsAggressiveRelease();
+    }
+
+    @Override
+    public void configure(Map<String, Object> configuration) {
+        if (pool instanceof Configurable) {
+            ((Configurable) pool).configure(configuration);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (pool instanceof Stoppable) {
+            ((Stoppable) pool).stop();
+        }
+    }
+
+    /**
+     * Le pool reste accessible (statistiquesPool() y lit la DataSource)
+     */
+    @Override
+    public boolean isUnwrappableAs(Class<?> type) {
+        return type.isInstance(this) || pool.isUnwrappableAs(type);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return type.isInstance(this) ? type.cast(this) : pool.unwrap(type);
+    }
+
+    /**
+     * Copier les compteurs dans les statistiques exposees
+     */
+    void remplir(StatistiquesPool statistiques) {
+        statistiques.setAccesSimultanesMaximum(maximum);
+        statistiques.setThreadsEnAttenteAcces(permis.getQueueLength());
+        statistiques.setNombreRefusAcces(nombreRefus.sum());
+    }
+}
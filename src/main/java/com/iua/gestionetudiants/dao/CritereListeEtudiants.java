@@ -0,0 +1,61 @@
+package com.iua.gestionetudiants.dao;
+
+/**
+ * Criteres de la liste paginee des etudiants
+ *
+ * - Tri : toujours sur (nom, prenom, id), croissant ou decroissant
+ * - Filtres optionnels : debut du nom, debut du matricule
+ * - Pagination : curseur de la page precedente + taille de page
+ */
+public class CritereListeEtudiants {
+
+    public static final int TAILLE_PAR_DEFAUT = 20;
+    public static final int TAILLE_MAXIMUM = 100;
+
+    private String prefixeNom;
+    private String prefixeMatricule;
+    private boolean decroissant;
+    private String curseur;
+    private int taille = TAILLE_PAR_DEFAUT;
+
+    // Getters et Setters
+    public String getPrefixeNom() {
+        return prefixeNom;
+    }
+
+    public void setPrefixeNom(String prefixeNom) {
+        this.prefixeNom = prefixeNom;
+    }
+
+    public String getPrefixeMatricule() {
+        return prefixeMatricule;
+    }
+
+    public void setPrefixeMatricule(String prefixeMatricule) {
+        this.prefixeMatricule = prefixeMatricule;
+    }
+
+    public boolean isDecroissant() {
+        return decroissant;
+    }
+
+    public void setDecroissant(boolean decroissant) {
+        this.decroissant = decroissant;
+    }
+
+    public String getCurseur() {
+        return curseur;
+    }
+
+    public void setCurseur(String curseur) {
+        this.curseur = curseur;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public void setTaille(int taille) {
+        this.taille = taille;
+    }
+}
@@ -0,0 +1,63 @@
+package com.iua.gestionetudiants.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination sur la cle de tri (nom, prenom, id)
+ *
+ * Encode la position du dernier etudiant d'une page sous forme de jeton
+ * Base64 URL-safe, pour demander "les etudiants situes apres celui-ci".
+ */
+final class CurseurEtudiant {
+
+    private static final char SEPARATEUR = '\u001F';
+
+    final String nom;
+    final String prenom;
+    final long id;
+
+    CurseurEtudiant(String nom, String prenom, long id) {
+        this.nom = nom;
+        this.prenom = prenom;
+        this.id = id;
+    }
+
+    /**
+     * Encoder le curseur en jeton opaque
+     */
+    String encoder() {
+        String brut = nom + SEPARATEUR + prenom + SEPARATEUR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decoder un jeton recu d'un client
+     *
+     * @throws IllegalArgumentException Si le jeton est invalide
+     */
+    static CurseurEtudiant decoder(String jeton) {
+        String brut;
+        try {
+            brut = new String(Base64.getUrlDecoder().decode(jeton), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+
+        int premier = brut.indexOf(SEPARATEUR);
+        int second = brut.indexOf(SEPARATEUR, premier + 1);
+        if (premier < 0 || second < 0) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+
+        try {
+            return new CurseurEtudiant(
+                    brut.substring(0, premier),
+                    brut.substring(premier + 1, second),
+                    Long.parseLong(brut.substring(second + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+    }
+}
@@ -1,174 +1,730 @@
 package com.iua.gestionetudiants.dao;
 
+import com.iua.gestionetudiants.dto.EtudiantResume;
+import com.iua.gestionetudiants.dto.RevisionEtudiant;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
 import com.iua.gestionetudiants.model.Etudiant;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * DAO (Data Access Object) pour la gestion des étudiants
  * Couche Persistance - Accès à la base de données via JPA
+ * L'EntityManagerFactory est partagée et gérée par PersistenceManager
  */
 public class EtudiantDAO {
 
-    private static EntityManagerFactory emf = Persistence.createEntityManagerFactory("GestionEtudiantsPU");
+    // Mesures des méthodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_CREER = Metriques.dao("EtudiantDAO.creer");
+    private static final Minuteur MESURE_CREER_EN_LOT = Metriques.dao("EtudiantDAO.creerEnLot");
+    private static final Minuteur MESURE_TROUVER_PAR_ID = Metriques.dao("EtudiantDAO.trouverParId");
+    private static final Minuteur MESURE_TROUVER_REVISION = Metriques.dao("EtudiantDAO.trouverRevision");
+    private static final Minuteur MESURE_TROUVER_PAR_MATRICULE = Metriques.dao("EtudiantDAO.trouverParMatricule");
+    private static final Minuteur MESURE_FILTRER_IDS_EXISTANTS = Metriques.dao("EtudiantDAO.filtrerIdsExistants");
+    private static final Minuteur MESURE_TROUVER_IDS_PAR_MATRICULES = Metriques.dao("EtudiantDAO.trouverIdsParMatricules");
+    private static final Minuteur MESURE_LISTER_TOUS = Metriques.dao("EtudiantDAO.listerTous");
+    private static final Minuteur MESURE_LISTER_PAGE = Metriques.dao("EtudiantDAO.listerPage");
+    private static final Minuteur MESURE_LISTER_RESUMES = Metriques.dao("EtudiantDAO.listerResumes");
+    private static final Minuteur MESURE_LISTER_PAGE_RESUMES = Metriques.dao("EtudiantDAO.listerPageResumes");
+    private static final Minuteur MESURE_PARCOURIR_TOUS = Metriques.dao("EtudiantDAO.parcourirTous");
+    private static final Minuteur MESURE_PARCOURIR_MATRICULES = Metriques.dao("EtudiantDAO.parcourirMatricules");
+    private static final Minuteur MESURE_LISTER_TOUS_AVEC_NOTES = Metriques.dao("EtudiantDAO.listerTousAvecNotes");
+    private static final Minuteur MESURE_TROUVER_PAR_ID_AVEC_NOTES = Metriques.dao("EtudiantDAO.trouverParIdAvecNotes");
+    private static final Minuteur MESURE_MODIFIER = Metriques.dao("EtudiantDAO.modifier");
+    private static final Minuteur MESURE_SUPPRIMER = Metriques.dao("EtudiantDAO.supprimer");
+    private static final Minuteur MESURE_LISTER_AGREGATS_INCOHERENTS = Metriques.dao("EtudiantDAO.listerAgregatsIncoherents");
+    private static final Minuteur MESURE_RECONSTRUIRE_AGREGATS = Metriques.dao("EtudiantDAO.reconstruireAgregats");
+    private static final Minuteur MESURE_COMPTER = Metriques.dao("EtudiantDAO.compter");
+    private static final Minuteur MESURE_COMPTER_PAR_PREFIXE_MATRICULE = Metriques.dao("EtudiantDAO.compterParPrefixeMatricule");
+
+    /**
+     * Mise à jour versionnée des champs du formulaire (voir modifier)
+     * Paramètres : matricule, nom, prénom, email, date de naissance, date de
+     * modification, id, révision lue
+     */
+    private static final String SQL_MODIFIER =
+        "UPDATE etudiant SET matricule = ?, nom = ?, prenom = ?, email = ?, date_naissance = ?, "
+        + "revision = revision + 1, date_modification = ? "
+        + "WHERE id = ? AND revision = ?";
+
+    /** Projection des listes : les colonnes de EtudiantResume, dans l'ordre de son constructeur */
+    private static final String SELECTION_RESUME = "NEW com.iua.gestionetudiants.dto.EtudiantResume("
+            + "e.id, e.matricule, e.nom, e.prenom, e.email, e.dateNaissance, e.dateCreation, "
+            + "e.revision, e.dateModification)";
+
+    /** Nombre de lignes lues par aller-retour lors d'un parcours par curseur */
+    private static final int TAILLE_PAQUET_CURSEUR = 500;
+
+    /** Nombre maximum de valeurs dans une clause IN */
+    private static final int TAILLE_PAQUET_IN = 1000;
 
     /**
      * Créer un nouvel étudiant dans la base de données
      */
     public void creer(Etudiant etudiant) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            em.getTransaction().begin();
-            em.persist(etudiant);
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
-            throw e;
-        } finally {
-            em.close();
-        }
+        MESURE_CREER.mesurerAction(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+                em.persist(etudiant);
+                em.getTransaction().commit();
+                IndexMatricules.enregistrer(etudiant.getId(), etudiant.getMatricule());
+                IndexRecherche.enregistrer(etudiant);
+                SuggestionsMatricules.enregistrer(etudiant.getId(), etudiant.getMatricule());
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Créer une liste d'étudiants en une transaction (import en masse)
+     * Les INSERT partent par lots JDBC ; le contexte de persistance est vidé
+     * après chaque lot pour borner la mémoire
+     */
+    public void creerEnLot(List<Etudiant> etudiants) {
+        MESURE_CREER_EN_LOT.mesurerAction(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+                int compteur = 0;
+                for (Etudiant etudiant : etudiants) {
+                    em.persist(etudiant);
+                    if (++compteur % PersistenceManager.TAILLE_LOT_JDBC == 0) {
+                        em.flush();
+                        em.clear();
+                    }
+                }
+                em.getTransaction().commit();
+                for (Etudiant etudiant : etudiants) {
+                    IndexMatricules.enregistrer(etudiant.getId(), etudiant.getMatricule());
+                }
+                IndexRecherche.enregistrerTous(etudiants);
+                SuggestionsMatricules.enregistrerTous(etudiants);
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
      * Trouver un étudiant par son ID
      */
     public Etudiant trouverParId(Long id) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            return em.find(Etudiant.class, id);
-        } finally {
-            em.close();
-        }
+        return MESURE_TROUVER_PAR_ID.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                return em.find(Etudiant.class, id);
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Lire seulement les révisions et la date de modification d'un étudiant
+     * (validateurs des requêtes HTTP conditionnelles) : une ligne, quatre
+     * colonnes, ni notes ni entité gérée
+     *
+     * @return null si l'étudiant n'existe pas
+     */
+    public RevisionEtudiant trouverRevision(Long id) {
+        return MESURE_TROUVER_REVISION.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<RevisionEtudiant> query = em.createQuery(
+                    "SELECT NEW com.iua.gestionetudiants.dto.RevisionEtudiant(e.id, e.revision, e.revisionNotes, e.dateModification) "
+                    + "FROM Etudiant e WHERE e.id = :id",
+                    RevisionEtudiant.class);
+                query.setParameter("id", id);
+                List<RevisionEtudiant> resultats = query.getResultList();
+                return resultats.isEmpty() ? null : resultats.get(0);
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
      * Trouver un étudiant par son matricule
+     *
+     * Avec le cache de second niveau, seule la correspondance matricule -> id
+     * est gardée dans le cache de requêtes ; l'étudiant lui-même est lu dans
+     * la région "etudiant", tenue à jour à chaque écriture
+     *
+     * L'index des matricules évite la requête quand le matricule est
+     * certainement absent, et la remplace par une lecture par ID sinon
      */
     public Etudiant trouverParMatricule(String matricule) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            TypedQuery<Etudiant> query = em.createQuery(
-                "SELECT e FROM Etudiant e WHERE e.matricule = :matricule", Etudiant.class);
-            query.setParameter("matricule", matricule);
-            List<Etudiant> resultats = query.getResultList();
-            return resultats.isEmpty() ? null : resultats.get(0);
-        } finally {
-            em.close();
-        }
+        return MESURE_TROUVER_PAR_MATRICULE.mesurer(() -> {
+            if (IndexMatricules.estAbsent(matricule)) {
+                return null;
+            }
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                Long id = IndexMatricules.idPour(matricule);
+                if (id != null) {
+                    Etudiant etudiant = em.find(Etudiant.class, id);
+                    if (etudiant != null && matricule.equals(etudiant.getMatricule())) {
+                        return etudiant;
+                    }
+                }
+
+                if (PersistenceManager.isCacheActif()) {
+                    TypedQuery<Long> query = em.createQuery(
+                        "SELECT e.id FROM Etudiant e WHERE e.matricule = :matricule", Long.class);
+                    query.setParameter("matricule", matricule);
+                    query.setHint("org.hibernate.cacheable", true);
+                    List<Long> ids = query.getResultList();
+                    return ids.isEmpty() ? null : em.find(Etudiant.class, ids.get(0));
+                }
+
+                TypedQuery<Etudiant> query = em.createQuery(
+                    "SELECT e FROM Etudiant e WHERE e.matricule = :matricule", Etudiant.class);
+                query.setParameter("matricule", matricule);
+                List<Etudiant> resultats = query.getResultList();
+                return resultats.isEmpty() ? null : resultats.get(0);
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
-     * Lister tous les étudiants
+     * Parmi des IDs, retourner ceux qui correspondent à un étudiant existant
+     * (une seule requête IN, découpée par paquets pour les très grandes listes)
+     */
+    public Set<Long> filtrerIdsExistants(Collection<Long> ids) {
+        return MESURE_FILTRER_IDS_EXISTANTS.mesurer(() -> {
+            Set<Long> existants = new HashSet<>();
+            if (ids.isEmpty()) {
+                return existants;
+            }
+            List<Long> liste = new ArrayList<>(ids);
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                for (int debut = 0; debut < liste.size(); debut += TAILLE_PAQUET_IN) {
+                    List<Long> paquet = liste.subList(debut, Math.min(debut + TAILLE_PAQUET_IN, liste.size()));
+                    TypedQuery<Long> query = em.createQuery(
+                        "SELECT e.id FROM Etudiant e WHERE e.id IN :ids", Long.class);
+                    query.setParameter("ids", paquet);
+                    existants.addAll(query.getResultList());
+                }
+                return existants;
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Résoudre des matricules en IDs (matricule -> id)
+     * Les matricules inconnus sont absents du résultat
+     */
+    public Map<String, Long> trouverIdsParMatricules(Collection<String> matricules) {
+        return MESURE_TROUVER_IDS_PAR_MATRICULES.mesurer(() -> {
+            Map<String, Long> ids = new HashMap<>();
+            if (matricules.isEmpty()) {
+                return ids;
+            }
+            List<String> liste = new ArrayList<>(matricules);
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                for (int debut = 0; debut < liste.size(); debut += TAILLE_PAQUET_IN) {
+                    List<String> paquet = liste.subList(debut, Math.min(debut + TAILLE_PAQUET_IN, liste.size()));
+                    TypedQuery<Object[]> query = em.createQuery(
+                        "SELECT e.matricule, e.id FROM Etudiant e WHERE e.matricule IN :matricules", Object[].class);
+                    query.setParameter("matricules", paquet);
+                    for (Object[] ligne : query.getResultList()) {
+                        ids.put((String) ligne[0], (Long) ligne[1]);
+                    }
+                }
+                return ids;
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Lister tous les étudiants (entités gérées ; pour un affichage, voir
+     * listerResumes)
      */
     public List<Etudiant> listerTous() {
-        EntityManager em = emf.createEntityManager();
-        try {
-            TypedQuery<Etudiant> query = em.createQuery(
-                "SELECT e FROM Etudiant e ORDER BY e.nom, e.prenom", Etudiant.class);
-            return query.getResultList();
-        } finally {
-            em.close();
+        return MESURE_LISTER_TOUS.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Etudiant> query = em.createQuery(
+                    "SELECT e FROM Etudiant e ORDER BY e.nom, e.prenom", Etudiant.class);
+                return query.getResultList();
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Lister tous les étudiants en lecture seule (projection, sans entités gérées)
+     */
+    public List<EtudiantResume> listerResumes() {
+        return MESURE_LISTER_RESUMES.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                return em.createQuery("SELECT " + SELECTION_RESUME
+                        + " FROM Etudiant e ORDER BY e.nom, e.prenom, e.id", EtudiantResume.class)
+                    .getResultList();
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Lister une page d'étudiants (pagination par curseur sur nom, prenom, id)
+     *
+     * Au lieu d'un OFFSET (qui relit toutes les lignes précédentes), on repart
+     * de la position du dernier étudiant de la page précédente : la requête
+     * parcourt l'index (nom, prenom, id) à partir de ce point et s'arrête
+     * après "taille + 1" lignes, quelle que soit la taille de la table.
+     * La ligne en plus sert uniquement à savoir s'il existe une page suivante.
+     *
+     * Les entités sont gérées (modifiables) : pour un simple affichage,
+     * préférer listerPageResumes
+     *
+     * @throws IllegalArgumentException Si le curseur est invalide
+     */
+    public Page<Etudiant> listerPage(CritereListeEtudiants critere) {
+        return MESURE_LISTER_PAGE.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                List<Etudiant> resultats = lirePage(em, critere, "e", Etudiant.class);
+                if (resultats.size() <= critere.getTaille()) {
+                    return new Page<>(resultats, null);
+                }
+
+                // Il y a une page suivante : on retire la ligne en plus
+                List<Etudiant> elements = resultats.subList(0, critere.getTaille());
+                Etudiant dernier = elements.get(elements.size() - 1);
+                String suivant = new CurseurEtudiant(dernier.getNom(), dernier.getPrenom(), dernier.getId()).encoder();
+                return new Page<>(elements, suivant);
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Lister une page d'étudiants en lecture seule (mêmes critères, même
+     * curseur que listerPage)
+     *
+     * Projection "SELECT NEW" : Hibernate construit directement les lignes,
+     * sans entité gérée, sans copie pour le contrôle des modifications, sans
+     * proxy de la collection des notes (ni LocalDate.now() du constructeur
+     * de l'entité). Pour les pages de liste (JSP, GET /api/etudiants).
+     *
+     * @throws IllegalArgumentException Si le curseur est invalide
+     */
+    public Page<EtudiantResume> listerPageResumes(CritereListeEtudiants critere) {
+        return MESURE_LISTER_PAGE_RESUMES.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                List<EtudiantResume> resultats = lirePage(em, critere, SELECTION_RESUME, EtudiantResume.class);
+                if (resultats.size() <= critere.getTaille()) {
+                    return new Page<>(resultats, null);
+                }
+
+                List<EtudiantResume> elements = resultats.subList(0, critere.getTaille());
+                EtudiantResume dernier = elements.get(elements.size() - 1);
+                String suivant = new CurseurEtudiant(dernier.getNom(), dernier.getPrenom(), dernier.getId()).encoder();
+                return new Page<>(elements, suivant);
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Lire "taille + 1" lignes à partir du curseur (voir listerPage)
+     *
+     * @param selection Ce qui est sélectionné pour chaque étudiant "e"
+     *                  (l'entité, ou une projection SELECT NEW)
+     */
+    private static <T> List<T> lirePage(EntityManager em, CritereListeEtudiants critere,
+                                        String selection, Class<T> type) {
+        String comparaison = critere.isDecroissant() ? "<" : ">";
+        String sens = critere.isDecroissant() ? "DESC" : "ASC";
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(selection)
+            .append(" FROM Etudiant e WHERE 1 = 1");
+        if (estRenseigne(critere.getPrefixeNom())) {
+            jpql.append(" AND e.nom LIKE :prefixeNom ESCAPE '!'");
+        }
+        if (estRenseigne(critere.getPrefixeMatricule())) {
+            jpql.append(" AND e.matricule LIKE :prefixeMatricule ESCAPE '!'");
+        }
+        CurseurEtudiant curseur = null;
+        if (estRenseigne(critere.getCurseur())) {
+            curseur = CurseurEtudiant.decoder(critere.getCurseur());
+            jpql.append(" AND (e.nom ").append(comparaison).append(" :curseurNom")
+                .append(" OR (e.nom = :curseurNom AND (e.prenom ").append(comparaison).append(" :curseurPrenom")
+                .append(" OR (e.prenom = :curseurPrenom AND e.id ").append(comparaison).append(" :curseurId))))");
+        }
+        jpql.append(" ORDER BY e.nom ").append(sens)
+            .append(", e.prenom ").append(sens)
+            .append(", e.id ").append(sens);
+
+        TypedQuery<T> query = em.createQuery(jpql.toString(), type);
+        if (estRenseigne(critere.getPrefixeNom())) {
+            query.setParameter("prefixeNom", prefixeLike(critere.getPrefixeNom()));
+        }
+        if (estRenseigne(critere.getPrefixeMatricule())) {
+            query.setParameter("prefixeMatricule", prefixeLike(critere.getPrefixeMatricule()));
+        }
+        if (curseur != null) {
+            query.setParameter("curseurNom", curseur.nom);
+            query.setParameter("curseurPrenom", curseur.prenom);
+            query.setParameter("curseurId", curseur.id);
         }
+        query.setMaxResults(critere.getTaille() + 1);
+        return query.getResultList();
+    }
+
+    /**
+     * Parcourir tous les étudiants un par un, sans les charger en mémoire
+     *
+     * Utilise une session sans état (pas de contexte de persistance qui
+     * grossit) et un curseur JDBC en avant seulement : les lignes arrivent
+     * de la base par paquets de TAILLE_PAQUET_CURSEUR et chaque étudiant est
+     * passé au traitement puis oublié. La mémoire reste constante quelle que
+     * soit la taille de la table.
+     *
+     * MySQL : nécessite useCursorFetch=true dans l'URL JDBC, sinon le driver
+     * lit tout le résultat d'un coup malgré la taille de paquet.
+     */
+    public void parcourirTous(Consumer<Etudiant> traitement) {
+        MESURE_PARCOURIR_TOUS.mesurerAction(() -> {
+            StatelessSession session = PersistenceManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .openStatelessSession();
+            try (ScrollableResults<Etudiant> resultats = session
+                    .createQuery("SELECT e FROM Etudiant e ORDER BY e.nom, e.prenom, e.id", Etudiant.class)
+                    .setFetchSize(TAILLE_PAQUET_CURSEUR)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (resultats.next()) {
+                    traitement.accept(resultats.get());
+                }
+            } finally {
+                session.close();
+            }
+        });
+    }
+
+    /**
+     * Parcourir tous les couples (matricule, id) en flux
+     * (chargement de l'index des matricules au démarrage)
+     */
+    public void parcourirMatricules(BiConsumer<String, Long> traitement) {
+        MESURE_PARCOURIR_MATRICULES.mesurerAction(() -> {
+            StatelessSession session = PersistenceManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class)
+                    .openStatelessSession();
+            try (ScrollableResults<Object[]> resultats = session
+                    .createQuery("SELECT e.matricule, e.id FROM Etudiant e", Object[].class)
+                    .setFetchSize(TAILLE_PAQUET_CURSEUR)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (resultats.next()) {
+                    Object[] ligne = resultats.get();
+                    traitement.accept((String) ligne[0], (Long) ligne[1]);
+                }
+            } finally {
+                session.close();
+            }
+        });
     }
 
     /**
      * Lister tous les étudiants avec leurs notes (évite le problème LazyInitialization)
      */
     public List<Etudiant> listerTousAvecNotes() {
-        EntityManager em = emf.createEntityManager();
-        try {
-            TypedQuery<Etudiant> query = em.createQuery(
-                "SELECT DISTINCT e FROM Etudiant e LEFT JOIN FETCH e.notes ORDER BY e.nom, e.prenom",
-                Etudiant.class);
-            return query.getResultList();
-        } finally {
-            em.close();
-        }
+        return MESURE_LISTER_TOUS_AVEC_NOTES.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Etudiant> query = em.createQuery(
+                    "SELECT DISTINCT e FROM Etudiant e LEFT JOIN FETCH e.notes ORDER BY e.nom, e.prenom",
+                    Etudiant.class);
+                return query.getResultList();
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
      * Trouver un étudiant avec ses notes par ID
+     * Avec le cache de second niveau, l'étudiant, la liste de ses notes et
+     * les notes sont lus dans le cache plutôt que par une jointure
      */
     public Etudiant trouverParIdAvecNotes(Long id) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            TypedQuery<Etudiant> query = em.createQuery(
-                "SELECT e FROM Etudiant e LEFT JOIN FETCH e.notes WHERE e.id = :id",
-                Etudiant.class);
-            query.setParameter("id", id);
-            List<Etudiant> resultats = query.getResultList();
-            return resultats.isEmpty() ? null : resultats.get(0);
-        } finally {
-            em.close();
-        }
+        return MESURE_TROUVER_PAR_ID_AVEC_NOTES.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                if (PersistenceManager.isCacheActif()) {
+                    Etudiant etudiant = em.find(Etudiant.class, id);
+                    if (etudiant != null) {
+                        Hibernate.initialize(etudiant.getNotes());
+                    }
+                    return etudiant;
+                }
+
+                TypedQuery<Etudiant> query = em.createQuery(
+                    "SELECT e FROM Etudiant e LEFT JOIN FETCH e.notes WHERE e.id = :id",
+                    Etudiant.class);
+                query.setParameter("id", id);
+                List<Etudiant> resultats = query.getResultList();
+                return resultats.isEmpty() ? null : resultats.get(0);
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
-     * Mettre à jour un étudiant
+     * Mettre à jour un étudiant lu à la révision donnée, en UN ordre SQL :
+     * UPDATE ... WHERE id = ? AND revision = ? (SQL_MODIFIER)
+     *
+     * - Ni lecture préalable ni merge() : l'appelant n'a pas à relire l'étudiant.
+     * - Seuls les champs du formulaire sont écrits ; la date de création et
+     *   les agrégats de notes restent ceux de la base.
+     * - Aucune ligne modifiée : l'étudiant a changé depuis sa lecture (ou a
+     *   été supprimé), OptimisticLockException comme pour un merge() périmé.
+     * - L'ordre passe par JDBC (Session.doWork) : seul cet étudiant est
+     *   retiré du cache de second niveau, avant l'ordre puis après le commit
+     *   (une lecture concurrente a pu remettre en cache la ligne d'avant le
+     *   commit, voir NoteDAO.evincerEtudiants). Hibernate ne voit
+     *   pas l'ordre : le cache de requêtes (matricule -> id, voir
+     *   trouverParMatricule) est vidé aussi, sinon il garderait l'ancien
+     *   matricule.
+     *
+     * @param revision Révision de l'étudiant au moment de sa lecture
      */
-    public void modifier(Etudiant etudiant) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            em.getTransaction().begin();
-            em.merge(etudiant);
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+    public void modifier(Etudiant etudiant, long revision) {
+        MESURE_MODIFIER.mesurerAction(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+                LocalDateTime maintenant = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+                em.getEntityManagerFactory().getCache().evict(Etudiant.class, etudiant.getId());
+                int lignes = em.unwrap(Session.class).doReturningWork(connexion -> {
+                    StatistiquesRequete.compterOrdreJdbc();
+                    try (PreparedStatement ordre = connexion.prepareStatement(SQL_MODIFIER)) {
+                        ordre.setString(1, etudiant.getMatricule());
+                        ordre.setString(2, etudiant.getNom());
+                        ordre.setString(3, etudiant.getPrenom());
+                        ordre.setString(4, etudiant.getEmail());
+                        ordre.setDate(5, etudiant.getDateNaissance() == null ? null : Date.valueOf(etudiant.getDateNaissance()));
+                        ordre.setTimestamp(6, Timestamp.valueOf(maintenant));
+                        ordre.setLong(7, etudiant.getId());
+                        ordre.setLong(8, revision);
+                        return ordre.executeUpdate();
+                    }
+                });
+                if (lignes == 0) {
+                    throw new OptimisticLockException("L'étudiant " + etudiant.getId()
+                            + " n'est plus à la révision " + revision);
+                }
+                em.getTransaction().commit();
+                em.getEntityManagerFactory().getCache().evict(Etudiant.class, etudiant.getId());
+                em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+                IndexMatricules.enregistrer(etudiant.getId(), etudiant.getMatricule());
+                IndexRecherche.enregistrerModification(etudiant, revision + 1, maintenant);
+                SuggestionsMatricules.enregistrer(etudiant.getId(), etudiant.getMatricule());
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
             }
-            throw e;
-        } finally {
-            em.close();
-        }
+        });
     }
 
     /**
      * Supprimer un étudiant
      */
     public void supprimer(Long id) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            em.getTransaction().begin();
-            Etudiant etudiant = em.find(Etudiant.class, id);
-            if (etudiant != null) {
-                em.remove(etudiant);
-            }
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
-            throw e;
-        } finally {
-            em.close();
-        }
+        MESURE_SUPPRIMER.mesurerAction(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+                Etudiant etudiant = em.find(Etudiant.class, id);
+                if (etudiant != null) {
+                    em.remove(etudiant);
+                }
+                em.getTransaction().commit();
+                IndexMatricules.retirer(id);
+                IndexRecherche.retirer(id);
+                SuggestionsMatricules.retirer(id);
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Lister les étudiants dont les agrégats de notes (somme pondérée, somme
+     * des coefficients, nombre de notes) ne correspondent plus à la table note
+     */
+    public List<Long> listerAgregatsIncoherents() {
+        return MESURE_LISTER_AGREGATS_INCOHERENTS.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Long> query = em.createQuery(
+                    "SELECT e.id FROM Etudiant e LEFT JOIN e.notes n "
+                    + "GROUP BY e.id, e.sommePonderee, e.sommeCoefficients, e.nombreNotes "
+                    + "HAVING e.nombreNotes <> COUNT(n) "
+                    + "OR e.sommeCoefficients <> COALESCE(SUM(n.coefficient), 0) "
+                    + "OR ABS(e.sommePonderee - COALESCE(SUM(n.valeur * n.coefficient), 0)) > 0.001",
+                    Long.class);
+                return query.getResultList();
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Recalculer les agrégats de notes à partir de la table note (une seule
+     * requête UPDATE)
+     * Seules les lignes dont les agrégats diffèrent de la table note sont
+     * écrites (mêmes critères que listerAgregatsIncoherents) : la révision
+     * des notes et la date de modification des étudiants cohérents ne
+     * changent pas, leurs ETag restent valides
+     * Hibernate vide le cache de second niveau après cette requête native
+     *
+     * @return Le nombre d'étudiants mis à jour
+     */
+    public int reconstruireAgregats() {
+        return MESURE_RECONSTRUIRE_AGREGATS.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+                int nombre = em.createNativeQuery(
+                    "UPDATE etudiant e SET "
+                    + "somme_ponderee = COALESCE((SELECT SUM(n.valeur * n.coefficient) FROM note n WHERE n.etudiant_id = e.id), 0), "
+                    + "somme_coefficients = COALESCE((SELECT SUM(n.coefficient) FROM note n WHERE n.etudiant_id = e.id), 0), "
+                    + "nombre_notes = (SELECT COUNT(*) FROM note n WHERE n.etudiant_id = e.id), "
+                    + "revision_notes = revision_notes + 1, "
+                    + "date_modification = ?1 "
+                    + "WHERE e.nombre_notes <> (SELECT COUNT(*) FROM note n WHERE n.etudiant_id = e.id) "
+                    + "OR e.somme_coefficients <> COALESCE((SELECT SUM(n.coefficient) FROM note n WHERE n.etudiant_id = e.id), 0) "
+                    + "OR ABS(e.somme_ponderee - COALESCE((SELECT SUM(n.valeur * n.coefficient) FROM note n WHERE n.etudiant_id = e.id), 0)) > 0.001")
+                    .setParameter(1, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))
+                    .executeUpdate();
+                em.getTransaction().commit();
+                return nombre;
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Vérifier qu'un filtre est renseigné
+     */
+    private static boolean estRenseigne(String valeur) {
+        return valeur != null && !valeur.trim().isEmpty();
+    }
+
+    /**
+     * Transformer un préfixe saisi en motif LIKE ("Kou" → "Kou%")
+     * Les caractères spéciaux de LIKE sont échappés avec '!'
+     */
+    private static String prefixeLike(String prefixe) {
+        return prefixe.trim()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
     }
 
     /**
      * Compter le nombre total d'étudiants
      */
     public long compter() {
-        EntityManager em = emf.createEntityManager();
-        try {
-            TypedQuery<Long> query = em.createQuery("SELECT COUNT(e) FROM Etudiant e", Long.class);
-            return query.getSingleResult();
-        } finally {
-            em.close();
-        }
+        return MESURE_COMPTER.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Long> query = em.createQuery("SELECT COUNT(e) FROM Etudiant e", Long.class);
+                return query.getSingleResult();
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
-     * Fermer l'EntityManagerFactory
+     * Compter les étudiants dont le matricule commence par un préfixe
+     * (tous les étudiants si le préfixe est vide)
      */
-    public static void fermer() {
-        if (emf != null && emf.isOpen()) {
-            emf.close();
+    public long compterParPrefixeMatricule(String prefixe) {
+        if (!estRenseigne(prefixe)) {
+            return compter();
         }
+        return MESURE_COMPTER_PAR_PREFIXE_MATRICULE.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Long> query = em.createQuery(
+                    "SELECT COUNT(e) FROM Etudiant e WHERE e.matricule LIKE :prefixeMatricule ESCAPE '!'",
+                    Long.class);
+                query.setParameter("prefixeMatricule", prefixeLike(prefixe));
+                return query.getSingleResult();
+            } finally {
+                em.close();
+            }
+        });
     }
 }
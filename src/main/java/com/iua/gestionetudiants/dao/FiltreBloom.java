@@ -0,0 +1,80 @@
+package com.iua.gestionetudiants.dao;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom pour chaines de caracteres (thread-safe, sans verrou)
+ *
+ * Repond "absent a coup sur" ou "peut-etre present" en quelques octets par
+ * element (~1,2 octet pour 1 % de faux positifs). Les suppressions ne sont
+ * pas possibles : un element retire reste "peut-etre present", ce qui
+ * coute au pire une requete de verification.
+ */
+class FiltreBloom {
+
+    private final AtomicLongArray bits;
+    private final long nombreBits;
+    private final int nombreHachages;
+
+    /**
+     * @param elementsAttendus      Nombre d'elements prevus
+     * @param tauxFauxPositifs      Taux de faux positifs vise (ex : 0.01)
+     */
+    FiltreBloom(long elementsAttendus, double tauxFauxPositifs) {
+        long n = Math.max(elementsAttendus, 1);
+        long m = (long) Math.ceil(-n * Math.log(tauxFauxPositifs) / (Math.log(2) * Math.log(2)));
+        this.nombreBits = Math.max(64, ((m + 63) / 64) * 64);
+        this.nombreHachages = Math.max(1, (int) Math.round((double) nombreBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (nombreBits / 64));
+    }
+
+    void ajouter(String valeur) {
+        long empreinte = empreinte(valeur);
+        int h1 = (int) empreinte;
+        int h2 = (int) (empreinte >>> 32);
+        for (int i = 0; i < nombreHachages; i++) {
+            long position = Math.floorMod(h1 + (long) i * h2, nombreBits);
+            int mot = (int) (position >>> 6);
+            long masque = 1L << (position & 63);
+            long courant;
+            do {
+                courant = bits.get(mot);
+                if ((courant & masque) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(mot, courant, courant | masque));
+        }
+    }
+
+    /**
+     * @return false si la valeur n'a certainement jamais ete ajoutee
+     */
+    boolean peutContenir(String valeur) {
+        long empreinte = empreinte(valeur);
+        int h1 = (int) empreinte;
+        int h2 = (int) (empreinte >>> 32);
+        for (int i = 0; i < nombreHachages; i++) {
+            long position = Math.floorMod(h1 + (long) i * h2, nombreBits);
+            if ((bits.get((int) (position >>> 6)) & (1L << (position & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Empreinte FNV-1a 64 bits, melangee (les deux moities servent de
+     * hachages independants, technique du double hachage)
+     */
+    private static long empreinte(String valeur) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valeur.length(); i++) {
+            h ^= valeur.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
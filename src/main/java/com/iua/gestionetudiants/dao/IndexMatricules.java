@@ -0,0 +1,170 @@
+package com.iua.gestionetudiants.dao;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * ===========================================================================
+ * INDEX EN MEMOIRE DES MATRICULES
+ * ===========================================================================
+ * Evite la requete par matricule dans trouverParMatricule.
+ *
+ * - Charge au demarrage (ApplicationListener), en un seul parcours
+ * - Tenu a jour par EtudiantDAO apres chaque commit (creation,
+ *   modification, suppression, import)
+ * - Tant qu'il n'est pas charge, il ne repond rien : les appelants
+ *   interrogent la base comme avant
+ *
+ * MODES (parametre matricules.index de web.xml) :
+ * - COMPLET : matricule -> id et id -> matricule (~100 octets par etudiant)
+ * - BLOOM   : filtre de Bloom seul, pour les tres grosses tables. Il ne
+ *             repond qu'aux recherches negatives ("absent a coup sur")
+ * - AUCUN   : index desactive
+ *
+ * L'index n'est qu'un raccourci : un matricule trouve n'est qu'un "peut-etre"
+ * (EtudiantDAO relit l'etudiant par son ID). Les ecritures ne le consultent
+ * pas : l'unicite est garantie par la contrainte UNIQUE de la colonne
+ * matricule (voir EtudiantService). Il suppose que la base n'est modifiee
+ * que par cette application (une seule instance).
+ * ===========================================================================
+ */
+public final class IndexMatricules {
+
+    private static final Logger LOGGER = Logger.getLogger(IndexMatricules.class.getName());
+
+    /** Taux de faux positifs vise pour le filtre de Bloom */
+    private static final double TAUX_FAUX_POSITIFS = 0.01;
+
+    /** Marge de croissance du filtre de Bloom (inscriptions a venir) */
+    private static final int MARGE_CROISSANCE = 2;
+
+    public enum Mode {
+        COMPLET, BLOOM, AUCUN;
+
+        /**
+         * Lire un mode saisi dans la configuration (COMPLET par defaut)
+         */
+        public static Mode depuis(String valeur) {
+            if (valeur == null || valeur.trim().isEmpty()) {
+                return COMPLET;
+            }
+            return Mode.valueOf(valeur.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static volatile Mode mode = Mode.AUCUN;
+    private static volatile boolean charge;
+
+    private static final Map<String, Long> idsParMatricule = new ConcurrentHashMap<>();
+    private static final Map<Long, String> matriculesParId = new ConcurrentHashMap<>();
+    private static volatile FiltreBloom filtre;
+
+    private IndexMatricules() {
+    }
+
+    /**
+     * Charger l'index depuis la base (un parcours de la table etudiant)
+     */
+    public static synchronized void charger(Mode nouveauMode) {
+        charge = false;
+        mode = nouveauMode;
+        idsParMatricule.clear();
+        matriculesParId.clear();
+        filtre = null;
+        if (nouveauMode == Mode.AUCUN) {
+            return;
+        }
+
+        long debut = System.currentTimeMillis();
+        long[] nombre = {0};
+        EtudiantDAO etudiantDAO = new EtudiantDAO();
+        if (nouveauMode == Mode.BLOOM) {
+            FiltreBloom nouveauFiltre = new FiltreBloom(
+                    Math.max(etudiantDAO.compter() * MARGE_CROISSANCE, 100_000), TAUX_FAUX_POSITIFS);
+            etudiantDAO.parcourirMatricules((matricule, id) -> {
+                nouveauFiltre.ajouter(matricule);
+                nombre[0]++;
+            });
+            filtre = nouveauFiltre;
+        } else {
+            etudiantDAO.parcourirMatricules((matricule, id) -> {
+                idsParMatricule.put(matricule, id);
+                matriculesParId.put(id, matricule);
+                nombre[0]++;
+            });
+        }
+        charge = true;
+        LOGGER.info("Index des matricules charge (mode " + nouveauMode + ", " + nombre[0]
+                + " matricules) en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Le matricule est-il absent de la base a coup sur ?
+     * (false si l'index ne sait pas repondre : mode AUCUN, pas encore charge)
+     */
+    public static boolean estAbsent(String matricule) {
+        if (!charge || matricule == null) {
+            return false;
+        }
+        if (mode == Mode.COMPLET) {
+            return !idsParMatricule.containsKey(matricule);
+        }
+        FiltreBloom courant = filtre;
+        return courant != null && !courant.peutContenir(matricule);
+    }
+
+    /**
+     * ID de l'etudiant portant ce matricule, ou null si l'index ne le
+     * connait pas (absent, ou index en mode BLOOM / AUCUN)
+     */
+    public static Long idPour(String matricule) {
+        if (!charge || mode != Mode.COMPLET || matricule == null) {
+            return null;
+        }
+        return idsParMatricule.get(matricule);
+    }
+
+    /**
+     * Enregistrer un etudiant cree ou modifie (appele apres le commit)
+     */
+    static void enregistrer(Long id, String matricule) {
+        if (mode == Mode.AUCUN || id == null || matricule == null) {
+            return;
+        }
+        if (mode == Mode.BLOOM) {
+            FiltreBloom courant = filtre;
+            if (courant != null) {
+                courant.ajouter(matricule);
+            }
+            return;
+        }
+        String ancien = matriculesParId.put(id, matricule);
+        if (ancien != null && !ancien.equals(matricule)) {
+            idsParMatricule.remove(ancien, id);
+        }
+        idsParMatricule.put(matricule, id);
+    }
+
+    /**
+     * Retirer un etudiant supprime (appele apres le commit)
+     * En mode BLOOM le matricule reste "peut-etre present"
+     */
+    static void retirer(Long id) {
+        if (mode != Mode.COMPLET || id == null) {
+            return;
+        }
+        String matricule = matriculesParId.remove(id);
+        if (matricule != null) {
+            idsParMatricule.remove(matricule, id);
+        }
+    }
+
+    /**
+     * Nombre de matricules indexes (mode COMPLET)
+     */
+    public static int taille() {
+        return idsParMatricule.size();
+    }
+}
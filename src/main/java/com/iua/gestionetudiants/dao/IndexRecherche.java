@@ -0,0 +1,400 @@
+package com.iua.gestionetudiants.dao;
+
+import com.iua.gestionetudiants.dto.EtudiantResume;
+import com.iua.gestionetudiants.model.Etudiant;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * ===========================================================================
+ * INDEX DE RECHERCHE EN MEMOIRE (nom, prenom, matricule, email)
+ * ===========================================================================
+ * Index inverse : chaque prefixe de mot ("kou", "koua", "kouas"...) donne
+ * la liste des etudiants qui ont un mot commencant ainsi. Une recherche
+ * "kouassi aya" est l'intersection des listes de "kouassi" et de "aya" :
+ * aucune lecture de la table, contrairement a un LIKE '%...%'.
+ *
+ * - Mots sans accents ni majuscules ("Kouamé" et "KOUAME" se confondent),
+ *   coupes sur tout ce qui n'est ni lettre ni chiffre (l'email
+ *   "jean.kouassi@iua.ci" donne jean, kouassi, iua, ci)
+ * - Prefixes de LONGUEUR_MINIMUM a LONGUEUR_MAXIMUM caracteres. Un mot
+ *   recherche plus long est cherche par son prefixe, puis verifie sur
+ *   chaque candidat
+ * - Chaque liste est un tableau trie dans l'ordre d'affichage (nom,
+ *   prenom, id) : les premiers resultats sortent deja tries, sans tri
+ * - Charge au demarrage (ApplicationListener, parametre recherche.index),
+ *   tenu a jour par EtudiantDAO apres chaque commit. Les tableaux sont
+ *   remplaces, jamais modifies : les lectures se font sans verrou
+ *
+ * Comme IndexMatricules, il suppose que la base n'est modifiee que par
+ * cette application (une seule instance).
+ * ===========================================================================
+ */
+public final class IndexRecherche {
+
+    private static final Logger LOGGER = Logger.getLogger(IndexRecherche.class.getName());
+
+    /** Longueur minimale d'un mot recherche (un mot plus court est ignore) */
+    public static final int LONGUEUR_MINIMUM = 2;
+
+    /** Longueur maximale des prefixes indexes */
+    static final int LONGUEUR_MAXIMUM = 20;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private static final EtudiantResume[] AUCUN = new EtudiantResume[0];
+
+    /** Ordre d'affichage, le meme que celui des listes (nom, prenom, id) */
+    static final Comparator<EtudiantResume> ORDRE = Comparator
+            .comparing(EtudiantResume::getNom, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(EtudiantResume::getPrenom, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(EtudiantResume::getId);
+
+    private static volatile boolean charge;
+
+    private static final Map<String, EtudiantResume[]> listesParPrefixe = new ConcurrentHashMap<>();
+    private static final Map<Long, EtudiantResume> etudiantsParId = new ConcurrentHashMap<>();
+
+    private IndexRecherche() {
+    }
+
+    /**
+     * Charger l'index depuis la base (une projection de la table etudiant)
+     */
+    public static void charger() {
+        long debut = System.currentTimeMillis();
+        List<EtudiantResume> etudiants = new EtudiantDAO().listerResumes();
+        charger(etudiants);
+        LOGGER.info("Index de recherche charge (" + etudiants.size() + " etudiants, "
+                + listesParPrefixe.size() + " prefixes) en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Construire l'index a partir d'une liste d'etudiants
+     * (visibilite paquet : utilise aussi par les benchmarks)
+     */
+    static synchronized void charger(Collection<EtudiantResume> etudiants) {
+        charge = false;
+        listesParPrefixe.clear();
+        etudiantsParId.clear();
+
+        // Un seul tri : les listes se remplissent ensuite dans l'ordre
+        EtudiantResume[] tries = etudiants.toArray(AUCUN);
+        Arrays.sort(tries, ORDRE);
+        Map<String, List<EtudiantResume>> listes = new HashMap<>();
+        for (EtudiantResume etudiant : tries) {
+            etudiantsParId.put(etudiant.getId(), etudiant);
+            for (String prefixe : prefixes(etudiant)) {
+                listes.computeIfAbsent(prefixe, p -> new ArrayList<>()).add(etudiant);
+            }
+        }
+        for (Map.Entry<String, List<EtudiantResume>> liste : listes.entrySet()) {
+            listesParPrefixe.put(liste.getKey(), liste.getValue().toArray(AUCUN));
+        }
+        charge = true;
+    }
+
+    /**
+     * Desactiver l'index (parametre recherche.index a false)
+     */
+    public static synchronized void vider() {
+        charge = false;
+        listesParPrefixe.clear();
+        etudiantsParId.clear();
+    }
+
+    /**
+     * L'index est-il charge ? (sinon rechercher ne repond rien)
+     */
+    public static boolean estCharge() {
+        return charge;
+    }
+
+    /**
+     * Rechercher les etudiants dont chaque mot du texte commence un mot du
+     * nom, du prenom, du matricule ou de l'email
+     *
+     * @param texte  Texte saisi ("kouassi aya", "ETU2025", "jean.k")
+     * @param limite Nombre maximum d'etudiants renvoyes
+     * @return Les premiers etudiants dans l'ordre (nom, prenom, id) et le
+     *         nombre total de correspondances ; aucun resultat si aucun mot
+     *         n'a LONGUEUR_MINIMUM caracteres
+     */
+    public static ResultatRecherche rechercher(String texte, int limite) {
+        Set<String> mots = new LinkedHashSet<>();
+        for (String mot : mots(texte)) {
+            if (mot.length() >= LONGUEUR_MINIMUM) {
+                mots.add(mot);
+            }
+        }
+        if (!charge || mots.isEmpty()) {
+            return new ResultatRecherche(new ArrayList<>(), 0);
+        }
+
+        // Une liste par mot ; la plus courte est parcourue, les autres sont
+        // interrogees par recherche dichotomique (meme ordre partout)
+        EtudiantResume[][] listes = new EtudiantResume[mots.size()][];
+        List<String> motsAVerifier = new ArrayList<>();
+        int i = 0;
+        for (String mot : mots) {
+            String prefixe = mot;
+            if (mot.length() > LONGUEUR_MAXIMUM) {
+                prefixe = mot.substring(0, LONGUEUR_MAXIMUM);
+                motsAVerifier.add(mot);
+            }
+            EtudiantResume[] liste = listesParPrefixe.get(prefixe);
+            if (liste == null) {
+                return new ResultatRecherche(new ArrayList<>(), 0);
+            }
+            listes[i++] = liste;
+        }
+        Arrays.sort(listes, Comparator.comparingInt(liste -> liste.length));
+
+        List<EtudiantResume> etudiants = new ArrayList<>(Math.min(limite, listes[0].length));
+        int total = 0;
+        for (EtudiantResume candidat : listes[0]) {
+            if (contenuDansToutes(candidat, listes) && commencePar(candidat, motsAVerifier)) {
+                if (total < limite) {
+                    etudiants.add(candidat);
+                }
+                total++;
+            }
+        }
+        return new ResultatRecherche(etudiants, total);
+    }
+
+    private static boolean contenuDansToutes(EtudiantResume candidat, EtudiantResume[][] listes) {
+        for (int i = 1; i < listes.length; i++) {
+            if (Arrays.binarySearch(listes[i], candidat, ORDRE) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verification des mots plus longs que les prefixes indexes
+     */
+    private static boolean commencePar(EtudiantResume candidat, List<String> motsAVerifier) {
+        if (motsAVerifier.isEmpty()) {
+            return true;
+        }
+        List<String> motsCandidat = new ArrayList<>();
+        for (String champ : champs(candidat)) {
+            motsCandidat.addAll(mots(champ));
+        }
+        for (String mot : motsAVerifier) {
+            if (motsCandidat.stream().noneMatch(motCandidat -> motCandidat.startsWith(mot))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Enregistrer un etudiant cree ou modifie (appele apres le commit)
+     */
+    static void enregistrer(Etudiant etudiant) {
+        if (charge && etudiant != null && etudiant.getId() != null) {
+            mettreAJour(List.of(resume(etudiant)), List.of());
+        }
+    }
+
+    /**
+     * Enregistrer un etudiant modifie par EtudiantDAO.modifier (appele apres
+     * le commit) : la ligne n'est pas relue, la date de creation est reprise
+     * de l'index
+     */
+    static void enregistrerModification(Etudiant etudiant, long revision, LocalDateTime dateModification) {
+        if (charge && etudiant != null && etudiant.getId() != null) {
+            EtudiantResume ancien = etudiantsParId.get(etudiant.getId());
+            mettreAJour(List.of(new EtudiantResume(etudiant.getId(), etudiant.getMatricule(), etudiant.getNom(),
+                    etudiant.getPrenom(), etudiant.getEmail(), etudiant.getDateNaissance(),
+                    ancien != null ? ancien.getDateCreation() : etudiant.getDateCreation(),
+                    revision, dateModification)), List.of());
+        }
+    }
+
+    /**
+     * Enregistrer des etudiants crees en lot (appele apres le commit) :
+     * chaque liste touchee n'est recopiee qu'une fois
+     */
+    static void enregistrerTous(Collection<Etudiant> etudiants) {
+        if (!charge) {
+            return;
+        }
+        List<EtudiantResume> resumes = new ArrayList<>(etudiants.size());
+        for (Etudiant etudiant : etudiants) {
+            if (etudiant.getId() != null) {
+                resumes.add(resume(etudiant));
+            }
+        }
+        mettreAJour(resumes, List.of());
+    }
+
+    /**
+     * Retirer un etudiant supprime (appele apres le commit)
+     */
+    static void retirer(Long id) {
+        if (charge && id != null) {
+            mettreAJour(List.of(), List.of(id));
+        }
+    }
+
+    /**
+     * Remplacer les listes touchees par des ajouts et des retraits
+     * (l'ancienne version d'un etudiant modifie est retiree)
+     *
+     * Deux modifications commitees presque en meme temps peuvent arriver ici
+     * dans le desordre : une version de revision inferieure a celle deja
+     * indexee est ignoree.
+     */
+    private static synchronized void mettreAJour(List<EtudiantResume> ajouts, List<Long> idsRetires) {
+        Map<String, List<EtudiantResume>> retraitsParPrefixe = new HashMap<>();
+        Map<String, List<EtudiantResume>> ajoutsParPrefixe = new HashMap<>();
+
+        List<EtudiantResume> anciens = new ArrayList<>();
+        for (Long id : idsRetires) {
+            EtudiantResume ancien = etudiantsParId.remove(id);
+            if (ancien != null) {
+                anciens.add(ancien);
+            }
+        }
+        for (EtudiantResume etudiant : ajouts) {
+            EtudiantResume indexe = etudiantsParId.get(etudiant.getId());
+            if (indexe != null && indexe.getRevision() > etudiant.getRevision()) {
+                continue;
+            }
+            EtudiantResume ancien = etudiantsParId.put(etudiant.getId(), etudiant);
+            if (ancien != null) {
+                anciens.add(ancien);
+            }
+            for (String prefixe : prefixes(etudiant)) {
+                ajoutsParPrefixe.computeIfAbsent(prefixe, p -> new ArrayList<>()).add(etudiant);
+            }
+        }
+        for (EtudiantResume ancien : anciens) {
+            for (String prefixe : prefixes(ancien)) {
+                retraitsParPrefixe.computeIfAbsent(prefixe, p -> new ArrayList<>()).add(ancien);
+            }
+        }
+
+        Set<String> touches = new LinkedHashSet<>(retraitsParPrefixe.keySet());
+        touches.addAll(ajoutsParPrefixe.keySet());
+        for (String prefixe : touches) {
+            EtudiantResume[] liste = fusionner(listesParPrefixe.getOrDefault(prefixe, AUCUN),
+                    retraitsParPrefixe.getOrDefault(prefixe, List.of()),
+                    ajoutsParPrefixe.getOrDefault(prefixe, List.of()));
+            if (liste.length == 0) {
+                listesParPrefixe.remove(prefixe);
+            } else {
+                listesParPrefixe.put(prefixe, liste);
+            }
+        }
+    }
+
+    /**
+     * Nouvelle liste triee : l'ancienne sans les retraits, fusionnee avec
+     * les ajouts tries (un seul passage)
+     */
+    private static EtudiantResume[] fusionner(EtudiantResume[] liste, List<EtudiantResume> retraits,
+                                              List<EtudiantResume> ajouts) {
+        EtudiantResume[] nouveaux = ajouts.toArray(AUCUN);
+        Arrays.sort(nouveaux, ORDRE);
+        EtudiantResume[] resultat = new EtudiantResume[liste.length + nouveaux.length];
+        int taille = 0;
+        int j = 0;
+        for (EtudiantResume etudiant : liste) {
+            if (retraits.contains(etudiant)) {
+                continue;
+            }
+            while (j < nouveaux.length && ORDRE.compare(nouveaux[j], etudiant) < 0) {
+                resultat[taille++] = nouveaux[j++];
+            }
+            resultat[taille++] = etudiant;
+        }
+        while (j < nouveaux.length) {
+            resultat[taille++] = nouveaux[j++];
+        }
+        return taille == resultat.length ? resultat : Arrays.copyOf(resultat, taille);
+    }
+
+    /**
+     * Prefixes indexes pour un etudiant (sans doublon)
+     */
+    private static Set<String> prefixes(EtudiantResume etudiant) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (String champ : champs(etudiant)) {
+            for (String mot : mots(champ)) {
+                for (int longueur = LONGUEUR_MINIMUM; longueur <= Math.min(mot.length(), LONGUEUR_MAXIMUM); longueur++) {
+                    prefixes.add(mot.substring(0, longueur));
+                }
+            }
+        }
+        return prefixes;
+    }
+
+    private static String[] champs(EtudiantResume etudiant) {
+        return new String[] {etudiant.getNom(), etudiant.getPrenom(), etudiant.getMatricule(), etudiant.getEmail()};
+    }
+
+    /**
+     * Mots d'un texte, sans accents et en minuscules
+     * (la decomposition des accents n'est faite que si le texte en contient)
+     */
+    static List<String> mots(String texte) {
+        List<String> mots = new ArrayList<>();
+        if (texte == null || texte.isEmpty()) {
+            return mots;
+        }
+        String normalise = texte;
+        for (int i = 0; i < texte.length(); i++) {
+            if (texte.charAt(i) > 0x7F) {
+                normalise = ACCENTS.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+                break;
+            }
+        }
+        normalise = normalise.toLowerCase(Locale.ROOT);
+        int debut = -1;
+        for (int i = 0; i <= normalise.length(); i++) {
+            boolean lettre = i < normalise.length() && Character.isLetterOrDigit(normalise.charAt(i));
+            if (lettre && debut < 0) {
+                debut = i;
+            } else if (!lettre && debut >= 0) {
+                mots.add(normalise.substring(debut, i));
+                debut = -1;
+            }
+        }
+        return mots;
+    }
+
+    /**
+     * Ligne indexee pour un etudiant qui vient d'etre enregistre
+     */
+    private static EtudiantResume resume(Etudiant etudiant) {
+        return new EtudiantResume(etudiant.getId(), etudiant.getMatricule(), etudiant.getNom(),
+                etudiant.getPrenom(), etudiant.getEmail(), etudiant.getDateNaissance(),
+                etudiant.getDateCreation(), etudiant.getRevision(), etudiant.getDateModification());
+    }
+
+    /**
+     * Nombre d'etudiants indexes
+     */
+    public static int taille() {
+        return etudiantsParId.size();
+    }
+}
@@ -0,0 +1,122 @@
+package com.iua.gestionetudiants.dao;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Journal des requetes lentes
+ *
+ * Chaque requete JPQL (ou SQL native) plus longue que le seuil
+ * (context-param requetesLentes.seuilMs) est ecrite dans le journal de
+ * l'application (WARNING) et gardee en memoire : les dernieres sont
+ * exposees par GET /api/supervision/hibernate.
+ */
+public final class JournalRequetesLentes {
+
+    private static final Logger LOGGER = Logger.getLogger(JournalRequetesLentes.class.getName());
+
+    /** Nombre de requetes lentes gardees en memoire */
+    private static final int CAPACITE = 50;
+
+    private static final Deque<RequeteLente> DERNIERES = new ArrayDeque<>(CAPACITE);
+    private static final LongAdder NOMBRE = new LongAdder();
+
+    private JournalRequetesLentes() {
+    }
+
+    /**
+     * Enregistrer une requete lente
+     *
+     * @param requete Texte JPQL (ou SQL natif)
+     * @param lignes  Lignes renvoyees
+     * @param dureeMs Duree d'execution (ms)
+     */
+    static void enregistrer(String requete, int lignes, long dureeMs) {
+        StatistiquesRequete courante = StatistiquesRequete.courante();
+        String route = null;
+        if (courante != null) {
+            courante.compterRequeteLente();
+            route = courante.getRoute();
+        }
+        RequeteLente lente = new RequeteLente(
+                LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).toString(),
+                requete, compterParametres(requete), lignes, dureeMs, route);
+        NOMBRE.increment();
+        synchronized (DERNIERES) {
+            if (DERNIERES.size() == CAPACITE) {
+                DERNIERES.removeFirst();
+            }
+            DERNIERES.addLast(lente);
+        }
+        LOGGER.warning("Requete lente (" + dureeMs + " ms, " + lignes + " ligne(s), "
+                + lente.getParametres() + " parametre(s)"
+                + (route != null ? ", " + route : "") + ") : " + requete);
+    }
+
+    /**
+     * Dernieres requetes lentes, de la plus recente a la plus ancienne
+     */
+    public static List<RequeteLente> dernieres() {
+        List<RequeteLente> liste;
+        synchronized (DERNIERES) {
+            liste = new ArrayList<>(DERNIERES);
+        }
+        Collections.reverse(liste);
+        return liste;
+    }
+
+    /** Nombre de requetes lentes depuis le demarrage */
+    public static long nombre() {
+        return NOMBRE.sum();
+    }
+
+    /**
+     * Nombre de parametres lies d'une requete : noms distincts (:id),
+     * positions distinctes (?1) et marqueurs anonymes (? du SQL natif),
+     * hors litteraux entre apostrophes
+     */
+    static int compterParametres(String requete) {
+        Set<String> distincts = new HashSet<>();
+        int anonymes = 0;
+        boolean dansLitteral = false;
+        int i = 0;
+        while (i < requete.length()) {
+            char c = requete.charAt(i);
+            if (c == '\'') {
+                dansLitteral = !dansLitteral;
+                i++;
+            } else if (!dansLitteral && c == ':' && i + 1 < requete.length()
+                    && Character.isJavaIdentifierStart(requete.charAt(i + 1))) {
+                int fin = i + 1;
+                while (fin < requete.length() && Character.isJavaIdentifierPart(requete.charAt(fin))) {
+                    fin++;
+                }
+                distincts.add(requete.substring(i, fin));
+                i = fin;
+            } else if (!dansLitteral && c == '?') {
+                int fin = i + 1;
+                while (fin < requete.length() && Character.isDigit(requete.charAt(fin))) {
+                    fin++;
+                }
+                if (fin > i + 1) {
+                    distincts.add(requete.substring(i, fin));
+                } else {
+                    anonymes++;
+                }
+                i = fin;
+            } else {
+                i++;
+            }
+        }
+        return distincts.size() + anonymes;
+    }
+}
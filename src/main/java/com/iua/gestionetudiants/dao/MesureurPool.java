@@ -0,0 +1,49 @@
+package com.iua.gestionetudiants.dao;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesure la latence d'acquisition des connexions du pool HikariCP
+ * (temps d'attente d'un thread avant d'obtenir une connexion)
+ */
+class MesureurPool implements MetricsTrackerFactory, IMetricsTracker {
+
+    private final LongAdder nombreAcquisitions = new LongAdder();
+    private final LongAdder dureeTotaleAcquisitionNanos = new LongAdder();
+    private final AtomicLong dureeMaxAcquisitionNanos = new AtomicLong();
+    private final LongAdder nombreExpirations = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        nombreAcquisitions.increment();
+        dureeTotaleAcquisitionNanos.add(elapsedAcquiredNanos);
+        dureeMaxAcquisitionNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        nombreExpirations.increment();
+    }
+
+    /**
+     * Copier les compteurs dans les statistiques exposees
+     */
+    void remplir(StatistiquesPool statistiques) {
+        long nombre = nombreAcquisitions.sum();
+        statistiques.setNombreAcquisitions(nombre);
+        statistiques.setNombreExpirations(nombreExpirations.sum());
+        statistiques.setLatenceMoyenneAcquisitionMs(
+                nombre == 0 ? 0.0 : dureeTotaleAcquisitionNanos.sum() / (double) nombre / 1_000_000.0);
+        statistiques.setLatenceMaxAcquisitionMs(dureeMaxAcquisitionNanos.get() / 1_000_000.0);
+    }
+}
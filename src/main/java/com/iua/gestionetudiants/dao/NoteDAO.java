@@ -1,144 +1,538 @@
 package com.iua.gestionetudiants.dao;
 
+import com.iua.gestionetudiants.dto.AgregatsNotes;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+import com.iua.gestionetudiants.model.Etudiant;
 import com.iua.gestionetudiants.model.Note;
+import jakarta.persistence.Cache;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * DAO (Data Access Object) pour la gestion des notes
  * Couche Persistance - Accès à la base de données via JPA
+ * L'EntityManagerFactory est partagée et gérée par PersistenceManager
  */
 public class NoteDAO {
 
-    private static EntityManagerFactory emf = Persistence.createEntityManagerFactory("GestionEtudiantsPU");
+    // Mesures des méthodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_CREER = Metriques.dao("NoteDAO.creer");
+    private static final Minuteur MESURE_CREER_EN_LOT = Metriques.dao("NoteDAO.creerEnLot");
+    private static final Minuteur MESURE_TROUVER_PAR_ID = Metriques.dao("NoteDAO.trouverParId");
+    private static final Minuteur MESURE_LISTER_PAR_ETUDIANT = Metriques.dao("NoteDAO.listerParEtudiant");
+    private static final Minuteur MESURE_LISTER_PAR_ETUDIANTS = Metriques.dao("NoteDAO.listerParEtudiants");
+    private static final Minuteur MESURE_LISTER_TOUTES = Metriques.dao("NoteDAO.listerToutes");
+    private static final Minuteur MESURE_MODIFIER = Metriques.dao("NoteDAO.modifier");
+    private static final Minuteur MESURE_SUPPRIMER = Metriques.dao("NoteDAO.supprimer");
+    private static final Minuteur MESURE_COMPTER_PAR_ETUDIANT = Metriques.dao("NoteDAO.compterParEtudiant");
+    private static final Minuteur MESURE_FILTRER_SEQUENCES_ENREGISTREES = Metriques.dao("NoteDAO.filtrerSequencesEnregistrees");
+    private static final Minuteur MESURE_SEQUENCE_JOURNAL_MAXIMUM = Metriques.dao("NoteDAO.sequenceJournalMaximum");
+
+    /** Nombre maximum de valeurs dans une clause IN */
+    private static final int TAILLE_PAQUET_IN = 1000;
+
+    /**
+     * Modification versionnee d'une note (voir modifier)
+     * Parametres : matiere, valeur, coefficient, id etudiant, id note, revision lue
+     */
+    private static final String SQL_MODIFIER =
+        "UPDATE note SET matiere = ?, valeur = ?, coefficient = ?, etudiant_id = ?, "
+        + "revision = revision + 1 "
+        + "WHERE id = ? AND revision = ?";
+
+    /**
+     * Ajustement relatif des agregats de notes d'un etudiant (voir ajusterAgregats)
+     * Parametres : delta nombre, delta somme ponderee, delta coefficients,
+     * delta nombre, date de modification, id etudiant
+     *
+     * La revision des notes de l'etudiant est incrementee dans le meme ordre :
+     * toute modification de ses notes change son ETag. Sa revision
+     * (@Version) n'est pas touchee : une modification du formulaire de
+     * l'etudiant ne croise pas la saisie d'une note (voir Etudiant.revisionNotes)
+     */
+    private static final String SQL_AJUSTER_AGREGATS =
+        "UPDATE etudiant SET "
+        + "somme_ponderee = CASE WHEN nombre_notes + ? = 0 THEN 0 ELSE somme_ponderee + ? END, "
+        + "somme_coefficients = somme_coefficients + ?, "
+        + "nombre_notes = nombre_notes + ?, "
+        + "revision_notes = revision_notes + 1, "
+        + "date_modification = ? "
+        + "WHERE id = ?";
+
+    /**
+     * Agregats de notes d'un etudiant (voir lireAgregats)
+     * Parametre : id etudiant
+     */
+    private static final String SQL_LIRE_AGREGATS =
+        "SELECT somme_ponderee, somme_coefficients, nombre_notes FROM etudiant WHERE id = ?";
 
     /**
      * Créer une nouvelle note dans la base de données
+     *
+     * L'étudiant n'est pas lu : la note lui est rattachée par référence
+     * (getReference), et la clé étrangère etudiant_id refuse un étudiant
+     * inexistant (l'INSERT est envoyé en premier,
+     * ConstraintViolationException). Les agrégats de l'étudiant sont ensuite
+     * ajustés puis relus par clé primaire, dans la même transaction : la
+     * nouvelle moyenne est connue sans charger l'étudiant ni ses notes.
+     *
+     * @param etudiantId Étudiant de la note
+     * @return Les agrégats de l'étudiant après l'ajout
      */
-    public void creer(Note note) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            em.getTransaction().begin();
-            em.persist(note);
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+    public AgregatsNotes creer(Note note, Long etudiantId) {
+        return MESURE_CREER.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+                note.setEtudiant(em.getReference(Etudiant.class, etudiantId));
+                em.persist(note);
+                em.flush();
+                ajusterAgregats(em, etudiantId, contribution(note), note.getCoefficient(), 1);
+                AgregatsNotes agregats = lireAgregats(em, etudiantId);
+                em.getTransaction().commit();
+                evincerEtudiants(em, List.of(etudiantId));
+                return agregats;
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
             }
-            throw e;
-        } finally {
-            em.close();
+        });
+    }
+
+    /**
+     * Créer un lot de notes dans UNE SEULE transaction
+     *
+     * - Les notes sont rattachées à leur étudiant par référence (getReference),
+     *   sans relire l'étudiant : l'appelant a déjà vérifié son existence.
+     * - Les identifiants venant de la séquence, Hibernate envoie les INSERT par
+     *   lots JDBC (hibernate.jdbc.batch_size). Le contexte de persistance est
+     *   vidé après chaque lot pour borner la mémoire.
+     * - Les agrégats sont ajustés une fois par étudiant, eux aussi en un lot
+     *   JDBC, par ordre d'ID (verrous pris toujours dans le même ordre).
+     */
+    public void creerEnLot(List<Note> notes) {
+        List<Long> etudiantIds = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            etudiantIds.add(note.getEtudiant().getId());
         }
+        creerEnLot(notes, etudiantIds);
+    }
+
+    /**
+     * Créer un lot de notes dont les étudiants sont donnés par leur ID
+     * (notes sans étudiant, comme celles de l'écriture différée)
+     *
+     * @param etudiantIds Étudiant de chaque note, dans l'ordre des notes
+     */
+    public void creerEnLot(List<Note> notes, List<Long> etudiantIds) {
+        MESURE_CREER_EN_LOT.mesurerAction(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+
+                // Cumul par etudiant : [somme ponderee, coefficients, nombre de notes]
+                Map<Long, double[]> deltas = new TreeMap<>();
+                int compteur = 0;
+                for (int i = 0; i < notes.size(); i++) {
+                    Note note = notes.get(i);
+                    Long etudiantId = etudiantIds.get(i);
+                    note.setEtudiant(em.getReference(Etudiant.class, etudiantId));
+                    em.persist(note);
+
+                    double[] delta = deltas.computeIfAbsent(etudiantId, id -> new double[3]);
+                    delta[0] += contribution(note);
+                    delta[1] += note.getCoefficient();
+                    delta[2] += 1;
+
+                    if (++compteur % PersistenceManager.TAILLE_LOT_JDBC == 0) {
+                        em.flush();
+                        em.clear();
+                    }
+                }
+                em.flush();
+                em.clear();
+
+                Timestamp maintenant = horodatage();
+                evincerEtudiants(em, deltas.keySet());
+                em.unwrap(Session.class).doWork(connexion -> {
+                    StatistiquesRequete.compterOrdreJdbc();
+                    try (PreparedStatement ordre = connexion.prepareStatement(SQL_AJUSTER_AGREGATS)) {
+                        for (Map.Entry<Long, double[]> entree : deltas.entrySet()) {
+                            double[] delta = entree.getValue();
+                            ordre.setInt(1, (int) delta[2]);
+                            ordre.setDouble(2, delta[0]);
+                            ordre.setLong(3, (long) delta[1]);
+                            ordre.setInt(4, (int) delta[2]);
+                            ordre.setTimestamp(5, maintenant);
+                            ordre.setLong(6, entree.getKey());
+                            ordre.addBatch();
+                        }
+                        ordre.executeBatch();
+                    }
+                });
+
+                em.getTransaction().commit();
+                evincerEtudiants(em, deltas.keySet());
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Parmi des numéros du journal de l'écriture différée, retourner ceux
+     * dont la note est déjà enregistrée (requêtes IN par paquets)
+     */
+    public Set<Long> filtrerSequencesEnregistrees(Collection<Long> sequences) {
+        return MESURE_FILTRER_SEQUENCES_ENREGISTREES.mesurer(() -> {
+            Set<Long> enregistrees = new HashSet<>();
+            if (sequences.isEmpty()) {
+                return enregistrees;
+            }
+            List<Long> liste = new ArrayList<>(sequences);
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                for (int debut = 0; debut < liste.size(); debut += TAILLE_PAQUET_IN) {
+                    List<Long> paquet = liste.subList(debut, Math.min(debut + TAILLE_PAQUET_IN, liste.size()));
+                    TypedQuery<Long> query = em.createQuery(
+                        "SELECT n.sequenceJournal FROM Note n WHERE n.sequenceJournal IN :sequences", Long.class);
+                    query.setParameter("sequences", paquet);
+                    enregistrees.addAll(query.getResultList());
+                }
+                return enregistrees;
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Plus grand numéro du journal de l'écriture différée enregistré en
+     * base (0 si aucun)
+     */
+    public long sequenceJournalMaximum() {
+        return MESURE_SEQUENCE_JOURNAL_MAXIMUM.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                Long maximum = em.createQuery("SELECT MAX(n.sequenceJournal) FROM Note n", Long.class)
+                    .getSingleResult();
+                return maximum == null ? 0 : maximum;
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
      * Trouver une note par son ID
      */
     public Note trouverParId(Long id) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            return em.find(Note.class, id);
-        } finally {
-            em.close();
-        }
+        return MESURE_TROUVER_PAR_ID.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                return em.find(Note.class, id);
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
      * Lister toutes les notes d'un étudiant
      */
     public List<Note> listerParEtudiant(Long etudiantId) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            TypedQuery<Note> query = em.createQuery(
-                "SELECT n FROM Note n WHERE n.etudiant.id = :etudiantId ORDER BY n.matiere",
-                Note.class);
-            query.setParameter("etudiantId", etudiantId);
-            return query.getResultList();
-        } finally {
-            em.close();
-        }
+        return MESURE_LISTER_PAR_ETUDIANT.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Note> query = em.createQuery(
+                    "SELECT n FROM Note n WHERE n.etudiant.id = :etudiantId ORDER BY n.matiere",
+                    Note.class);
+                query.setParameter("etudiantId", etudiantId);
+                return query.getResultList();
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Lister les notes de plusieurs étudiants, regroupées par étudiant
+     * (requêtes IN par paquets, entités en lecture seule)
+     *
+     * Pour un traitement par tranches d'étudiants : une requête par tranche
+     * au lieu d'une par étudiant
+     *
+     * @return Les notes de chaque étudiant, par matière ; un étudiant sans
+     *         note est absent
+     */
+    public Map<Long, List<Note>> listerParEtudiants(Collection<Long> etudiantIds) {
+        return MESURE_LISTER_PAR_ETUDIANTS.mesurer(() -> {
+            Map<Long, List<Note>> notesParEtudiant = new HashMap<>();
+            if (etudiantIds.isEmpty()) {
+                return notesParEtudiant;
+            }
+            List<Long> liste = new ArrayList<>(etudiantIds);
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                for (int debut = 0; debut < liste.size(); debut += TAILLE_PAQUET_IN) {
+                    List<Long> paquet = liste.subList(debut, Math.min(debut + TAILLE_PAQUET_IN, liste.size()));
+                    TypedQuery<Object[]> query = em.createQuery(
+                        "SELECT n.etudiant.id, n FROM Note n WHERE n.etudiant.id IN :ids ORDER BY n.matiere",
+                        Object[].class);
+                    query.setParameter("ids", paquet);
+                    query.setHint("org.hibernate.readOnly", true);
+                    for (Object[] ligne : query.getResultList()) {
+                        notesParEtudiant.computeIfAbsent((Long) ligne[0], id -> new ArrayList<>())
+                            .add((Note) ligne[1]);
+                    }
+                }
+                return notesParEtudiant;
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
      * Lister toutes les notes
      */
     public List<Note> listerToutes() {
-        EntityManager em = emf.createEntityManager();
-        try {
-            TypedQuery<Note> query = em.createQuery(
-                "SELECT n FROM Note n ORDER BY n.etudiant.nom, n.matiere", Note.class);
-            return query.getResultList();
-        } finally {
-            em.close();
-        }
+        return MESURE_LISTER_TOUTES.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Note> query = em.createQuery(
+                    "SELECT n FROM Note n ORDER BY n.etudiant.nom, n.matiere", Note.class);
+                return query.getResultList();
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
-     * Mettre à jour une note
+     * Modifier une note en UN ordre SQL versionné :
+     * UPDATE note ... WHERE id = ? AND revision = ? (SQL_MODIFIER)
+     *
+     * La note n'est pas relue dans la transaction : "lue" est la note telle
+     * que l'appelant l'a lue. Si l'UPDATE trouve la ligne à cette révision,
+     * elle avait exactement ces valeurs, et les agrégats des étudiants sont
+     * ajustés à partir d'elles. Aucune ligne modifiée : la note a changé
+     * depuis sa lecture (ou a été supprimée), OptimisticLockException.
+     *
+     * @param note Nouvel état (id, matière, valeur, coefficient, étudiant)
+     * @param lue  Note lue à la révision attendue
      */
-    public void modifier(Note note) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            em.getTransaction().begin();
-            em.merge(note);
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+    public void modifier(Note note, Note lue) {
+        MESURE_MODIFIER.mesurerAction(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+
+                Cache cache = em.getEntityManagerFactory().getCache();
+                cache.evict(Note.class, note.getId());
+                int lignes = em.unwrap(Session.class).doReturningWork(connexion -> {
+                    StatistiquesRequete.compterOrdreJdbc();
+                    try (PreparedStatement ordre = connexion.prepareStatement(SQL_MODIFIER)) {
+                        ordre.setString(1, note.getMatiere());
+                        ordre.setDouble(2, note.getValeur());
+                        ordre.setInt(3, note.getCoefficient());
+                        ordre.setLong(4, note.getEtudiant().getId());
+                        ordre.setLong(5, note.getId());
+                        ordre.setLong(6, lue.getRevision());
+                        return ordre.executeUpdate();
+                    }
+                });
+                if (lignes == 0) {
+                    throw new OptimisticLockException("La note " + note.getId()
+                            + " n'est plus à la révision " + lue.getRevision());
+                }
+
+                Long ancienEtudiantId = lue.getEtudiant().getId();
+                Long etudiantId = note.getEtudiant().getId();
+                if (ancienEtudiantId.equals(etudiantId)) {
+                    ajusterAgregats(em, etudiantId, contribution(note) - contribution(lue),
+                            note.getCoefficient() - lue.getCoefficient(), 0);
+                } else {
+                    // La note change d'etudiant
+                    ajusterAgregats(em, ancienEtudiantId, -contribution(lue), -lue.getCoefficient(), -1);
+                    ajusterAgregats(em, etudiantId, contribution(note), note.getCoefficient(), 1);
+                }
+                em.getTransaction().commit();
+
+                cache.evict(Note.class, note.getId());
+                evincerEtudiants(em, List.of(ancienEtudiantId, etudiantId));
+                if (!ancienEtudiantId.equals(etudiantId)) {
+                    org.hibernate.Cache cacheHibernate = em.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+                    cacheHibernate.evictCollectionData(Etudiant.class.getName() + ".notes", ancienEtudiantId);
+                    cacheHibernate.evictCollectionData(Etudiant.class.getName() + ".notes", etudiantId);
+                }
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
             }
-            throw e;
-        } finally {
-            em.close();
-        }
+        });
     }
 
     /**
      * Supprimer une note
      */
     public void supprimer(Long id) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            em.getTransaction().begin();
-            Note note = em.find(Note.class, id);
-            if (note != null) {
-                em.remove(note);
+        MESURE_SUPPRIMER.mesurerAction(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                em.getTransaction().begin();
+                Note note = em.find(Note.class, id);
+                if (note != null) {
+                    em.remove(note);
+                    ajusterAgregats(em, note.getEtudiant().getId(), -contribution(note), -note.getCoefficient(), -1);
+                }
+                em.getTransaction().commit();
+                if (note != null) {
+                    evincerEtudiants(em, List.of(note.getEtudiant().getId()));
+                }
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
             }
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
-            throw e;
-        } finally {
-            em.close();
-        }
+        });
     }
 
     /**
      * Compter le nombre de notes d'un étudiant
      */
     public long compterParEtudiant(Long etudiantId) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            TypedQuery<Long> query = em.createQuery(
-                "SELECT COUNT(n) FROM Note n WHERE n.etudiant.id = :etudiantId", Long.class);
-            query.setParameter("etudiantId", etudiantId);
-            return query.getSingleResult();
-        } finally {
-            em.close();
-        }
+        return MESURE_COMPTER_PAR_ETUDIANT.mesurer(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Long> query = em.createQuery(
+                    "SELECT COUNT(n) FROM Note n WHERE n.etudiant.id = :etudiantId", Long.class);
+                query.setParameter("etudiantId", etudiantId);
+                return query.getSingleResult();
+            } finally {
+                em.close();
+            }
+        });
     }
 
     /**
-     * Fermer l'EntityManagerFactory
+     * Mettre a jour les agregats de notes d'un etudiant (somme ponderee,
+     * somme des coefficients, nombre de notes) par increments relatifs.
+     *
+     * Execute dans la transaction de l'ecriture de la note : la note et les
+     * agregats sont valides ou annules ensemble. L'UPDATE relatif est atomique
+     * en base, deux ajouts concurrents ne peuvent pas s'ecraser.
+     * Quand la derniere note disparait, la somme ponderee est remise a 0
+     * exactement (pas de residu d'arrondi flottant).
+     *
+     * nombre_notes est affecte APRES somme_ponderee : MySQL evalue les
+     * affectations du SET de gauche a droite avec les nouvelles valeurs.
+     *
+     * L'ordre passe directement par JDBC : une requete native executee par
+     * Hibernate viderait TOUT le cache de second niveau (Hibernate ne sait
+     * pas quelles lignes elle touche). Seul l'etudiant concerne est evince,
+     * avant l'ordre puis apres le commit (evincerEtudiants).
      */
-    public static void fermer() {
-        if (emf != null && emf.isOpen()) {
-            emf.close();
+    private void ajusterAgregats(EntityManager em, Long etudiantId, double deltaSomme,
+                                 long deltaCoefficients, int deltaNombre) {
+        evincerEtudiants(em, List.of(etudiantId));
+        em.unwrap(Session.class).doWork(connexion -> {
+            StatistiquesRequete.compterOrdreJdbc();
+            try (PreparedStatement ordre = connexion.prepareStatement(SQL_AJUSTER_AGREGATS)) {
+                ordre.setInt(1, deltaNombre);
+                ordre.setDouble(2, deltaSomme);
+                ordre.setLong(3, deltaCoefficients);
+                ordre.setInt(4, deltaNombre);
+                ordre.setTimestamp(5, horodatage());
+                ordre.setLong(6, etudiantId);
+                ordre.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Relire les agregats d'un etudiant (un SELECT par cle primaire, en JDBC
+     * comme ajusterAgregats : l'etudiant eventuellement en cache n'est pas
+     * encore a jour)
+     *
+     * @return Les agregats (nuls si l'etudiant n'existe pas)
+     */
+    private AgregatsNotes lireAgregats(EntityManager em, Long etudiantId) {
+        return em.unwrap(Session.class).doReturningWork(connexion -> {
+            StatistiquesRequete.compterOrdreJdbc();
+            try (PreparedStatement ordre = connexion.prepareStatement(SQL_LIRE_AGREGATS)) {
+                ordre.setLong(1, etudiantId);
+                try (ResultSet resultat = ordre.executeQuery()) {
+                    if (!resultat.next()) {
+                        return new AgregatsNotes(0, 0, 0);
+                    }
+                    return new AgregatsNotes(resultat.getDouble(1), resultat.getLong(2), resultat.getInt(3));
+                }
+            }
+        });
+    }
+
+    /**
+     * Date de modification des etudiants, a la seconde comme Etudiant.horodater()
+     */
+    private static Timestamp horodatage() {
+        return Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Retirer du cache de second niveau les etudiants dont les agregats sont
+     * modifies en SQL. Appele deux fois :
+     * - avant l'UPDATE, dans la transaction : une entree deja en cache ne
+     *   survit pas a la modification ;
+     * - apres le commit : une lecture concurrente a pu remettre en cache la
+     *   ligne d'avant le commit ; la prochaine lecture recharge la ligne a jour.
+     * Sans effet si le cache est desactive.
+     */
+    private void evincerEtudiants(EntityManager em, Collection<Long> etudiantIds) {
+        Cache cache = em.getEntityManagerFactory().getCache();
+        for (Long etudiantId : etudiantIds) {
+            cache.evict(Etudiant.class, etudiantId);
         }
     }
+
+    /**
+     * Contribution d'une note a la somme ponderee : valeur × coefficient
+     */
+    private static double contribution(Note note) {
+        return note.getValeur() * note.getCoefficient();
+    }
 }
@@ -0,0 +1,34 @@
+package com.iua.gestionetudiants.dao;
+
+import java.util.List;
+
+/**
+ * Une page de resultats obtenue par pagination par curseur (keyset)
+ *
+ * Le curseur suivant est opaque pour l'appelant : il suffit de le renvoyer
+ * tel quel pour obtenir la page d'apres. Il vaut null sur la derniere page.
+ *
+ * @param <T> Type des elements de la page
+ */
+public class Page<T> {
+
+    private final List<T> elements;
+    private final String curseurSuivant;
+
+    public Page(List<T> elements, String curseurSuivant) {
+        this.elements = elements;
+        this.curseurSuivant = curseurSuivant;
+    }
+
+    public List<T> getElements() {
+        return elements;
+    }
+
+    public String getCurseurSuivant() {
+        return curseurSuivant;
+    }
+
+    public boolean isPageSuivante() {
+        return curseurSuivant != null;
+    }
+}
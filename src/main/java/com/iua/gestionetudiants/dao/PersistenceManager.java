@@ -0,0 +1,455 @@
+package com.iua.gestionetudiants.dao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Persistence;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ===========================================================================
+ * POINT D'ACCES UNIQUE A LA PERSISTANCE
+ * ===========================================================================
+ * Une seule EntityManagerFactory pour toute l'application (un seul
+ * metamodele, un seul pool de connexions), partagee par tous les DAO.
+ *
+ * CYCLE DE VIE :
+ * - demarrer() est appele au demarrage de la webapp (ApplicationListener)
+ * - arreter() est appele a l'arret / au redeploiement, ce qui ferme le pool
+ *
+ * POOL : HikariCP via le ConnectionProvider de Hibernate, borne et
+ * configurable (taille, delais). Les metriques du pool (connexions actives,
+ * inactives, threads en attente, latence d'acquisition) sont exposees par
+ * statistiquesPool(). ACCES_SIMULTANES_MAXIMUM borne en plus le nombre de
+ * connexions empruntees en meme temps (threads virtuels, ConnexionsLimitees).
+ *
+ * CACHE DE SECOND NIVEAU (optionnel, CACHE_ACTIF) : Ehcache 3 via JCache,
+ * regions bornees et a duree de vie limitee (ehcache.xml). Les compteurs
+ * de succes / echecs sont exposes par statistiquesCache().
+ *
+ * STATISTIQUES HIBERNATE (STATISTIQUES_ACTIVES, actives par defaut) :
+ * journal des requetes lentes (SEUIL_REQUETES_LENTES_MS), ordres SQL,
+ * entites et collections chargees par requete HTTP ; exposees par
+ * statistiquesSql().
+ * ===========================================================================
+ */
+public final class PersistenceManager {
+
+    private static final Logger LOGGER = Logger.getLogger(PersistenceManager.class.getName());
+
+    /** Nom de l'unite de persistance declaree dans persistence.xml */
+    public static final String UNITE_PERSISTANCE = "GestionEtudiantsPU";
+
+    // Proprietes Hibernate / HikariCP du pool de connexions
+    public static final String POOL_TAILLE_MAXIMUM = "hibernate.hikari.maximumPoolSize";
+    public static final String POOL_INACTIVES_MINIMUM = "hibernate.hikari.minimumIdle";
+    public static final String POOL_DELAI_ACQUISITION_MS = "hibernate.hikari.connectionTimeout";
+    public static final String POOL_DELAI_INACTIVITE_MS = "hibernate.hikari.idleTimeout";
+    public static final String POOL_DUREE_VIE_MAXIMALE_MS = "hibernate.hikari.maxLifetime";
+
+    /** Acces simultanes a la base, en plus de la taille du pool (0 : pas de limite) */
+    public static final String ACCES_SIMULTANES_MAXIMUM = "gestionetudiants.pool.accesSimultanesMaximum";
+
+    /** Active le cache de second niveau ("true" / "false", desactive par defaut) */
+    public static final String CACHE_ACTIF = "hibernate.cache.use_second_level_cache";
+
+    /** Active les statistiques Hibernate ("true" par defaut) */
+    public static final String STATISTIQUES_ACTIVES = "hibernate.generate_statistics";
+
+    /** Duree (ms) a partir de laquelle une requete est journalisee (0 : aucune) */
+    public static final String SEUIL_REQUETES_LENTES_MS = "gestionetudiants.requetesLentes.seuilMs";
+
+    /** Nombre de requetes les plus couteuses exposees par statistiquesSql() */
+    private static final int NOMBRE_REQUETES_COUTEUSES = 20;
+
+    /** Nombre d'ordres SQL regroupes dans un meme lot JDBC */
+    public static final int TAILLE_LOT_JDBC = 50;
+
+    private static volatile EntityManagerFactory emf;
+
+    private static volatile boolean cacheActif;
+
+    private static volatile long seuilRequetesLentesMs;
+
+    private static final MesureurPool mesureurPool = new MesureurPool();
+
+    private static volatile ConnexionsLimitees connexionsLimitees;
+
+    private PersistenceManager() {
+    }
+
+    /**
+     * Demarrer la persistance avec des proprietes complementaires
+     * (elles surchargent les valeurs par defaut et celles de persistence.xml)
+     */
+    public static synchronized void demarrer(Map<String, Object> proprietes) {
+        if (emf != null && emf.isOpen()) {
+            return;
+        }
+
+        Map<String, Object> configuration = proprietesParDefaut();
+        if (proprietes != null) {
+            configuration.putAll(proprietes);
+        }
+        cacheActif = Boolean.parseBoolean(String.valueOf(configuration.get(CACHE_ACTIF)));
+        if (cacheActif) {
+            configurerCache(configuration);
+        }
+        seuilRequetesLentesMs = Long.parseLong(String.valueOf(configuration.get(SEUIL_REQUETES_LENTES_MS)).trim());
+        configuration.put("hibernate.stats.factory", StatistiquesHibernate.fabrique(seuilRequetesLentesMs));
+        int accesMaximum = Integer.parseInt(String.valueOf(configuration.get(ACCES_SIMULTANES_MAXIMUM)).trim());
+        connexionsLimitees = accesMaximum > 0 ? limiterAcces(configuration, accesMaximum) : null;
+
+        emf = Persistence.createEntityManagerFactory(UNITE_PERSISTANCE, configuration);
+        installerMesureurPool();
+        alignerSequence("etudiant_seq", "etudiant");
+        alignerSequence("note_seq", "note");
+        LOGGER.info("Persistance demarree (pool de " + configuration.get(POOL_TAILLE_MAXIMUM) + " connexions max, "
+                + "cache de second niveau " + (cacheActif ? "actif" : "inactif")
+                + (accesMaximum > 0 ? ", " + accesMaximum + " acces simultanes max" : "") + ")");
+    }
+
+    /**
+     * Placer le fournisseur de connexions configure derriere un semaphore
+     * de "maximum" acces (meme delai d'attente que le pool)
+     */
+    private static ConnexionsLimitees limiterAcces(Map<String, Object> configuration, int maximum) {
+        Object fournisseur = configuration.get("hibernate.connection.provider_class");
+        ConnectionProvider pool;
+        if (fournisseur instanceof ConnectionProvider) {
+            pool = (ConnectionProvider) fournisseur;
+        } else {
+            try {
+                pool = (ConnectionProvider) Class.forName(String.valueOf(fournisseur).trim())
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalStateException("Fournisseur de connexions invalide : " + fournisseur, e);
+            }
+        }
+        long delaiMs = Long.parseLong(String.valueOf(configuration.get(POOL_DELAI_ACQUISITION_MS)).trim());
+        ConnexionsLimitees limitees = new ConnexionsLimitees(pool, maximum, delaiMs);
+        configuration.put("hibernate.connection.provider_class", limitees);
+        return limitees;
+    }
+
+    /**
+     * Retourner l'EntityManagerFactory partagee
+     * Demarre la persistance avec la configuration par defaut si le listener
+     * ne l'a pas encore fait (outils en ligne de commande, benchmarks)
+     */
+    public static EntityManagerFactory getEntityManagerFactory() {
+        EntityManagerFactory courante = emf;
+        if (courante == null || !courante.isOpen()) {
+            demarrer(null);
+            courante = emf;
+        }
+        return courante;
+    }
+
+    /**
+     * Ouvrir un nouvel EntityManager (a fermer par l'appelant)
+     */
+    public static EntityManager creerEntityManager() {
+        return getEntityManagerFactory().createEntityManager();
+    }
+
+    /**
+     * Fermer l'EntityManagerFactory et le pool de connexions
+     */
+    public static synchronized void arreter() {
+        if (emf != null && emf.isOpen()) {
+            emf.close();
+            LOGGER.info("Persistance arretee");
+        }
+        emf = null;
+    }
+
+    /**
+     * L'exception (ou l'une de ses causes) est-elle une violation de
+     * contrainte d'integrite (UNIQUE, cle etrangere...) ?
+     * Hibernate l'enveloppe dans une PersistenceException, elle-meme parfois
+     * dans une RollbackException lorsque l'erreur survient au commit
+     */
+    public static boolean estViolationContrainte(Throwable erreur) {
+        for (Throwable cause = erreur; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * L'exception (ou l'une de ses causes) signale-t-elle un conflit de
+     * version (@Version) : la ligne a ete modifiee par une autre transaction
+     * depuis sa lecture ?
+     * Selon le moment de la detection (merge ou flush), Hibernate leve une
+     * OptimisticLockException JPA ou une StaleStateException native
+     */
+    public static boolean estConflitVersion(Throwable erreur) {
+        for (Throwable cause = erreur; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si le cache de second niveau est actif
+     */
+    public static boolean isCacheActif() {
+        return cacheActif;
+    }
+
+    /**
+     * Photographie des compteurs du cache de second niveau
+     */
+    public static StatistiquesCache statistiquesCache() {
+        StatistiquesCache statistiques = new StatistiquesCache();
+        statistiques.setActif(cacheActif);
+        EntityManagerFactory courante = emf;
+        if (!cacheActif || courante == null || !courante.isOpen()) {
+            return statistiques;
+        }
+
+        Statistics stats = courante.unwrap(SessionFactory.class).getStatistics();
+        statistiques.setSucces(stats.getSecondLevelCacheHitCount());
+        statistiques.setEchecs(stats.getSecondLevelCacheMissCount());
+        statistiques.setTauxSucces(StatistiquesCache.taux(
+                stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount()));
+        statistiques.setSuccesRequetes(stats.getQueryCacheHitCount());
+        statistiques.setEchecsRequetes(stats.getQueryCacheMissCount());
+
+        for (String nom : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = stats.getCacheRegionStatistics(nom);
+            if (region == null) {
+                continue;
+            }
+            StatistiquesCache.Region ligne = new StatistiquesCache.Region();
+            ligne.setNom(nom);
+            ligne.setSucces(region.getHitCount());
+            ligne.setEchecs(region.getMissCount());
+            ligne.setInsertions(region.getPutCount());
+            ligne.setEntreesEnMemoire(region.getElementCountInMemory());
+            ligne.setTauxSucces(StatistiquesCache.taux(region.getHitCount(), region.getMissCount()));
+            statistiques.getRegions().add(ligne);
+        }
+        return statistiques;
+    }
+
+    /**
+     * Photographie des statistiques Hibernate : compteurs globaux, requetes
+     * les plus couteuses (duree totale), dernieres requetes lentes, ordres
+     * SQL par route HTTP
+     */
+    public static StatistiquesSql statistiquesSql() {
+        StatistiquesSql statistiques = new StatistiquesSql();
+        statistiques.setSeuilRequetesLentesMs(seuilRequetesLentesMs);
+        statistiques.setRequetesLentes(JournalRequetesLentes.nombre());
+        statistiques.getDernieresRequetesLentes().addAll(JournalRequetesLentes.dernieres());
+        statistiques.getRoutes().addAll(StatistiquesRoutes.lister());
+        EntityManagerFactory courante = emf;
+        if (courante == null || !courante.isOpen()) {
+            return statistiques;
+        }
+
+        Statistics stats = courante.unwrap(SessionFactory.class).getStatistics();
+        statistiques.setActives(stats.isStatisticsEnabled());
+        if (!stats.isStatisticsEnabled()) {
+            return statistiques;
+        }
+        statistiques.setDebut(String.valueOf(stats.getStart()));
+        statistiques.setOrdresSqlPrepares(stats.getPrepareStatementCount());
+        statistiques.setRequetesExecutees(stats.getQueryExecutionCount());
+        statistiques.setEntitesChargees(stats.getEntityLoadCount());
+        statistiques.setEntitesRecuperees(stats.getEntityFetchCount());
+        statistiques.setCollectionsChargees(stats.getCollectionLoadCount());
+        statistiques.setCollectionsRecuperees(stats.getCollectionFetchCount());
+        statistiques.setFlushs(stats.getFlushCount());
+        statistiques.setSessionsOuvertes(stats.getSessionOpenCount());
+        statistiques.setTransactions(stats.getTransactionCount());
+
+        List<StatistiquesSql.Requete> requetes = new ArrayList<>();
+        for (String texte : stats.getQueries()) {
+            QueryStatistics requete = stats.getQueryStatistics(texte);
+            if (requete == null || requete.getExecutionCount() == 0) {
+                continue;
+            }
+            StatistiquesSql.Requete ligne = new StatistiquesSql.Requete();
+            ligne.setTexte(texte);
+            ligne.setExecutions(requete.getExecutionCount());
+            ligne.setLignes(requete.getExecutionRowCount());
+            ligne.setDureeMoyenneMs(requete.getExecutionTotalTime() / (double) requete.getExecutionCount());
+            ligne.setDureeMaxMs(requete.getExecutionMaxTime());
+            ligne.setDureeTotaleMs(requete.getExecutionTotalTime());
+            requetes.add(ligne);
+        }
+        requetes.sort(Comparator.comparingLong(StatistiquesSql.Requete::getDureeTotaleMs).reversed());
+        statistiques.getRequetesLesPlusCouteuses().addAll(
+                requetes.subList(0, Math.min(NOMBRE_REQUETES_COUTEUSES, requetes.size())));
+        return statistiques;
+    }
+
+    /**
+     * Photographie des metriques du pool de connexions
+     */
+    public static StatistiquesPool statistiquesPool() {
+        StatistiquesPool statistiques = new StatistiquesPool();
+        HikariDataSource dataSource = dataSourcePool();
+        if (dataSource != null && dataSource.getHikariPoolMXBean() != null) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            statistiques.setConnexionsActives(pool.getActiveConnections());
+            statistiques.setConnexionsInactives(pool.getIdleConnections());
+            statistiques.setConnexionsTotales(pool.getTotalConnections());
+            statistiques.setThreadsEnAttente(pool.getThreadsAwaitingConnection());
+            statistiques.setTailleMaximum(dataSource.getMaximumPoolSize());
+        }
+        mesureurPool.remplir(statistiques);
+        ConnexionsLimitees limitees = connexionsLimitees;
+        if (limitees != null) {
+            limitees.remplir(statistiques);
+        }
+        return statistiques;
+    }
+
+    /**
+     * Valeurs par defaut du pool (dimensionnees pour un petit serveur)
+     */
+    private static Map<String, Object> proprietesParDefaut() {
+        Map<String, Object> proprietes = new HashMap<>();
+        proprietes.put("hibernate.connection.provider_class",
+                "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
+        proprietes.put("hibernate.hikari.poolName", "GestionEtudiantsPool");
+        proprietes.put(POOL_TAILLE_MAXIMUM, "10");
+        proprietes.put(POOL_INACTIVES_MINIMUM, "2");
+        proprietes.put(POOL_DELAI_ACQUISITION_MS, "5000");
+        proprietes.put(POOL_DELAI_INACTIVITE_MS, "600000");
+        proprietes.put(POOL_DUREE_VIE_MAXIMALE_MS, "1800000");
+        proprietes.put(ACCES_SIMULTANES_MAXIMUM, "0");
+
+        // Insertions et mises a jour envoyees par lots JDBC
+        // (MySQL : ajouter rewriteBatchedStatements=true a l'URL JDBC)
+        proprietes.put("hibernate.jdbc.batch_size", String.valueOf(TAILLE_LOT_JDBC));
+        proprietes.put("hibernate.order_inserts", "true");
+        proprietes.put("hibernate.order_updates", "true");
+        // La valeur lue dans la sequence est le debut du bloc reserve
+        // (voir alignerSequence)
+        proprietes.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+
+        proprietes.put(CACHE_ACTIF, "false");
+
+        // Statistiques : requetes lentes, ordres SQL par requete HTTP,
+        // compteurs du cache de second niveau
+        proprietes.put(STATISTIQUES_ACTIVES, "true");
+        proprietes.put(SEUIL_REQUETES_LENTES_MS, "100");
+        return proprietes;
+    }
+
+    /**
+     * Configuration du cache de second niveau, lorsqu'il est active
+     * (les valeurs deja fournies par l'appelant sont conservees)
+     *
+     * - Seules les entites annotees @Cacheable sont mises en cache
+     * - Cache de requetes pour la recherche par matricule
+     * - auto_evict_collection_cache : ajouter / supprimer une note evince
+     *   la collection Etudiant.notes en cache
+     * - Les compteurs de succes / echecs par region viennent des
+     *   statistiques Hibernate (STATISTIQUES_ACTIVES)
+     */
+    private static void configurerCache(Map<String, Object> configuration) {
+        configuration.putIfAbsent("jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        configuration.putIfAbsent("hibernate.cache.region.factory_class", "jcache");
+        configuration.putIfAbsent("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        configuration.putIfAbsent("hibernate.javax.cache.uri", "ehcache.xml");
+        configuration.putIfAbsent("hibernate.cache.use_query_cache", "true");
+        configuration.putIfAbsent("hibernate.cache.auto_evict_collection_cache", "true");
+    }
+
+    /**
+     * Aligner une sequence emulee par table (MySQL) sur le plus grand
+     * identifiant existant
+     *
+     * Les bases creees avant le passage de IDENTITY a SEQUENCE contiennent
+     * deja des lignes numerotees par AUTO_INCREMENT : la sequence doit
+     * reprendre apres elles. GREATEST() rend l'operation sans effet si la
+     * sequence est deja plus loin (redemarrage, autre instance).
+     * Sur une base avec de vraies sequences la table n'existe pas : ignore.
+     */
+    private static void alignerSequence(String sequence, String table) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("UPDATE " + sequence + " SET next_val = GREATEST(next_val, "
+                    + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "))")
+                .executeUpdate();
+            em.getTransaction().commit();
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            LOGGER.log(Level.FINE, "Sequence " + sequence + " non alignee (pas de table d'emulation)", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Brancher le mesureur de latence d'acquisition sur le pool HikariCP
+     */
+    private static void installerMesureurPool() {
+        HikariDataSource dataSource = dataSourcePool();
+        if (dataSource == null) {
+            return;
+        }
+        try {
+            if (dataSource.getMetricsTrackerFactory() == null) {
+                dataSource.setMetricsTrackerFactory(mesureurPool);
+            }
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Impossible d'installer le mesureur du pool", e);
+        }
+    }
+
+    /**
+     * Recuperer la DataSource HikariCP derriere Hibernate (null si un autre
+     * ConnectionProvider est configure)
+     */
+    private static HikariDataSource dataSourcePool() {
+        EntityManagerFactory courante = emf;
+        if (courante == null || !courante.isOpen()) {
+            return null;
+        }
+        ConnectionProvider provider = courante.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (provider == null || !provider.isUnwrappableAs(HikariDataSource.class)) {
+            return null;
+        }
+        return provider.unwrap(HikariDataSource.class);
+    }
+}
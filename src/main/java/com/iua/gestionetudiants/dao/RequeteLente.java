@@ -0,0 +1,52 @@
+package com.iua.gestionetudiants.dao;
+
+/**
+ * Une requete JPQL (ou SQL natif) plus lente que le seuil configure
+ */
+public class RequeteLente {
+
+    private final String date;
+    private final String requete;
+    private final int parametres;
+    private final int lignes;
+    private final long dureeMs;
+    private final String route;
+
+    public RequeteLente(String date, String requete, int parametres, int lignes, long dureeMs, String route) {
+        this.date = date;
+        this.requete = requete;
+        this.parametres = parametres;
+        this.lignes = lignes;
+        this.dureeMs = dureeMs;
+        this.route = route;
+    }
+
+    /** Date et heure de fin d'execution (ISO 8601) */
+    public String getDate() {
+        return date;
+    }
+
+    /** Texte de la requete, tel qu'ecrit dans le DAO */
+    public String getRequete() {
+        return requete;
+    }
+
+    /** Nombre de parametres lies (:nom, ?1, ?) */
+    public int getParametres() {
+        return parametres;
+    }
+
+    /** Lignes renvoyees (ou modifiees) */
+    public int getLignes() {
+        return lignes;
+    }
+
+    public long getDureeMs() {
+        return dureeMs;
+    }
+
+    /** Requete HTTP en cours (null hors requete HTTP) */
+    public String getRoute() {
+        return route;
+    }
+}
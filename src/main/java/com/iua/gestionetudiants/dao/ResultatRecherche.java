@@ -0,0 +1,35 @@
+package com.iua.gestionetudiants.dao;
+
+import com.iua.gestionetudiants.dto.EtudiantResume;
+
+import java.util.List;
+
+/**
+ * Resultat d'une recherche dans l'index (IndexRecherche) : les premiers
+ * etudiants trouves et le nombre total de correspondances
+ */
+public class ResultatRecherche {
+
+    private final List<EtudiantResume> etudiants;
+    private final int total;
+
+    public ResultatRecherche(List<EtudiantResume> etudiants, int total) {
+        this.etudiants = etudiants;
+        this.total = total;
+    }
+
+    public List<EtudiantResume> getEtudiants() {
+        return etudiants;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * D'autres etudiants correspondent, au-dela de ceux renvoyes
+     */
+    public boolean isTronque() {
+        return total > etudiants.size();
+    }
+}
@@ -0,0 +1,120 @@
+package com.iua.gestionetudiants.dao;
+
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * DAO des statistiques de notes par matiere
+ *
+ * Les notes sont regroupees par (matiere, valeur arrondie au centieme) :
+ * une matiere produit au plus 2001 groupes (0,00 a 20,00), quel que soit
+ * son nombre de notes. La base fait l'essentiel du travail en un seul
+ * parcours de la table note ; seuls les groupes remontent, en flux.
+ */
+public class StatistiqueDAO {
+
+    // Mesures des methodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_PARCOURIR_GROUPES = Metriques.dao("StatistiqueDAO.parcourirGroupes");
+
+    /** Nombre de groupes lus par aller-retour */
+    private static final int TAILLE_PAQUET_CURSEUR = 500;
+
+    /**
+     * Groupe de notes de meme valeur (au centieme) dans une matiere
+     * Somme, somme des carres, minimum et maximum portent sur les valeurs exactes
+     */
+    public static class GroupeNotes {
+
+        private final String matiere;
+        private final double valeur;
+        private final long nombre;
+        private final double somme;
+        private final double sommeCarres;
+        private final double minimum;
+        private final double maximum;
+
+        GroupeNotes(String matiere, double valeur, long nombre, double somme, double sommeCarres,
+                    double minimum, double maximum) {
+            this.matiere = matiere;
+            this.valeur = valeur;
+            this.nombre = nombre;
+            this.somme = somme;
+            this.sommeCarres = sommeCarres;
+            this.minimum = minimum;
+            this.maximum = maximum;
+        }
+
+        public String getMatiere() {
+            return matiere;
+        }
+
+        public double getValeur() {
+            return valeur;
+        }
+
+        public long getNombre() {
+            return nombre;
+        }
+
+        public double getSomme() {
+            return somme;
+        }
+
+        public double getSommeCarres() {
+            return sommeCarres;
+        }
+
+        public double getMinimum() {
+            return minimum;
+        }
+
+        public double getMaximum() {
+            return maximum;
+        }
+    }
+
+    /**
+     * Parcourir les groupes, tries par matiere puis par valeur croissante
+     *
+     * @param matiere    Matiere a analyser, ou null pour toutes
+     * @param traitement Appele pour chaque groupe, dans l'ordre
+     */
+    public void parcourirGroupes(String matiere, Consumer<GroupeNotes> traitement) {
+        MESURE_PARCOURIR_GROUPES.mesurerAction(() -> {
+            EntityManager em = PersistenceManager.creerEntityManager();
+            try {
+                TypedQuery<Object[]> query = em.createQuery(
+                    "SELECT n.matiere, ROUND(n.valeur, 2), COUNT(n), SUM(n.valeur), SUM(n.valeur * n.valeur), "
+                    + "MIN(n.valeur), MAX(n.valeur) "
+                    + "FROM Note n "
+                    + (matiere != null ? "WHERE n.matiere = :matiere " : "")
+                    + "GROUP BY n.matiere, ROUND(n.valeur, 2) "
+                    + "ORDER BY n.matiere, ROUND(n.valeur, 2)",
+                    Object[].class);
+                if (matiere != null) {
+                    query.setParameter("matiere", matiere);
+                }
+                query.setHint("org.hibernate.fetchSize", TAILLE_PAQUET_CURSEUR);
+                query.setHint("org.hibernate.readOnly", true);
+
+                try (Stream<Object[]> groupes = query.getResultStream()) {
+                    groupes.forEach(ligne -> traitement.accept(new GroupeNotes(
+                        (String) ligne[0],
+                        ((Number) ligne[1]).doubleValue(),
+                        ((Number) ligne[2]).longValue(),
+                        ((Number) ligne[3]).doubleValue(),
+                        ((Number) ligne[4]).doubleValue(),
+                        ((Number) ligne[5]).doubleValue(),
+                        ((Number) ligne[6]).doubleValue())));
+                }
+            } finally {
+                em.close();
+            }
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.iua.gestionetudiants.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Metriques du cache de second niveau a un instant donne
+ * (succes / echecs par region, depuis le demarrage de l'application)
+ */
+public class StatistiquesCache {
+
+    private boolean actif;
+    private long succes;
+    private long echecs;
+    private double tauxSucces;
+    private long succesRequetes;
+    private long echecsRequetes;
+    private final List<Region> regions = new ArrayList<>();
+
+    /**
+     * Compteurs d'une region du cache (etudiant, etudiant.notes, note...)
+     */
+    public static class Region {
+
+        private String nom;
+        private long succes;
+        private long echecs;
+        private long insertions;
+        private long entreesEnMemoire;
+        private double tauxSucces;
+
+        public String getNom() {
+            return nom;
+        }
+
+        public void setNom(String nom) {
+            this.nom = nom;
+        }
+
+        public long getSucces() {
+            return succes;
+        }
+
+        public void setSucces(long succes) {
+            this.succes = succes;
+        }
+
+        public long getEchecs() {
+            return echecs;
+        }
+
+        public void setEchecs(long echecs) {
+            this.echecs = echecs;
+        }
+
+        public long getInsertions() {
+            return insertions;
+        }
+
+        public void setInsertions(long insertions) {
+            this.insertions = insertions;
+        }
+
+        public long getEntreesEnMemoire() {
+            return entreesEnMemoire;
+        }
+
+        public void setEntreesEnMemoire(long entreesEnMemoire) {
+            this.entreesEnMemoire = entreesEnMemoire;
+        }
+
+        public double getTauxSucces() {
+            return tauxSucces;
+        }
+
+        public void setTauxSucces(double tauxSucces) {
+            this.tauxSucces = tauxSucces;
+        }
+    }
+
+    /**
+     * Taux de succes arrondi a 3 decimales (0 si aucune lecture)
+     */
+    static double taux(long succes, long echecs) {
+        long total = succes + echecs;
+        return total == 0 ? 0.0 : Math.round(succes * 1000.0 / total) / 1000.0;
+    }
+
+    // Getters et Setters
+    public boolean isActif() {
+        return actif;
+    }
+
+    public void setActif(boolean actif) {
+        this.actif = actif;
+    }
+
+    public long getSucces() {
+        return succes;
+    }
+
+    public void setSucces(long succes) {
+        this.succes = succes;
+    }
+
+    public long getEchecs() {
+        return echecs;
+    }
+
+    public void setEchecs(long echecs) {
+        this.echecs = echecs;
+    }
+
+    public double getTauxSucces() {
+        return tauxSucces;
+    }
+
+    public void setTauxSucces(double tauxSucces) {
+        this.tauxSucces = tauxSucces;
+    }
+
+    public long getSuccesRequetes() {
+        return succesRequetes;
+    }
+
+    public void setSuccesRequetes(long succesRequetes) {
+        this.succesRequetes = succesRequetes;
+    }
+
+    public long getEchecsRequetes() {
+        return echecsRequetes;
+    }
+
+    public void setEchecsRequetes(long echecsRequetes) {
+        this.echecsRequetes = echecsRequetes;
+    }
+
+    public List<Region> getRegions() {
+        return regions;
+    }
+}
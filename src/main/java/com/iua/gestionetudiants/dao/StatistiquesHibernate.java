@@ -0,0 +1,99 @@
+package com.iua.gestionetudiants.dao;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+
+/**
+ * Statistiques Hibernate de l'application
+ *
+ * Garde les compteurs globaux de Hibernate (StatisticsImpl) et ajoute :
+ * - le journal des requetes lentes : Hibernate signale chaque requete
+ *   executee avec son texte JPQL, ses lignes et sa duree
+ * - les compteurs de la requete HTTP en cours (StatistiquesRequete)
+ *
+ * Installe par PersistenceManager (propriete hibernate.stats.factory) ;
+ * Hibernate n'appelle ces methodes que si hibernate.generate_statistics
+ * vaut true.
+ */
+class StatistiquesHibernate extends StatisticsImpl {
+
+    private final long seuilRequetesLentesMs;
+
+    private StatistiquesHibernate(SessionFactoryImplementor sessionFactory, long seuilRequetesLentesMs) {
+        super(sessionFactory);
+        this.seuilRequetesLentesMs = seuilRequetesLentesMs;
+    }
+
+    /**
+     * Fabrique a passer a Hibernate (hibernate.stats.factory)
+     *
+     * @param seuilRequetesLentesMs Duree a partir de laquelle une requete est
+     *                              journalisee (0 : aucune)
+     */
+    static StatisticsFactory fabrique(long seuilRequetesLentesMs) {
+        return sessionFactory -> new StatistiquesHibernate(sessionFactory, seuilRequetesLentesMs);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        if (seuilRequetesLentesMs > 0 && time >= seuilRequetesLentesMs) {
+            JournalRequetesLentes.enregistrer(hql, rows, time);
+        }
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+        StatistiquesRequete courante = StatistiquesRequete.courante();
+        if (courante != null) {
+            courante.compterOrdreSql();
+        }
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        StatistiquesRequete courante = StatistiquesRequete.courante();
+        if (courante != null) {
+            courante.compterEntiteChargee();
+        }
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+        StatistiquesRequete courante = StatistiquesRequete.courante();
+        if (courante != null) {
+            courante.compterEntiteRecuperee();
+        }
+    }
+
+    @Override
+    public void loadCollection(String role) {
+        super.loadCollection(role);
+        StatistiquesRequete courante = StatistiquesRequete.courante();
+        if (courante != null) {
+            courante.compterCollectionChargee();
+        }
+    }
+
+    @Override
+    public void fetchCollection(String role) {
+        super.fetchCollection(role);
+        StatistiquesRequete courante = StatistiquesRequete.courante();
+        if (courante != null) {
+            courante.compterCollectionRecuperee();
+        }
+    }
+
+    @Override
+    public void flush() {
+        super.flush();
+        StatistiquesRequete courante = StatistiquesRequete.courante();
+        if (courante != null) {
+            courante.compterFlush();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.iua.gestionetudiants.dao;
+
+/**
+ * Metriques du pool de connexions a un instant donne
+ * Permet de dimensionner le pool par rapport a la concurrence des requetes
+ */
+public class StatistiquesPool {
+
+    private int connexionsActives;
+    private int connexionsInactives;
+    private int connexionsTotales;
+    private int threadsEnAttente;
+    private int tailleMaximum;
+    private long nombreAcquisitions;
+    private long nombreExpirations;
+    private double latenceMoyenneAcquisitionMs;
+    private double latenceMaxAcquisitionMs;
+    private int accesSimultanesMaximum;
+    private int threadsEnAttenteAcces;
+    private long nombreRefusAcces;
+
+    // Getters et Setters
+    public int getConnexionsActives() {
+        return connexionsActives;
+    }
+
+    public void setConnexionsActives(int connexionsActives) {
+        this.connexionsActives = connexionsActives;
+    }
+
+    public int getConnexionsInactives() {
+        return connexionsInactives;
+    }
+
+    public void setConnexionsInactives(int connexionsInactives) {
+        this.connexionsInactives = connexionsInactives;
+    }
+
+    public int getConnexionsTotales() {
+        return connexionsTotales;
+    }
+
+    public void setConnexionsTotales(int connexionsTotales) {
+        this.connexionsTotales = connexionsTotales;
+    }
+
+    public int getThreadsEnAttente() {
+        return threadsEnAttente;
+    }
+
+    public void setThreadsEnAttente(int threadsEnAttente) {
+        this.threadsEnAttente = threadsEnAttente;
+    }
+
+    public int getTailleMaximum() {
+        return tailleMaximum;
+    }
+
+    public void setTailleMaximum(int tailleMaximum) {
+        this.tailleMaximum = tailleMaximum;
+    }
+
+    public long getNombreAcquisitions() {
+        return nombreAcquisitions;
+    }
+
+    public void setNombreAcquisitions(long nombreAcquisitions) {
+        this.nombreAcquisitions = nombreAcquisitions;
+    }
+
+    public long getNombreExpirations() {
+        return nombreExpirations;
+    }
+
+    public void setNombreExpirations(long nombreExpirations) {
+        this.nombreExpirations = nombreExpirations;
+    }
+
+    public double getLatenceMoyenneAcquisitionMs() {
+        return latenceMoyenneAcquisitionMs;
+    }
+
+    public void setLatenceMoyenneAcquisitionMs(double latenceMoyenneAcquisitionMs) {
+        this.latenceMoyenneAcquisitionMs = latenceMoyenneAcquisitionMs;
+    }
+
+    public double getLatenceMaxAcquisitionMs() {
+        return latenceMaxAcquisitionMs;
+    }
+
+    public void setLatenceMaxAcquisitionMs(double latenceMaxAcquisitionMs) {
+        this.latenceMaxAcquisitionMs = latenceMaxAcquisitionMs;
+    }
+
+    public int getAccesSimultanesMaximum() {
+        return accesSimultanesMaximum;
+    }
+
+    public void setAccesSimultanesMaximum(int accesSimultanesMaximum) {
+        this.accesSimultanesMaximum = accesSimultanesMaximum;
+    }
+
+    public int getThreadsEnAttenteAcces() {
+        return threadsEnAttenteAcces;
+    }
+
+    public void setThreadsEnAttenteAcces(int threadsEnAttenteAcces) {
+        this.threadsEnAttenteAcces = threadsEnAttenteAcces;
+    }
+
+    public long getNombreRefusAcces() {
+        return nombreRefusAcces;
+    }
+
+    public void setNombreRefusAcces(long nombreRefusAcces) {
+        this.nombreRefusAcces = nombreRefusAcces;
+    }
+}
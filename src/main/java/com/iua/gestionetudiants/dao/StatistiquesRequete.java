@@ -0,0 +1,150 @@
+package com.iua.gestionetudiants.dao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compteurs Hibernate d'UNE requete HTTP (ordres SQL, entites et
+ * collections chargees, flushs), tenus par le thread qui la traite
+ *
+ * Ouverts et fermes par FiltreStatistiquesSql ; alimentes par
+ * StatistiquesHibernate. Hors requete HTTP (demarrage, outils), rien
+ * n'est compte. Une requete traitee sur un autre thread (AsyncResponse)
+ * y emporte ses compteurs : courante() puis reprendre().
+ *
+ * Les compteurs passent donc d'un thread a l'autre (thread du conteneur,
+ * executeur REST, puis thread qui cumule a la fin de la requete
+ * asynchrone) : ce sont des AtomicInteger, lus a jour quel que soit le
+ * thread, y compris quand un traitement expire ecrit encore pendant la
+ * lecture.
+ */
+public final class StatistiquesRequete {
+
+    private static final ThreadLocal<StatistiquesRequete> COURANTE = new ThreadLocal<>();
+
+    private final String route;
+    private final AtomicInteger ordresSql = new AtomicInteger();
+    private final AtomicInteger entitesChargees = new AtomicInteger();
+    private final AtomicInteger entitesRecuperees = new AtomicInteger();
+    private final AtomicInteger collectionsChargees = new AtomicInteger();
+    private final AtomicInteger collectionsRecuperees = new AtomicInteger();
+    private final AtomicInteger flushs = new AtomicInteger();
+    private final AtomicInteger requetesLentes = new AtomicInteger();
+
+    private StatistiquesRequete(String route) {
+        this.route = route;
+    }
+
+    /**
+     * Commencer le comptage pour la requete traitee par ce thread
+     *
+     * @param route Route normalisee (GET /api/etudiants/{id}...)
+     */
+    public static StatistiquesRequete demarrer(String route) {
+        StatistiquesRequete statistiques = new StatistiquesRequete(route);
+        COURANTE.set(statistiques);
+        return statistiques;
+    }
+
+    /**
+     * Arreter le comptage
+     *
+     * @return Les compteurs de la requete (null si aucun comptage en cours)
+     */
+    public static StatistiquesRequete terminer() {
+        StatistiquesRequete statistiques = COURANTE.get();
+        COURANTE.remove();
+        return statistiques;
+    }
+
+    /**
+     * Compteurs de la requete traitee par ce thread (null hors requete HTTP)
+     */
+    public static StatistiquesRequete courante() {
+        return COURANTE.get();
+    }
+
+    /**
+     * Poursuivre sur ce thread le comptage d'une requete commence sur un
+     * autre (a fermer par terminer())
+     */
+    public static void reprendre(StatistiquesRequete statistiques) {
+        if (statistiques != null) {
+            COURANTE.set(statistiques);
+        }
+    }
+
+    /**
+     * Compter un ordre envoye directement par JDBC (Session.doWork), que
+     * Hibernate ne voit pas passer
+     */
+    static void compterOrdreJdbc() {
+        StatistiquesRequete statistiques = COURANTE.get();
+        if (statistiques != null) {
+            statistiques.ordresSql.incrementAndGet();
+        }
+    }
+
+    void compterOrdreSql() {
+        ordresSql.incrementAndGet();
+    }
+
+    void compterEntiteChargee() {
+        entitesChargees.incrementAndGet();
+    }
+
+    void compterEntiteRecuperee() {
+        entitesRecuperees.incrementAndGet();
+    }
+
+    void compterCollectionChargee() {
+        collectionsChargees.incrementAndGet();
+    }
+
+    void compterCollectionRecuperee() {
+        collectionsRecuperees.incrementAndGet();
+    }
+
+    void compterFlush() {
+        flushs.incrementAndGet();
+    }
+
+    void compterRequeteLente() {
+        requetesLentes.incrementAndGet();
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    /** Ordres SQL prepares (requetes, INSERT, UPDATE, DELETE) */
+    public int getOrdresSql() {
+        return ordresSql.get();
+    }
+
+    /** Entites construites a partir des lignes lues */
+    public int getEntitesChargees() {
+        return entitesChargees.get();
+    }
+
+    /** Entites lues par un SELECT a part (proxy LAZY initialise) */
+    public int getEntitesRecuperees() {
+        return entitesRecuperees.get();
+    }
+
+    public int getCollectionsChargees() {
+        return collectionsChargees.get();
+    }
+
+    /** Collections lues par un SELECT a part : le signe d'un N+1 */
+    public int getCollectionsRecuperees() {
+        return collectionsRecuperees.get();
+    }
+
+    public int getFlushs() {
+        return flushs.get();
+    }
+
+    public int getRequetesLentes() {
+        return requetesLentes.get();
+    }
+}
@@ -0,0 +1,84 @@
+package com.iua.gestionetudiants.dao;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumul des compteurs Hibernate par route HTTP (GET /etudiants?action=detail,
+ * GET /api/etudiants/{id}...), depuis le demarrage de l'application
+ */
+public final class StatistiquesRoutes {
+
+    /** Au-dela, les nouvelles routes sont regroupees sous "autre" */
+    private static final int MAXIMUM_ROUTES = 500;
+
+    private static final String AUTRE = "autre";
+
+    private static final Map<String, Cumul> ROUTES = new ConcurrentHashMap<>();
+
+    private StatistiquesRoutes() {
+    }
+
+    /**
+     * Ajouter les compteurs d'une requete HTTP terminee
+     *
+     * @param auDelaSeuil La requete a depasse le seuil d'ordres SQL
+     */
+    public static void cumuler(StatistiquesRequete requete, boolean auDelaSeuil) {
+        String route = requete.getRoute();
+        if (!ROUTES.containsKey(route) && ROUTES.size() >= MAXIMUM_ROUTES) {
+            route = AUTRE;
+        }
+        Cumul cumul = ROUTES.computeIfAbsent(route, cle -> new Cumul());
+        cumul.requetes.increment();
+        cumul.ordresSql.add(requete.getOrdresSql());
+        cumul.ordresSqlMax.accumulateAndGet(requete.getOrdresSql(), Math::max);
+        cumul.entitesChargees.add(requete.getEntitesChargees());
+        cumul.collectionsRecuperees.add(requete.getCollectionsRecuperees());
+        cumul.flushs.add(requete.getFlushs());
+        if (auDelaSeuil) {
+            cumul.requetesAuDelaSeuil.increment();
+        }
+    }
+
+    /**
+     * Routes triees par nombre maximum d'ordres SQL par requete
+     */
+    static List<StatistiquesSql.Route> lister() {
+        List<StatistiquesSql.Route> routes = new ArrayList<>();
+        for (Map.Entry<String, Cumul> entree : ROUTES.entrySet()) {
+            Cumul cumul = entree.getValue();
+            long requetes = cumul.requetes.sum();
+            if (requetes == 0) {
+                continue;
+            }
+            StatistiquesSql.Route route = new StatistiquesSql.Route();
+            route.setRoute(entree.getKey());
+            route.setRequetes(requetes);
+            route.setOrdresSqlMoyenne(cumul.ordresSql.sum() / (double) requetes);
+            route.setOrdresSqlMax(cumul.ordresSqlMax.get());
+            route.setEntitesChargeesMoyenne(cumul.entitesChargees.sum() / (double) requetes);
+            route.setCollectionsRecuperees(cumul.collectionsRecuperees.sum());
+            route.setFlushs(cumul.flushs.sum());
+            route.setRequetesAuDelaSeuil(cumul.requetesAuDelaSeuil.sum());
+            routes.add(route);
+        }
+        routes.sort(Comparator.comparingLong(StatistiquesSql.Route::getOrdresSqlMax).reversed());
+        return routes;
+    }
+
+    private static final class Cumul {
+        final LongAdder requetes = new LongAdder();
+        final LongAdder ordresSql = new LongAdder();
+        final AtomicLong ordresSqlMax = new AtomicLong();
+        final LongAdder entitesChargees = new LongAdder();
+        final LongAdder collectionsRecuperees = new LongAdder();
+        final LongAdder flushs = new LongAdder();
+        final LongAdder requetesAuDelaSeuil = new LongAdder();
+    }
+}
@@ -0,0 +1,286 @@
+package com.iua.gestionetudiants.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistiques Hibernate a un instant donne (depuis le demarrage de
+ * l'application) : compteurs globaux, requetes les plus couteuses,
+ * dernieres requetes lentes et ordres SQL par requete HTTP
+ */
+public class StatistiquesSql {
+
+    private boolean actives;
+    private long seuilRequetesLentesMs;
+    private String debut;
+    private long ordresSqlPrepares;
+    private long requetesExecutees;
+    private long entitesChargees;
+    private long entitesRecuperees;
+    private long collectionsChargees;
+    private long collectionsRecuperees;
+    private long flushs;
+    private long sessionsOuvertes;
+    private long transactions;
+    private long requetesLentes;
+    private final List<Requete> requetesLesPlusCouteuses = new ArrayList<>();
+    private final List<RequeteLente> dernieresRequetesLentes = new ArrayList<>();
+    private final List<Route> routes = new ArrayList<>();
+
+    /**
+     * Cumul d'une requete JPQL (ou SQL natif), tous appels confondus
+     */
+    public static class Requete {
+
+        private String texte;
+        private long executions;
+        private long lignes;
+        private double dureeMoyenneMs;
+        private long dureeMaxMs;
+        private long dureeTotaleMs;
+
+        public String getTexte() {
+            return texte;
+        }
+
+        public void setTexte(String texte) {
+            this.texte = texte;
+        }
+
+        public long getExecutions() {
+            return executions;
+        }
+
+        public void setExecutions(long executions) {
+            this.executions = executions;
+        }
+
+        public long getLignes() {
+            return lignes;
+        }
+
+        public void setLignes(long lignes) {
+            this.lignes = lignes;
+        }
+
+        public double getDureeMoyenneMs() {
+            return dureeMoyenneMs;
+        }
+
+        public void setDureeMoyenneMs(double dureeMoyenneMs) {
+            this.dureeMoyenneMs = dureeMoyenneMs;
+        }
+
+        public long getDureeMaxMs() {
+            return dureeMaxMs;
+        }
+
+        public void setDureeMaxMs(long dureeMaxMs) {
+            this.dureeMaxMs = dureeMaxMs;
+        }
+
+        public long getDureeTotaleMs() {
+            return dureeTotaleMs;
+        }
+
+        public void setDureeTotaleMs(long dureeTotaleMs) {
+            this.dureeTotaleMs = dureeTotaleMs;
+        }
+    }
+
+    /**
+     * Cumul des requetes HTTP d'une route : ordres SQL par requete (un
+     * maximum eleve ou des collections recuperees a part signalent un N+1)
+     */
+    public static class Route {
+
+        private String route;
+        private long requetes;
+        private double ordresSqlMoyenne;
+        private long ordresSqlMax;
+        private double entitesChargeesMoyenne;
+        private long collectionsRecuperees;
+        private long flushs;
+        private long requetesAuDelaSeuil;
+
+        public String getRoute() {
+            return route;
+        }
+
+        public void setRoute(String route) {
+            this.route = route;
+        }
+
+        public long getRequetes() {
+            return requetes;
+        }
+
+        public void setRequetes(long requetes) {
+            this.requetes = requetes;
+        }
+
+        public double getOrdresSqlMoyenne() {
+            return ordresSqlMoyenne;
+        }
+
+        public void setOrdresSqlMoyenne(double ordresSqlMoyenne) {
+            this.ordresSqlMoyenne = ordresSqlMoyenne;
+        }
+
+        public long getOrdresSqlMax() {
+            return ordresSqlMax;
+        }
+
+        public void setOrdresSqlMax(long ordresSqlMax) {
+            this.ordresSqlMax = ordresSqlMax;
+        }
+
+        public double getEntitesChargeesMoyenne() {
+            return entitesChargeesMoyenne;
+        }
+
+        public void setEntitesChargeesMoyenne(double entitesChargeesMoyenne) {
+            this.entitesChargeesMoyenne = entitesChargeesMoyenne;
+        }
+
+        public long getCollectionsRecuperees() {
+            return collectionsRecuperees;
+        }
+
+        public void setCollectionsRecuperees(long collectionsRecuperees) {
+            this.collectionsRecuperees = collectionsRecuperees;
+        }
+
+        public long getFlushs() {
+            return flushs;
+        }
+
+        public void setFlushs(long flushs) {
+            this.flushs = flushs;
+        }
+
+        public long getRequetesAuDelaSeuil() {
+            return requetesAuDelaSeuil;
+        }
+
+        public void setRequetesAuDelaSeuil(long requetesAuDelaSeuil) {
+            this.requetesAuDelaSeuil = requetesAuDelaSeuil;
+        }
+    }
+
+    public boolean isActives() {
+        return actives;
+    }
+
+    public void setActives(boolean actives) {
+        this.actives = actives;
+    }
+
+    public long getSeuilRequetesLentesMs() {
+        return seuilRequetesLentesMs;
+    }
+
+    public void setSeuilRequetesLentesMs(long seuilRequetesLentesMs) {
+        this.seuilRequetesLentesMs = seuilRequetesLentesMs;
+    }
+
+    public String getDebut() {
+        return debut;
+    }
+
+    public void setDebut(String debut) {
+        this.debut = debut;
+    }
+
+    public long getOrdresSqlPrepares() {
+        return ordresSqlPrepares;
+    }
+
+    public void setOrdresSqlPrepares(long ordresSqlPrepares) {
+        this.ordresSqlPrepares = ordresSqlPrepares;
+    }
+
+    public long getRequetesExecutees() {
+        return requetesExecutees;
+    }
+
+    public void setRequetesExecutees(long requetesExecutees) {
+        this.requetesExecutees = requetesExecutees;
+    }
+
+    public long getEntitesChargees() {
+        return entitesChargees;
+    }
+
+    public void setEntitesChargees(long entitesChargees) {
+        this.entitesChargees = entitesChargees;
+    }
+
+    public long getEntitesRecuperees() {
+        return entitesRecuperees;
+    }
+
+    public void setEntitesRecuperees(long entitesRecuperees) {
+        this.entitesRecuperees = entitesRecuperees;
+    }
+
+    public long getCollectionsChargees() {
+        return collectionsChargees;
+    }
+
+    public void setCollectionsChargees(long collectionsChargees) {
+        this.collectionsChargees = collectionsChargees;
+    }
+
+    public long getCollectionsRecuperees() {
+        return collectionsRecuperees;
+    }
+
+    public void setCollectionsRecuperees(long collectionsRecuperees) {
+        this.collectionsRecuperees = collectionsRecuperees;
+    }
+
+    public long getFlushs() {
+        return flushs;
+    }
+
+    public void setFlushs(long flushs) {
+        this.flushs = flushs;
+    }
+
+    public long getSessionsOuvertes() {
+        return sessionsOuvertes;
+    }
+
+    public void setSessionsOuvertes(long sessionsOuvertes) {
+        this.sessionsOuvertes = sessionsOuvertes;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(long transactions) {
+        this.transactions = transactions;
+    }
+
+    public long getRequetesLentes() {
+        return requetesLentes;
+    }
+
+    public void setRequetesLentes(long requetesLentes) {
+        this.requetesLentes = requetesLentes;
+    }
+
+    public List<Requete> getRequetesLesPlusCouteuses() {
+        return requetesLesPlusCouteuses;
+    }
+
+    public List<RequeteLente> getDernieresRequetesLentes() {
+        return dernieresRequetesLentes;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+}
@@ -0,0 +1,330 @@
+package com.iua.gestionetudiants.dao;
+
+import com.iua.gestionetudiants.dto.SuggestionMatricule;
+import com.iua.gestionetudiants.model.Etudiant;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * ===========================================================================
+ * SUGGESTIONS DE MATRICULES (autocompletion de la saisie des notes)
+ * ===========================================================================
+ * Tous les matricules, tries, dans trois tableaux de types primitifs :
+ * - octets : les matricules en UTF-8, les uns a la suite des autres
+ * - debuts : position du matricule i dans octets (debuts[i] a debuts[i + 1])
+ * - ids    : id de l'etudiant du matricule i
+ * Pas un objet par etudiant : environ 12 octets plus la longueur du
+ * matricule, contre une centaine pour une Map (voir statistiques()).
+ *
+ * Une suggestion est une recherche dichotomique du premier matricule qui
+ * commence par le prefixe, puis la lecture des k suivants : quelques
+ * microsecondes, quelle que soit la taille de la table.
+ *
+ * Les majuscules et minuscules ASCII se confondent ("etu2025" trouve
+ * "ETU2025..."). Charge au demarrage (ApplicationListener, parametre
+ * matricules.suggestions), tenu a jour par EtudiantDAO apres chaque commit.
+ * Une ecriture recopie les tableaux (quelques millisecondes a 100 000
+ * etudiants) et les remplace d'un coup : les lectures se font sans verrou.
+ * ===========================================================================
+ */
+public final class SuggestionsMatricules {
+
+    private static final Logger LOGGER = Logger.getLogger(SuggestionsMatricules.class.getName());
+
+    /** En-tete d'un tableau Java (ordre de grandeur, JVM 64 bits) */
+    private static final int ENTETE_TABLEAU = 16;
+
+    /**
+     * Etat immuable des tableaux, remplace a chaque ecriture
+     */
+    private static final class Tableaux {
+
+        static final Tableaux VIDE = new Tableaux(new byte[0], new int[] {0}, new long[0]);
+
+        final byte[] octets;
+        final int[] debuts;
+        final long[] ids;
+
+        Tableaux(byte[] octets, int[] debuts, long[] ids) {
+            this.octets = octets;
+            this.debuts = debuts;
+            this.ids = ids;
+        }
+
+        int taille() {
+            return ids.length;
+        }
+
+        String matricule(int i) {
+            return new String(octets, debuts[i], debuts[i + 1] - debuts[i], StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Un matricule et son id, pendant la construction des tableaux
+     */
+    private static final class Entree {
+
+        final byte[] octets;
+        final long id;
+
+        Entree(byte[] octets, long id) {
+            this.octets = octets;
+            this.id = id;
+        }
+    }
+
+    private static final Comparator<Entree> ORDRE = (a, b) -> {
+        int comparaison = comparer(a.octets, 0, a.octets.length, b.octets, b.octets.length);
+        return comparaison != 0 ? comparaison : Long.compare(a.id, b.id);
+    };
+
+    private static volatile Tableaux tableaux = Tableaux.VIDE;
+    private static volatile boolean charge;
+
+    private SuggestionsMatricules() {
+    }
+
+    /**
+     * Charger les matricules depuis la base (un parcours de la table etudiant)
+     */
+    public static synchronized void charger() {
+        long debut = System.currentTimeMillis();
+        List<Entree> entrees = new ArrayList<>();
+        new EtudiantDAO().parcourirMatricules((matricule, id) ->
+                entrees.add(new Entree(matricule.getBytes(StandardCharsets.UTF_8), id)));
+        installer(entrees);
+        LOGGER.info("Suggestions de matricules chargees (" + tableaux.taille() + " matricules, "
+                + octets(tableaux) + " octets) en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Construire les tableaux a partir d'etudiants deja enregistres
+     * (visibilite paquet : utilise par les benchmarks)
+     */
+    static synchronized void charger(Collection<Etudiant> etudiants) {
+        List<Entree> entrees = new ArrayList<>(etudiants.size());
+        for (Etudiant etudiant : etudiants) {
+            entrees.add(new Entree(etudiant.getMatricule().getBytes(StandardCharsets.UTF_8), etudiant.getId()));
+        }
+        installer(entrees);
+    }
+
+    private static void installer(List<Entree> entrees) {
+        entrees.sort(ORDRE);
+        tableaux = construire(entrees);
+        charge = true;
+    }
+
+    /**
+     * Desactiver les suggestions (parametre matricules.suggestions a false)
+     */
+    public static synchronized void vider() {
+        charge = false;
+        tableaux = Tableaux.VIDE;
+    }
+
+    public static boolean estCharge() {
+        return charge;
+    }
+
+    /**
+     * Les premiers matricules qui commencent par le prefixe, dans l'ordre
+     *
+     * @param prefixe Debut du matricule (vide : les premiers matricules)
+     * @param limite  Nombre maximum de suggestions
+     */
+    public static List<SuggestionMatricule> suggerer(String prefixe, int limite) {
+        Tableaux courant = tableaux;
+        byte[] cle = (prefixe == null ? "" : prefixe.trim()).getBytes(StandardCharsets.UTF_8);
+        List<SuggestionMatricule> suggestions = new ArrayList<>(Math.min(limite, 16));
+        for (int i = premierAuMoins(courant, cle); i < courant.taille() && suggestions.size() < limite; i++) {
+            if (!commencePar(courant, i, cle)) {
+                break;
+            }
+            suggestions.add(new SuggestionMatricule(courant.ids[i], courant.matricule(i)));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Premier matricule superieur ou egal a la cle (recherche dichotomique)
+     */
+    private static int premierAuMoins(Tableaux courant, byte[] cle) {
+        int bas = 0;
+        int haut = courant.taille();
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            int debut = courant.debuts[milieu];
+            if (comparer(courant.octets, debut, courant.debuts[milieu + 1], cle, cle.length) < 0) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    private static boolean commencePar(Tableaux courant, int i, byte[] cle) {
+        int debut = courant.debuts[i];
+        if (courant.debuts[i + 1] - debut < cle.length) {
+            return false;
+        }
+        for (int j = 0; j < cle.length; j++) {
+            if (majuscule(courant.octets[debut + j]) != majuscule(cle[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ordre des octets UTF-8 non signes (celui des caracteres), sans
+     * distinguer majuscules et minuscules ASCII
+     */
+    private static int comparer(byte[] a, int debut, int fin, byte[] b, int longueurB) {
+        int longueurA = fin - debut;
+        for (int j = 0; j < Math.min(longueurA, longueurB); j++) {
+            int comparaison = Integer.compare(majuscule(a[debut + j]), majuscule(b[j]));
+            if (comparaison != 0) {
+                return comparaison;
+            }
+        }
+        return Integer.compare(longueurA, longueurB);
+    }
+
+    private static int majuscule(byte octet) {
+        int valeur = octet & 0xFF;
+        return valeur >= 'a' && valeur <= 'z' ? valeur - ('a' - 'A') : valeur;
+    }
+
+    /**
+     * Enregistrer un etudiant cree ou modifie (appele apres le commit)
+     */
+    static void enregistrer(Long id, String matricule) {
+        if (charge && id != null && matricule != null) {
+            mettreAJour(List.of(new Entree(matricule.getBytes(StandardCharsets.UTF_8), id)), new long[] {id});
+        }
+    }
+
+    /**
+     * Enregistrer des etudiants crees en lot (appele apres le commit) :
+     * les tableaux ne sont recopies qu'une fois
+     */
+    static void enregistrerTous(Collection<Etudiant> etudiants) {
+        if (!charge) {
+            return;
+        }
+        List<Entree> entrees = new ArrayList<>(etudiants.size());
+        for (Etudiant etudiant : etudiants) {
+            if (etudiant.getId() != null && etudiant.getMatricule() != null) {
+                entrees.add(new Entree(etudiant.getMatricule().getBytes(StandardCharsets.UTF_8), etudiant.getId()));
+            }
+        }
+        mettreAJour(entrees, new long[0]);
+    }
+
+    /**
+     * Retirer un etudiant supprime (appele apres le commit)
+     */
+    static void retirer(Long id) {
+        if (charge && id != null) {
+            mettreAJour(List.of(), new long[] {id});
+        }
+    }
+
+    /**
+     * Nouveaux tableaux : les anciens sans les ids retires, fusionnes avec
+     * les ajouts tries (un seul passage)
+     *
+     * @param idsRetires Ids tries (un etudiant modifie est retire puis ajoute)
+     */
+    private static synchronized void mettreAJour(List<Entree> ajouts, long[] idsRetires) {
+        Tableaux courant = tableaux;
+        List<Entree> nouvelles = new ArrayList<>(ajouts);
+        nouvelles.sort(ORDRE);
+
+        int taille = courant.taille() + nouvelles.size();
+        byte[] octets = new byte[courant.octets.length + nouvelles.stream().mapToInt(e -> e.octets.length).sum()];
+        int[] debuts = new int[taille + 1];
+        long[] ids = new long[taille];
+        int n = 0;
+        int position = 0;
+        int j = 0;
+        for (int i = 0; i < courant.taille(); i++) {
+            if (idsRetires.length > 0 && Arrays.binarySearch(idsRetires, courant.ids[i]) >= 0) {
+                continue;
+            }
+            int debut = courant.debuts[i];
+            int longueur = courant.debuts[i + 1] - debut;
+            while (j < nouvelles.size() && comparerEntree(nouvelles.get(j), courant, i) < 0) {
+                position = ajouter(nouvelles.get(j++), octets, debuts, ids, n++, position);
+            }
+            System.arraycopy(courant.octets, debut, octets, position, longueur);
+            debuts[n] = position;
+            ids[n++] = courant.ids[i];
+            position += longueur;
+        }
+        while (j < nouvelles.size()) {
+            position = ajouter(nouvelles.get(j++), octets, debuts, ids, n++, position);
+        }
+        debuts[n] = position;
+        tableaux = new Tableaux(
+                position == octets.length ? octets : Arrays.copyOf(octets, position),
+                n == taille ? debuts : Arrays.copyOf(debuts, n + 1),
+                n == taille ? ids : Arrays.copyOf(ids, n));
+    }
+
+    private static int comparerEntree(Entree entree, Tableaux courant, int i) {
+        int comparaison = -comparer(courant.octets, courant.debuts[i], courant.debuts[i + 1],
+                entree.octets, entree.octets.length);
+        return comparaison != 0 ? comparaison : Long.compare(entree.id, courant.ids[i]);
+    }
+
+    private static int ajouter(Entree entree, byte[] octets, int[] debuts, long[] ids, int n, int position) {
+        System.arraycopy(entree.octets, 0, octets, position, entree.octets.length);
+        debuts[n] = position;
+        ids[n] = entree.id;
+        return position + entree.octets.length;
+    }
+
+    private static Tableaux construire(List<Entree> entrees) {
+        byte[] octets = new byte[entrees.stream().mapToInt(e -> e.octets.length).sum()];
+        int[] debuts = new int[entrees.size() + 1];
+        long[] ids = new long[entrees.size()];
+        int position = 0;
+        for (int i = 0; i < entrees.size(); i++) {
+            position = ajouter(entrees.get(i), octets, debuts, ids, i, position);
+        }
+        debuts[entrees.size()] = position;
+        return new Tableaux(octets, debuts, ids);
+    }
+
+    private static long octets(Tableaux courant) {
+        return 3L * ENTETE_TABLEAU + courant.octets.length + 4L * courant.debuts.length + 8L * courant.ids.length;
+    }
+
+    /**
+     * Nombre de matricules et memoire occupee
+     * (GET /api/supervision/suggestions)
+     */
+    public static Map<String, Object> statistiques() {
+        Tableaux courant = tableaux;
+        long octets = octets(courant);
+        Map<String, Object> statistiques = new LinkedHashMap<>();
+        statistiques.put("charge", charge);
+        statistiques.put("matricules", courant.taille());
+        statistiques.put("octets", octets);
+        statistiques.put("octetsParEtudiant", courant.taille() == 0 ? 0.0
+                : Math.round(octets * 10.0 / courant.taille()) / 10.0);
+        return statistiques;
+    }
+}
@@ -0,0 +1,33 @@
+package com.iua.gestionetudiants.dto;
+
+/**
+ * Agregats de notes d'un etudiant, tels que stockes sur sa ligne
+ * (relus par NoteDAO.creer dans la transaction de l'ajout)
+ */
+public class AgregatsNotes {
+
+    private final double sommePonderee;
+    private final long sommeCoefficients;
+    private final int nombreNotes;
+
+    public AgregatsNotes(double sommePonderee, long sommeCoefficients, int nombreNotes) {
+        this.sommePonderee = sommePonderee;
+        this.sommeCoefficients = sommeCoefficients;
+        this.nombreNotes = nombreNotes;
+    }
+
+    /**
+     * @return La somme des valeurs multipliees par leur coefficient
+     */
+    public double getSommePonderee() {
+        return sommePonderee;
+    }
+
+    public long getSommeCoefficients() {
+        return sommeCoefficients;
+    }
+
+    public int getNombreNotes() {
+        return nombreNotes;
+    }
+}
@@ -0,0 +1,79 @@
+package com.iua.gestionetudiants.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Une page du classement general, avec les totaux de la promotion
+ */
+public class Classement {
+
+    private List<LigneClassement> lignes = new ArrayList<>();
+    private int page;
+    private int taille;
+    private long etudiantsClasses;
+    private long nombreAdmis;
+
+    /**
+     * Nombre total de pages (au moins 1)
+     */
+    public int getNombrePages() {
+        return (int) Math.max(1, (etudiantsClasses + taille - 1) / taille);
+    }
+
+    public boolean isPagePrecedente() {
+        return page > 1;
+    }
+
+    public boolean isPageSuivante() {
+        return page < getNombrePages();
+    }
+
+    /**
+     * Pourcentage d'admis parmi les etudiants classes (1 decimale)
+     */
+    public double getTauxReussite() {
+        return etudiantsClasses == 0 ? 0.0 : Math.round(nombreAdmis * 1000.0 / etudiantsClasses) / 10.0;
+    }
+
+    // Getters et Setters
+    public List<LigneClassement> getLignes() {
+        return lignes;
+    }
+
+    public void setLignes(List<LigneClassement> lignes) {
+        this.lignes = lignes;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public void setTaille(int taille) {
+        this.taille = taille;
+    }
+
+    public long getEtudiantsClasses() {
+        return etudiantsClasses;
+    }
+
+    public void setEtudiantsClasses(long etudiantsClasses) {
+        this.etudiantsClasses = etudiantsClasses;
+    }
+
+    public long getNombreAdmis() {
+        return nombreAdmis;
+    }
+
+    public void setNombreAdmis(long nombreAdmis) {
+        this.nombreAdmis = nombreAdmis;
+    }
+}
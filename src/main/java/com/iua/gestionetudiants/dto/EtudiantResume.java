@@ -0,0 +1,82 @@
+package com.iua.gestionetudiants.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d'un etudiant pour les listes (page JSP, GET /api/etudiants), sans
+ * les notes
+ *
+ * Lue par projection JPQL "SELECT NEW" : ni entite geree, ni copie pour le
+ * controle des modifications, ni proxy de la collection des notes. Porte
+ * aussi la revision et la date de modification (ETag et Last-Modified de la
+ * page).
+ */
+public class EtudiantResume {
+
+    private final Long id;
+    private final String matricule;
+    private final String nom;
+    private final String prenom;
+    private final String email;
+    private final LocalDate dateNaissance;
+    private final LocalDate dateCreation;
+    private final long revision;
+    private final LocalDateTime dateModification;
+
+    /**
+     * Utilise par la projection JPQL "SELECT NEW" (voir EtudiantDAO.listerPageResumes)
+     */
+    public EtudiantResume(Long id, String matricule, String nom, String prenom, String email,
+                          LocalDate dateNaissance, LocalDate dateCreation,
+                          long revision, LocalDateTime dateModification) {
+        this.id = id;
+        this.matricule = matricule;
+        this.nom = nom;
+        this.prenom = prenom;
+        this.email = email;
+        this.dateNaissance = dateNaissance;
+        this.dateCreation = dateCreation;
+        this.revision = revision;
+        this.dateModification = dateModification;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getMatricule() {
+        return matricule;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public LocalDate getDateNaissance() {
+        return dateNaissance;
+    }
+
+    public LocalDate getDateCreation() {
+        return dateCreation;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return null pour un etudiant jamais modifie depuis l'ajout de la colonne
+     */
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+}
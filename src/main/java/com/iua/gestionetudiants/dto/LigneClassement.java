@@ -0,0 +1,82 @@
+package com.iua.gestionetudiants.dto;
+
+/**
+ * Une ligne du classement : un etudiant, sa moyenne et son rang
+ * (classe avec getters : lisible par les JSP et par Gson)
+ */
+public class LigneClassement {
+
+    private int rang;
+    private Long etudiantId;
+    private String matricule;
+    private String nom;
+    private String prenom;
+    private int nombreNotes;
+    private double moyenne;
+    private boolean admis;
+
+    // Getters et Setters
+    public int getRang() {
+        return rang;
+    }
+
+    public void setRang(int rang) {
+        this.rang = rang;
+    }
+
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public void setEtudiantId(Long etudiantId) {
+        this.etudiantId = etudiantId;
+    }
+
+    public String getMatricule() {
+        return matricule;
+    }
+
+    public void setMatricule(String matricule) {
+        this.matricule = matricule;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public void setNom(String nom) {
+        this.nom = nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public void setPrenom(String prenom) {
+        this.prenom = prenom;
+    }
+
+    public int getNombreNotes() {
+        return nombreNotes;
+    }
+
+    public void setNombreNotes(int nombreNotes) {
+        this.nombreNotes = nombreNotes;
+    }
+
+    public double getMoyenne() {
+        return moyenne;
+    }
+
+    public void setMoyenne(double moyenne) {
+        this.moyenne = moyenne;
+    }
+
+    public boolean isAdmis() {
+        return admis;
+    }
+
+    public void setAdmis(boolean admis) {
+        this.admis = admis;
+    }
+}
@@ -0,0 +1,35 @@
+package com.iua.gestionetudiants.dto;
+
+import com.iua.gestionetudiants.model.Note;
+
+/**
+ * Note qui vient d'etre enregistree, avec la moyenne de son etudiant apres
+ * l'ajout (relue avec les agregats, sans charger l'etudiant ni ses notes)
+ */
+public class NoteCreee {
+
+    private final Note note;
+    private final double moyenne;
+    private final int nombreNotes;
+
+    public NoteCreee(Note note, double moyenne, int nombreNotes) {
+        this.note = note;
+        this.moyenne = moyenne;
+        this.nombreNotes = nombreNotes;
+    }
+
+    public Note getNote() {
+        return note;
+    }
+
+    /**
+     * @return La moyenne ponderee de l'etudiant, arrondie a 2 decimales
+     */
+    public double getMoyenne() {
+        return moyenne;
+    }
+
+    public int getNombreNotes() {
+        return nombreNotes;
+    }
+}
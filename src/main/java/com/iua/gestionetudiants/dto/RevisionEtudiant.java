@@ -0,0 +1,45 @@
+package com.iua.gestionetudiants.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revisions et date de modification d'un etudiant, sans le reste de la ligne
+ * (validateurs ETag / Last-Modified des requetes HTTP conditionnelles)
+ */
+public class RevisionEtudiant {
+
+    private final Long etudiantId;
+    private final long revision;
+    private final long revisionNotes;
+    private final LocalDateTime dateModification;
+
+    /**
+     * Utilise par la projection JPQL "SELECT NEW" (voir EtudiantDAO.trouverRevision)
+     */
+    public RevisionEtudiant(Long etudiantId, long revision, long revisionNotes,
+                            LocalDateTime dateModification) {
+        this.etudiantId = etudiantId;
+        this.revision = revision;
+        this.revisionNotes = revisionNotes;
+        this.dateModification = dateModification;
+    }
+
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public long getRevisionNotes() {
+        return revisionNotes;
+    }
+
+    /**
+     * @return null pour un etudiant jamais modifie depuis l'ajout de la colonne
+     */
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+}
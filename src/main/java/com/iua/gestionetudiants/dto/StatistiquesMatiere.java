@@ -0,0 +1,122 @@
+package com.iua.gestionetudiants.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribution des notes d'une matiere
+ */
+public class StatistiquesMatiere {
+
+    private String matiere;
+    private long nombre;
+    private double minimum;
+    private double maximum;
+    private double moyenne;
+    private double mediane;
+    private double ecartType;
+
+    /** Percentiles demandes ("p10" -> valeur), dans l'ordre de la demande */
+    private Map<String, Double> percentiles = new LinkedHashMap<>();
+
+    private List<ClasseHistogramme> histogramme = new ArrayList<>();
+
+    /**
+     * Classe de l'histogramme : nombre de notes dans [borneInferieure ; borneSuperieure[
+     * (la derniere classe inclut 20)
+     */
+    public static class ClasseHistogramme {
+
+        private final double borneInferieure;
+        private final double borneSuperieure;
+        private long effectif;
+
+        public ClasseHistogramme(double borneInferieure, double borneSuperieure) {
+            this.borneInferieure = borneInferieure;
+            this.borneSuperieure = borneSuperieure;
+        }
+
+        public void ajouter(long nombre) {
+            effectif += nombre;
+        }
+
+        public double getBorneInferieure() {
+            return borneInferieure;
+        }
+
+        public double getBorneSuperieure() {
+            return borneSuperieure;
+        }
+
+        public long getEffectif() {
+            return effectif;
+        }
+    }
+
+    // Getters et Setters
+    public String getMatiere() {
+        return matiere;
+    }
+
+    public void setMatiere(String matiere) {
+        this.matiere = matiere;
+    }
+
+    public long getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(long nombre) {
+        this.nombre = nombre;
+    }
+
+    public double getMinimum() {
+        return minimum;
+    }
+
+    public void setMinimum(double minimum) {
+        this.minimum = minimum;
+    }
+
+    public double getMaximum() {
+        return maximum;
+    }
+
+    public void setMaximum(double maximum) {
+        this.maximum = maximum;
+    }
+
+    public double getMoyenne() {
+        return moyenne;
+    }
+
+    public void setMoyenne(double moyenne) {
+        this.moyenne = moyenne;
+    }
+
+    public double getMediane() {
+        return mediane;
+    }
+
+    public void setMediane(double mediane) {
+        this.mediane = mediane;
+    }
+
+    public double getEcartType() {
+        return ecartType;
+    }
+
+    public void setEcartType(double ecartType) {
+        this.ecartType = ecartType;
+    }
+
+    public Map<String, Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public List<ClasseHistogramme> getHistogramme() {
+        return histogramme;
+    }
+}
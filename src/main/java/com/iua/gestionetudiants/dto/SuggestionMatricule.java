@@ -0,0 +1,24 @@
+package com.iua.gestionetudiants.dto;
+
+/**
+ * Matricule propose par l'autocompletion (GET /api/etudiants/suggest),
+ * avec l'id de l'etudiant a utiliser pour la saisie des notes
+ */
+public class SuggestionMatricule {
+
+    private final long id;
+    private final String matricule;
+
+    public SuggestionMatricule(long id, String matricule) {
+        this.id = id;
+        this.matricule = matricule;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getMatricule() {
+        return matricule;
+    }
+}
@@ -0,0 +1,134 @@
+package com.iua.gestionetudiants.filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codages de contenu HTTP (Content-Encoding) proposés par FiltreCompression
+ *
+ * - GZIP    : en-tête gzip + DEFLATE, compris par tous les clients
+ * - DEFLATE : flux zlib (RFC 1950), comme l'exige le jeton "deflate"
+ *
+ * Les flux sont ouverts en mode "syncFlush" : un flush() envoie au client
+ * tout ce qui a déjà été écrit (exports en flux, NDJSON).
+ */
+public enum EncodageContenu {
+
+    GZIP("gzip") {
+        @Override
+        public DeflaterOutputStream compresser(OutputStream sortie, int niveau) throws IOException {
+            return new GZIPOutputStream(sortie, TAILLE_TAMPON, true) {
+                {
+                    def.setLevel(niveau);
+                }
+            };
+        }
+    },
+
+    DEFLATE("deflate") {
+        @Override
+        public DeflaterOutputStream compresser(OutputStream sortie, int niveau) {
+            return new DeflaterOutputStream(sortie, true) {
+                {
+                    def.setLevel(niveau);
+                }
+            };
+        }
+    };
+
+    /** Taille du tampon interne des flux compressés */
+    private static final int TAILLE_TAMPON = 8192;
+
+    private final String jeton;
+
+    EncodageContenu(String jeton) {
+        this.jeton = jeton;
+    }
+
+    /**
+     * Valeur de l'en-tête Content-Encoding ("gzip", "deflate")
+     */
+    public String getJeton() {
+        return jeton;
+    }
+
+    /**
+     * Ouvrir un flux compressé au-dessus de la sortie
+     * La fermeture du flux termine la compression et ferme la sortie
+     *
+     * @param niveau Niveau de compression, de 1 (rapide) à 9 (compact)
+     */
+    public abstract DeflaterOutputStream compresser(OutputStream sortie, int niveau) throws IOException;
+
+    /**
+     * Choisir le codage d'après l'en-tête Accept-Encoding du client
+     *
+     * Les poids q sont respectés ("gzip;q=0" refuse gzip, "*" couvre les
+     * codages non cités). À poids égal, gzip est préféré.
+     *
+     * @return Le codage retenu, ou null : réponse non compressée
+     */
+    public static EncodageContenu negocier(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        double poidsGzip = -1;
+        double poidsDeflate = -1;
+        double poidsAutres = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parties = element.split(";");
+            String codage = parties[0].trim().toLowerCase(Locale.ROOT);
+            double poids = 1.0;
+            for (int i = 1; i < parties.length; i++) {
+                String parametre = parties[i].trim();
+                if (parametre.startsWith("q=")) {
+                    try {
+                        poids = Double.parseDouble(parametre.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        poids = 0;
+                    }
+                }
+            }
+            switch (codage) {
+                case "gzip":
+                case "x-gzip":
+                    poidsGzip = poids;
+                    break;
+                case "deflate":
+                    poidsDeflate = poids;
+                    break;
+                case "*":
+                    poidsAutres = poids;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (poidsGzip < 0) {
+            poidsGzip = poidsAutres;
+        }
+        if (poidsDeflate < 0) {
+            poidsDeflate = poidsAutres;
+        }
+        if (poidsGzip <= 0 && poidsDeflate <= 0) {
+            return null;
+        }
+        return poidsGzip >= poidsDeflate ? GZIP : DEFLATE;
+    }
+
+    /**
+     * ETag de la représentation compressée : un ETag fort identifie des
+     * octets exacts, la version compressée reçoit donc son propre ETag
+     * ("etudiant-1-r3" → "etudiant-1-r3-gzip"). Les ETag faibles (W/)
+     * restent inchangés.
+     */
+    public String etiquetter(String etag) {
+        if (etag == null || etag.startsWith("W/") || etag.length() < 2 || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + jeton + "\"";
+    }
+}
@@ -0,0 +1,153 @@
+package com.iua.gestionetudiants.filter;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+
+/**
+ * ===========================================================================
+ * FILTRE DE COMPRESSION (gzip / deflate)
+ * ===========================================================================
+ * Compresse les réponses textuelles (pages JSP, JSON de /api, CSS, CSV...)
+ * quand le client l'accepte (en-tête Accept-Encoding) et que le corps
+ * dépasse un seuil : en dessous, l'en-tête gzip et le coût CPU ne valent
+ * pas les quelques octets gagnés.
+ *
+ * Paramètres (init-param dans web.xml) :
+ * - seuilOctets : taille minimale du corps compressé (1024 par défaut)
+ * - niveau      : niveau de compression, de 1 (rapide) à 9 (compact), 6 par défaut
+ *
+ * ETag : la version compressée porte l'ETag suffixé du codage
+ * ("...-gzip"). Quand le client renvoie cet ETag (If-None-Match), le suffixe
+ * est retiré avant d'arriver aux services REST, qui comparent ainsi leur
+ * propre ETag ; un 304 rend au client l'ETag suffixé qu'il possède.
+ *
+ * Requêtes asynchrones (AsyncResponse) : la réponse est terminée à la fin
+ * du traitement asynchrone, pas au retour de la chaîne de filtres.
+ * ===========================================================================
+ */
+public class FiltreCompression implements Filter {
+
+    private static final int SEUIL_PAR_DEFAUT = 1024;
+
+    /** Suffixe ajouté aux ETag forts des représentations compressées */
+    private static final Pattern SUFFIXE_ETAG = Pattern.compile("-(gzip|deflate)\"");
+
+    private int seuil = SEUIL_PAR_DEFAUT;
+    private int niveau = Deflater.DEFAULT_COMPRESSION;
+
+    @Override
+    public void init(FilterConfig config) throws ServletException {
+        String seuilConfigure = config.getInitParameter("seuilOctets");
+        if (seuilConfigure != null && !seuilConfigure.isBlank()) {
+            seuil = Integer.parseInt(seuilConfigure.trim());
+        }
+        String niveauConfigure = config.getInitParameter("niveau");
+        if (niveauConfigure != null && !niveauConfigure.isBlank()) {
+            niveau = Integer.parseInt(niveauConfigure.trim());
+            if (niveau < Deflater.BEST_SPEED || niveau > Deflater.BEST_COMPRESSION) {
+                throw new ServletException("niveau de compression invalide : " + niveau + " (1 à 9)");
+            }
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest requete = (HttpServletRequest) request;
+        HttpServletResponse reponse = (HttpServletResponse) response;
+
+        EncodageContenu encodage = EncodageContenu.negocier(requete.getHeader("Accept-Encoding"));
+        if (encodage == null) {
+            // La réponse aurait pu être compressée pour un autre client
+            reponse.addHeader("Vary", "Accept-Encoding");
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequeteEtagNormalise requeteNormalisee = new RequeteEtagNormalise(requete);
+        ReponseCompressee reponseCompressee = new ReponseCompressee(reponse, encodage, seuil, niveau,
+                requeteNormalisee.etagCompresseRecu);
+        chain.doFilter(requeteNormalisee, reponseCompressee);
+        if (requeteNormalisee.isAsyncStarted()) {
+            // Réponse écrite plus tard par un autre thread (AsyncResponse)
+            requeteNormalisee.getAsyncContext().addListener(new FinTraitementAsynchrone(reponseCompressee::terminer));
+        } else {
+            reponseCompressee.terminer();
+        }
+    }
+
+    /**
+     * Types de contenu textuels, qui gagnent à être compressés
+     * (les images, PDF et ZIP sont déjà compressés)
+     */
+    static boolean estTypeCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/")
+                || type.startsWith("application/json")
+                || type.startsWith("application/x-ndjson")
+                || type.startsWith("application/javascript")
+                || type.startsWith("application/xml")
+                || type.startsWith("image/svg+xml");
+    }
+
+    /**
+     * Requête dont les en-têtes If-None-Match / If-Match sont débarrassés du
+     * suffixe de codage des ETag : "etudiant-1-r3-gzip" redevient
+     * "etudiant-1-r3", l'ETag calculé par le service REST
+     */
+    private static class RequeteEtagNormalise extends HttpServletRequestWrapper {
+
+        private final boolean etagCompresseRecu;
+
+        RequeteEtagNormalise(HttpServletRequest requete) {
+            super(requete);
+            String ifNoneMatch = requete.getHeader("If-None-Match");
+            this.etagCompresseRecu = ifNoneMatch != null && SUFFIXE_ETAG.matcher(ifNoneMatch).find();
+        }
+
+        @Override
+        public String getHeader(String nom) {
+            String valeur = super.getHeader(nom);
+            return estEnTeteEtag(nom) ? normaliser(valeur) : valeur;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String nom) {
+            Enumeration<String> valeurs = super.getHeaders(nom);
+            if (!estEnTeteEtag(nom) || valeurs == null) {
+                return valeurs;
+            }
+            List<String> normalisees = Collections.list(valeurs).stream()
+                    .map(RequeteEtagNormalise::normaliser)
+                    .collect(Collectors.toList());
+            return Collections.enumeration(normalisees);
+        }
+
+        private static boolean estEnTeteEtag(String nom) {
+            return "If-None-Match".equalsIgnoreCase(nom) || "If-Match".equalsIgnoreCase(nom);
+        }
+
+        private static String normaliser(String valeur) {
+            return valeur == null ? null : SUFFIXE_ETAG.matcher(valeur).replaceAll("\"");
+        }
+    }
+}
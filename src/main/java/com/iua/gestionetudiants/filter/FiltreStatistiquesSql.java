@@ -0,0 +1,107 @@
+package com.iua.gestionetudiants.filter;
+
+import com.iua.gestionetudiants.dao.StatistiquesRequete;
+import com.iua.gestionetudiants.dao.StatistiquesRoutes;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * ===========================================================================
+ * FILTRE DES STATISTIQUES SQL PAR REQUÊTE
+ * ===========================================================================
+ * Compte, pour chaque requête HTTP, les ordres SQL envoyés et les entités /
+ * collections chargées par Hibernate (StatistiquesRequete), puis les cumule
+ * par route (GET /api/supervision/hibernate).
+ *
+ * Les identifiants sont retirés des routes (/api/etudiants/{id}) et les
+ * servlets sont distinguées par leur action (/etudiants?action=detail) :
+ * une même route qui envoie 3 ordres pour un étudiant et 300 pour un autre
+ * trahit un N+1. Une requête asynchrone (AsyncResponse) est cumulée à la
+ * fin de son traitement, avec les ordres envoyés par l'exécuteur REST.
+ *
+ * Paramètres (init-param dans web.xml) :
+ * - seuilOrdresSql : au-delà, la requête est signalée dans les journaux
+ *   (25 par défaut)
+ * ===========================================================================
+ */
+public class FiltreStatistiquesSql implements Filter {
+
+    private static final Logger LOGGER = Logger.getLogger(FiltreStatistiquesSql.class.getName());
+
+    private static final int SEUIL_PAR_DEFAUT = 25;
+
+    private static final Pattern IDENTIFIANT = Pattern.compile("/\\d+(?=/|$)");
+    private static final Pattern ACTION = Pattern.compile("[a-z]{1,20}");
+
+    private int seuilOrdresSql = SEUIL_PAR_DEFAUT;
+
+    @Override
+    public void init(FilterConfig config) throws ServletException {
+        String seuilConfigure = config.getInitParameter("seuilOrdresSql");
+        if (seuilConfigure != null && !seuilConfigure.isBlank()) {
+            seuilOrdresSql = Integer.parseInt(seuilConfigure.trim());
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest requete = (HttpServletRequest) request;
+        StatistiquesRequete.demarrer(route(requete));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            StatistiquesRequete statistiques = StatistiquesRequete.terminer();
+            if (request.isAsyncStarted()) {
+                // Les ordres SQL restent à venir, sur un autre thread (AsyncResponse)
+                request.getAsyncContext().addListener(new FinTraitementAsynchrone(() -> cumuler(statistiques)));
+            } else {
+                cumuler(statistiques);
+            }
+        }
+    }
+
+    private void cumuler(StatistiquesRequete statistiques) {
+        if (statistiques == null || statistiques.getOrdresSql() == 0) {
+            return;
+        }
+        boolean auDelaSeuil = statistiques.getOrdresSql() > seuilOrdresSql;
+        StatistiquesRoutes.cumuler(statistiques, auDelaSeuil);
+        if (auDelaSeuil) {
+            LOGGER.warning("N+1 probable : " + statistiques.getRoute() + " a envoyé "
+                    + statistiques.getOrdresSql() + " ordres SQL ("
+                    + statistiques.getEntitesChargees() + " entités, "
+                    + statistiques.getCollectionsRecuperees() + " collections chargées)");
+        }
+    }
+
+    /**
+     * Route normalisée : "GET /api/etudiants/{id}/notes", "POST /notes?action=ajouter"
+     */
+    static String route(HttpServletRequest requete) {
+        String chemin = requete.getServletPath();
+        if (requete.getPathInfo() != null) {
+            chemin += requete.getPathInfo();
+        }
+        StringBuilder route = new StringBuilder(requete.getMethod()).append(' ')
+                .append(IDENTIFIANT.matcher(chemin).replaceAll("/{id}"));
+        if (!chemin.startsWith("/api")) {
+            // Servlets seulement : lire un paramètre de /api consommerait
+            // le corps des formulaires avant Jersey
+            String action = requete.getParameter("action");
+            if (action != null && ACTION.matcher(action).matches()) {
+                route.append("?action=").append(action);
+            }
+        }
+        return route.toString();
+    }
+}
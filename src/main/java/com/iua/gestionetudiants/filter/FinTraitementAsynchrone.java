@@ -0,0 +1,51 @@
+package com.iua.gestionetudiants.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import java.io.IOException;
+
+/**
+ * Action d'un filtre différée à la fin d'une requête asynchrone
+ *
+ * Une ressource REST suspendue (AsyncResponse) rend son thread avant
+ * d'avoir répondu : la suite de la chaîne de filtres s'exécute alors que
+ * la réponse n'est pas encore écrite. Ce qui doit suivre la réponse
+ * (fin du flux compressé, cumul des statistiques) attend donc la fin du
+ * traitement asynchrone, toujours signalée par onComplete (y compris
+ * après une expiration ou une erreur).
+ */
+class FinTraitementAsynchrone implements AsyncListener {
+
+    /** Action exécutée à la fin de la requête */
+    interface Action {
+        void executer() throws IOException;
+    }
+
+    private final Action action;
+
+    FinTraitementAsynchrone(Action action) {
+        this.action = action;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) throws IOException {
+        action.executer();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+    }
+
+    /**
+     * Le traitement asynchrone est relancé : rester à l'écoute du suivant
+     */
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        event.getAsyncContext().addListener(this);
+    }
+}
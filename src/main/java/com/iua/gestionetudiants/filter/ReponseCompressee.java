@@ -0,0 +1,354 @@
+package com.iua.gestionetudiants.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Réponse dont le corps est compressé s'il dépasse le seuil
+ *
+ * Les premiers octets sont gardés en mémoire (au plus "seuil" octets).
+ * La décision est prise dès que le seuil est atteint, ou à la fin de la
+ * réponse si elle reste plus petite :
+ * - corps >= seuil et type compressible : Content-Encoding + flux compressé
+ * - sinon : les octets partent tels quels
+ * Une fois la décision prise, plus rien n'est gardé en mémoire.
+ */
+class ReponseCompressee extends HttpServletResponseWrapper {
+
+    private final EncodageContenu encodage;
+    private final int seuil;
+    private final int niveau;
+
+    /** Le client a renvoyé un ETag de la version compressée (voir FiltreCompression) */
+    private final boolean etagCompresseRecu;
+    private boolean etagConfirme;
+
+    private SortieCompressee sortie;
+    private PrintWriter writer;
+
+    /** Content-Length annoncé par l'application, transmis seulement sans compression */
+    private long longueurAnnoncee = -1;
+
+    ReponseCompressee(HttpServletResponse reponse, EncodageContenu encodage, int seuil, int niveau,
+                      boolean etagCompresseRecu) {
+        super(reponse);
+        this.encodage = encodage;
+        this.seuil = seuil;
+        this.niveau = niveau;
+        this.etagCompresseRecu = etagCompresseRecu;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() a déjà été appelé pour cette réponse");
+        }
+        return sortie();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (sortie != null) {
+                throw new IllegalStateException("getOutputStream() a déjà été appelé pour cette réponse");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(sortie(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int longueur) {
+        setContentLengthLong(longueur);
+    }
+
+    @Override
+    public void setContentLengthLong(long longueur) {
+        longueurAnnoncee = longueur;
+        if (longueur < seuil && (sortie == null || !sortie.estDecidee())) {
+            // Trop petit pour être compressé : inutile de garder le corps en mémoire
+            try {
+                sortie().decider(false);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public void setHeader(String nom, String valeur) {
+        if ("Content-Length".equalsIgnoreCase(nom)) {
+            setContentLengthLong(Long.parseLong(valeur));
+        } else {
+            super.setHeader(nom, valeur);
+            if ("ETag".equalsIgnoreCase(nom)) {
+                etagConfirme = false;
+                confirmerEtagCompresse();
+            }
+        }
+    }
+
+    /**
+     * Le 304 est corrigé dès que statut et ETag sont connus : une réponse
+     * asynchrone (AsyncResponse) peut être envoyée avant terminer()
+     */
+    @Override
+    public void setStatus(int statut) {
+        super.setStatus(statut);
+        confirmerEtagCompresse();
+    }
+
+    @Override
+    public void addHeader(String nom, String valeur) {
+        if ("Content-Length".equalsIgnoreCase(nom)) {
+            setContentLengthLong(Long.parseLong(valeur));
+        } else {
+            super.addHeader(nom, valeur);
+            if ("ETag".equalsIgnoreCase(nom)) {
+                etagConfirme = false;
+                confirmerEtagCompresse();
+            }
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (sortie != null) {
+            sortie.flush();
+        }
+        if (sortie == null || sortie.estDecidee()) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void sendError(int statut) throws IOException {
+        viderTampon();
+        super.sendError(statut);
+    }
+
+    @Override
+    public void sendError(int statut, String message) throws IOException {
+        viderTampon();
+        super.sendError(statut, message);
+    }
+
+    @Override
+    public void sendRedirect(String adresse) throws IOException {
+        viderTampon();
+        super.sendRedirect(adresse);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        viderTampon();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        viderTampon();
+    }
+
+    /**
+     * Terminer la réponse : décider si ce n'est pas déjà fait, écrire le
+     * reste du tampon et la fin du flux compressé (appelé par le filtre)
+     */
+    void terminer() throws IOException {
+        confirmerEtagCompresse();
+        if (writer != null) {
+            writer.flush();
+        }
+        if (sortie != null) {
+            sortie.terminer();
+        }
+    }
+
+    /**
+     * 304 : confirmer au client l'ETag de la version compressée qu'il possède
+     */
+    private void confirmerEtagCompresse() {
+        if (etagConfirme || !etagCompresseRecu || getStatus() != HttpServletResponse.SC_NOT_MODIFIED) {
+            return;
+        }
+        String etag = getHeader("ETag");
+        if (etag != null) {
+            etagConfirme = true;
+            super.setHeader("ETag", encodage.etiquetter(etag));
+        }
+    }
+
+    private SortieCompressee sortie() {
+        if (sortie == null) {
+            sortie = new SortieCompressee();
+        }
+        return sortie;
+    }
+
+    private void viderTampon() {
+        if (sortie != null && !sortie.estDecidee()) {
+            sortie.tampon.reset();
+        }
+    }
+
+    /**
+     * Le corps de cette réponse peut-il être compressé ?
+     * (statut avec corps, pas déjà codé, type textuel)
+     */
+    private boolean estCompressible() {
+        int statut = getStatus();
+        if (statut < 200 || statut == HttpServletResponse.SC_NO_CONTENT
+                || statut == HttpServletResponse.SC_PARTIAL_CONTENT
+                || statut == HttpServletResponse.SC_NOT_MODIFIED) {
+            return false;
+        }
+        if (containsHeader("Content-Encoding")) {
+            return false;
+        }
+        return FiltreCompression.estTypeCompressible(getContentType());
+    }
+
+    /**
+     * Flux de sortie : tampon jusqu'à la décision, puis écriture directe
+     * (compressée ou non) dans la réponse d'origine
+     */
+    private class SortieCompressee extends ServletOutputStream {
+
+        private ByteArrayOutputStream tampon = new ByteArrayOutputStream(Math.min(seuil, 8192));
+        private OutputStream cible;
+        private boolean terminee;
+
+        boolean estDecidee() {
+            return cible != null;
+        }
+
+        /**
+         * Choisir entre sortie compressée et sortie directe, puis y recopier
+         * le tampon
+         *
+         * @param assezGros true si le corps atteint le seuil
+         */
+        void decider(boolean assezGros) throws IOException {
+            if (cible != null) {
+                return;
+            }
+            HttpServletResponse reponse = (HttpServletResponse) getResponse();
+            boolean compressible = estCompressible();
+            if (compressible) {
+                reponse.addHeader("Vary", "Accept-Encoding");
+            }
+            if (assezGros && compressible) {
+                reponse.setHeader("Content-Encoding", encodage.getJeton());
+                String etag = reponse.getHeader("ETag");
+                if (etag != null) {
+                    reponse.setHeader("ETag", encodage.etiquetter(etag));
+                }
+                cible = encodage.compresser(reponse.getOutputStream(), niveau);
+            } else {
+                if (longueurAnnoncee >= 0) {
+                    reponse.setContentLengthLong(longueurAnnoncee);
+                }
+                cible = reponse.getOutputStream();
+            }
+            if (tampon.size() > 0) {
+                tampon.writeTo(cible);
+            }
+            tampon = null;
+        }
+
+        @Override
+        public void write(int octet) throws IOException {
+            if (cible == null) {
+                if (tampon.size() + 1 < seuil) {
+                    tampon.write(octet);
+                    return;
+                }
+                decider(true);
+            }
+            cible.write(octet);
+        }
+
+        @Override
+        public void write(byte[] octets, int debut, int longueur) throws IOException {
+            if (cible == null) {
+                if (tampon.size() + longueur < seuil) {
+                    tampon.write(octets, debut, longueur);
+                    return;
+                }
+                decider(true);
+            }
+            cible.write(octets, debut, longueur);
+        }
+
+        /**
+         * Avant la décision, flush() ne fait rien : les octets restent dans
+         * le tampon tant que le seuil n'est pas atteint
+         */
+        @Override
+        public void flush() throws IOException {
+            if (cible != null) {
+                cible.flush();
+            }
+        }
+
+        /**
+         * Fermer le flux termine la réponse (Jersey ferme le flux après avoir
+         * écrit l'entité)
+         */
+        @Override
+        public void close() throws IOException {
+            terminer();
+        }
+
+        void terminer() throws IOException {
+            if (terminee) {
+                return;
+            }
+            terminee = true;
+            if (cible == null) {
+                if (tampon.size() == 0) {
+                    // Aucun corps (304, redirection, page d'erreur du conteneur...)
+                    return;
+                }
+                decider(false);
+            }
+            if (cible instanceof DeflaterOutputStream) {
+                // Écrit la fin du flux compressé et libère le Deflater
+                cible.close();
+            } else {
+                cible.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            try {
+                getResponse().getOutputStream().setWriteListener(listener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.iua.gestionetudiants.listener;
+
+import com.iua.gestionetudiants.dao.IndexMatricules;
+import com.iua.gestionetudiants.dao.IndexRecherche;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+import com.iua.gestionetudiants.dao.SuggestionsMatricules;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.rest.ExecuteurRequetes;
+import com.iua.gestionetudiants.service.BulletinService;
+import com.iua.gestionetudiants.service.EcritureDiffereeNotes;
+import com.iua.gestionetudiants.service.NoteService;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ===========================================================================
+ * LISTENER DU CYCLE DE VIE DE L'APPLICATION
+ * ===========================================================================
+ * Appele par Tomcat au demarrage et a l'arret de la webapp.
+ *
+ * - Demarrage : ouvre la persistance (EntityManagerFactory + pool)
+ *   avec la configuration des <context-param> de web.xml, charge les index
+ *   des matricules et de recherche et les suggestions de matricules, rejoue
+ *   le journal des notes (ecriture differee), puis controle les agregats
+ *   de notes (moyennes) stockes sur les etudiants
+ * - Arret : arrete l'executeur REST et le pool des bulletins, ecrit les
+ *   notes en file d'ecriture differee, ferme le pool et desenregistre les
+ *   drivers JDBC charges par la webapp, pour ne rien laisser fuir lors
+ *   d'un redeploiement
+ * ===========================================================================
+ */
+@WebListener
+public class ApplicationListener implements ServletContextListener {
+
+    private static final Logger LOGGER = Logger.getLogger(ApplicationListener.class.getName());
+
+    /**
+     * Correspondance entre les <context-param> de web.xml et les proprietes
+     * de la persistance (pool de connexions, cache de second niveau)
+     */
+    private static final String[][] PARAMETRES_PERSISTANCE = {
+        {"pool.tailleMaximum", PersistenceManager.POOL_TAILLE_MAXIMUM},
+        {"pool.connexionsInactivesMinimum", PersistenceManager.POOL_INACTIVES_MINIMUM},
+        {"pool.delaiAcquisitionMs", PersistenceManager.POOL_DELAI_ACQUISITION_MS},
+        {"pool.delaiInactiviteMs", PersistenceManager.POOL_DELAI_INACTIVITE_MS},
+        {"pool.dureeVieMaximaleMs", PersistenceManager.POOL_DUREE_VIE_MAXIMALE_MS},
+        {"pool.accesSimultanesMaximum", PersistenceManager.ACCES_SIMULTANES_MAXIMUM},
+        {"cache.active", PersistenceManager.CACHE_ACTIF},
+        {"statistiques.actives", PersistenceManager.STATISTIQUES_ACTIVES},
+        {"requetesLentes.seuilMs", PersistenceManager.SEUIL_REQUETES_LENTES_MS}
+    };
+
+    /**
+     * Prefixe des <context-param> transmis tels quels a la persistance,
+     * sans le prefixe (ex. persistance.jakarta.persistence.jdbc.url) :
+     * permet de pointer la webapp vers une autre base sans toucher a
+     * persistence.xml (tests de charge sur une base en memoire)
+     */
+    private static final String PREFIXE_PERSISTANCE = "persistance.";
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        ServletContext context = event.getServletContext();
+
+        Map<String, Object> proprietes = new HashMap<>();
+        for (String[] parametre : PARAMETRES_PERSISTANCE) {
+            String valeur = context.getInitParameter(parametre[0]);
+            if (valeur != null && !valeur.trim().isEmpty()) {
+                proprietes.put(parametre[1], valeur.trim());
+            }
+        }
+        Enumeration<String> noms = context.getInitParameterNames();
+        while (noms.hasMoreElements()) {
+            String nom = noms.nextElement();
+            if (nom.startsWith(PREFIXE_PERSISTANCE)) {
+                proprietes.put(nom.substring(PREFIXE_PERSISTANCE.length()), context.getInitParameter(nom).trim());
+            }
+        }
+
+        // Mesures des operations (GET /api/metrics) : actives sauf "false"
+        Metriques.activer(!"false".equalsIgnoreCase(context.getInitParameter("metriques.actives")));
+
+        PersistenceManager.demarrer(proprietes);
+
+        // Executeur des lectures REST asynchrones (503 au-dela de la file ou du delai)
+        ExecuteurRequetes.configurer(
+                entier(context, "rest.async.threads", ExecuteurRequetes.THREADS_PAR_DEFAUT),
+                entier(context, "rest.async.file", ExecuteurRequetes.FILE_PAR_DEFAUT),
+                entier(context, "rest.async.delaiMs", (int) ExecuteurRequetes.DELAI_PAR_DEFAUT_MS));
+
+        // Index en memoire des matricules (evite une requete par ecriture)
+        IndexMatricules.charger(IndexMatricules.Mode.depuis(context.getInitParameter("matricules.index")));
+
+        // Suggestions de matricules (autocompletion) : actives sauf "false"
+        if ("false".equalsIgnoreCase(context.getInitParameter("matricules.suggestions"))) {
+            SuggestionsMatricules.vider();
+        } else {
+            SuggestionsMatricules.charger();
+        }
+
+        // Index de recherche (nom, prenom, matricule, email) : actif sauf "false"
+        if ("false".equalsIgnoreCase(context.getInitParameter("recherche.index"))) {
+            IndexRecherche.vider();
+        } else {
+            IndexRecherche.charger();
+        }
+
+        // Ecriture differee des notes : le journal est rejoue meme si elle est desactivee
+        EcritureDiffereeNotes.configurer(
+                "true".equalsIgnoreCase(context.getInitParameter("notes.ecritureDifferee")),
+                journalNotes(context),
+                entier(context, "notes.ecritureDifferee.capacite", EcritureDiffereeNotes.CAPACITE_PAR_DEFAUT),
+                entier(context, "notes.ecritureDifferee.tailleLot", EcritureDiffereeNotes.TAILLE_LOT_PAR_DEFAUT),
+                entier(context, "notes.ecritureDifferee.delaiMs", (int) EcritureDiffereeNotes.DELAI_PAR_DEFAUT_MS));
+
+        // Generation des bulletins de notes (pool de production, repertoire des archives)
+        BulletinService.configurer(entier(context, "bulletins.threads", 0), repertoireBulletins(context));
+
+        // Controle des agregats de notes (moyennes) stockes sur les etudiants
+        if (!"false".equalsIgnoreCase(context.getInitParameter("agregats.verifierAuDemarrage"))) {
+            int incoherents = new NoteService().verifierEtReparerAgregats();
+            if (incoherents > 0) {
+                LOGGER.warning("Agregats de notes recalcules : " + incoherents + " etudiant(s) incoherent(s)");
+            }
+        }
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        ExecuteurRequetes.arreter();
+        BulletinService.arreter();
+        EcritureDiffereeNotes.arreter();
+        PersistenceManager.arreter();
+        desenregistrerDrivers();
+    }
+
+    /**
+     * <context-param> entier, ou la valeur par defaut s'il est absent
+     */
+    private static int entier(ServletContext context, String nom, int parDefaut) {
+        String valeur = context.getInitParameter(nom);
+        return valeur == null || valeur.trim().isEmpty() ? parDefaut : Integer.parseInt(valeur.trim());
+    }
+
+    /**
+     * Journal de l'ecriture differee des notes : parametre notes.journal,
+     * sinon journal/notes.journal sous le repertoire de Tomcat
+     */
+    private static Path journalNotes(ServletContext context) {
+        String valeur = context.getInitParameter("notes.journal");
+        if (valeur != null && !valeur.trim().isEmpty()) {
+            return Paths.get(valeur.trim());
+        }
+        String base = System.getProperty("catalina.base", System.getProperty("user.home"));
+        return Paths.get(base, "journal", "notes.journal");
+    }
+
+    /**
+     * Repertoire des archives de bulletins : parametre bulletins.repertoire,
+     * sinon bulletins/ sous le repertoire de Tomcat
+     */
+    private static Path repertoireBulletins(ServletContext context) {
+        String valeur = context.getInitParameter("bulletins.repertoire");
+        if (valeur != null && !valeur.trim().isEmpty()) {
+            return Paths.get(valeur.trim());
+        }
+        String base = System.getProperty("catalina.base", System.getProperty("user.home"));
+        return Paths.get(base, "bulletins");
+    }
+
+    /**
+     * Desenregistrer les drivers JDBC charges par le classloader de la webapp
+     */
+    private void desenregistrerDrivers() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Enumeration<Driver> drivers = DriverManager.getDrivers();
+        while (drivers.hasMoreElements()) {
+            Driver driver = drivers.nextElement();
+            if (driver.getClass().getClassLoader() == classLoader) {
+                try {
+                    DriverManager.deregisterDriver(driver);
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Impossible de desenregistrer le driver " + driver, e);
+                }
+            }
+        }
+
+        // Thread de nettoyage demarre par le driver MySQL
+        try {
+            Class.forName("com.mysql.cj.jdbc.AbandonedConnectionCleanupThread", false, classLoader)
+                    .getMethod("checkedShutdown")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.FINE, "Thread de nettoyage MySQL absent", e);
+        }
+    }
+}
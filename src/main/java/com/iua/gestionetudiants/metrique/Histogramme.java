@@ -0,0 +1,82 @@
+package com.iua.gestionetudiants.metrique;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de durées à classes log-linéaires (à la manière de
+ * HdrHistogram), sans verrou ni allocation à l'enregistrement
+ *
+ * Chaque puissance de 2 est découpée en 16 classes de même largeur :
+ * l'erreur relative sur un percentile est au plus de 1/16 (6,25 %), de la
+ * nanoseconde jusqu'à 2^40 ns (environ 18 minutes, valeurs plus grandes
+ * ramenées à ce maximum). 592 compteurs fixes, alloués à la création.
+ */
+public final class Histogramme {
+
+    /** 2^4 = 16 classes par puissance de 2 */
+    private static final int BITS_SOUS_CLASSES = 4;
+    private static final long VALEUR_MAXIMUM = (1L << 40) - 1;
+    static final int NOMBRE_CLASSES = indice(VALEUR_MAXIMUM) + 1;
+
+    private final AtomicLongArray comptes = new AtomicLongArray(NOMBRE_CLASSES);
+
+    /**
+     * Enregistrer une valeur (durée en nanosecondes)
+     */
+    public void enregistrer(long valeur) {
+        comptes.incrementAndGet(indice(Math.max(0, Math.min(valeur, VALEUR_MAXIMUM))));
+    }
+
+    /**
+     * Copie des compteurs, pour calculer des percentiles pendant que
+     * l'enregistrement continue
+     */
+    public long[] instantane() {
+        long[] copie = new long[NOMBRE_CLASSES];
+        for (int i = 0; i < NOMBRE_CLASSES; i++) {
+            copie[i] = comptes.get(i);
+        }
+        return copie;
+    }
+
+    /**
+     * Valeur au quantile demandé (0.99 : p99), calculée sur une copie
+     *
+     * @return La plus grande valeur de la classe qui contient le quantile
+     *         (0 si l'histogramme est vide)
+     */
+    public static long valeurAuQuantile(long[] instantane, double quantile) {
+        long total = 0;
+        for (long compte : instantane) {
+            total += compte;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rang = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumul = 0;
+        for (int i = 0; i < instantane.length; i++) {
+            cumul += instantane[i];
+            if (cumul >= rang) {
+                return borneSuperieure(i);
+            }
+        }
+        return borneSuperieure(instantane.length - 1);
+    }
+
+    /**
+     * Classe d'une valeur : en dessous de 32, une classe par valeur ; au-delà,
+     * les 4 bits qui suivent le bit de poids fort choisissent la sous-classe
+     */
+    static int indice(long valeur) {
+        int decalage = Math.max(0, 63 - Long.numberOfLeadingZeros(valeur) - BITS_SOUS_CLASSES);
+        return (decalage << BITS_SOUS_CLASSES) + (int) (valeur >>> decalage);
+    }
+
+    /** Plus grande valeur de la classe */
+    static long borneSuperieure(int indice) {
+        int decalage = Math.max(0, (indice >> BITS_SOUS_CLASSES) - 1);
+        long mantisse = indice - ((long) decalage << BITS_SOUS_CLASSES);
+        return ((mantisse + 1) << decalage) - 1;
+    }
+}
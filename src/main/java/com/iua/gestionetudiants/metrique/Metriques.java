@@ -0,0 +1,127 @@
+package com.iua.gestionetudiants.metrique;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des minuteurs de l'application, exportés au format texte de
+ * Prometheus (GET /api/metrics)
+ *
+ * Couches mesurées :
+ * - servlet : une action de servlet (EtudiantServlet.detail...)
+ * - rest    : une méthode de ressource REST (EtudiantRestService.trouverParId...)
+ * - service : une méthode publique de service
+ * - dao     : une méthode publique de DAO
+ *
+ * Les minuteurs sont créés une fois (constantes des classes mesurées) ;
+ * l'enregistrement ne consulte pas le registre.
+ */
+public final class Metriques {
+
+    /** Préfixe des noms de métriques exportées */
+    private static final String PREFIXE = "gestion_etudiants_operation";
+
+    /** Quantiles exportés pour chaque opération */
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private static final Map<String, Minuteur> MINUTEURS = new ConcurrentHashMap<>();
+
+    private static volatile boolean actif = true;
+
+    private Metriques() {
+    }
+
+    public static Minuteur servlet(String operation) {
+        return minuteur("servlet", operation);
+    }
+
+    public static Minuteur rest(String operation) {
+        return minuteur("rest", operation);
+    }
+
+    public static Minuteur service(String operation) {
+        return minuteur("service", operation);
+    }
+
+    public static Minuteur dao(String operation) {
+        return minuteur("dao", operation);
+    }
+
+    /**
+     * Minuteur d'une opération (créé au premier appel)
+     */
+    public static Minuteur minuteur(String couche, String operation) {
+        return MINUTEURS.computeIfAbsent(couche + ' ' + operation, cle -> new Minuteur(couche, operation));
+    }
+
+    /**
+     * Activer ou couper l'enregistrement (context-param metriques.actives)
+     * Les minuteurs coupés ne comptent plus rien, mais restent exportés
+     */
+    public static void activer(boolean valeur) {
+        actif = valeur;
+    }
+
+    public static boolean estActif() {
+        return actif;
+    }
+
+    /**
+     * Exporter tous les minuteurs au format texte de Prometheus (0.0.4)
+     *
+     * - gestion_etudiants_operation_secondes (summary) : quantiles 0.5,
+     *   0.95, 0.99 depuis le démarrage, _sum et _count
+     * - gestion_etudiants_operation_secondes_max (gauge) : plus longue durée
+     * - gestion_etudiants_operation_erreurs_total (counter) : appels en erreur
+     */
+    public static String exporterPrometheus() {
+        List<Minuteur> minuteurs = new ArrayList<>(MINUTEURS.values());
+        minuteurs.sort(Comparator.comparing(Minuteur::getCouche).thenComparing(Minuteur::getOperation));
+
+        StringBuilder texte = new StringBuilder(minuteurs.size() * 700);
+        texte.append("# HELP ").append(PREFIXE).append("_secondes Duree des operations (servlets, REST, services, DAO)\n");
+        texte.append("# TYPE ").append(PREFIXE).append("_secondes summary\n");
+        for (Minuteur minuteur : minuteurs) {
+            String etiquettes = etiquettes(minuteur);
+            long[] instantane = minuteur.getHistogramme().instantane();
+            for (double quantile : QUANTILES) {
+                texte.append(PREFIXE).append("_secondes{").append(etiquettes)
+                     .append(",quantile=\"").append(quantile).append("\"} ")
+                     .append(secondes(Math.min(Histogramme.valeurAuQuantile(instantane, quantile),
+                             minuteur.getDureeMaxNanos())))
+                     .append('\n');
+            }
+            texte.append(PREFIXE).append("_secondes_sum{").append(etiquettes).append("} ")
+                 .append(secondes(minuteur.getDureeTotaleNanos())).append('\n');
+            texte.append(PREFIXE).append("_secondes_count{").append(etiquettes).append("} ")
+                 .append(minuteur.getAppels()).append('\n');
+        }
+
+        texte.append("# HELP ").append(PREFIXE).append("_secondes_max Plus longue duree depuis le demarrage\n");
+        texte.append("# TYPE ").append(PREFIXE).append("_secondes_max gauge\n");
+        for (Minuteur minuteur : minuteurs) {
+            texte.append(PREFIXE).append("_secondes_max{").append(etiquettes(minuteur)).append("} ")
+                 .append(secondes(minuteur.getDureeMaxNanos())).append('\n');
+        }
+
+        texte.append("# HELP ").append(PREFIXE).append("_erreurs_total Appels termines par une erreur\n");
+        texte.append("# TYPE ").append(PREFIXE).append("_erreurs_total counter\n");
+        for (Minuteur minuteur : minuteurs) {
+            texte.append(PREFIXE).append("_erreurs_total{").append(etiquettes(minuteur)).append("} ")
+                 .append(minuteur.getErreurs()).append('\n');
+        }
+        return texte.toString();
+    }
+
+    private static String etiquettes(Minuteur minuteur) {
+        return "couche=\"" + minuteur.getCouche() + "\",operation=\"" + minuteur.getOperation() + "\"";
+    }
+
+    private static String secondes(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
@@ -0,0 +1,145 @@
+package com.iua.gestionetudiants.metrique;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesure d'une opération : appels, erreurs, durées (histogramme)
+ *
+ * Utilisation (un minuteur par méthode, en constante) :
+ *
+ *     return MESURE_X.mesurer(() -> {
+ *         ...
+ *     });
+ *
+ * (mesurerAction pour une méthode sans résultat). demarrer(), echouer() et
+ * arreter() restent disponibles quand le début et la fin de la mesure ne
+ * sont pas dans la même méthode (filtre JAX-RS, voir MesureRessources).
+ *
+ * Les compteurs ne créent aucun objet : LongAdder, maximum par CAS et
+ * histogramme à compteurs fixes. Seule la lambda passée à mesurer() peut
+ * être allouée, quand elle capture des variables.
+ */
+public final class Minuteur {
+
+    private final String couche;
+    private final String operation;
+    private final Histogramme histogramme = new Histogramme();
+    private final LongAdder appels = new LongAdder();
+    private final LongAdder erreurs = new LongAdder();
+    private final LongAdder dureeTotaleNanos = new LongAdder();
+    private final AtomicLong dureeMaxNanos = new AtomicLong();
+
+    Minuteur(String couche, String operation) {
+        this.couche = couche;
+        this.operation = operation;
+    }
+
+    /**
+     * Opération mesurée qui rend un résultat
+     *
+     * @param <E> Exception vérifiée levée par l'opération (RuntimeException
+     *            si elle n'en lève pas)
+     */
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+        T executer() throws E;
+    }
+
+    /**
+     * Opération mesurée sans résultat
+     */
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void executer() throws E;
+    }
+
+    /**
+     * Exécuter une opération en mesurant sa durée ; une exception est
+     * comptée en erreur puis relancée telle quelle
+     */
+    public <T, E extends Exception> T mesurer(Operation<T, E> operation) throws E {
+        long debut = demarrer();
+        try {
+            return operation.executer();
+        } catch (Exception e) {
+            echouer();
+            throw e;
+        } finally {
+            arreter(debut);
+        }
+    }
+
+    /**
+     * Comme mesurer(), pour une opération sans résultat
+     */
+    public <E extends Exception> void mesurerAction(Action<E> action) throws E {
+        long debut = demarrer();
+        try {
+            action.executer();
+        } catch (Exception e) {
+            echouer();
+            throw e;
+        } finally {
+            arreter(debut);
+        }
+    }
+
+    /**
+     * @return L'instant de départ, à rendre à arreter()
+     */
+    public long demarrer() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Enregistrer la durée d'un appel (réussi ou non)
+     */
+    public void arreter(long debut) {
+        if (!Metriques.estActif()) {
+            return;
+        }
+        long duree = System.nanoTime() - debut;
+        appels.increment();
+        dureeTotaleNanos.add(duree);
+        dureeMaxNanos.accumulateAndGet(duree, Math::max);
+        histogramme.enregistrer(duree);
+    }
+
+    /**
+     * Compter un appel en erreur (en plus de arreter())
+     */
+    public void echouer() {
+        if (Metriques.estActif()) {
+            erreurs.increment();
+        }
+    }
+
+    public String getCouche() {
+        return couche;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    long getAppels() {
+        return appels.sum();
+    }
+
+    long getErreurs() {
+        return erreurs.sum();
+    }
+
+    long getDureeTotaleNanos() {
+        return dureeTotaleNanos.sum();
+    }
+
+    long getDureeMaxNanos() {
+        return dureeMaxNanos.get();
+    }
+
+    Histogramme getHistogramme() {
+        return histogramme;
+    }
+}
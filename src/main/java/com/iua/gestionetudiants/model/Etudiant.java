@@ -1,7 +1,13 @@
 package com.iua.gestionetudiants.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,7 +28,17 @@ import java.util.List;
 @Entity
 
 // @Table : Specifie le nom de la table MySQL correspondante
-@Table(name = "etudiant")
+// L'index (nom, prenom, id) suit l'ordre de la liste paginee : chaque page
+// est lue directement dans l'index a partir du curseur, sans tri ni OFFSET
+@Table(name = "etudiant",
+       indexes = @Index(name = "idx_etudiant_nom_prenom_id", columnList = "nom, prenom, id"))
+
+// @Cacheable / @Cache : l'etudiant est garde dans le cache de second niveau
+// (region "etudiant", voir ehcache.xml) lorsque cache.active = true.
+// READ_WRITE : une ecriture verrouille l'entree jusqu'au commit, aucune
+// transaction ne peut lire une version perimee depuis le cache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "etudiant")
 public class Etudiant {
 
     // ===================================================================
@@ -32,11 +48,16 @@ public class Etudiant {
     /**
      * ID : Identifiant unique de l'etudiant
      * @Id : Cle primaire de la table
-     * @GeneratedValue : La valeur est generee automatiquement par MySQL (AUTO_INCREMENT)
-     * IDENTITY : Utilise l'auto-increment natif de MySQL
+     * @GeneratedValue : La valeur est generee par Hibernate a partir d'une sequence
+     * SEQUENCE : Hibernate reserve les identifiants par blocs de 50
+     *            (table etudiant_seq sous MySQL, qui n'a pas de sequences).
+     *            Contrairement a IDENTITY (AUTO_INCREMENT), l'identifiant est
+     *            connu AVANT l'INSERT : les insertions peuvent etre envoyees
+     *            par lots JDBC (imports, saisies en masse).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "etudiant_seq")
+    @SequenceGenerator(name = "etudiant_seq", sequenceName = "etudiant_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -83,6 +104,69 @@ public class Etudiant {
     @Column(name = "date_creation")
     private LocalDate dateCreation;
 
+    /**
+     * AGREGATS DES NOTES : maintenus a chaque ajout / modification /
+     * suppression de note, dans la meme transaction (voir NoteDAO)
+     *
+     * - sommePonderee     : Σ(valeur × coefficient)
+     * - sommeCoefficients : Σ(coefficient)
+     * - nombreNotes       : nombre de notes
+     *
+     * La moyenne se lit donc sans parcourir la table note.
+     * updatable=false : un merge() de l'etudiant (formulaire de modification)
+     * ne doit jamais ecraser ces valeurs avec une copie perimee.
+     * @ColumnDefault("0") : les lignes existantes recoivent 0 lors de l'ajout
+     * des colonnes (a recalculer ensuite par NoteService.verifierEtReparerAgregats)
+     */
+    @ColumnDefault("0")
+    @Column(name = "somme_ponderee", nullable = false, updatable = false)
+    private double sommePonderee;
+
+    @ColumnDefault("0")
+    @Column(name = "somme_coefficients", nullable = false, updatable = false)
+    private long sommeCoefficients;
+
+    @ColumnDefault("0")
+    @Column(name = "nombre_notes", nullable = false, updatable = false)
+    private int nombreNotes;
+
+    /**
+     * REVISION : numero de version des champs de l'etudiant (formulaire)
+     *
+     * @Version : incremente par Hibernate a chaque modification de l'etudiant ;
+     *            un merge() d'une copie perimee echoue (OptimisticLockException)
+     *            au lieu d'ecraser la modification d'un autre utilisateur.
+     * Les notes ne l'incrementent pas : la saisie d'une note ne fait pas
+     * echouer la modification du nom ou de l'email (voir revisionNotes).
+     *
+     * Sert de validateur HTTP avec revisionNotes : ETag des reponses de
+     * EtudiantRestService.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "revision", nullable = false)
+    private long revision;
+
+    /**
+     * REVISION DES NOTES : incrementee a chaque ajout / modification /
+     * suppression de note, dans le meme UPDATE que les agregats (voir
+     * NoteDAO.SQL_AJUSTER_AGREGATS). Une note dont seule la matiere change
+     * laisse les agregats intacts : ils ne suffisent pas pour l'ETag.
+     *
+     * updatable=false comme les agregats : jamais ecrite par un merge().
+     */
+    @ColumnDefault("0")
+    @Column(name = "revision_notes", nullable = false, updatable = false)
+    private long revisionNotes;
+
+    /**
+     * DATE DE MODIFICATION : derniere modification de l'etudiant ou de ses
+     * notes, a la seconde (precision de l'en-tete HTTP Last-Modified)
+     * Nulle pour les lignes anterieures a l'ajout de la colonne
+     */
+    @Column(name = "date_modification")
+    private LocalDateTime dateModification;
+
     /**
      * RELATION AVEC LES NOTES
      *
@@ -98,7 +182,12 @@ public class Etudiant {
      *
      * EXEMPLE : Si KOUASSI a 3 notes et qu'on le supprime,
      *           les 3 notes sont aussi supprimees (cascade)
+     *
+     * @Cache : la liste des identifiants des notes est mise en cache
+     *          (region "etudiant.notes"), evincee a chaque ajout, modification
+     *          ou suppression d'une note de l'etudiant
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "etudiant.notes")
     @OneToMany(mappedBy = "etudiant", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Note> notes = new ArrayList<>();
 
@@ -190,6 +279,30 @@ public class Etudiant {
         this.dateCreation = dateCreation;
     }
 
+    public double getSommePonderee() {
+        return sommePonderee;
+    }
+
+    public long getSommeCoefficients() {
+        return sommeCoefficients;
+    }
+
+    public int getNombreNotes() {
+        return nombreNotes;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public long getRevisionNotes() {
+        return revisionNotes;
+    }
+
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+
     public List<Note> getNotes() {
         return notes;
     }
@@ -202,6 +315,16 @@ public class Etudiant {
     // METHODES UTILITAIRES
     // ===================================================================
 
+    /**
+     * Horodate l'etudiant avant chaque INSERT / UPDATE
+     * (appele par JPA, voir @PrePersist et @PreUpdate)
+     */
+    @PrePersist
+    @PreUpdate
+    void horodater() {
+        this.dateModification = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
     /**
      * Ajoute une note a cet etudiant
      * Maintient la coherence de la relation bidirectionnelle :
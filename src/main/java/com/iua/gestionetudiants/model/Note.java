@@ -1,6 +1,10 @@
 package com.iua.gestionetudiants.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDate;
 
 /**
@@ -9,10 +13,15 @@ import java.time.LocalDate;
  */
 @Entity
 @Table(name = "note")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "note")
 public class Note {
 
+    // Identifiant reserve par blocs de 50 (table note_seq sous MySQL) :
+    // connu avant l'INSERT, ce qui permet les insertions par lots JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_seq")
+    @SequenceGenerator(name = "note_seq", sequenceName = "note_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "matiere", nullable = false, length = 100)
@@ -27,6 +36,20 @@ public class Note {
     @Column(name = "date_creation")
     private LocalDate dateCreation;
 
+    // Numero de la note dans le journal de l'ecriture differee (null sinon) :
+    // l'unicite empeche qu'une note rejouee apres un arret brutal soit
+    // enregistree deux fois (voir EcritureDiffereeNotes)
+    @Column(name = "sequence_journal", unique = true)
+    private Long sequenceJournal;
+
+    // Numero de version, incremente a chaque modification de la note :
+    // une modification faite a partir d'une copie perimee echoue au lieu
+    // d'ecraser celle d'un autre utilisateur (voir NoteDAO.modifier)
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "revision", nullable = false)
+    private long revision;
+
     // Relation ManyToOne : plusieurs notes pour un étudiant
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "etudiant_id", nullable = false)
@@ -93,6 +116,18 @@ public class Note {
         this.dateCreation = dateCreation;
     }
 
+    public Long getSequenceJournal() {
+        return sequenceJournal;
+    }
+
+    public void setSequenceJournal(Long sequenceJournal) {
+        this.sequenceJournal = sequenceJournal;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
     public Etudiant getEtudiant() {
         return etudiant;
     }
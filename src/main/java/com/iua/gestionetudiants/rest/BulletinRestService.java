@@ -0,0 +1,104 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.iua.gestionetudiants.service.BulletinService;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service REST des bulletins de notes (archive ZIP, un bulletin HTML par
+ * etudiant, voir BulletinService)
+ *
+ * Une classe est designee par le debut de ses matricules ; sans parametre,
+ * tous les etudiants. Une seule generation a la fois : 503 si une autre
+ * est en cours. Progression : GET /api/supervision/bulletins
+ *
+ * Exemple :
+ *   curl -o bulletins-L3.zip "http://localhost:8080/GestionEtudiants/api/bulletins?matricule=L3"
+ */
+@Path("/bulletins")
+public class BulletinRestService {
+
+    private static final String TYPE_ZIP = "application/zip";
+
+    private BulletinService bulletinService = new BulletinService();
+    private Gson gson = new Gson();
+
+    /**
+     * GET /api/bulletins?matricule=
+     * Envoie l'archive en flux, au fur et a mesure de la generation
+     * (pas de Content-Length : la taille n'est connue qu'a la fin)
+     */
+    @GET
+    @Produces({TYPE_ZIP, MediaType.APPLICATION_JSON})
+    public Response telecharger(@QueryParam("matricule") String matricule) {
+        // Verifie avant l'envoi des en-tetes ; la reservation elle-meme a
+        // lieu au debut du flux (deux telechargements simultanes : le second
+        // echoue sans archive)
+        if (BulletinService.estEnCours()) {
+            return erreur(Response.Status.SERVICE_UNAVAILABLE,
+                    "Une generation de bulletins est deja en cours, reessayer plus tard");
+        }
+
+        StreamingOutput flux = sortie -> bulletinService.genererZip(matricule, sortie);
+        return Response.ok(flux, TYPE_ZIP)
+                .header("Content-Disposition", "attachment; filename=\"" + nomArchive(matricule) + "\"")
+                .build();
+    }
+
+    /**
+     * POST /api/bulletins/fichier?matricule=
+     * Lance la generation dans un fichier du repertoire des bulletins
+     * (bulletins.repertoire) et repond aussitot 202 avec son nom
+     */
+    @POST
+    @Path("/fichier")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response genererFichier(@QueryParam("matricule") String matricule) {
+        try {
+            java.nio.file.Path fichier = bulletinService.lancerFichier(matricule);
+            Map<String, String> resultat = new LinkedHashMap<>();
+            resultat.put("fichier", fichier.toString());
+            resultat.put("progression", "/api/supervision/bulletins");
+            return Response.status(Response.Status.ACCEPTED)
+                    .entity(gson.toJson(resultat))
+                    .build();
+        } catch (IllegalStateException e) {
+            return erreur(Response.Status.SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (Exception e) {
+            return erreur(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Nom propose au navigateur : bulletins.zip ou bulletins-<classe>.zip
+     */
+    private String nomArchive(String matricule) {
+        if (matricule == null || matricule.trim().isEmpty()) {
+            return "bulletins.zip";
+        }
+        return "bulletins-" + matricule.trim().replaceAll("[^A-Za-z0-9._-]", "_") + ".zip";
+    }
+
+    /**
+     * Construire une reponse d'erreur JSON
+     */
+    private Response erreur(Response.Status statut, String message) {
+        Map<String, String> erreur = new HashMap<>();
+        erreur.put("erreur", message);
+        return Response.status(statut)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(gson.toJson(erreur))
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.iua.gestionetudiants.dto.Classement;
+import com.iua.gestionetudiants.service.ClassementService;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service REST du classement general
+ */
+@Path("/classement")
+public class ClassementRestService {
+
+    private ClassementService classementService = new ClassementService();
+    private Gson gson = new Gson();
+
+    /**
+     * GET /api/classement?page=1&taille=50
+     * Retourne une page du classement (rang, moyenne, admis) et les totaux
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response classer(@QueryParam("page") @DefaultValue("1") int page,
+                            @QueryParam("taille") @DefaultValue("50") int taille) {
+        try {
+            Classement classement = classementService.classer(page, taille);
+
+            Map<String, Object> reponse = new LinkedHashMap<>();
+            reponse.put("page", classement.getPage());
+            reponse.put("taille", classement.getTaille());
+            reponse.put("nombrePages", classement.getNombrePages());
+            reponse.put("etudiantsClasses", classement.getEtudiantsClasses());
+            reponse.put("nombreAdmis", classement.getNombreAdmis());
+            reponse.put("tauxReussite", classement.getTauxReussite());
+            reponse.put("classement", classement.getLignes());
+            return Response.ok(gson.toJson(reponse)).build();
+
+        } catch (Exception e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+    }
+}
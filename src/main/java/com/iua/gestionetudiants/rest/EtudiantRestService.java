@@ -2,55 +2,266 @@ package com.iua.gestionetudiants.rest;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import com.iua.gestionetudiants.dao.CritereListeEtudiants;
+import com.iua.gestionetudiants.dao.Page;
+import com.iua.gestionetudiants.dao.ResultatRecherche;
+import com.iua.gestionetudiants.dto.EtudiantResume;
+import com.iua.gestionetudiants.dto.NoteCreee;
+import com.iua.gestionetudiants.dto.SuggestionMatricule;
+import com.iua.gestionetudiants.dto.RevisionEtudiant;
 import com.iua.gestionetudiants.model.Etudiant;
 import com.iua.gestionetudiants.model.Note;
 import com.iua.gestionetudiants.service.EtudiantService;
 import com.iua.gestionetudiants.service.NoteService;
+import com.iua.gestionetudiants.service.RapportLot;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
  * Service REST pour la gestion des étudiants
  * Expose les données au format JSON
+ *
+ * Requêtes conditionnelles : chaque représentation porte un ETag fort
+ * (révisions de l'étudiant et de ses notes, voir Etudiant.revision et
+ * Etudiant.revisionNotes) et un Last-Modified.
+ * Un client qui renvoie l'ETag dans If-None-Match reçoit 304 sans corps.
+ *
+ * Lectures asynchrones : la liste, le détail et les notes suspendent la
+ * requête (AsyncResponse) et sont produits sur l'exécuteur borné
+ * ExecuteurRequetes ; le thread du conteneur est rendu aussitôt, et une
+ * surcharge ou une base trop lente se traduisent par un 503.
  */
 @Path("/etudiants")
 public class EtudiantRestService {
 
+    /** Type MIME du JSON délimité par des retours à la ligne (un objet par ligne) */
+    private static final String TYPE_NDJSON = "application/x-ndjson";
+
     private EtudiantService etudiantService = new EtudiantService();
     private NoteService noteService = new NoteService();
     private Gson gson = new GsonBuilder()
             .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
-            .setPrettyPrinting()
             .create();
 
     /**
-     * GET /api/etudiants
-     * Retourne la liste de tous les étudiants au format JSON
+     * GET /api/etudiants?nom=&matricule=&ordre=&taille=&apres=
+     * Retourne une page d'étudiants au format JSON (tableau)
+     *
+     * La pagination se fait par curseur : si une page suivante existe, son
+     * curseur est renvoyé dans l'en-tête X-Curseur-Suivant et son URL dans
+     * l'en-tête Link (rel="next").
+     *
+     * GET /api/etudiants?stream=true[&format=ndjson]
+     * Exporte TOUS les étudiants en flux (voir exporterEnFlux)
+     * L'export n'a pas d'ETag : son contenu n'est connu qu'une fois la table
+     * entièrement lue, après l'envoi des en-têtes. Il garde un curseur ouvert
+     * pendant tout l'envoi : il reste sur le thread de la requête, hors de
+     * l'exécuteur borné
+     */
+    @GET
+    @Produces({MediaType.APPLICATION_JSON, TYPE_NDJSON})
+    public void listerTous(@QueryParam("nom") String nom,
+                           @QueryParam("matricule") String matricule,
+                           @QueryParam("ordre") String ordre,
+                           @QueryParam("taille") @DefaultValue("20") int taille,
+                           @QueryParam("apres") String apres,
+                           @QueryParam("stream") boolean stream,
+                           @QueryParam("format") String format,
+                           @Context UriInfo uriInfo,
+                           @Context Request requete,
+                           @Suspended AsyncResponse reponse) {
+        if (stream) {
+            reponse.resume(exporterEnFlux("ndjson".equalsIgnoreCase(format)));
+            return;
+        }
+        ExecuteurRequetes.executer(reponse,
+                () -> listerPage(nom, matricule, ordre, taille, apres, uriInfo, requete));
+    }
+
+    /**
+     * Une page de la liste (exécuteur REST)
+     */
+    private Response listerPage(String nom, String matricule, String ordre, int taille, String apres,
+                                UriInfo uriInfo, Request requete) {
+        try {
+            CritereListeEtudiants critere = new CritereListeEtudiants();
+            critere.setPrefixeNom(nom);
+            critere.setPrefixeMatricule(matricule);
+            critere.setDecroissant("desc".equalsIgnoreCase(ordre));
+            critere.setTaille(taille);
+            critere.setCurseur(apres);
+
+            // Projection en lecture seule : ni entités gérées ni Map intermédiaires
+            Page<EtudiantResume> page = etudiantService.listerPageResumes(critere);
+
+            // Validateurs de la page, comparés AVANT toute sérialisation.
+            // Seul l'ETag est évalué : une suppression ne change pas la date
+            // de modification la plus récente de la page, mais change l'ETag
+            EntityTag etag = etiquetteListe("etudiants-", page.getElements(), page.getCurseurSuivant());
+            Date derniereModification = derniereModification(page.getElements());
+            Response.ResponseBuilder nonModifie = requete.evaluatePreconditions(etag);
+            if (nonModifie != null) {
+                return nonModifie.cacheControl(revalidation()).build();
+            }
+
+            String json = ecrirePage(page.getElements());
+            Response.ResponseBuilder reponse = validateurs(Response.ok(json), etag, derniereModification);
+            if (page.isPageSuivante()) {
+                URI suivante = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("apres", page.getCurseurSuivant())
+                    .build();
+                reponse.header("X-Curseur-Suivant", page.getCurseurSuivant());
+                reponse.header("Link", "<" + suivante + ">; rel=\"next\"");
+            }
+            return reponse.build();
+
+        } catch (IllegalArgumentException e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        } catch (Exception e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+    }
+
+    /**
+     * GET /api/etudiants/recherche?q=&taille=
+     * Recherche par nom, prénom, matricule ou email, sans accents ni
+     * majuscules, sur le début des mots ("kou aya", "ETU2025", "jean.k")
+     * Retourne les premiers étudiants (même format que la liste) ; le nombre
+     * total de correspondances est dans l'en-tête X-Nombre-Resultats.
+     * Répond depuis l'index en mémoire, sans accès à la base : directement
+     * sur le thread de la requête
+     * Requête conditionnelle comme la liste : ETag des couples (id, révision)
+     * renvoyés et du nombre total, Last-Modified le plus récent
+     *
+     * 503 si l'index de recherche n'est pas chargé (recherche.index=false)
      */
     @GET
+    @Path("/recherche")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response listerTous() {
+    public Response rechercher(@QueryParam("q") String q,
+                               @QueryParam("taille") @DefaultValue("20") int taille,
+                               @Context Request requete) {
         try {
-            List<Etudiant> etudiants = etudiantService.listerTous();
+            ResultatRecherche resultat = etudiantService.rechercher(q, taille);
+
+            // Seul l'ETag est évalué, comme pour la liste (voir listerPage)
+            EntityTag etag = etiquetteListe("recherche-", resultat.getEtudiants(), resultat.getTotal());
+            Response.ResponseBuilder nonModifie = requete.evaluatePreconditions(etag);
+            if (nonModifie != null) {
+                return nonModifie.cacheControl(revalidation()).build();
+            }
+
+            return validateurs(Response.ok(ecrirePage(resultat.getEtudiants())), etag,
+                        derniereModification(resultat.getEtudiants()))
+                    .header("X-Nombre-Resultats", resultat.getTotal())
+                    .build();
+
+        } catch (IllegalStateException e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        } catch (Exception e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+    }
 
-            // Convertir en format simplifié pour éviter les problèmes de sérialisation
-            List<Map<String, Object>> etudiantsSimplifies = etudiants.stream()
-                .map(this::convertirEtudiantEnMap)
-                .collect(Collectors.toList());
+    /**
+     * GET /api/etudiants/suggest?prefix=&limite=10
+     * Autocomplétion des matricules (saisie des notes) : les premiers
+     * matricules qui commencent par le préfixe, dans l'ordre, avec l'id de
+     * l'étudiant. Majuscules et minuscules se confondent.
+     * Exemple : [{"id":42,"matricule":"ETU2025001"},...]
+     * Requête conditionnelle par ETag seul (empreinte des couples id,
+     * matricule) : les suggestions ne gardent pas de date de modification,
+     * la réponse n'a pas de Last-Modified
+     *
+     * 503 si les suggestions ne sont pas chargées (matricules.suggestions=false)
+     */
+    @GET
+    @Path("/suggest")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response suggererMatricules(@QueryParam("prefix") String prefixe,
+                                       @QueryParam("limite") @DefaultValue("10") int limite,
+                                       @Context Request requete) {
+        try {
+            List<SuggestionMatricule> suggestions = etudiantService.suggererMatricules(prefixe, limite);
+            EntityTag etag = etiquetteSuggestions(suggestions);
+            Response.ResponseBuilder nonModifie = requete.evaluatePreconditions(etag);
+            if (nonModifie != null) {
+                return nonModifie.cacheControl(revalidation()).build();
+            }
 
-            String json = gson.toJson(etudiantsSimplifies);
-            return Response.ok(json).build();
+            StringWriter texte = new StringWriter(suggestions.size() * 40 + 2);
+            JsonWriter json = new JsonWriter(texte);
+            json.beginArray();
+            for (SuggestionMatricule suggestion : suggestions) {
+                json.beginObject();
+                json.name("id").value(suggestion.getId());
+                json.name("matricule").value(suggestion.getMatricule());
+                json.endObject();
+            }
+            json.endArray();
+            json.flush();
+            return validateurs(Response.ok(texte.toString()), etag, null).build();
 
+        } catch (IllegalStateException e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(gson.toJson(erreur))
+                    .build();
         } catch (Exception e) {
             Map<String, String> erreur = new HashMap<>();
             erreur.put("erreur", e.getMessage());
@@ -60,15 +271,119 @@ public class EtudiantRestService {
         }
     }
 
+    /**
+     * Export complet des étudiants, écrit directement dans la réponse HTTP
+     *
+     * Les lignes sont lues par un curseur en base (EtudiantService.parcourirTous)
+     * et chaque étudiant est écrit dans le flux de sortie dès sa lecture :
+     * ni liste d'entités, ni Map intermédiaire, ni String JSON complète.
+     *
+     * @param ndjson true : un objet JSON par ligne (NDJSON)
+     *               false : un tableau JSON unique
+     */
+    private Response exporterEnFlux(boolean ndjson) {
+        StreamingOutput flux = sortie -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8));
+            JsonWriter json = new JsonWriter(writer);
+            json.setSerializeNulls(false);
+            if (!ndjson) {
+                json.beginArray();
+            }
+            try {
+                etudiantService.parcourirTous(etudiant -> {
+                    try {
+                        ecrireEtudiant(json, etudiant);
+                        if (ndjson) {
+                            json.flush();
+                            writer.write('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Le client a fermé la connexion : inutile de continuer
+                throw e.getCause();
+            }
+            if (!ndjson) {
+                json.endArray();
+            }
+            json.flush();
+        };
+        return Response.ok(flux, ndjson ? TYPE_NDJSON : MediaType.APPLICATION_JSON).build();
+    }
+
+    /**
+     * Tableau JSON d'une page de la liste (mêmes champs que ecrireEtudiant)
+     * Visibilité paquet : mesurée par les benchmarks (module benchmarks)
+     */
+    String ecrirePage(List<EtudiantResume> etudiants) throws IOException {
+        StringWriter texte = new StringWriter(etudiants.size() * 192 + 2);
+        JsonWriter json = new JsonWriter(texte);
+        json.setSerializeNulls(false);
+        json.beginArray();
+        for (EtudiantResume etudiant : etudiants) {
+            json.beginObject();
+            json.name("id").value(etudiant.getId());
+            json.name("matricule").value(etudiant.getMatricule());
+            json.name("nom").value(etudiant.getNom());
+            json.name("prenom").value(etudiant.getPrenom());
+            json.name("email").value(etudiant.getEmail());
+            json.name("dateNaissance").value(
+                    etudiant.getDateNaissance() == null ? null : etudiant.getDateNaissance().toString());
+            json.name("dateCreation").value(
+                    etudiant.getDateCreation() == null ? null : etudiant.getDateCreation().toString());
+            json.endObject();
+        }
+        json.endArray();
+        json.flush();
+        return texte.toString();
+    }
+
+    /**
+     * Écrire un étudiant (sans les notes) dans un flux JSON
+     * Mêmes champs que convertirEtudiantEnMap, sans objet intermédiaire
+     * Visibilité paquet : mesurée par les benchmarks (module benchmarks)
+     */
+    void ecrireEtudiant(JsonWriter json, Etudiant etudiant) throws IOException {
+        json.beginObject();
+        json.name("id").value(etudiant.getId());
+        json.name("matricule").value(etudiant.getMatricule());
+        json.name("nom").value(etudiant.getNom());
+        json.name("prenom").value(etudiant.getPrenom());
+        json.name("email").value(etudiant.getEmail());
+        json.name("dateNaissance").value(
+                etudiant.getDateNaissance() == null ? null : etudiant.getDateNaissance().toString());
+        json.name("dateCreation").value(
+                etudiant.getDateCreation() == null ? null : etudiant.getDateCreation().toString());
+        json.endObject();
+    }
+
     /**
      * GET /api/etudiants/{id}
      * Retourne les détails d'un étudiant au format JSON
+     *
+     * Les validateurs sont lus d'abord (révision seule) : si le client a déjà
+     * cette version, 304 sans charger les notes ni sérialiser quoi que ce soit
      */
     @GET
     @Path("/{id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response trouverParId(@PathParam("id") Long id) {
+    public void trouverParId(@PathParam("id") Long id, @Context Request requete,
+                             @Suspended AsyncResponse reponse) {
+        ExecuteurRequetes.executer(reponse, () -> detailEtudiant(id, requete));
+    }
+
+    /**
+     * Détail d'un étudiant avec ses notes (exécuteur REST)
+     */
+    private Response detailEtudiant(Long id, Request requete) {
         try {
+            Response nonModifie = evaluerPreconditions(requete, id, "");
+            if (nonModifie != null) {
+                return nonModifie;
+            }
+
             Etudiant etudiant = etudiantService.trouverParIdAvecNotes(id);
 
             if (etudiant == null) {
@@ -81,7 +396,8 @@ public class EtudiantRestService {
 
             Map<String, Object> etudiantMap = convertirEtudiantEnMapAvecNotes(etudiant);
             String json = gson.toJson(etudiantMap);
-            return Response.ok(json).build();
+            return validateurs(Response.ok(json), etiquette(id, etudiant.getRevision(), etudiant.getRevisionNotes(), ""),
+                    versDate(etudiant.getDateModification())).build();
 
         } catch (Exception e) {
             Map<String, String> erreur = new HashMap<>();
@@ -95,13 +411,31 @@ public class EtudiantRestService {
     /**
      * GET /api/etudiants/{id}/notes
      * Retourne les notes d'un étudiant au format JSON
+     * (304 si le client a déjà cette version, voir trouverParId)
      */
     @GET
     @Path("/{id}/notes")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response listerNotes(@PathParam("id") Long id) {
+    public void listerNotes(@PathParam("id") Long id, @Context Request requete,
+                            @Suspended AsyncResponse reponse) {
+        ExecuteurRequetes.executer(reponse, () -> notesEtudiant(id, requete));
+    }
+
+    /**
+     * Notes et moyenne d'un étudiant (exécuteur REST)
+     *
+     * L'étudiant et ses notes sont lus ensemble (trouverParIdAvecNotes) ;
+     * la moyenne et le nombre de notes sont calculés sur cette liste, pour
+     * ne pas mêler deux lectures entre lesquelles une note a pu être saisie
+     */
+    private Response notesEtudiant(Long id, Request requete) {
         try {
-            Etudiant etudiant = etudiantService.trouverParId(id);
+            Response nonModifie = evaluerPreconditions(requete, id, "-notes");
+            if (nonModifie != null) {
+                return nonModifie;
+            }
+
+            Etudiant etudiant = etudiantService.trouverParIdAvecNotes(id);
 
             if (etudiant == null) {
                 Map<String, String> erreur = new HashMap<>();
@@ -111,7 +445,9 @@ public class EtudiantRestService {
                         .build();
             }
 
-            List<Note> notes = noteService.listerParEtudiant(id);
+            // Même ordre que NoteService.listerParEtudiant (par matière)
+            List<Note> notes = new ArrayList<>(etudiant.getNotes());
+            notes.sort(Comparator.comparing(Note::getMatiere));
             double moyenne = noteService.calculerMoyenne(notes);
 
             // Créer la réponse
@@ -124,7 +460,129 @@ public class EtudiantRestService {
             reponse.put("nombreNotes", notes.size());
 
             String json = gson.toJson(reponse);
-            return Response.ok(json).build();
+            return validateurs(Response.ok(json), etiquette(id, etudiant.getRevision(), etudiant.getRevisionNotes(), "-notes"),
+                    versDate(etudiant.getDateModification())).build();
+
+        } catch (Exception e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+    }
+
+    /**
+     * POST /api/etudiants/{id}/notes
+     * Ajoute une note à un étudiant
+     * Corps : {"matiere": "Java EE", "valeur": 15.5, "coefficient": 3}
+     *
+     * L'étudiant n'est pas chargé (clé étrangère, voir NoteService.creerNote).
+     * Retourne 201 avec la note créée et la nouvelle moyenne de l'étudiant :
+     * {"note": {...}, "moyenne": 14.25, "nombreNotes": 6}
+     * Avec l'écriture différée, 202 : la note est acceptée, pas encore en base
+     */
+    @POST
+    @Path("/{id}/notes")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response creerNote(@PathParam("id") Long id, String corps) {
+        NoteSaisie saisie;
+        try {
+            saisie = gson.fromJson(corps, NoteSaisie.class);
+        } catch (JsonParseException e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", "JSON invalide : " + e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+        if (saisie == null) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", "La note est obligatoire");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+
+        try {
+            // L'étudiant de l'URL s'impose à la note (transmis par son ID,
+            // un etudiantId du corps est ignoré)
+            saisie.setEtudiantId(null);
+            NoteCreee creee = noteService.creerNote(saisie.versNote(null, null, null), id);
+            if (creee == null) {
+                return Response.status(Response.Status.ACCEPTED).build();
+            }
+
+            Map<String, Object> resultat = new HashMap<>();
+            resultat.put("note", convertirNoteEnMap(creee.getNote()));
+            resultat.put("moyenne", creee.getMoyenne());
+            resultat.put("nombreNotes", creee.getNombreNotes());
+            return Response.status(Response.Status.CREATED)
+                    .entity(gson.toJson(resultat))
+                    .build();
+
+        } catch (IllegalStateException e) {
+            // File d'écriture différée saturée
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        } catch (RuntimeException e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        } catch (Exception e) {
+            // Note invalide ou étudiant inexistant
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+    }
+
+    /**
+     * POST /api/etudiants/{id}/notes/batch
+     * Enregistre une liste de notes pour un étudiant en une transaction
+     * Corps : [{"matiere": "Java EE", "valeur": 15.5, "coefficient": 3}, ...]
+     * Retourne le rapport (lignes enregistrées, erreurs par ligne)
+     */
+    @POST
+    @Path("/{id}/notes/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response creerNotesEnLot(@PathParam("id") Long id, String corps) {
+        NoteSaisie[] saisies;
+        try {
+            saisies = gson.fromJson(corps, NoteSaisie[].class);
+        } catch (JsonParseException e) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", "JSON invalide : " + e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+        if (saisies == null) {
+            Map<String, String> erreur = new HashMap<>();
+            erreur.put("erreur", "La liste des notes est obligatoire");
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(gson.toJson(erreur))
+                    .build();
+        }
+
+        try {
+            List<Note> notes = new ArrayList<>();
+            for (NoteSaisie saisie : saisies) {
+                // L'étudiant de l'URL s'impose à toutes les notes du lot
+                saisie.setEtudiantId(id);
+                notes.add(saisie.versNote(id, null, null));
+            }
+            RapportLot rapport = noteService.creerNotesEnLot(notes);
+            return Response.ok(gson.toJson(rapport)).build();
 
         } catch (Exception e) {
             Map<String, String> erreur = new HashMap<>();
@@ -135,10 +593,114 @@ public class EtudiantRestService {
         }
     }
 
+    /**
+     * Comparer les validateurs de l'étudiant aux en-têtes If-None-Match /
+     * If-Modified-Since de la requête, sans charger l'étudiant
+     *
+     * @param representation Suffixe de l'ETag propre à la ressource ("", "-notes")
+     * @return La réponse 304 (ou 412) à renvoyer telle quelle, ou null s'il
+     *         faut produire la représentation (y compris étudiant introuvable)
+     */
+    private Response evaluerPreconditions(Request requete, Long id, String representation) {
+        RevisionEtudiant revision = etudiantService.trouverRevision(id);
+        if (revision == null) {
+            return null;
+        }
+        EntityTag etag = etiquette(id, revision.getRevision(), revision.getRevisionNotes(), representation);
+        Date derniereModification = versDate(revision.getDateModification());
+        Response.ResponseBuilder reponse = derniereModification == null
+                ? requete.evaluatePreconditions(etag)
+                : requete.evaluatePreconditions(derniereModification, etag);
+        return reponse == null ? null : reponse.cacheControl(revalidation()).build();
+    }
+
+    /**
+     * ETag fort d'une représentation d'un étudiant : change avec ses deux
+     * révisions, donc à chaque modification de l'étudiant ou de l'une de ses notes
+     */
+    private static EntityTag etiquette(Long id, long revision, long revisionNotes, String representation) {
+        return new EntityTag("etudiant-" + id + "-r" + revision + "-n" + revisionNotes + representation);
+    }
+
+    /**
+     * ETag fort d'une liste d'étudiants (page de la liste, résultat de
+     * recherche) : empreinte des couples (id, révision) et de ce qui suit la
+     * liste (curseur suivant, nombre total). Un ajout, une suppression ou une
+     * modification dans la liste change l'empreinte
+     */
+    private static EntityTag etiquetteListe(String nature, List<EtudiantResume> etudiants, Object suite) {
+        long empreinte = 17;
+        for (EtudiantResume etudiant : etudiants) {
+            empreinte = 31 * empreinte + etudiant.getId();
+            empreinte = 31 * empreinte + etudiant.getRevision();
+        }
+        empreinte = 31 * empreinte + Objects.hashCode(suite);
+        return new EntityTag(nature + Long.toHexString(empreinte));
+    }
+
+    /**
+     * ETag fort des suggestions de matricules : empreinte des couples
+     * (id, matricule) renvoyés
+     */
+    private static EntityTag etiquetteSuggestions(List<SuggestionMatricule> suggestions) {
+        long empreinte = 17;
+        for (SuggestionMatricule suggestion : suggestions) {
+            empreinte = 31 * empreinte + suggestion.getId();
+            empreinte = 31 * empreinte + suggestion.getMatricule().hashCode();
+        }
+        return new EntityTag("suggestions-" + Long.toHexString(empreinte));
+    }
+
+    /**
+     * Date de modification la plus récente d'une liste d'étudiants
+     * (null si aucune n'est connue)
+     */
+    private static Date derniereModification(List<EtudiantResume> etudiants) {
+        return etudiants.stream()
+            .map(EtudiantResume::getDateModification)
+            .filter(Objects::nonNull)
+            .max(LocalDateTime::compareTo)
+            .map(EtudiantRestService::versDate)
+            .orElse(null);
+    }
+
+    /**
+     * Ajouter ETag, Last-Modified et Cache-Control à une réponse 200
+     */
+    private static Response.ResponseBuilder validateurs(Response.ResponseBuilder reponse,
+                                                        EntityTag etag, Date derniereModification) {
+        reponse.tag(etag).cacheControl(revalidation());
+        if (derniereModification != null) {
+            reponse.lastModified(derniereModification);
+        }
+        return reponse;
+    }
+
+    /**
+     * Cache-Control: private, no-cache : le navigateur garde la réponse mais
+     * la revalide (requête conditionnelle) à chaque utilisation
+     */
+    private static CacheControl revalidation() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return cacheControl;
+    }
+
+    /**
+     * Date de modification (heure locale du serveur) vers Date HTTP
+     */
+    private static Date versDate(LocalDateTime dateModification) {
+        return dateModification == null
+                ? null
+                : Date.from(dateModification.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
     /**
      * Convertir un étudiant en Map (sans les notes)
+     * Visibilité paquet : mesurée par les benchmarks (module benchmarks)
      */
-    private Map<String, Object> convertirEtudiantEnMap(Etudiant etudiant) {
+    Map<String, Object> convertirEtudiantEnMap(Etudiant etudiant) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", etudiant.getId());
         map.put("matricule", etudiant.getMatricule());
@@ -152,21 +714,23 @@ public class EtudiantRestService {
 
     /**
      * Convertir un étudiant en Map (avec les notes)
+     * Visibilité paquet : mesurée par les benchmarks (module benchmarks)
      */
-    private Map<String, Object> convertirEtudiantEnMapAvecNotes(Etudiant etudiant) {
+    Map<String, Object> convertirEtudiantEnMapAvecNotes(Etudiant etudiant) {
         Map<String, Object> map = convertirEtudiantEnMap(etudiant);
         List<Map<String, Object>> notes = etudiant.getNotes().stream()
             .map(this::convertirNoteEnMap)
             .collect(Collectors.toList());
         map.put("notes", notes);
-        map.put("moyenne", noteService.calculerMoyenne(etudiant.getNotes()));
+        map.put("moyenne", noteService.calculerMoyenne(etudiant));
         return map;
     }
 
     /**
      * Convertir une note en Map
+     * Visibilité paquet : mesurée par les benchmarks (module benchmarks)
      */
-    private Map<String, Object> convertirNoteEnMap(Note note) {
+    Map<String, Object> convertirNoteEnMap(Note note) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", note.getId());
         map.put("matiere", note.getMatiere());
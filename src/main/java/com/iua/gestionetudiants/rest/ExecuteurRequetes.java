@@ -0,0 +1,182 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.iua.gestionetudiants.dao.StatistiquesRequete;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Exécuteur borné des ressources REST asynchrones (AsyncResponse)
+ *
+ * La méthode de ressource rend aussitôt son thread au conteneur ; l'accès
+ * à la base et la construction du JSON passent sur l'un des threads de
+ * l'exécuteur. Une requête lente n'immobilise donc que ce thread, et les
+ * autres points d'accès restent servis.
+ *
+ * Rien n'attend indéfiniment :
+ * - file d'attente pleine : 503 immédiat
+ * - pas de réponse dans le délai : 503 ; un traitement qui n'a pas encore
+ *   commencé est retiré de la file (un traitement en cours va à son terme,
+ *   sa réponse est ignorée)
+ * Les 503 portent Retry-After.
+ *
+ * Paramètres (<context-param> de web.xml, lus par ApplicationListener) :
+ * rest.async.threads, rest.async.file, rest.async.delaiMs
+ */
+public final class ExecuteurRequetes {
+
+    private static final Logger LOGGER = Logger.getLogger(ExecuteurRequetes.class.getName());
+
+    /** Autant de threads que de connexions dans le pool (pool.tailleMaximum) */
+    public static final int THREADS_PAR_DEFAUT = 10;
+    public static final int FILE_PAR_DEFAUT = 100;
+    public static final long DELAI_PAR_DEFAUT_MS = 10_000;
+
+    private static final Gson GSON = new Gson();
+
+    private static final LongAdder REFUS = new LongAdder();
+    private static final LongAdder EXPIRATIONS = new LongAdder();
+
+    /** Lu sans verrou par executer() ; écrit sous verrou (configurer, arreter) */
+    private static volatile ThreadPoolExecutor executeur;
+    private static volatile long delaiMs = DELAI_PAR_DEFAUT_MS;
+
+    private ExecuteurRequetes() {
+    }
+
+    /**
+     * (Re)créer l'exécuteur ; l'ancien termine les traitements déjà acceptés
+     *
+     * @param threads Threads de traitement
+     * @param file    Requêtes en attente d'un thread, au-delà : 503
+     * @param delai   Délai de réponse en millisecondes, au-delà : 503
+     */
+    public static synchronized void configurer(int threads, int file, long delai) {
+        if (threads < 1 || file < 1 || delai < 1) {
+            throw new IllegalArgumentException("Exécuteur REST : threads, file et délai doivent être positifs");
+        }
+        arreter();
+        AtomicInteger numero = new AtomicInteger();
+        ThreadPoolExecutor nouveau = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(file),
+                tache -> {
+                    Thread thread = new Thread(tache, "rest-async-" + numero.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        nouveau.allowCoreThreadTimeOut(true);
+        // Délai d'abord : un appelant qui voit le nouvel exécuteur voit aussi son délai
+        delaiMs = delai;
+        executeur = nouveau;
+        LOGGER.info("Executeur REST : " + threads + " threads, file de " + file + ", delai de " + delai + " ms");
+    }
+
+    /**
+     * Arrêter l'exécuteur (arrêt de la webapp)
+     */
+    public static synchronized void arreter() {
+        ThreadPoolExecutor courant = executeur;
+        if (courant != null) {
+            executeur = null;
+            courant.shutdown();
+        }
+    }
+
+    /**
+     * L'exécuteur courant, sans verrou ; le verrou n'est pris que s'il n'a
+     * pas encore été configuré (valeurs par défaut)
+     */
+    private static ThreadPoolExecutor executeur() {
+        ThreadPoolExecutor courant = executeur;
+        return courant != null ? courant : executeurParDefaut();
+    }
+
+    private static synchronized ThreadPoolExecutor executeurParDefaut() {
+        if (executeur == null) {
+            configurer(THREADS_PAR_DEFAUT, FILE_PAR_DEFAUT, DELAI_PAR_DEFAUT_MS);
+        }
+        return executeur;
+    }
+
+    /**
+     * Produire la réponse sur l'exécuteur et reprendre la requête suspendue
+     *
+     * Les compteurs SQL de la requête (StatistiquesRequete) suivent le
+     * traitement sur le thread de l'exécuteur.
+     */
+    static void executer(AsyncResponse reponse, Supplier<Response> traitement) {
+        StatistiquesRequete statistiques = StatistiquesRequete.courante();
+        FutureTask<Void> tache = new FutureTask<>(() -> {
+            StatistiquesRequete.reprendre(statistiques);
+            try {
+                reponse.resume(traitement.get());
+            } catch (RuntimeException e) {
+                reponse.resume(e);
+            } finally {
+                StatistiquesRequete.terminer();
+            }
+        }, null);
+
+        ThreadPoolExecutor courant = executeur();
+        reponse.setTimeoutHandler(expiree -> {
+            EXPIRATIONS.increment();
+            if (tache.cancel(false)) {
+                courant.remove(tache);
+            }
+            expiree.resume(indisponible("Délai de réponse dépassé"));
+        });
+        reponse.setTimeout(delaiMs, TimeUnit.MILLISECONDS);
+
+        try {
+            courant.execute(tache);
+        } catch (RejectedExecutionException e) {
+            REFUS.increment();
+            reponse.resume(indisponible("Serveur saturé, réessayer plus tard"));
+        }
+    }
+
+    /**
+     * 503 au format d'erreur de l'API, avec Retry-After (en secondes)
+     */
+    private static Response indisponible(String message) {
+        Map<String, String> erreur = new HashMap<>();
+        erreur.put("erreur", message);
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .type(MediaType.APPLICATION_JSON)
+                .header("Retry-After", Math.max(1, (delaiMs + 999) / 1000))
+                .entity(GSON.toJson(erreur))
+                .build();
+    }
+
+    /**
+     * État de l'exécuteur (GET /api/supervision/rest)
+     */
+    public static Map<String, Object> statistiques() {
+        Map<String, Object> statistiques = new LinkedHashMap<>();
+        ThreadPoolExecutor courant = executeur;
+        statistiques.put("threads", courant == null ? 0 : courant.getMaximumPoolSize());
+        statistiques.put("threadsActifs", courant == null ? 0 : courant.getActiveCount());
+        statistiques.put("enAttente", courant == null ? 0 : courant.getQueue().size());
+        statistiques.put("placesLibres", courant == null ? 0 : courant.getQueue().remainingCapacity());
+        statistiques.put("traitees", courant == null ? 0 : courant.getCompletedTaskCount());
+        statistiques.put("delaiMs", delaiMs);
+        statistiques.put("refus", REFUS.sum());
+        statistiques.put("expirations", EXPIRATIONS.sum());
+        return statistiques;
+    }
+}
@@ -0,0 +1,87 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.iua.gestionetudiants.service.ImportService;
+import com.iua.gestionetudiants.service.RapportImport;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Service REST pour l'import des fichiers CSV de la scolarite
+ * Le corps de la requete est lu en flux : la taille du fichier est libre
+ *
+ * Exemple :
+ *   curl -X POST -H "Content-Type: text/csv" --data-binary @etudiants.csv \
+ *        http://localhost:8080/GestionEtudiants/api/import/etudiants
+ */
+@Path("/import")
+public class ImportRestService {
+
+    private ImportService importService = new ImportService();
+    private Gson gson = new Gson();
+
+    /**
+     * POST /api/import/etudiants
+     * Colonnes : matricule;nom;prenom[;email][;date_naissance]
+     */
+    @POST
+    @Path("/etudiants")
+    @Consumes({"text/csv", MediaType.TEXT_PLAIN})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response importerEtudiants(InputStream corps) {
+        try (Reader source = lecteur(corps)) {
+            RapportImport rapport = importService.importerEtudiants(source);
+            return Response.ok(gson.toJson(rapport)).build();
+        } catch (IllegalArgumentException e) {
+            return erreur(Response.Status.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return erreur(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * POST /api/import/notes
+     * Colonnes : matricule;matiere;valeur;coefficient
+     */
+    @POST
+    @Path("/notes")
+    @Consumes({"text/csv", MediaType.TEXT_PLAIN})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response importerNotes(InputStream corps) {
+        try (Reader source = lecteur(corps)) {
+            RapportImport rapport = importService.importerNotes(source);
+            return Response.ok(gson.toJson(rapport)).build();
+        } catch (IllegalArgumentException e) {
+            return erreur(Response.Status.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return erreur(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    private Reader lecteur(InputStream corps) {
+        return new BufferedReader(new InputStreamReader(corps, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * Construire une reponse d'erreur JSON
+     */
+    private Response erreur(Response.Status statut, String message) {
+        Map<String, String> erreur = new HashMap<>();
+        erreur.put("erreur", message);
+        return Response.status(statut)
+                .entity(gson.toJson(erreur))
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.iua.gestionetudiants.rest;
+
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mesure de chaque méthode de ressource REST (Metriques, GET /api/metrics)
+ *
+ * Du choix de la méthode par Jersey jusqu'à la réponse prête à être écrite
+ * (les exports en flux sont mesurés jusqu'au début de l'écriture).
+ * Une réponse 5xx compte comme une erreur ; les 4xx sont des refus du
+ * client, pas des erreurs de l'application.
+ * Seul l'instant de départ est alloué (propriété de la requête, qui
+ * survit à un changement de thread) ; l'enregistrement n'alloue rien.
+ */
+@Provider
+public class MesureRessources implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String PROPRIETE_DEBUT = MesureRessources.class.getName() + ".debut";
+
+    /** Un minuteur par méthode Java de ressource, créé au premier appel */
+    private static final Map<Method, Minuteur> MINUTEURS = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo ressource;
+
+    @Override
+    public void filter(ContainerRequestContext requete) {
+        requete.setProperty(PROPRIETE_DEBUT, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requete, ContainerResponseContext reponse) {
+        Object debut = requete.getProperty(PROPRIETE_DEBUT);
+        Method methode = ressource.getResourceMethod();
+        if (!(debut instanceof Long) || methode == null) {
+            return;
+        }
+        Minuteur minuteur = MINUTEURS.get(methode);
+        if (minuteur == null) {
+            minuteur = MINUTEURS.computeIfAbsent(methode, m ->
+                    Metriques.rest(m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+        }
+        if (reponse.getStatus() >= 500) {
+            minuteur.echouer();
+        }
+        minuteur.arreter((Long) debut);
+    }
+}
@@ -0,0 +1,31 @@
+package com.iua.gestionetudiants.rest;
+
+import com.iua.gestionetudiants.metrique.Metriques;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Service REST des métriques, au format texte de Prometheus
+ *
+ * Configuration de Prometheus :
+ *   metrics_path: /GestionEtudiants/api/metrics
+ */
+@Path("/metrics")
+public class MetriquesRestService {
+
+    /** Type du format texte d'exposition de Prometheus */
+    private static final String TYPE_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * GET /api/metrics
+     * Durées (p50, p95, p99, max, somme), appels et erreurs de chaque action
+     * de servlet, méthode REST, méthode de service et méthode de DAO
+     */
+    @GET
+    @Produces(TYPE_PROMETHEUS)
+    public Response exporter() {
+        return Response.ok(Metriques.exporterPrometheus()).build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * JSON indenté à la demande : ?pretty=true sur n'importe quelle URL de /api
+ *
+ * Les services produisent du JSON compact (sans espaces ni retours à la
+ * ligne). Ce filtre ne réindente la réponse que si le client le demande,
+ * pour la lecture dans un navigateur ou un terminal.
+ * Les exports en flux (StreamingOutput) ne sont pas concernés.
+ */
+@Provider
+public class MiseEnFormeJson implements ContainerResponseFilter {
+
+    /** Paramètre de requête qui active l'indentation */
+    public static final String PARAMETRE = "pretty";
+
+    private static final Gson GSON_INDENTE = new GsonBuilder()
+            .setPrettyPrinting()
+            .create();
+
+    @Override
+    public void filter(ContainerRequestContext requete, ContainerResponseContext reponse) {
+        if (!"true".equalsIgnoreCase(requete.getUriInfo().getQueryParameters().getFirst(PARAMETRE))) {
+            return;
+        }
+        if (!(reponse.getEntity() instanceof String)) {
+            return;
+        }
+        MediaType type = reponse.getMediaType();
+        if (type != null && !type.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+            return;
+        }
+        try {
+            reponse.setEntity(indenter((String) reponse.getEntity()));
+        } catch (JsonParseException e) {
+            // Pas du JSON : la réponse part telle quelle
+        }
+    }
+
+    /**
+     * Réindenter un document JSON compact
+     * (mêmes valeurs, nombres recopiés à l'identique)
+     */
+    public static String indenter(String json) {
+        return GSON_INDENTE.toJson(JsonParser.parseString(json));
+    }
+}
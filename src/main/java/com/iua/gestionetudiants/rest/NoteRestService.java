@@ -0,0 +1,72 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.iua.gestionetudiants.model.Note;
+import com.iua.gestionetudiants.service.NoteService;
+import com.iua.gestionetudiants.service.RapportLot;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service REST pour la saisie des notes
+ */
+@Path("/notes")
+public class NoteRestService {
+
+    private NoteService noteService = new NoteService();
+    private Gson gson = new Gson();
+
+    /**
+     * POST /api/notes/batch
+     * Enregistre les notes d'un examen pour toute une classe en une transaction
+     * Retourne le rapport (lignes enregistrees, erreurs par ligne)
+     */
+    @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response creerNotesEnLot(String corps) {
+        SaisieLotClasse saisie;
+        try {
+            saisie = gson.fromJson(corps, SaisieLotClasse.class);
+        } catch (JsonParseException e) {
+            return erreur(Response.Status.BAD_REQUEST, "JSON invalide : " + e.getMessage());
+        }
+        if (saisie == null || saisie.getNotes() == null) {
+            return erreur(Response.Status.BAD_REQUEST, "La liste des notes est obligatoire");
+        }
+
+        try {
+            List<Note> notes = new ArrayList<>();
+            for (NoteSaisie note : saisie.getNotes()) {
+                notes.add(note.versNote(null, saisie.getMatiere(), saisie.getCoefficient()));
+            }
+            RapportLot rapport = noteService.creerNotesEnLot(notes);
+            return Response.ok(gson.toJson(rapport)).build();
+
+        } catch (Exception e) {
+            return erreur(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Construire une reponse d'erreur JSON
+     */
+    private Response erreur(Response.Status statut, String message) {
+        Map<String, String> erreur = new HashMap<>();
+        erreur.put("erreur", message);
+        return Response.status(statut)
+                .entity(gson.toJson(erreur))
+                .build();
+    }
+}
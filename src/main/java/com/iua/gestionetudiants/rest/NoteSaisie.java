@@ -0,0 +1,69 @@
+package com.iua.gestionetudiants.rest;
+
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+
+/**
+ * Note recue au format JSON dans une saisie en lot
+ * Exemple : {"etudiantId": 12, "matiere": "Java EE", "valeur": 15.5, "coefficient": 3}
+ */
+public class NoteSaisie {
+
+    private Long etudiantId;
+    private String matiere;
+    private Double valeur;
+    private Integer coefficient;
+
+    /**
+     * Convertir en entite Note
+     * Les valeurs par defaut remplacent les champs absents de la saisie
+     * (matiere et coefficient communs a tout un examen, etudiant de l'URL)
+     */
+    public Note versNote(Long etudiantIdParDefaut, String matiereParDefaut, Integer coefficientParDefaut) {
+        Note note = new Note();
+        note.setMatiere(matiere != null ? matiere : matiereParDefaut);
+        note.setValeur(valeur);
+        note.setCoefficient(coefficient != null ? coefficient : coefficientParDefaut);
+
+        Long id = etudiantId != null ? etudiantId : etudiantIdParDefaut;
+        if (id != null) {
+            Etudiant etudiant = new Etudiant();
+            etudiant.setId(id);
+            note.setEtudiant(etudiant);
+        }
+        return note;
+    }
+
+    // Getters et Setters
+    public Long getEtudiantId() {
+        return etudiantId;
+    }
+
+    public void setEtudiantId(Long etudiantId) {
+        this.etudiantId = etudiantId;
+    }
+
+    public String getMatiere() {
+        return matiere;
+    }
+
+    public void setMatiere(String matiere) {
+        this.matiere = matiere;
+    }
+
+    public Double getValeur() {
+        return valeur;
+    }
+
+    public void setValeur(Double valeur) {
+        this.valeur = valeur;
+    }
+
+    public Integer getCoefficient() {
+        return coefficient;
+    }
+
+    public void setCoefficient(Integer coefficient) {
+        this.coefficient = coefficient;
+    }
+}
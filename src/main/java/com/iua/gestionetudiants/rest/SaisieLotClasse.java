@@ -0,0 +1,45 @@
+package com.iua.gestionetudiants.rest;
+
+import java.util.List;
+
+/**
+ * Saisie des notes d'un examen pour toute une classe
+ * Exemple :
+ * {
+ *   "matiere": "Java EE",
+ *   "coefficient": 3,
+ *   "notes": [{"etudiantId": 1, "valeur": 14}, {"etudiantId": 2, "valeur": 11.5}]
+ * }
+ * Une note peut preciser sa propre matiere ou son propre coefficient.
+ */
+public class SaisieLotClasse {
+
+    private String matiere;
+    private Integer coefficient;
+    private List<NoteSaisie> notes;
+
+    // Getters et Setters
+    public String getMatiere() {
+        return matiere;
+    }
+
+    public void setMatiere(String matiere) {
+        this.matiere = matiere;
+    }
+
+    public Integer getCoefficient() {
+        return coefficient;
+    }
+
+    public void setCoefficient(Integer coefficient) {
+        this.coefficient = coefficient;
+    }
+
+    public List<NoteSaisie> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<NoteSaisie> notes) {
+        this.notes = notes;
+    }
+}
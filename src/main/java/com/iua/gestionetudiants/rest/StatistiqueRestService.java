@@ -0,0 +1,82 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.iua.gestionetudiants.dto.StatistiquesMatiere;
+import com.iua.gestionetudiants.service.StatistiqueService;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service REST des statistiques de notes
+ */
+@Path("/statistiques")
+public class StatistiqueRestService {
+
+    private StatistiqueService statistiqueService = new StatistiqueService();
+    private Gson gson = new Gson();
+
+    /**
+     * GET /api/statistiques/matieres
+     * Parametres optionnels :
+     * - matiere       : une seule matiere (toutes par defaut)
+     * - percentiles   : liste separee par des virgules (defaut : 10,25,75,90)
+     * - largeurClasse : largeur des classes de l'histogramme (defaut : 1)
+     */
+    @GET
+    @Path("/matieres")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response statistiquesMatieres(@QueryParam("matiere") String matiere,
+                                         @QueryParam("percentiles") String percentiles,
+                                         @QueryParam("largeurClasse") Double largeurClasse) {
+        try {
+            List<StatistiquesMatiere> statistiques = statistiqueService.calculerParMatiere(
+                    matiere == null || matiere.trim().isEmpty() ? null : matiere.trim(),
+                    lirePercentiles(percentiles),
+                    largeurClasse != null ? largeurClasse : StatistiqueService.LARGEUR_CLASSE_PAR_DEFAUT);
+            return Response.ok(gson.toJson(statistiques)).build();
+
+        } catch (IllegalArgumentException e) {
+            return erreur(Response.Status.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return erreur(Response.Status.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Lire "10,25,75,90" (percentiles par defaut si absent)
+     */
+    private double[] lirePercentiles(String valeur) {
+        if (valeur == null || valeur.trim().isEmpty()) {
+            return StatistiqueService.PERCENTILES_PAR_DEFAUT;
+        }
+        String[] parties = valeur.split(",");
+        double[] percentiles = new double[parties.length];
+        for (int i = 0; i < parties.length; i++) {
+            try {
+                percentiles[i] = Double.parseDouble(parties[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Percentile invalide : " + parties[i].trim());
+            }
+        }
+        return percentiles;
+    }
+
+    /**
+     * Construire une reponse d'erreur JSON
+     */
+    private Response erreur(Response.Status statut, String message) {
+        Map<String, String> erreur = new HashMap<>();
+        erreur.put("erreur", message);
+        return Response.status(statut)
+                .entity(gson.toJson(erreur))
+                .build();
+    }
+}
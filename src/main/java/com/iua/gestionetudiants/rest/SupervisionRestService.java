@@ -0,0 +1,156 @@
+package com.iua.gestionetudiants.rest;
+
+import com.google.gson.Gson;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+import com.iua.gestionetudiants.dao.SuggestionsMatricules;
+import com.iua.gestionetudiants.service.BulletinService;
+import com.iua.gestionetudiants.service.EcritureDiffereeNotes;
+import com.iua.gestionetudiants.service.NoteService;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service REST de supervision de l'application
+ * Expose l'etat interne (pool de connexions, cache, agregats...) pour les exploitants
+ */
+@Path("/supervision")
+public class SupervisionRestService {
+
+    private NoteService noteService = new NoteService();
+    private Gson gson = new Gson();
+
+    /**
+     * GET /api/supervision/pool
+     * Retourne les metriques du pool de connexions
+     */
+    @GET
+    @Path("/pool")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response statistiquesPool() {
+        return Response.ok(gson.toJson(PersistenceManager.statistiquesPool())).build();
+    }
+
+    /**
+     * GET /api/supervision/cache
+     * Retourne les compteurs du cache de second niveau (succes, echecs,
+     * taux de succes par region)
+     */
+    @GET
+    @Path("/cache")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response statistiquesCache() {
+        return Response.ok(gson.toJson(PersistenceManager.statistiquesCache())).build();
+    }
+
+    /**
+     * GET /api/supervision/hibernate
+     * Retourne les statistiques Hibernate : ordres SQL, entites et
+     * collections chargees, requetes les plus couteuses, dernieres requetes
+     * lentes et ordres SQL par route HTTP (une route dont le maximum grimpe
+     * avec le volume de donnees trahit un N+1)
+     */
+    @GET
+    @Path("/hibernate")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response statistiquesHibernate() {
+        return Response.ok(gson.toJson(PersistenceManager.statistiquesSql())).build();
+    }
+
+    /**
+     * GET /api/supervision/rest
+     * Retourne l'etat de l'executeur des lectures REST asynchrones
+     * (threads occupes, file d'attente, refus et expirations en 503)
+     */
+    @GET
+    @Path("/rest")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response statistiquesExecuteur() {
+        return Response.ok(gson.toJson(ExecuteurRequetes.statistiques())).build();
+    }
+
+    /**
+     * GET /api/supervision/suggestions
+     * Retourne le nombre de matricules proposes a l'autocompletion et la
+     * memoire occupee (totale et par etudiant)
+     */
+    @GET
+    @Path("/suggestions")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response statistiquesSuggestions() {
+        return Response.ok(gson.toJson(SuggestionsMatricules.statistiques())).build();
+    }
+
+    /**
+     * GET /api/supervision/notes
+     * Retourne l'etat de l'ecriture differee des notes (file, lots ecrits,
+     * refus, echecs) et la taille du journal
+     */
+    @GET
+    @Path("/notes")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response statistiquesEcritureNotes() {
+        return Response.ok(gson.toJson(EcritureDiffereeNotes.statistiques())).build();
+    }
+
+    /**
+     * GET /api/supervision/bulletins
+     * Retourne l'etat de la generation de bulletins en cours ou de la
+     * derniere (bulletins ecrits sur le nombre attendu, debit)
+     */
+    @GET
+    @Path("/bulletins")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response statistiquesBulletins() {
+        return Response.ok(gson.toJson(BulletinService.statistiques())).build();
+    }
+
+    /**
+     * GET /api/supervision/agregats
+     * Verifie la coherence des agregats de notes, sans les modifier
+     * (reparation : POST /api/supervision/agregats/reparation)
+     */
+    @GET
+    @Path("/agregats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response verifierAgregats() {
+        List<Long> incoherents = noteService.listerAgregatsIncoherents();
+        Map<String, Object> reponse = new HashMap<>();
+        reponse.put("etudiantsIncoherents", incoherents.size());
+        reponse.put("ids", incoherents);
+        return Response.ok(gson.toJson(reponse)).build();
+    }
+
+    /**
+     * POST /api/supervision/agregats/reparation
+     * Verifie la coherence des agregats de notes et les reconstruit si besoin
+     */
+    @POST
+    @Path("/agregats/reparation")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response reparerAgregats() {
+        Map<String, Object> reponse = new HashMap<>();
+        reponse.put("etudiantsIncoherents", noteService.verifierEtReparerAgregats());
+        return Response.ok(gson.toJson(reponse)).build();
+    }
+
+    /**
+     * POST /api/supervision/agregats/reconstruction
+     * Recalcule tous les agregats de notes depuis la table note
+     */
+    @POST
+    @Path("/agregats/reconstruction")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response reconstruireAgregats() {
+        Map<String, Object> reponse = new HashMap<>();
+        reponse.put("etudiantsMisAJour", noteService.reconstruireAgregats());
+        return Response.ok(gson.toJson(reponse)).build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.dao.StatistiqueDAO.GroupeNotes;
+import com.iua.gestionetudiants.dto.StatistiquesMatiere;
+import com.iua.gestionetudiants.dto.StatistiquesMatiere.ClasseHistogramme;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calcul des statistiques d'une matiere a partir de ses groupes de notes
+ * (recus par valeur croissante, voir StatistiqueDAO)
+ *
+ * Memoire bornee : au plus 2001 groupes par matiere, quel que soit le
+ * nombre de notes. Moyenne et ecart-type sont cumules groupe par groupe
+ * (formule de combinaison de Chan, stable numeriquement) ; les quantiles
+ * sont exacts au centieme de point.
+ */
+class AccumulateurMatiere {
+
+    private final String matiere;
+    private final List<GroupeNotes> groupes = new ArrayList<>();
+
+    private long nombre;
+    private double moyenne;
+    private double m2;
+    private double minimum = Double.POSITIVE_INFINITY;
+    private double maximum = Double.NEGATIVE_INFINITY;
+
+    AccumulateurMatiere(String matiere) {
+        this.matiere = matiere;
+    }
+
+    String getMatiere() {
+        return matiere;
+    }
+
+    void ajouter(GroupeNotes groupe) {
+        groupes.add(groupe);
+
+        long n = groupe.getNombre();
+        double moyenneGroupe = groupe.getSomme() / n;
+        double m2Groupe = Math.max(0.0, groupe.getSommeCarres() - groupe.getSomme() * moyenneGroupe);
+        double delta = moyenneGroupe - moyenne;
+        long total = nombre + n;
+        moyenne += delta * n / total;
+        m2 += m2Groupe + delta * delta * nombre * n / total;
+        nombre = total;
+
+        minimum = Math.min(minimum, groupe.getMinimum());
+        maximum = Math.max(maximum, groupe.getMaximum());
+    }
+
+    /**
+     * @param percentiles     Percentiles demandes (entre 0 et 100)
+     * @param largeurClasse   Largeur des classes de l'histogramme (sur 20 points)
+     */
+    StatistiquesMatiere terminer(double[] percentiles, double largeurClasse) {
+        StatistiquesMatiere statistiques = new StatistiquesMatiere();
+        statistiques.setMatiere(matiere);
+        statistiques.setNombre(nombre);
+        statistiques.setMinimum(arrondir(minimum));
+        statistiques.setMaximum(arrondir(maximum));
+        statistiques.setMoyenne(arrondir(moyenne));
+        // Ecart-type de la population (toutes les notes de la matiere)
+        statistiques.setEcartType(arrondir(Math.sqrt(m2 / nombre)));
+        statistiques.setMediane(arrondir(quantile(0.5)));
+        for (double p : percentiles) {
+            statistiques.getPercentiles().put(nomPercentile(p), arrondir(quantile(p / 100.0)));
+        }
+
+        int nombreClasses = (int) Math.ceil(StatistiqueService.NOTE_MAXIMUM / largeurClasse - 1e-9);
+        for (int i = 0; i < nombreClasses; i++) {
+            statistiques.getHistogramme().add(new ClasseHistogramme(
+                arrondir(i * largeurClasse),
+                arrondir(Math.min((i + 1) * largeurClasse, StatistiqueService.NOTE_MAXIMUM))));
+        }
+        for (GroupeNotes groupe : groupes) {
+            int classe = (int) Math.floor(groupe.getValeur() / largeurClasse + 1e-9);
+            classe = Math.max(0, Math.min(nombreClasses - 1, classe));
+            statistiques.getHistogramme().get(classe).ajouter(groupe.getNombre());
+        }
+        return statistiques;
+    }
+
+    /**
+     * Quantile par interpolation lineaire entre les deux rangs encadrants
+     * (meme definition que PERCENTILE.INC d'un tableur)
+     */
+    private double quantile(double p) {
+        double position = (nombre - 1) * p;
+        long rangBas = (long) Math.floor(position);
+        long rangHaut = (long) Math.ceil(position);
+        double bas = valeurAuRang(rangBas);
+        double haut = rangHaut == rangBas ? bas : valeurAuRang(rangHaut);
+        return bas + (position - rangBas) * (haut - bas);
+    }
+
+    /**
+     * Valeur de la note de rang donne (a partir de 0) dans l'ordre croissant
+     */
+    private double valeurAuRang(long rang) {
+        long cumul = 0;
+        for (GroupeNotes groupe : groupes) {
+            cumul += groupe.getNombre();
+            if (rang < cumul) {
+                return groupe.getValeur();
+            }
+        }
+        return groupes.get(groupes.size() - 1).getValeur();
+    }
+
+    private static String nomPercentile(double p) {
+        return p == Math.rint(p) ? "p" + (long) p : "p" + p;
+    }
+
+    private static double arrondir(double valeur) {
+        return Math.round(valeur * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,458 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.dao.CritereListeEtudiants;
+import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.dao.Page;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * ===========================================================================
+ * SERVICE METIER : BULLETINS DE NOTES (fin de semestre)
+ * ===========================================================================
+ * Produit le bulletin de chaque etudiant (RenduBulletin, HTML imprimable)
+ * et les regroupe dans UNE archive ZIP, ecrite en flux dans une reponse
+ * HTTP ou dans un fichier :
+ *
+ * 1. Les etudiants sont lus par tranches de TAILLE_TRANCHE (pagination par
+ *    curseur, comme la liste), les notes d'une tranche en une requete
+ * 2. Les bulletins d'une tranche sont produits en parallele sur un
+ *    ForkJoinPool dedie, d'un thread par processeur par defaut
+ * 3. Pendant ce temps, le thread appelant lit la tranche suivante et ecrit
+ *    dans l'archive les bulletins deja produits, dans l'ordre des etudiants
+ *
+ * Memoire bornee : au plus TRANCHES_EN_COURS tranches produites ou en
+ * production, plus celle en lecture, quelle que soit la taille de la
+ * promotion. L'archive n'est jamais entierement en memoire.
+ *
+ * Une seule generation a la fois : elle occupe tous les processeurs du
+ * pool. La progression et le debit (bulletins par seconde) sont
+ * journalises et exposes par GET /api/supervision/bulletins.
+ *
+ * Parametres (<context-param> de web.xml, lus par ApplicationListener) :
+ * bulletins.threads, bulletins.repertoire
+ * ===========================================================================
+ */
+public class BulletinService {
+
+    // Mesures des methodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_GENERER_ZIP = Metriques.service("BulletinService.genererZip");
+    private static final Minuteur MESURE_GENERER_FICHIER = Metriques.service("BulletinService.genererFichier");
+
+    private static final Logger LOGGER = Logger.getLogger(BulletinService.class.getName());
+
+    /** Etudiants lus (et bulletins produits) par tranche */
+    public static final int TAILLE_TRANCHE = 200;
+
+    /** Tranches produites ou en production avant d'attendre l'ecriture de la plus ancienne */
+    private static final int TRANCHES_EN_COURS = 2;
+
+    /** Bulletins produits par une tache du pool sans la decouper davantage */
+    private static final int SEUIL_DECOUPAGE = 16;
+
+    /** Une trace de progression tous les N bulletins ecrits */
+    private static final int FREQUENCE_PROGRESSION = 1000;
+
+    /** Caracteres gardes tels quels dans le nom d'un fichier de l'archive */
+    private static final Pattern CARACTERES_INTERDITS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    private static final DateTimeFormatter FORMAT_HORODATAGE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /** Une seule generation a la fois */
+    private static final Semaphore GENERATION = new Semaphore(1);
+
+    private static ForkJoinPool pool;
+    private static int threads = Runtime.getRuntime().availableProcessors();
+    private static Path repertoire = Path.of(System.getProperty("java.io.tmpdir"), "bulletins");
+
+    /** Progression de la generation en cours, ou de la derniere */
+    private static volatile Progression progression;
+
+    private EtudiantDAO etudiantDAO = new EtudiantDAO();
+    private NoteDAO noteDAO = new NoteDAO();
+    private NoteService noteService = new NoteService();
+
+    /**
+     * Bulletin produit, en attente d'ecriture dans l'archive
+     */
+    private static final class Bulletin {
+        final String nomFichier;
+        final byte[] contenu;
+
+        Bulletin(String nomFichier, byte[] contenu) {
+            this.nomFichier = nomFichier;
+            this.contenu = contenu;
+        }
+    }
+
+    /**
+     * Suivi d'une generation (ecrit par le thread de la generation, lu par
+     * la supervision)
+     */
+    private static final class Progression {
+        final String destination;
+        final String prefixeMatricule;
+        final long etudiantsAttendus;
+        final long debut = System.nanoTime();
+        final AtomicInteger bulletins = new AtomicInteger();
+        volatile long duree = -1;
+        volatile String etat = "en cours";
+
+        Progression(String destination, String prefixeMatricule, long etudiantsAttendus) {
+            this.destination = destination;
+            this.prefixeMatricule = prefixeMatricule;
+            this.etudiantsAttendus = etudiantsAttendus;
+        }
+
+        long ecoule() {
+            return duree >= 0 ? duree : Math.max(System.nanoTime() - debut, 1);
+        }
+
+        double bulletinsParSeconde() {
+            return Math.round(bulletins.get() * 1e9 / ecoule() * 10.0) / 10.0;
+        }
+    }
+
+    /**
+     * Production des bulletins d'une tranche, decoupee en sous-taches
+     * jusqu'a SEUIL_DECOUPAGE bulletins (chaque sous-tache remplit sa
+     * partie du tableau, dans l'ordre des etudiants)
+     */
+    private final class RenduTranche extends RecursiveAction {
+
+        private final List<Etudiant> etudiants;
+        private final Map<Long, List<Note>> notes;
+        private final LocalDate dateEdition;
+        private final Bulletin[] bulletins;
+        private final int debut;
+        private final int fin;
+
+        RenduTranche(List<Etudiant> etudiants, Map<Long, List<Note>> notes, LocalDate dateEdition) {
+            this(etudiants, notes, dateEdition, new Bulletin[etudiants.size()], 0, etudiants.size());
+        }
+
+        private RenduTranche(List<Etudiant> etudiants, Map<Long, List<Note>> notes, LocalDate dateEdition,
+                             Bulletin[] bulletins, int debut, int fin) {
+            this.etudiants = etudiants;
+            this.notes = notes;
+            this.dateEdition = dateEdition;
+            this.bulletins = bulletins;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - debut <= SEUIL_DECOUPAGE) {
+                for (int i = debut; i < fin; i++) {
+                    bulletins[i] = rendre(etudiants.get(i));
+                }
+                return;
+            }
+            int milieu = (debut + fin) >>> 1;
+            invokeAll(new RenduTranche(etudiants, notes, dateEdition, bulletins, debut, milieu),
+                      new RenduTranche(etudiants, notes, dateEdition, bulletins, milieu, fin));
+        }
+
+        private Bulletin rendre(Etudiant etudiant) {
+            // Moyenne calculee sur les notes imprimees : les agregats sont lus
+            // avec l'etudiant, dans une autre requete que les notes
+            List<Note> notesEtudiant = notes.getOrDefault(etudiant.getId(), List.of());
+            double moyenne = noteService.calculerMoyenne(notesEtudiant);
+            String html = RenduBulletin.html(etudiant, notesEtudiant, moyenne, dateEdition);
+            return new Bulletin(nomFichier(etudiant), html.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * (Re)configurer la generation (demarrage de la webapp)
+     *
+     * @param nombreThreads Threads du pool de production, 0 : un par processeur
+     * @param repertoireZip Repertoire des archives ecrites sur le disque
+     */
+    public static synchronized void configurer(int nombreThreads, Path repertoireZip) {
+        if (nombreThreads < 0) {
+            throw new IllegalArgumentException("Bulletins : le nombre de threads ne peut pas etre negatif");
+        }
+        arreter();
+        threads = nombreThreads == 0 ? Runtime.getRuntime().availableProcessors() : nombreThreads;
+        repertoire = repertoireZip;
+        LOGGER.info("Bulletins : " + threads + " thread(s), archives dans " + repertoire);
+    }
+
+    /**
+     * Arreter le pool de production (arret de la webapp)
+     */
+    public static synchronized void arreter() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    private static synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads, fabrique -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(fabrique);
+                thread.setName("bulletins-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+
+    /**
+     * Une generation est-elle en cours ?
+     */
+    public static boolean estEnCours() {
+        return GENERATION.availablePermits() == 0;
+    }
+
+    /**
+     * ========================================================================
+     * ARCHIVE EN FLUX
+     * ========================================================================
+     * Ecrire l'archive des bulletins dans un flux (reponse HTTP). Le flux
+     * n'est pas ferme : l'archive est seulement terminee.
+     *
+     * @param prefixeMatricule Debut du matricule des etudiants (une classe),
+     *                         null ou vide : tous les etudiants
+     * @param sortie           Destination de l'archive
+     * @throws IllegalStateException Si une generation est deja en cours
+     * ========================================================================
+     */
+    public RapportBulletins genererZip(String prefixeMatricule, OutputStream sortie) throws IOException {
+        return MESURE_GENERER_ZIP.mesurer(() -> {
+            reserver();
+            try {
+                return generer(prefixeMatricule, sortie, null);
+            } finally {
+                GENERATION.release();
+            }
+        });
+    }
+
+    /**
+     * ========================================================================
+     * ARCHIVE SUR LE DISQUE
+     * ========================================================================
+     * Lancer la generation dans un fichier du repertoire des bulletins, sur
+     * un thread a part : l'appelant n'attend pas la fin. L'archive est ecrite
+     * sous un nom temporaire (".partiel") puis renommee une fois complete.
+     *
+     * @param prefixeMatricule Debut du matricule des etudiants, null ou vide : tous
+     * @return Le fichier de l'archive, present une fois la generation terminee
+     * @throws IllegalStateException Si une generation est deja en cours
+     * ========================================================================
+     */
+    public Path lancerFichier(String prefixeMatricule) throws IOException {
+        reserver();
+        try {
+            Path dossier;
+            synchronized (BulletinService.class) {
+                dossier = repertoire;
+            }
+            Files.createDirectories(dossier);
+            Path fichier = dossier.resolve("bulletins-" + LocalDateTime.now().format(FORMAT_HORODATAGE) + ".zip");
+            Thread thread = new Thread(() -> {
+                try {
+                    genererFichier(prefixeMatricule, fichier);
+                } finally {
+                    GENERATION.release();
+                }
+            }, "bulletins-fichier");
+            thread.setDaemon(true);
+            thread.start();
+            return fichier;
+        } catch (IOException | RuntimeException e) {
+            GENERATION.release();
+            throw e;
+        }
+    }
+
+    private void genererFichier(String prefixeMatricule, Path fichier) {
+        Path partiel = fichier.resolveSibling(fichier.getFileName() + ".partiel");
+        try {
+            MESURE_GENERER_FICHIER.mesurerAction(() -> {
+                try (OutputStream sortie = Files.newOutputStream(partiel)) {
+                    generer(prefixeMatricule, sortie, fichier);
+                }
+                Files.move(partiel, fichier, StandardCopyOption.ATOMIC_MOVE);
+            });
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Bulletins : archive " + fichier + " non generee", e);
+            try {
+                Files.deleteIfExists(partiel);
+            } catch (IOException suppression) {
+                LOGGER.warning("Bulletins : archive partielle non supprimee : " + partiel);
+            }
+        }
+    }
+
+    private static void reserver() {
+        if (!GENERATION.tryAcquire()) {
+            throw new IllegalStateException("Une generation de bulletins est deja en cours, reessayer plus tard");
+        }
+    }
+
+    /**
+     * Lire, produire et ecrire les bulletins (generation reservee par l'appelant)
+     *
+     * @param fichier L'archive sur le disque, ou null pour un flux HTTP
+     */
+    private RapportBulletins generer(String prefixeMatricule, OutputStream sortie, Path fichier)
+            throws IOException {
+        String destination = fichier == null ? "flux HTTP" : fichier.toString();
+        Progression suivi = new Progression(destination, prefixeMatricule,
+                etudiantDAO.compterParPrefixeMatricule(prefixeMatricule));
+        progression = suivi;
+        LocalDate dateEdition = LocalDate.now();
+        ForkJoinPool executeur = pool();
+
+        CritereListeEtudiants critere = new CritereListeEtudiants();
+        critere.setPrefixeMatricule(prefixeMatricule);
+        critere.setTaille(TAILLE_TRANCHE);
+
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(sortie, 64 * 1024), StandardCharsets.UTF_8);
+        // Le thread appelant compresse seul : compression rapide plutot que compacte
+        zip.setLevel(Deflater.BEST_SPEED);
+        Deque<RenduTranche> enCours = new ArrayDeque<>();
+        try {
+            do {
+                Page<Etudiant> page = etudiantDAO.listerPage(critere);
+                List<Etudiant> etudiants = page.getElements();
+                if (!etudiants.isEmpty()) {
+                    List<Long> ids = new ArrayList<>(etudiants.size());
+                    for (Etudiant etudiant : etudiants) {
+                        ids.add(etudiant.getId());
+                    }
+                    RenduTranche tranche = new RenduTranche(etudiants, noteDAO.listerParEtudiants(ids), dateEdition);
+                    executeur.execute(tranche);
+                    enCours.addLast(tranche);
+                }
+
+                // Ecrire la plus ancienne tranche avant d'en lire une autre
+                while (enCours.size() >= TRANCHES_EN_COURS) {
+                    ecrire(zip, enCours.removeFirst(), suivi);
+                }
+                critere.setCurseur(page.getCurseurSuivant());
+            } while (critere.getCurseur() != null);
+
+            while (!enCours.isEmpty()) {
+                ecrire(zip, enCours.removeFirst(), suivi);
+            }
+            zip.finish();
+            zip.flush();
+        } catch (IOException | RuntimeException e) {
+            // Client deconnecte, disque plein, erreur SQL... : les tranches
+            // en production sont abandonnees
+            for (RenduTranche tranche : enCours) {
+                tranche.cancel(true);
+            }
+            suivi.duree = System.nanoTime() - suivi.debut;
+            suivi.etat = "echec : " + e.getMessage();
+            throw e;
+        }
+
+        suivi.duree = System.nanoTime() - suivi.debut;
+        suivi.etat = "terminee";
+
+        RapportBulletins rapport = new RapportBulletins();
+        rapport.setEtudiantsAttendus(suivi.etudiantsAttendus);
+        rapport.setBulletins(suivi.bulletins.get());
+        if (fichier != null) {
+            rapport.setFichier(fichier.toString());
+        }
+        rapport.terminer(suivi.duree);
+        LOGGER.info(String.format(Locale.ROOT,
+            "Bulletins termines : %d bulletins en %d ms (%.1f bulletins/s)",
+            rapport.getBulletins(), rapport.getDureeMs(), rapport.getBulletinsParSeconde()));
+        return rapport;
+    }
+
+    /**
+     * Attendre les bulletins d'une tranche et les ecrire dans l'archive
+     */
+    private void ecrire(ZipOutputStream zip, RenduTranche tranche, Progression suivi) throws IOException {
+        tranche.join();
+        for (Bulletin bulletin : tranche.bulletins) {
+            zip.putNextEntry(new ZipEntry(bulletin.nomFichier));
+            zip.write(bulletin.contenu);
+            zip.closeEntry();
+
+            int ecrits = suivi.bulletins.incrementAndGet();
+            if (ecrits % FREQUENCE_PROGRESSION == 0) {
+                LOGGER.info(String.format(Locale.ROOT, "Bulletins : %d / %d ecrits (%.0f bulletins/s)",
+                    ecrits, suivi.etudiantsAttendus, suivi.bulletinsParSeconde()));
+            }
+        }
+    }
+
+    /**
+     * Nom du bulletin dans l'archive : le matricule, unique ; l'ID est
+     * ajoute si des caracteres ont du etre remplaces
+     */
+    private static String nomFichier(Etudiant etudiant) {
+        String matricule = etudiant.getMatricule() == null ? "" : etudiant.getMatricule();
+        String nom = CARACTERES_INTERDITS.matcher(matricule).replaceAll("_");
+        if (nom.isEmpty() || !nom.equals(matricule)) {
+            nom = nom + "-" + etudiant.getId();
+        }
+        return nom + ".html";
+    }
+
+    /**
+     * Etat de la generation en cours ou de la derniere (GET /api/supervision/bulletins)
+     */
+    public static Map<String, Object> statistiques() {
+        Map<String, Object> statistiques = new LinkedHashMap<>();
+        statistiques.put("enCours", estEnCours());
+        synchronized (BulletinService.class) {
+            statistiques.put("threads", threads);
+            statistiques.put("repertoire", repertoire.toString());
+        }
+        Progression suivi = progression;
+        if (suivi != null) {
+            statistiques.put("etat", suivi.etat);
+            statistiques.put("destination", suivi.destination);
+            statistiques.put("prefixeMatricule", suivi.prefixeMatricule);
+            statistiques.put("etudiantsAttendus", suivi.etudiantsAttendus);
+            statistiques.put("bulletins", suivi.bulletins.get());
+            statistiques.put("dureeMs", suivi.ecoule() / 1_000_000);
+            statistiques.put("bulletinsParSeconde", suivi.bulletinsParSeconde());
+        }
+        return statistiques;
+    }
+}
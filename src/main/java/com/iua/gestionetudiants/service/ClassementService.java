@@ -0,0 +1,36 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.dao.ClassementDAO;
+import com.iua.gestionetudiants.dto.Classement;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+
+/**
+ * Service metier du classement general
+ *
+ * Seuls les etudiants ayant au moins une note sont classes.
+ * Un etudiant est admis si sa moyenne ponderee atteint 10/20.
+ */
+public class ClassementService {
+
+    // Mesures des methodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_CLASSER = Metriques.service("ClassementService.classer");
+
+    /** Moyenne minimale pour etre admis (systeme de notation sur 20) */
+    public static final double SEUIL_ADMISSION = 10.0;
+
+    public static final int TAILLE_PAR_DEFAUT = 50;
+    public static final int TAILLE_MAXIMUM = 500;
+
+    private ClassementDAO classementDAO = new ClassementDAO();
+
+    /**
+     * Lire une page du classement
+     * Le numero de page et la taille sont ramenes dans les bornes autorisees
+     */
+    public Classement classer(int page, int taille) {
+        int pageBornee = Math.max(page, 1);
+        int tailleBornee = taille <= 0 ? TAILLE_PAR_DEFAUT : Math.min(taille, TAILLE_MAXIMUM);
+        return MESURE_CLASSER.mesurer(() -> classementDAO.classer(pageBornee, tailleBornee, SEUIL_ADMISSION));
+    }
+}
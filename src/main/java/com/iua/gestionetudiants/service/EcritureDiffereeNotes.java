@@ -0,0 +1,474 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.model.Note;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ===========================================================================
+ * ÉCRITURE DIFFÉRÉE DES NOTES (saisie unitaire, NoteService.creerNote)
+ * ===========================================================================
+ * La note validée est écrite dans un journal local, forcé sur le disque,
+ * puis placée dans une file en mémoire ; la saisie rend la main sans
+ * attendre la base. Un thread d'écriture vide la file par lots : un lot
+ * part dès qu'il atteint tailleLot notes, ou delaiMs après sa première
+ * note, et il est enregistré en une transaction (NoteDAO.creerEnLot).
+ *
+ * - Contre-pression : au plus capacite notes en attente ; au-delà la
+ *   saisie attend une place, puis échoue (IllegalStateException)
+ * - Durabilité : au démarrage, les notes du journal absentes de la base
+ *   sont rejouées. Chaque note porte son numéro dans le journal
+ *   (colonne unique sequence_journal) : une note déjà enregistrée n'est
+ *   pas écrite une seconde fois. Le journal est vidé dès que toutes ses
+ *   notes sont en base, et compacté après chaque lot (JournalNotes)
+ * - Lecture de ses écritures : les lectures des notes d'un étudiant
+ *   (attendreEcriture) attendent que ses notes en file soient enregistrées
+ * - Base indisponible : le lot est retenté, avec une attente qui double
+ *   jusqu'à 30 s ; les notes restent dans la file et dans le journal
+ *
+ * Paramètres (<context-param> de web.xml, lus par ApplicationListener) :
+ * notes.ecritureDifferee, notes.ecritureDifferee.capacite,
+ * notes.ecritureDifferee.tailleLot, notes.ecritureDifferee.delaiMs,
+ * notes.journal
+ * ===========================================================================
+ */
+public final class EcritureDiffereeNotes {
+
+    private static final Logger LOGGER = Logger.getLogger(EcritureDiffereeNotes.class.getName());
+
+    public static final int CAPACITE_PAR_DEFAUT = 10_000;
+    public static final int TAILLE_LOT_PAR_DEFAUT = 500;
+    public static final long DELAI_PAR_DEFAUT_MS = 50;
+
+    /** Attente d'une place dans la file pleine, avant de refuser la saisie */
+    private static final long ATTENTE_PLACE_MS = 2_000;
+    /** Attente maximale d'une lecture sur l'écriture des notes de l'étudiant */
+    private static final long ATTENTE_LECTURE_MS = 5_000;
+    /** Attente maximale entre deux tentatives d'écriture d'un lot */
+    private static final long PAUSE_MAXIMUM_MS = 30_000;
+    /** Attente du thread d'écriture à l'arrêt */
+    private static final long ATTENTE_ARRET_MS = 10_000;
+
+    private static final LongAdder NOTES_ECRITES = new LongAdder();
+    private static final LongAdder LOTS = new LongAdder();
+    private static final LongAdder REFUS = new LongAdder();
+    private static final LongAdder REJETS = new LongAdder();
+    private static final LongAdder ECHECS_ECRITURE = new LongAdder();
+
+    private static final NoteDAO NOTE_DAO = new NoteDAO();
+    private static final EtudiantDAO ETUDIANT_DAO = new EtudiantDAO();
+
+    /** Dernier numéro en file par étudiant (retiré une fois la note enregistrée) */
+    private static final Map<Long, Long> SEQUENCES_EN_ATTENTE = new ConcurrentHashMap<>();
+    private static final Object ATTENTE = new Object();
+
+    private static final LinkedBlockingQueue<JournalNotes.Ligne> FILE = new LinkedBlockingQueue<>();
+
+    private static volatile boolean actif;
+    private static volatile boolean arretDemande;
+    private static volatile JournalNotes journal;
+    private static volatile Semaphore places = new Semaphore(0);
+    private static Thread ecrivain;
+
+    private static int capacite = CAPACITE_PAR_DEFAUT;
+    private static int tailleLot = TAILLE_LOT_PAR_DEFAUT;
+    private static long delaiMs = DELAI_PAR_DEFAUT_MS;
+
+    /** Dernier numéro attribué (sous le verrou du journal) */
+    private static long derniereSequence;
+    /** Toutes les notes jusqu'à ce numéro sont en base (ou rejetées) */
+    private static volatile long sequenceEcrite;
+    /**
+     * Notes jusqu'à ce numéro : reprises du journal après un rejeu échoué.
+     * Elles passent en file sans prendre de place, leur écriture n'en rend pas
+     */
+    private static long sequenceReprise;
+
+    private EcritureDiffereeNotes() {
+    }
+
+    /**
+     * Rejouer le journal, puis démarrer l'écriture différée si elle est active
+     *
+     * Le journal est rejoué même si l'écriture différée est désactivée :
+     * les notes acceptées avant un arrêt ne sont pas perdues.
+     *
+     * @param active   Écriture différée de la saisie unitaire
+     * @param fichier  Journal local
+     * @param capacite Notes en attente au maximum, au-delà la saisie attend
+     * @param taille   Notes par transaction
+     * @param delai    Attente maximale d'un lot incomplet, en millisecondes
+     */
+    public static synchronized void configurer(boolean active, Path fichier, int capacite, int taille, long delai) {
+        if (capacite < 1 || taille < 1 || delai < 0) {
+            throw new IllegalArgumentException("Écriture différée des notes : capacité et taille de lot doivent être positives");
+        }
+        arreter();
+        try {
+            journal = new JournalNotes(fichier);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal des notes inaccessible : " + fichier, e);
+        }
+        EcritureDiffereeNotes.capacite = capacite;
+        tailleLot = taille;
+        delaiMs = delai;
+
+        List<JournalNotes.Ligne> lignes = relire();
+        long maximumJournal = lignes.stream().mapToLong(l -> l.sequence).max().orElse(0);
+        derniereSequence = Math.max(maximumJournal, NOTE_DAO.sequenceJournalMaximum());
+        sequenceEcrite = derniereSequence;
+        boolean rejoue = rejouer(lignes);
+
+        arretDemande = false;
+        places = new Semaphore(capacite);
+        sequenceReprise = 0;
+        if (!rejoue) {
+            // Notes non rejouées : confiées au thread d'écriture s'il démarre,
+            // en plus de la capacité, sinon conservées au journal jusqu'au
+            // prochain démarrage
+            sequenceReprise = maximumJournal;
+            sequenceEcrite = lignes.get(0).sequence - 1;
+            if (active) {
+                for (JournalNotes.Ligne ligne : lignes) {
+                    SEQUENCES_EN_ATTENTE.put(ligne.etudiantId, ligne.sequence);
+                    FILE.add(ligne);
+                }
+            }
+        }
+        actif = active;
+        if (active) {
+            ecrivain = new Thread(EcritureDiffereeNotes::ecrire, "notes-ecriture");
+            ecrivain.setDaemon(true);
+            ecrivain.start();
+            LOGGER.info("Ecriture differee des notes : file de " + capacite + ", lots de " + taille
+                    + ", delai de " + delai + " ms, journal " + fichier);
+        }
+    }
+
+    private static List<JournalNotes.Ligne> relire() {
+        try {
+            return journal.relire();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture impossible du journal des notes " + journal.getFichier(), e);
+        }
+    }
+
+    /**
+     * Enregistrer les notes du journal absentes de la base (démarrage)
+     * En cas d'échec, elles restent dans le journal.
+     *
+     * @return false si les notes n'ont pas pu être enregistrées
+     */
+    private static boolean rejouer(List<JournalNotes.Ligne> lignes) {
+        if (lignes.isEmpty()) {
+            return true;
+        }
+        try {
+            ecrireLot(lignes);
+            journal.compacter(sequenceEcrite);
+            LOGGER.info("Journal des notes rejoue : " + lignes.size() + " note(s)");
+            return true;
+        } catch (RuntimeException e) {
+            ECHECS_ECRITURE.increment();
+            LOGGER.log(Level.SEVERE, "Journal des notes non rejoue (" + lignes.size() + " note(s) conservee(s))", e);
+            return false;
+        }
+    }
+
+    /**
+     * Arrêter l'écriture différée (arrêt de la webapp)
+     *
+     * Les notes en file sont écrites avant l'arrêt ; si la base est
+     * indisponible, elles restent dans le journal et seront rejouées.
+     */
+    public static synchronized void arreter() {
+        actif = false;
+        arretDemande = true;
+        if (ecrivain != null) {
+            try {
+                ecrivain.join(ATTENTE_ARRET_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (ecrivain.isAlive()) {
+                LOGGER.warning("Ecriture differee des notes : " + FILE.size() + " note(s) laissee(s) au journal");
+                ecrivain.interrupt();
+            }
+            ecrivain = null;
+        }
+        FILE.clear();
+        SEQUENCES_EN_ATTENTE.clear();
+        if (journal != null) {
+            journal.fermer();
+            journal = null;
+        }
+    }
+
+    public static boolean estActive() {
+        return actif;
+    }
+
+    /**
+     * Accepter une note déjà validée : journalisée et forcée sur le disque,
+     * puis mise en file pour le thread d'écriture
+     *
+     * @param etudiantId Étudiant de la note (la note n'en porte pas)
+     * @throws IllegalStateException File pleine au-delà de l'attente d'une place
+     */
+    public static void soumettre(Note note, Long etudiantId) {
+        Semaphore placesCourantes = places;
+        JournalNotes journalCourant = journal;
+        if (!actif || journalCourant == null) {
+            throw new IllegalStateException("L'écriture différée des notes n'est pas active");
+        }
+        try {
+            if (!placesCourantes.tryAcquire(ATTENTE_PLACE_MS, TimeUnit.MILLISECONDS)) {
+                REFUS.increment();
+                throw new IllegalStateException("La file d'écriture des notes est saturée, réessayer plus tard");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Saisie de la note interrompue");
+        }
+
+        JournalNotes.Ligne ligne = new JournalNotes.Ligne();
+        ligne.etudiantId = etudiantId;
+        ligne.matiere = note.getMatiere();
+        ligne.valeur = note.getValeur();
+        ligne.coefficient = note.getCoefficient();
+        ligne.dateCreation = (note.getDateCreation() != null ? note.getDateCreation() : LocalDate.now()).toString();
+
+        long position;
+        try {
+            synchronized (journalCourant) {
+                ligne.sequence = ++derniereSequence;
+                position = journalCourant.ajouter(ligne);
+                SEQUENCES_EN_ATTENTE.put(ligne.etudiantId, ligne.sequence);
+                FILE.add(ligne);
+            }
+        } catch (RuntimeException e) {
+            placesCourantes.release();
+            throw e;
+        }
+        // Forçage groupé : une saisie concurrente a peut-être déjà forcé cette ligne
+        journalCourant.forcer(position);
+    }
+
+    /**
+     * Attendre que les notes en file de l'étudiant soient enregistrées
+     * (lectures de ses notes ou de sa moyenne). Sans note en file, retour
+     * immédiat ; au-delà de 5 s, la lecture se fait sans elles.
+     */
+    public static void attendreEcriture(Long etudiantId) {
+        Long sequence = etudiantId == null ? null : SEQUENCES_EN_ATTENTE.get(etudiantId);
+        if (sequence == null || sequenceEcrite >= sequence) {
+            return;
+        }
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ATTENTE_LECTURE_MS);
+        synchronized (ATTENTE) {
+            while (sequenceEcrite < sequence) {
+                long reste = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+                if (reste <= 0) {
+                    LOGGER.warning("Notes de l'etudiant " + etudiantId + " pas encore enregistrees, lecture sans elles");
+                    return;
+                }
+                try {
+                    ATTENTE.wait(reste);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture : un lot, une transaction
+     */
+    private static void ecrire() {
+        List<JournalNotes.Ligne> lot = new ArrayList<>(tailleLot);
+        try {
+            while (!arretDemande || !FILE.isEmpty()) {
+                JournalNotes.Ligne premiere = FILE.poll(100, TimeUnit.MILLISECONDS);
+                if (premiere == null) {
+                    journal.compacter(sequenceEcrite);
+                    continue;
+                }
+                lot.add(premiere);
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delaiMs);
+                while (lot.size() < tailleLot && !arretDemande) {
+                    if (FILE.drainTo(lot, tailleLot - lot.size()) == 0) {
+                        JournalNotes.Ligne suivante = FILE.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (suivante == null) {
+                            break;
+                        }
+                        lot.add(suivante);
+                    }
+                }
+                FILE.drainTo(lot, tailleLot - lot.size());
+
+                if (!ecrireAvecReprise(lot)) {
+                    return;
+                }
+                int liberees = 0;
+                for (JournalNotes.Ligne ligne : lot) {
+                    SEQUENCES_EN_ATTENTE.remove(ligne.etudiantId, ligne.sequence);
+                    if (ligne.sequence > sequenceReprise) {
+                        liberees++;
+                    }
+                }
+                places.release(liberees);
+                journal.compacter(sequenceEcrite);
+                lot.clear();
+            }
+            journal.compacter(sequenceEcrite);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Écrire le lot, en réessayant tant que la base est indisponible
+     *
+     * @return false si l'arrêt est demandé avant que le lot soit écrit
+     *         (il reste dans le journal)
+     */
+    private static boolean ecrireAvecReprise(List<JournalNotes.Ligne> lot) throws InterruptedException {
+        long pause = 100;
+        while (true) {
+            try {
+                ecrireLot(lot);
+                return true;
+            } catch (RuntimeException e) {
+                ECHECS_ECRITURE.increment();
+                LOGGER.log(Level.WARNING, "Lot de " + lot.size() + " note(s) non ecrit, nouvel essai dans " + pause + " ms", e);
+                if (arretDemande) {
+                    return false;
+                }
+                Thread.sleep(pause);
+                pause = Math.min(pause * 2, PAUSE_MAXIMUM_MS);
+            }
+        }
+    }
+
+    /**
+     * Enregistrer un lot en une transaction, puis avancer le numéro des
+     * notes enregistrées
+     *
+     * Si la transaction échoue, les notes déjà en base (lot rejoué) et celles
+     * des étudiants supprimés depuis la saisie sont retirées du lot, qui est
+     * réessayé ; sans rien à retirer, l'échec est remonté.
+     */
+    private static void ecrireLot(List<JournalNotes.Ligne> lot) {
+        try {
+            NOTE_DAO.creerEnLot(notes(lot), etudiantIds(lot));
+        } catch (RuntimeException e) {
+            Set<Long> sequences = new HashSet<>();
+            Set<Long> etudiantIds = new HashSet<>();
+            for (JournalNotes.Ligne ligne : lot) {
+                sequences.add(ligne.sequence);
+                etudiantIds.add(ligne.etudiantId);
+            }
+            Set<Long> enregistrees = NOTE_DAO.filtrerSequencesEnregistrees(sequences);
+            Set<Long> existants = ETUDIANT_DAO.filtrerIdsExistants(etudiantIds);
+
+            List<JournalNotes.Ligne> restantes = new ArrayList<>();
+            for (JournalNotes.Ligne ligne : lot) {
+                if (enregistrees.contains(ligne.sequence)) {
+                    continue;
+                }
+                if (!existants.contains(ligne.etudiantId)) {
+                    REJETS.increment();
+                    LOGGER.warning("Note " + ligne.sequence + " rejetee : l'etudiant " + ligne.etudiantId + " n'existe plus");
+                    continue;
+                }
+                restantes.add(ligne);
+            }
+            if (restantes.size() == lot.size()) {
+                throw e;
+            }
+            if (!restantes.isEmpty()) {
+                NOTE_DAO.creerEnLot(notes(restantes), etudiantIds(restantes));
+            }
+            NOTES_ECRITES.add(restantes.size());
+            terminerLot(lot);
+            return;
+        }
+        NOTES_ECRITES.add(lot.size());
+        terminerLot(lot);
+    }
+
+    private static void terminerLot(List<JournalNotes.Ligne> lot) {
+        LOTS.increment();
+        long derniere = lot.get(lot.size() - 1).sequence;
+        if (derniere > sequenceEcrite) {
+            sequenceEcrite = derniere;
+        }
+        synchronized (ATTENTE) {
+            ATTENTE.notifyAll();
+        }
+    }
+
+    private static List<Note> notes(List<JournalNotes.Ligne> lignes) {
+        List<Note> notes = new ArrayList<>(lignes.size());
+        for (JournalNotes.Ligne ligne : lignes) {
+            Note note = new Note(ligne.matiere, ligne.valeur, ligne.coefficient);
+            note.setDateCreation(LocalDate.parse(ligne.dateCreation));
+            note.setSequenceJournal(ligne.sequence);
+            notes.add(note);
+        }
+        return notes;
+    }
+
+    /**
+     * Étudiants des notes, rattachés par référence à l'enregistrement
+     * (NoteDAO.creerEnLot)
+     */
+    private static List<Long> etudiantIds(List<JournalNotes.Ligne> lignes) {
+        List<Long> etudiantIds = new ArrayList<>(lignes.size());
+        for (JournalNotes.Ligne ligne : lignes) {
+            etudiantIds.add(ligne.etudiantId);
+        }
+        return etudiantIds;
+    }
+
+    /**
+     * État de la file et du journal (GET /api/supervision/notes)
+     */
+    public static synchronized Map<String, Object> statistiques() {
+        Map<String, Object> statistiques = new LinkedHashMap<>();
+        JournalNotes journalCourant = journal;
+        statistiques.put("actif", actif);
+        statistiques.put("capacite", capacite);
+        statistiques.put("enAttente", FILE.size());
+        statistiques.put("placesLibres", places.availablePermits());
+        statistiques.put("tailleLot", tailleLot);
+        statistiques.put("delaiMs", delaiMs);
+        statistiques.put("notesEcrites", NOTES_ECRITES.sum());
+        statistiques.put("lots", LOTS.sum());
+        statistiques.put("refus", REFUS.sum());
+        statistiques.put("rejets", REJETS.sum());
+        statistiques.put("echecsEcriture", ECHECS_ECRITURE.sum());
+        statistiques.put("journal", journalCourant == null ? null : journalCourant.getFichier().toString());
+        statistiques.put("octetsJournal", journalCourant == null ? 0 : journalCourant.taille());
+        return statistiques;
+    }
+}
@@ -1,9 +1,21 @@
 package com.iua.gestionetudiants.service;
 
+import com.iua.gestionetudiants.dao.CritereListeEtudiants;
 import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.IndexRecherche;
+import com.iua.gestionetudiants.dao.Page;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+import com.iua.gestionetudiants.dao.ResultatRecherche;
+import com.iua.gestionetudiants.dao.SuggestionsMatricules;
+import com.iua.gestionetudiants.dto.EtudiantResume;
+import com.iua.gestionetudiants.dto.RevisionEtudiant;
+import com.iua.gestionetudiants.dto.SuggestionMatricule;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
 import com.iua.gestionetudiants.model.Etudiant;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service métier pour la gestion des étudiants
@@ -11,94 +23,249 @@ import java.util.List;
  */
 public class EtudiantService {
 
+    // Mesures des méthodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_CREER_ETUDIANT = Metriques.service("EtudiantService.creerEtudiant");
+    private static final Minuteur MESURE_TROUVER_PAR_ID = Metriques.service("EtudiantService.trouverParId");
+    private static final Minuteur MESURE_TROUVER_PAR_ID_AVEC_NOTES = Metriques.service("EtudiantService.trouverParIdAvecNotes");
+    private static final Minuteur MESURE_TROUVER_REVISION = Metriques.service("EtudiantService.trouverRevision");
+    private static final Minuteur MESURE_LISTER_TOUS = Metriques.service("EtudiantService.listerTous");
+    private static final Minuteur MESURE_LISTER_PAGE = Metriques.service("EtudiantService.listerPage");
+    private static final Minuteur MESURE_LISTER_RESUMES = Metriques.service("EtudiantService.listerResumes");
+    private static final Minuteur MESURE_LISTER_PAGE_RESUMES = Metriques.service("EtudiantService.listerPageResumes");
+    private static final Minuteur MESURE_RECHERCHER = Metriques.service("EtudiantService.rechercher");
+    private static final Minuteur MESURE_SUGGERER_MATRICULES = Metriques.service("EtudiantService.suggererMatricules");
+    private static final Minuteur MESURE_PARCOURIR_TOUS = Metriques.service("EtudiantService.parcourirTous");
+    private static final Minuteur MESURE_LISTER_TOUS_AVEC_NOTES = Metriques.service("EtudiantService.listerTousAvecNotes");
+    private static final Minuteur MESURE_MODIFIER_ETUDIANT = Metriques.service("EtudiantService.modifierEtudiant");
+    private static final Minuteur MESURE_SUPPRIMER_ETUDIANT = Metriques.service("EtudiantService.supprimerEtudiant");
+    private static final Minuteur MESURE_COMPTER_ETUDIANTS = Metriques.service("EtudiantService.compterEtudiants");
+
+    /** Nombre maximum de matricules proposés par l'autocomplétion */
+    public static final int MAXIMUM_SUGGESTIONS = 50;
+
     private EtudiantDAO etudiantDAO = new EtudiantDAO();
 
     /**
      * Créer un nouvel étudiant avec validation
+     *
+     * L'unicité du matricule est garantie par la contrainte UNIQUE de la base :
+     * l'insertion est tentée directement (un seul aller-retour), et un doublon,
+     * même créé au même instant par une autre requête, est refusé par MySQL.
+     * L'index des matricules n'est pas consulté : il peut être en retard sur
+     * la base, et une entrée périmée refuserait un matricule libre.
      */
     public void creerEtudiant(Etudiant etudiant) throws Exception {
-        // Validation
-        validerEtudiant(etudiant);
-
-        // Vérifier que le matricule n'existe pas déjà
-        Etudiant existant = etudiantDAO.trouverParMatricule(etudiant.getMatricule());
-        if (existant != null) {
-            throw new Exception("Un étudiant avec le matricule " + etudiant.getMatricule() + " existe déjà");
-        }
+        MESURE_CREER_ETUDIANT.mesurerAction(() -> {
+            // Validation
+            validerEtudiant(etudiant);
 
-        // Créer l'étudiant
-        etudiantDAO.creer(etudiant);
+            // Créer l'étudiant (un doublon est refusé par la contrainte UNIQUE)
+            try {
+                etudiantDAO.creer(etudiant);
+            } catch (RuntimeException e) {
+                if (PersistenceManager.estViolationContrainte(e)) {
+                    throw matriculeExistant(etudiant.getMatricule());
+                }
+                throw e;
+            }
+        });
     }
 
     /**
      * Trouver un étudiant par ID
      */
     public Etudiant trouverParId(Long id) {
-        return etudiantDAO.trouverParId(id);
+        return MESURE_TROUVER_PAR_ID.mesurer(() -> etudiantDAO.trouverParId(id));
     }
 
     /**
      * Trouver un étudiant avec ses notes
      */
     public Etudiant trouverParIdAvecNotes(Long id) {
-        return etudiantDAO.trouverParIdAvecNotes(id);
+        return MESURE_TROUVER_PAR_ID_AVEC_NOTES.mesurer(() -> {
+            EcritureDiffereeNotes.attendreEcriture(id);
+            return etudiantDAO.trouverParIdAvecNotes(id);
+        });
+    }
+
+    /**
+     * Lire la révision et la date de modification d'un étudiant, sans le
+     * charger (requêtes HTTP conditionnelles)
+     *
+     * @return null si l'étudiant n'existe pas
+     */
+    public RevisionEtudiant trouverRevision(Long id) {
+        return MESURE_TROUVER_REVISION.mesurer(() -> {
+            EcritureDiffereeNotes.attendreEcriture(id);
+            return etudiantDAO.trouverRevision(id);
+        });
     }
 
     /**
      * Lister tous les étudiants
      */
     public List<Etudiant> listerTous() {
-        return etudiantDAO.listerTous();
+        return MESURE_LISTER_TOUS.mesurer(() -> etudiantDAO.listerTous());
+    }
+
+    /**
+     * Lister une page d'étudiants (filtres, tri et pagination par curseur)
+     * La taille de page est ramenée dans les bornes autorisées
+     *
+     * @throws IllegalArgumentException Si le curseur est invalide
+     */
+    public Page<Etudiant> listerPage(CritereListeEtudiants critere) {
+        return MESURE_LISTER_PAGE.mesurer(() -> {
+            bornerTaille(critere);
+            return etudiantDAO.listerPage(critere);
+        });
+    }
+
+    /**
+     * Lister tous les étudiants en lecture seule (sans les notes)
+     */
+    public List<EtudiantResume> listerResumes() {
+        return MESURE_LISTER_RESUMES.mesurer(() -> etudiantDAO.listerResumes());
+    }
+
+    /**
+     * Lister une page d'étudiants en lecture seule, pour l'affichage
+     * (mêmes critères et même curseur que listerPage)
+     *
+     * @throws IllegalArgumentException Si le curseur est invalide
+     */
+    public Page<EtudiantResume> listerPageResumes(CritereListeEtudiants critere) {
+        return MESURE_LISTER_PAGE_RESUMES.mesurer(() -> {
+            bornerTaille(critere);
+            return etudiantDAO.listerPageResumes(critere);
+        });
+    }
+
+    /**
+     * Rechercher des étudiants par nom, prénom, matricule ou email
+     * (index en mémoire, sans accès à la base : voir IndexRecherche)
+     * Le nombre de résultats est ramené dans les bornes d'une page
+     *
+     * @throws IllegalStateException Si l'index de recherche n'est pas chargé
+     */
+    public ResultatRecherche rechercher(String texte, int taille) {
+        return MESURE_RECHERCHER.mesurer(() -> {
+            if (!IndexRecherche.estCharge()) {
+                throw new IllegalStateException("La recherche est indisponible : index non chargé");
+            }
+            int limite = taille <= 0 ? CritereListeEtudiants.TAILLE_PAR_DEFAUT
+                    : Math.min(taille, CritereListeEtudiants.TAILLE_MAXIMUM);
+            return IndexRecherche.rechercher(texte, limite);
+        });
+    }
+
+    /**
+     * Autocomplétion des matricules : les premiers matricules (dans l'ordre)
+     * qui commencent par le préfixe, avec l'id de l'étudiant
+     * (tableaux en mémoire, sans accès à la base : voir SuggestionsMatricules)
+     *
+     * @param limite Nombre de suggestions, ramené entre 1 et MAXIMUM_SUGGESTIONS
+     * @throws IllegalStateException Si les suggestions ne sont pas chargées
+     */
+    public List<SuggestionMatricule> suggererMatricules(String prefixe, int limite) {
+        return MESURE_SUGGERER_MATRICULES.mesurer(() -> {
+            if (!SuggestionsMatricules.estCharge()) {
+                throw new IllegalStateException("L'autocomplétion des matricules est indisponible");
+            }
+            return SuggestionsMatricules.suggerer(prefixe, Math.max(1, Math.min(limite, MAXIMUM_SUGGESTIONS)));
+        });
+    }
+
+    /**
+     * Ramener la taille de page dans les bornes autorisées
+     */
+    private static void bornerTaille(CritereListeEtudiants critere) {
+        if (critere.getTaille() <= 0) {
+            critere.setTaille(CritereListeEtudiants.TAILLE_PAR_DEFAUT);
+        }
+        if (critere.getTaille() > CritereListeEtudiants.TAILLE_MAXIMUM) {
+            critere.setTaille(CritereListeEtudiants.TAILLE_MAXIMUM);
+        }
+    }
+
+    /**
+     * Parcourir tous les étudiants en flux (export complet à mémoire constante)
+     */
+    public void parcourirTous(Consumer<Etudiant> traitement) {
+        MESURE_PARCOURIR_TOUS.mesurerAction(() -> etudiantDAO.parcourirTous(traitement));
     }
 
     /**
      * Lister tous les étudiants avec leurs notes
      */
     public List<Etudiant> listerTousAvecNotes() {
-        return etudiantDAO.listerTousAvecNotes();
+        return MESURE_LISTER_TOUS_AVEC_NOTES.mesurer(() -> etudiantDAO.listerTousAvecNotes());
     }
 
     /**
-     * Modifier un étudiant avec validation
+     * Modifier un étudiant lu auparavant, à sa révision de lecture
      */
     public void modifierEtudiant(Etudiant etudiant) throws Exception {
-        // Validation
-        validerEtudiant(etudiant);
-
-        // Vérifier que l'étudiant existe
-        Etudiant existant = etudiantDAO.trouverParId(etudiant.getId());
-        if (existant == null) {
-            throw new Exception("L'étudiant avec l'ID " + etudiant.getId() + " n'existe pas");
-        }
+        modifierEtudiant(etudiant, etudiant.getRevision());
+    }
 
-        // Vérifier que le matricule n'est pas déjà utilisé par un autre étudiant
-        Etudiant autreEtudiant = etudiantDAO.trouverParMatricule(etudiant.getMatricule());
-        if (autreEtudiant != null && !autreEtudiant.getId().equals(etudiant.getId())) {
-            throw new Exception("Le matricule " + etudiant.getMatricule() + " est déjà utilisé par un autre étudiant");
-        }
+    /**
+     * Modifier un étudiant avec validation
+     *
+     * Un seul aller-retour avec la base : l'UPDATE porte sur la révision lue
+     * (EtudiantDAO.modifier). L'existence de l'étudiant n'est vérifiée que
+     * si l'UPDATE ne trouve pas la ligne, pour distinguer un étudiant
+     * supprimé d'une modification concurrente. Comme pour la création, un
+     * matricule déjà pris n'est détecté que par la contrainte UNIQUE.
+     *
+     * @param revision Révision de l'étudiant au moment de sa lecture
+     */
+    public void modifierEtudiant(Etudiant etudiant, long revision) throws Exception {
+        MESURE_MODIFIER_ETUDIANT.mesurerAction(() -> {
+            // Validation
+            validerEtudiant(etudiant);
 
-        // Modifier l'étudiant
-        etudiantDAO.modifier(etudiant);
+            // Modifier l'étudiant (un matricule déjà utilisé par un autre
+            // étudiant est refusé par la contrainte UNIQUE)
+            try {
+                etudiantDAO.modifier(etudiant, revision);
+            } catch (RuntimeException e) {
+                if (PersistenceManager.estViolationContrainte(e)) {
+                    throw matriculeDejaUtilise(etudiant.getMatricule());
+                }
+                if (PersistenceManager.estConflitVersion(e)) {
+                    if (etudiantDAO.trouverRevision(etudiant.getId()) == null) {
+                        throw new Exception("L'étudiant avec l'ID " + etudiant.getId() + " n'existe pas");
+                    }
+                    throw new Exception("L'étudiant a été modifié entre-temps par un autre utilisateur, "
+                            + "veuillez recommencer la modification");
+                }
+                throw e;
+            }
+        });
     }
 
     /**
      * Supprimer un étudiant
      */
     public void supprimerEtudiant(Long id) throws Exception {
-        // Vérifier que l'étudiant existe
-        Etudiant etudiant = etudiantDAO.trouverParId(id);
-        if (etudiant == null) {
-            throw new Exception("L'étudiant avec l'ID " + id + " n'existe pas");
-        }
+        MESURE_SUPPRIMER_ETUDIANT.mesurerAction(() -> {
+            // Vérifier que l'étudiant existe
+            Etudiant etudiant = etudiantDAO.trouverParId(id);
+            if (etudiant == null) {
+                throw new Exception("L'étudiant avec l'ID " + id + " n'existe pas");
+            }
 
-        // Supprimer l'étudiant (les notes seront supprimées en cascade)
-        etudiantDAO.supprimer(id);
+            // Supprimer l'étudiant (les notes seront supprimées en cascade)
+            etudiantDAO.supprimer(id);
+        });
     }
 
     /**
      * Valider les données d'un étudiant
+     * Partagé avec l'import CSV (ImportService), qui applique les mêmes règles
      */
-    private void validerEtudiant(Etudiant etudiant) throws Exception {
+    void validerEtudiant(Etudiant etudiant) throws Exception {
         if (etudiant == null) {
             throw new Exception("L'étudiant ne peut pas être null");
         }
@@ -122,10 +289,18 @@ public class EtudiantService {
         }
     }
 
+    private Exception matriculeExistant(String matricule) {
+        return new Exception("Un étudiant avec le matricule " + matricule + " existe déjà");
+    }
+
+    private Exception matriculeDejaUtilise(String matricule) {
+        return new Exception("Le matricule " + matricule + " est déjà utilisé par un autre étudiant");
+    }
+
     /**
      * Compter le nombre total d'étudiants
      */
     public long compterEtudiants() {
-        return etudiantDAO.compter();
+        return MESURE_COMPTER_ETUDIANTS.mesurer(() -> etudiantDAO.compter());
     }
 }
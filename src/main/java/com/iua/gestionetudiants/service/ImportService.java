@@ -0,0 +1,375 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * ===========================================================================
+ * SERVICE METIER : IMPORT CSV (rentree universitaire)
+ * ===========================================================================
+ * Charge le fichier de la scolarite (etudiants, puis notes) en flux :
+ *
+ * 1. Le fichier est lu ligne a ligne, jamais entierement en memoire
+ * 2. Chaque ligne est validee avec les memes regles que la saisie
+ *    (EtudiantService.validerEtudiant, NoteService.validerChamps)
+ * 3. Les lignes sont regroupees par tranches de TAILLE_TRANCHE :
+ *    - les matricules d'une tranche sont resolus en UNE requete
+ *    - chaque tranche est enregistree dans SA transaction (lots JDBC)
+ * 4. La progression est journalisee, et le rapport final donne le debit
+ *    en lignes par seconde
+ *
+ * Une tranche en echec (erreur SQL) est annulee seule : les tranches deja
+ * enregistrees restent en base et l'import continue.
+ *
+ * FORMATS (en-tete obligatoire, ordre des colonnes libre, ';' ou ',') :
+ *   etudiants : matricule;nom;prenom[;email][;date_naissance]
+ *   notes     : matricule;matiere;valeur;coefficient
+ * ===========================================================================
+ */
+public class ImportService {
+
+    // Mesures des methodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_IMPORTER_ETUDIANTS = Metriques.service("ImportService.importerEtudiants");
+    private static final Minuteur MESURE_IMPORTER_NOTES = Metriques.service("ImportService.importerNotes");
+
+    private static final Logger LOGGER = Logger.getLogger(ImportService.class.getName());
+
+    /** Nombre de lignes enregistrees par transaction */
+    public static final int TAILLE_TRANCHE = 1000;
+
+    /** Une trace de progression toutes les N lignes lues */
+    private static final int FREQUENCE_PROGRESSION = 10_000;
+
+    private static final DateTimeFormatter FORMAT_DATE_FR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private EtudiantService etudiantService = new EtudiantService();
+    private NoteService noteService = new NoteService();
+    private EtudiantDAO etudiantDAO = new EtudiantDAO();
+    private NoteDAO noteDAO = new NoteDAO();
+
+    /**
+     * Ligne du fichier en attente d'enregistrement
+     */
+    private static class Ligne<T> {
+        final int numero;
+        final T element;
+        final String matricule;
+
+        Ligne(int numero, T element, String matricule) {
+            this.numero = numero;
+            this.element = element;
+            this.matricule = matricule;
+        }
+    }
+
+    /**
+     * ========================================================================
+     * IMPORT DES ETUDIANTS
+     * ========================================================================
+     * Un matricule deja present en base ou deja vu plus haut dans le fichier
+     * est rejete (meme regle que creerEtudiant).
+     *
+     * @param source Le fichier CSV
+     * @return Le rapport d'import
+     * @throws IllegalArgumentException Si le fichier est vide ou s'il manque
+     *                                  une colonne obligatoire
+     * ========================================================================
+     */
+    public RapportImport importerEtudiants(Reader source) throws IOException {
+        return MESURE_IMPORTER_ETUDIANTS.mesurer(() -> {
+            long debut = System.nanoTime();
+            RapportImport rapport = new RapportImport();
+            LecteurCsv csv = new LecteurCsv(source);
+            Map<String, Integer> colonnes = lireEntete(csv, "matricule", "nom", "prenom");
+            Integer colonneEmail = colonnes.get("email");
+            Integer colonneDate = colonnes.get("date_naissance");
+
+            Set<String> matriculesVus = new HashSet<>();
+            List<Ligne<Etudiant>> tranche = new ArrayList<>();
+            String[] champs;
+            while ((champs = csv.lireLigne()) != null) {
+                int numero = csv.getNumeroLigne();
+                compterLigne(rapport, "etudiants", debut);
+                try {
+                    Etudiant etudiant = new Etudiant();
+                    etudiant.setMatricule(champ(champs, colonnes.get("matricule")));
+                    etudiant.setNom(champ(champs, colonnes.get("nom")));
+                    etudiant.setPrenom(champ(champs, colonnes.get("prenom")));
+                    etudiant.setEmail(champ(champs, colonneEmail));
+                    etudiant.setDateNaissance(lireDate(champ(champs, colonneDate)));
+                    etudiantService.validerEtudiant(etudiant);
+
+                    if (!matriculesVus.add(etudiant.getMatricule())) {
+                        throw new Exception("Le matricule " + etudiant.getMatricule() + " apparait plusieurs fois dans le fichier");
+                    }
+                    tranche.add(new Ligne<>(numero, etudiant, etudiant.getMatricule()));
+                } catch (Exception e) {
+                    rapport.ajouterErreur(numero, e.getMessage());
+                }
+
+                if (tranche.size() >= TAILLE_TRANCHE) {
+                    enregistrerEtudiants(tranche, rapport);
+                    tranche.clear();
+                }
+            }
+            enregistrerEtudiants(tranche, rapport);
+
+            return terminer(rapport, "etudiants", debut);
+        });
+    }
+
+    /**
+     * ========================================================================
+     * IMPORT DES NOTES
+     * ========================================================================
+     * L'etudiant est designe par son matricule. Les matricules deja resolus
+     * sont gardes en memoire pour toute la duree de l'import : chaque
+     * etudiant n'est cherche qu'une fois, quel que soit son nombre de notes.
+     *
+     * @param source Le fichier CSV
+     * @return Le rapport d'import
+     * @throws IllegalArgumentException Si le fichier est vide ou s'il manque
+     *                                  une colonne obligatoire
+     * ========================================================================
+     */
+    public RapportImport importerNotes(Reader source) throws IOException {
+        return MESURE_IMPORTER_NOTES.mesurer(() -> {
+            long debut = System.nanoTime();
+            RapportImport rapport = new RapportImport();
+            LecteurCsv csv = new LecteurCsv(source);
+            Map<String, Integer> colonnes = lireEntete(csv, "matricule", "matiere", "valeur", "coefficient");
+
+            Map<String, Long> idsParMatricule = new HashMap<>();
+            List<Ligne<Note>> tranche = new ArrayList<>();
+            String[] champs;
+            while ((champs = csv.lireLigne()) != null) {
+                int numero = csv.getNumeroLigne();
+                compterLigne(rapport, "notes", debut);
+                try {
+                    String matricule = champ(champs, colonnes.get("matricule"));
+                    if (matricule == null) {
+                        throw new Exception("Le matricule est obligatoire");
+                    }
+                    Note note = new Note();
+                    note.setMatiere(champ(champs, colonnes.get("matiere")));
+                    note.setValeur(lireNombre(champ(champs, colonnes.get("valeur")), "valeur"));
+                    Double coefficient = lireNombre(champ(champs, colonnes.get("coefficient")), "coefficient");
+                    if (coefficient != null) {
+                        if (coefficient != Math.rint(coefficient)) {
+                            throw new Exception("Le coefficient doit etre un nombre entier");
+                        }
+                        note.setCoefficient(coefficient.intValue());
+                    }
+                    tranche.add(new Ligne<>(numero, note, matricule));
+                } catch (Exception e) {
+                    rapport.ajouterErreur(numero, e.getMessage());
+                }
+
+                if (tranche.size() >= TAILLE_TRANCHE) {
+                    enregistrerNotes(tranche, idsParMatricule, rapport);
+                    tranche.clear();
+                }
+            }
+            enregistrerNotes(tranche, idsParMatricule, rapport);
+
+            return terminer(rapport, "notes", debut);
+        });
+    }
+
+    /**
+     * Enregistrer une tranche d'etudiants en une transaction, apres avoir
+     * ecarte (en une requete) les matricules deja presents en base
+     */
+    private void enregistrerEtudiants(List<Ligne<Etudiant>> tranche, RapportImport rapport) {
+        if (tranche.isEmpty()) {
+            return;
+        }
+        Set<String> matricules = new HashSet<>();
+        for (Ligne<Etudiant> ligne : tranche) {
+            matricules.add(ligne.matricule);
+        }
+        Set<String> existants = etudiantDAO.trouverIdsParMatricules(matricules).keySet();
+
+        List<Etudiant> aCreer = new ArrayList<>();
+        List<Ligne<Etudiant>> lignesACreer = new ArrayList<>();
+        for (Ligne<Etudiant> ligne : tranche) {
+            if (existants.contains(ligne.matricule)) {
+                rapport.ajouterErreur(ligne.numero,
+                    "Un étudiant avec le matricule " + ligne.matricule + " existe déjà");
+            } else {
+                aCreer.add(ligne.element);
+                lignesACreer.add(ligne);
+            }
+        }
+
+        try {
+            etudiantDAO.creerEnLot(aCreer);
+            rapport.setLignesEnregistrees(rapport.getLignesEnregistrees() + aCreer.size());
+        } catch (Exception e) {
+            rejeterTranche(lignesACreer, rapport, e);
+        }
+    }
+
+    /**
+     * Enregistrer une tranche de notes en une transaction
+     * Les matricules encore inconnus sont resolus en une requete, puis
+     * chaque note est validee avec les regles de NoteService
+     */
+    private void enregistrerNotes(List<Ligne<Note>> tranche, Map<String, Long> idsParMatricule,
+                                  RapportImport rapport) {
+        if (tranche.isEmpty()) {
+            return;
+        }
+        Set<String> inconnus = new HashSet<>();
+        for (Ligne<Note> ligne : tranche) {
+            if (!idsParMatricule.containsKey(ligne.matricule)) {
+                inconnus.add(ligne.matricule);
+            }
+        }
+        idsParMatricule.putAll(etudiantDAO.trouverIdsParMatricules(inconnus));
+
+        List<Note> aCreer = new ArrayList<>();
+        List<Ligne<Note>> lignesACreer = new ArrayList<>();
+        for (Ligne<Note> ligne : tranche) {
+            Long etudiantId = idsParMatricule.get(ligne.matricule);
+            if (etudiantId == null) {
+                rapport.ajouterErreur(ligne.numero,
+                    "Aucun etudiant avec le matricule " + ligne.matricule);
+                continue;
+            }
+            Etudiant etudiant = new Etudiant();
+            etudiant.setId(etudiantId);
+            ligne.element.setEtudiant(etudiant);
+            try {
+                noteService.validerChamps(ligne.element);
+                aCreer.add(ligne.element);
+                lignesACreer.add(ligne);
+            } catch (Exception e) {
+                rapport.ajouterErreur(ligne.numero, e.getMessage());
+            }
+        }
+
+        try {
+            if (!aCreer.isEmpty()) {
+                noteDAO.creerEnLot(aCreer);
+            }
+            rapport.setLignesEnregistrees(rapport.getLignesEnregistrees() + aCreer.size());
+        } catch (Exception e) {
+            rejeterTranche(lignesACreer, rapport, e);
+        }
+    }
+
+    /**
+     * Transaction annulee : toutes les lignes de la tranche sont en erreur
+     */
+    private void rejeterTranche(List<? extends Ligne<?>> lignes, RapportImport rapport, Exception e) {
+        if (lignes.isEmpty()) {
+            return;
+        }
+        LOGGER.warning("Import : tranche des lignes " + lignes.get(0).numero + " a "
+            + lignes.get(lignes.size() - 1).numero + " annulee : " + e.getMessage());
+        for (Ligne<?> ligne : lignes) {
+            rapport.ajouterErreur(ligne.numero, "Tranche annulee : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lire la ligne d'en-tete et reperer la position de chaque colonne
+     * (noms insensibles a la casse, espaces retires)
+     */
+    private Map<String, Integer> lireEntete(LecteurCsv csv, String... obligatoires) throws IOException {
+        String[] entete = csv.lireLigne();
+        if (entete == null) {
+            throw new IllegalArgumentException("Le fichier CSV est vide");
+        }
+        Map<String, Integer> colonnes = new HashMap<>();
+        for (int i = 0; i < entete.length; i++) {
+            colonnes.put(entete[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String colonne : obligatoires) {
+            if (!colonnes.containsKey(colonne)) {
+                throw new IllegalArgumentException("Colonne obligatoire absente de l'en-tete : " + colonne);
+            }
+        }
+        return colonnes;
+    }
+
+    /**
+     * Valeur d'une colonne, ou null si la colonne est absente ou vide
+     */
+    private String champ(String[] champs, Integer colonne) {
+        if (colonne == null || colonne >= champs.length || champs[colonne].isEmpty()) {
+            return null;
+        }
+        return champs[colonne];
+    }
+
+    /**
+     * Date au format ISO (2001-09-15) ou francais (15/09/2001)
+     */
+    private LocalDate lireDate(String valeur) throws Exception {
+        if (valeur == null) {
+            return null;
+        }
+        try {
+            return valeur.contains("/") ? LocalDate.parse(valeur, FORMAT_DATE_FR) : LocalDate.parse(valeur);
+        } catch (DateTimeParseException e) {
+            throw new Exception("Date de naissance invalide : " + valeur);
+        }
+    }
+
+    /**
+     * Nombre avec '.' ou ',' comme separateur decimal (15.5 ou 15,5)
+     */
+    private Double lireNombre(String valeur, String colonne) throws Exception {
+        if (valeur == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(valeur.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new Exception("Valeur numerique invalide pour " + colonne + " : " + valeur);
+        }
+    }
+
+    /**
+     * Compter une ligne lue et journaliser la progression
+     */
+    private void compterLigne(RapportImport rapport, String fichier, long debut) {
+        rapport.setLignesRecues(rapport.getLignesRecues() + 1);
+        if (rapport.getLignesRecues() % FREQUENCE_PROGRESSION == 0) {
+            long ecoule = Math.max(System.nanoTime() - debut, 1);
+            LOGGER.info(String.format(Locale.ROOT,
+                "Import %s : %d lignes lues, %d enregistrees, %d en erreur (%.0f lignes/s)",
+                fichier, rapport.getLignesRecues(), rapport.getLignesEnregistrees(),
+                rapport.getLignesEnErreur(), rapport.getLignesRecues() * 1e9 / ecoule));
+        }
+    }
+
+    private RapportImport terminer(RapportImport rapport, String fichier, long debut) {
+        rapport.terminer(System.nanoTime() - debut);
+        LOGGER.info(String.format(Locale.ROOT,
+            "Import %s termine : %d lignes lues, %d enregistrees, %d en erreur en %d ms (%.1f lignes/s)",
+            fichier, rapport.getLignesRecues(), rapport.getLignesEnregistrees(),
+            rapport.getLignesEnErreur(), rapport.getDureeMs(), rapport.getLignesParSeconde()));
+        return rapport;
+    }
+}
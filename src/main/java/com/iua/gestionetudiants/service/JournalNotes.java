@@ -0,0 +1,293 @@
+package com.iua.gestionetudiants.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Journal local de l'ecriture differee des notes (voir EcritureDiffereeNotes)
+ *
+ * Une note par ligne, en JSON. Une note n'est acceptee qu'une fois sa ligne
+ * forcee sur le disque : apres un arret brutal, les notes du journal qui ne
+ * sont pas en base sont rejouees au demarrage.
+ *
+ * Le forcage est groupe : le premier appelant force tout ce qui a ete ecrit
+ * jusque-la, ceux qui attendaient derriere lui n'ont plus rien a forcer.
+ *
+ * Le journal est vide des que toutes ses notes sont en base. Sous une saisie
+ * continue il ne l'est jamais : il est alors compacte, en recopiant les lignes
+ * pas encore en base dans un nouveau fichier qui remplace l'ancien, des que
+ * les lignes enregistrees depassent le seuil et la moitie du fichier.
+ */
+class JournalNotes {
+
+    private static final Logger LOGGER = Logger.getLogger(JournalNotes.class.getName());
+
+    private static final Gson GSON = new Gson();
+
+    /** Octets de lignes deja en base a partir desquels le journal est compacte */
+    static final long SEUIL_COMPACTAGE = 1024 * 1024;
+
+    /**
+     * Une note en attente d'ecriture, telle qu'elle est journalisee
+     */
+    static final class Ligne {
+
+        long sequence;
+        long etudiantId;
+        String matiere;
+        double valeur;
+        int coefficient;
+        String dateCreation;
+    }
+
+    private final Path fichier;
+    private final long seuilCompactage;
+    /** Remplace a chaque compactage (sous les deux verrous) */
+    private FileChannel canal;
+
+    /** Position de fin de la derniere ligne ecrite (sous le verrou du journal) */
+    private long positionEcrite;
+    /** Position jusqu'a laquelle le fichier est force sur le disque */
+    private long positionForcee;
+    /** Derniere sequence ecrite dans le fichier depuis qu'il a ete vide */
+    private long derniereSequence;
+    /** Sequence et position de fin de chaque ligne du fichier, dans l'ordre */
+    private final ArrayDeque<long[]> finsDeLigne = new ArrayDeque<>();
+
+    private final Object verrouForcage = new Object();
+
+    JournalNotes(Path fichier) throws IOException {
+        this(fichier, SEUIL_COMPACTAGE);
+    }
+
+    JournalNotes(Path fichier, long seuilCompactage) throws IOException {
+        this.fichier = fichier;
+        this.seuilCompactage = seuilCompactage;
+        if (fichier.getParent() != null) {
+            Files.createDirectories(fichier.getParent());
+        }
+        this.canal = FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        retirerLigneIncomplete();
+        this.positionEcrite = canal.size();
+        this.positionForcee = positionEcrite;
+        canal.position(positionEcrite);
+    }
+
+    /**
+     * Retirer une derniere ligne incomplete (arret pendant l'ecriture) : sa
+     * note n'avait pas ete acceptee, et la ligne suivante s'y collerait
+     */
+    private void retirerLigneIncomplete() throws IOException {
+        long fin = canal.size();
+        ByteBuffer octet = ByteBuffer.allocate(1);
+        while (fin > 0) {
+            octet.clear();
+            canal.read(octet, fin - 1);
+            if (octet.get(0) == '\n') {
+                break;
+            }
+            fin--;
+        }
+        if (fin < canal.size()) {
+            LOGGER.warning("Journal des notes : ligne incomplete retiree (" + (canal.size() - fin) + " octets)");
+            canal.truncate(fin);
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Relire les lignes du journal (au demarrage, avant toute ecriture)
+     */
+    synchronized List<Ligne> relire() throws IOException {
+        List<Ligne> lignes = new ArrayList<>();
+        finsDeLigne.clear();
+        try (BufferedReader lecteur = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            String texte;
+            int numero = 0;
+            long fin = 0;
+            while ((texte = lecteur.readLine()) != null) {
+                numero++;
+                fin += texte.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (texte.isBlank()) {
+                    continue;
+                }
+                try {
+                    Ligne ligne = GSON.fromJson(texte, Ligne.class);
+                    if (ligne == null || ligne.matiere == null || ligne.dateCreation == null) {
+                        throw new JsonParseException("note incomplete");
+                    }
+                    lignes.add(ligne);
+                    finsDeLigne.add(new long[] {ligne.sequence, fin});
+                    derniereSequence = Math.max(derniereSequence, ligne.sequence);
+                } catch (JsonParseException e) {
+                    LOGGER.warning("Journal des notes : ligne " + numero + " illisible, ignoree");
+                }
+            }
+        }
+        return lignes;
+    }
+
+    /**
+     * Ecrire une ligne (sans la forcer)
+     * L'appelant numerote et met en file sous le verrou du journal, pour que
+     * l'ordre de la file soit celui des numeros
+     *
+     * @return La position a forcer pour que la ligne soit durable
+     */
+    synchronized long ajouter(Ligne ligne) {
+        ByteBuffer octets = ByteBuffer.wrap((GSON.toJson(ligne) + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (octets.hasRemaining()) {
+                canal.write(octets);
+            }
+            positionEcrite = canal.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ecriture impossible dans le journal des notes " + fichier, e);
+        }
+        derniereSequence = ligne.sequence;
+        finsDeLigne.add(new long[] {ligne.sequence, positionEcrite});
+        return positionEcrite;
+    }
+
+    /**
+     * Forcer le journal sur le disque jusqu'a la position (au moins)
+     */
+    void forcer(long position) {
+        synchronized (verrouForcage) {
+            if (positionForcee >= position) {
+                return;
+            }
+            long aForcer;
+            synchronized (this) {
+                aForcer = positionEcrite;
+            }
+            try {
+                canal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Forcage impossible du journal des notes " + fichier, e);
+            }
+            positionForcee = aForcer;
+        }
+    }
+
+    /**
+     * Retirer du journal les lignes deja en base
+     *
+     * Le journal est vide si sa derniere note est en base ; sinon les lignes
+     * enregistrees ne sont retirees qu'au-dela du seuil et de la moitie du
+     * fichier, pour que chaque recopie retire au moins autant qu'elle copie.
+     *
+     * @param sequenceEnregistree Toutes les notes jusqu'a cette sequence sont en base
+     */
+    void compacter(long sequenceEnregistree) {
+        synchronized (verrouForcage) {
+            synchronized (this) {
+                if (positionEcrite == 0) {
+                    return;
+                }
+                try {
+                    if (derniereSequence <= sequenceEnregistree) {
+                        canal.truncate(0);
+                        canal.position(0);
+                        canal.force(false);
+                        positionEcrite = 0;
+                        positionForcee = 0;
+                        finsDeLigne.clear();
+                        return;
+                    }
+                    if (positionEcrite < seuilCompactage) {
+                        return;
+                    }
+                    long debut = 0;
+                    for (long[] fin : finsDeLigne) {
+                        if (fin[0] > sequenceEnregistree) {
+                            break;
+                        }
+                        debut = fin[1];
+                    }
+                    if (debut < seuilCompactage || debut * 2 < positionEcrite) {
+                        return;
+                    }
+                    recopierDepuis(debut);
+                } catch (IOException e) {
+                    LOGGER.warning("Journal des notes non compacte : " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Remplacer le fichier par ses lignes a partir de la position debut
+     * (appele sous les deux verrous). La copie est forcee avant de remplacer
+     * le fichier : un arret a tout moment laisse l'ancien journal ou le nouveau.
+     */
+    private void recopierDepuis(long debut) throws IOException {
+        Path copie = fichier.resolveSibling(fichier.getFileName() + ".compactage");
+        try (FileChannel canalCopie = FileChannel.open(copie, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = debut;
+            while (position < positionEcrite) {
+                position += canal.transferTo(position, positionEcrite - position, canalCopie);
+            }
+            canalCopie.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(copie);
+            throw e;
+        }
+        Files.move(copie, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal.close();
+        try {
+            canal = FileChannel.open(fichier, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            canal.position(positionEcrite - debut);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal des notes inaccessible apres compactage : " + fichier, e);
+        }
+        positionEcrite -= debut;
+        positionForcee = positionEcrite;
+        for (Iterator<long[]> fins = finsDeLigne.iterator(); fins.hasNext(); ) {
+            long[] fin = fins.next();
+            if (fin[1] <= debut) {
+                fins.remove();
+            } else {
+                fin[1] -= debut;
+            }
+        }
+        LOGGER.info("Journal des notes compacte : " + debut + " octets retires, " + positionEcrite + " conserves");
+    }
+
+    /**
+     * Taille du journal en octets
+     */
+    synchronized long taille() {
+        return positionEcrite;
+    }
+
+    Path getFichier() {
+        return fichier;
+    }
+
+    synchronized void fermer() {
+        try {
+            canal.close();
+        } catch (IOException e) {
+            LOGGER.warning("Fermeture du journal des notes : " + e.getMessage());
+        }
+    }
+}
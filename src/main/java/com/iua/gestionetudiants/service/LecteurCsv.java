@@ -0,0 +1,135 @@
+package com.iua.gestionetudiants.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecteur CSV en flux : un enregistrement a la fois, sans charger le fichier
+ *
+ * - Separateur ';' ou ',' (deduit de la ligne d'en-tete)
+ * - Champs entre guillemets, avec guillemets doubles ("") et retours a la
+ *   ligne a l'interieur des guillemets
+ * - Marque BOM UTF-8 en debut de fichier ignoree (exports Excel)
+ */
+class LecteurCsv {
+
+    private final Reader source;
+    private char separateur;
+    private boolean separateurConnu;
+
+    /** Numero de la ligne physique en cours de lecture (a partir de 1) */
+    private int numeroLigne = 1;
+
+    /** Numero de la ligne physique ou commence le dernier enregistrement lu */
+    private int debutEnregistrement;
+
+    private boolean debutFichier = true;
+
+    /**
+     * @param source Le flux a lire (bufferise par l'appelant)
+     */
+    LecteurCsv(Reader source) {
+        this.source = source;
+    }
+
+    /**
+     * Lire l'enregistrement suivant
+     *
+     * @return Les champs de l'enregistrement, ou null en fin de fichier
+     */
+    String[] lireLigne() throws IOException {
+        int c = lire();
+        // Lignes vides ignorees
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') {
+                numeroLigne++;
+            }
+            c = lire();
+        }
+        if (c == -1) {
+            return null;
+        }
+        debutEnregistrement = numeroLigne;
+
+        List<String> champs = new ArrayList<>();
+        StringBuilder champ = new StringBuilder();
+        boolean entreGuillemets = false;
+        boolean enregistrementTermine = false;
+
+        while (!enregistrementTermine) {
+            if (c == -1) {
+                break;
+            }
+            if (entreGuillemets) {
+                if (c == '"') {
+                    int suivant = lire();
+                    if (suivant == '"') {
+                        champ.append('"');
+                    } else {
+                        entreGuillemets = false;
+                        c = suivant;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        numeroLigne++;
+                    }
+                    champ.append((char) c);
+                }
+            } else if (c == '"' && champ.length() == 0) {
+                entreGuillemets = true;
+            } else if (c == '\r') {
+                // Ignore (fin de ligne Windows)
+            } else if (c == '\n') {
+                numeroLigne++;
+                enregistrementTermine = true;
+                continue;
+            } else if (estSeparateur((char) c)) {
+                champs.add(champ.toString().trim());
+                champ.setLength(0);
+            } else {
+                champ.append((char) c);
+            }
+            c = lire();
+        }
+        champs.add(champ.toString().trim());
+        return champs.toArray(new String[0]);
+    }
+
+    /**
+     * Numero de la ligne du fichier ou commence le dernier enregistrement lu
+     * (la ligne d'en-tete est la ligne 1)
+     */
+    int getNumeroLigne() {
+        return debutEnregistrement;
+    }
+
+    /**
+     * Le premier ';' ou ',' rencontre hors guillemets fixe le separateur
+     * pour tout le fichier
+     */
+    private boolean estSeparateur(char c) {
+        if (separateurConnu) {
+            return c == separateur;
+        }
+        if (c == ';' || c == ',') {
+            separateur = c;
+            separateurConnu = true;
+            return true;
+        }
+        return false;
+    }
+
+    private int lire() throws IOException {
+        int c = source.read();
+        if (debutFichier) {
+            debutFichier = false;
+            if (c == '\uFEFF') {
+                c = source.read();
+            }
+        }
+        return c;
+    }
+}
@@ -2,10 +2,18 @@ package com.iua.gestionetudiants.service;
 
 import com.iua.gestionetudiants.dao.EtudiantDAO;
 import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+import com.iua.gestionetudiants.dto.AgregatsNotes;
+import com.iua.gestionetudiants.dto.NoteCreee;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
 import com.iua.gestionetudiants.model.Etudiant;
 import com.iua.gestionetudiants.model.Note;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * ===========================================================================
@@ -23,71 +31,266 @@ import java.util.List;
  */
 public class NoteService {
 
+    // Mesures des methodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_CREER_NOTE = Metriques.service("NoteService.creerNote");
+    private static final Minuteur MESURE_CREER_NOTES_EN_LOT = Metriques.service("NoteService.creerNotesEnLot");
+    private static final Minuteur MESURE_TROUVER_PAR_ID = Metriques.service("NoteService.trouverParId");
+    private static final Minuteur MESURE_LISTER_PAR_ETUDIANT = Metriques.service("NoteService.listerParEtudiant");
+    private static final Minuteur MESURE_LISTER_TOUTES = Metriques.service("NoteService.listerToutes");
+    private static final Minuteur MESURE_MODIFIER_NOTE = Metriques.service("NoteService.modifierNote");
+    private static final Minuteur MESURE_SUPPRIMER_NOTE = Metriques.service("NoteService.supprimerNote");
+    private static final Minuteur MESURE_CALCULER_MOYENNE_LONG = Metriques.service("NoteService.calculerMoyenne(Long)");
+    private static final Minuteur MESURE_CALCULER_MOYENNE_ETUDIANT = Metriques.service("NoteService.calculerMoyenne(Etudiant)");
+    private static final Minuteur MESURE_CALCULER_MOYENNE_LIST = Metriques.service("NoteService.calculerMoyenne(List)");
+    private static final Minuteur MESURE_LISTER_AGREGATS_INCOHERENTS = Metriques.service("NoteService.listerAgregatsIncoherents");
+    private static final Minuteur MESURE_VERIFIER_ET_REPARER_AGREGATS = Metriques.service("NoteService.verifierEtReparerAgregats");
+    private static final Minuteur MESURE_RECONSTRUIRE_AGREGATS = Metriques.service("NoteService.reconstruireAgregats");
+    private static final Minuteur MESURE_COMPTER_NOTES_PAR_ETUDIANT = Metriques.service("NoteService.compterNotesParEtudiant");
+
     // DAO pour acceder aux notes et etudiants en base de donnees
     private NoteDAO noteDAO = new NoteDAO();
     private EtudiantDAO etudiantDAO = new EtudiantDAO();
 
     /**
      * Créer une nouvelle note avec validation
+     *
+     * L'étudiant n'est pas relu pour vérifier son existence : la clé
+     * étrangère de la note s'en charge (voir NoteDAO.creer). Sur le chemin
+     * normal, l'ajout coûte l'INSERT de la note, l'ajustement des agrégats
+     * de l'étudiant et leur relecture par clé primaire, en une transaction.
+     *
+     * @param note       Note sans étudiant : seul son ID est utile, la note
+     *                   lui est rattachée par référence (NoteDAO.creer)
+     * @param etudiantId Étudiant de la note
+     * @return La note créée et la nouvelle moyenne de l'étudiant, ou null si
+     *         la note a été confiée à l'écriture différée (pas encore en base)
      */
-    public void creerNote(Note note) throws Exception {
-        // Validation
-        validerNote(note);
+    public NoteCreee creerNote(Note note, Long etudiantId) throws Exception {
+        return MESURE_CREER_NOTE.mesurer(() -> {
+            // Créer la note par la file d'écriture différée (journalisée,
+            // enregistrée par lots, voir EcritureDiffereeNotes) : l'étudiant
+            // est vérifié avant d'accepter la note, la clé étrangère ne
+            // jouerait qu'à l'écriture du lot. Cette lecture par clé primaire
+            // (en général servie par le cache de second niveau) reste : sans
+            // elle, une note pour un étudiant inexistant serait acceptée puis
+            // rejetée en silence par le thread d'écriture
+            if (EcritureDiffereeNotes.estActive()) {
+                validerNote(note, etudiantId);
+                EcritureDiffereeNotes.soumettre(note, etudiantId);
+                return null;
+            }
+
+            // Validation des champs (l'existence de l'étudiant : clé étrangère)
+            validerChamps(note, etudiantId);
+
+            AgregatsNotes agregats;
+            try {
+                agregats = noteDAO.creer(note, etudiantId);
+            } catch (RuntimeException e) {
+                if (PersistenceManager.estViolationContrainte(e)) {
+                    throw etudiantInexistant(etudiantId);
+                }
+                throw e;
+            }
+            return new NoteCreee(note, moyenne(agregats.getSommePonderee(), agregats.getSommeCoefficients()),
+                    agregats.getNombreNotes());
+        });
+    }
 
-        // Créer la note
-        noteDAO.creer(note);
+    /**
+     * ========================================================================
+     * SAISIE EN LOT (ex: toutes les notes d'un examen)
+     * ========================================================================
+     * 1. Chaque note est validee individuellement (memes regles que creerNote)
+     * 2. L'existence des etudiants est verifiee en UNE requete pour tout le lot
+     * 3. Les notes valides sont enregistrees en UNE transaction, par lots JDBC
+     *
+     * Une ligne invalide est signalee dans le rapport et n'empeche pas
+     * l'enregistrement des autres. Un etudiant supprime entre les etapes 2
+     * et 3 fait echouer la cle etrangere : ses lignes sont signalees et
+     * les autres enregistrees (voir enregistrerLot).
+     *
+     * @param notes Les notes a creer (etudiant renseigne par son ID)
+     * @return Le rapport : lignes enregistrees et erreurs par ligne
+     * ========================================================================
+     */
+    public RapportLot creerNotesEnLot(List<Note> notes) {
+        return MESURE_CREER_NOTES_EN_LOT.mesurer(() -> {
+            RapportLot rapport = new RapportLot();
+            rapport.setLignesRecues(notes.size());
+
+            // 1. Validation des champs, ligne par ligne
+            List<Integer> lignesValides = new ArrayList<>();
+            Set<Long> etudiantIds = new HashSet<>();
+            for (int i = 0; i < notes.size(); i++) {
+                try {
+                    validerChamps(notes.get(i));
+                    lignesValides.add(i);
+                    etudiantIds.add(notes.get(i).getEtudiant().getId());
+                } catch (Exception e) {
+                    rapport.ajouterErreur(i + 1, e.getMessage());
+                }
+            }
+
+            // 2. Existence des etudiants : une seule requete pour tout le lot
+            Set<Long> existants = etudiantDAO.filtrerIdsExistants(etudiantIds);
+
+            List<Note> aCreer = new ArrayList<>();
+            List<Integer> lignesACreer = new ArrayList<>();
+            for (int i : lignesValides) {
+                Note note = notes.get(i);
+                if (existants.contains(note.getEtudiant().getId())) {
+                    aCreer.add(note);
+                    lignesACreer.add(i);
+                } else {
+                    rapport.ajouterErreur(i + 1,
+                        "L'etudiant avec l'ID " + note.getEtudiant().getId() + " n'existe pas");
+                }
+            }
+
+            // 3. Enregistrement des lignes valides en une transaction
+            rapport.setLignesEnregistrees(enregistrerLot(aCreer, lignesACreer, rapport));
+            return rapport;
+        });
+    }
+
+    /**
+     * Enregistrer les notes d'un lot en une transaction (etape 3 de
+     * creerNotesEnLot)
+     *
+     * Si la cle etrangere echoue, l'existence des etudiants est verifiee a
+     * nouveau : les lignes des etudiants supprimes entre-temps sont signalees
+     * dans le rapport et les autres reessayees. Sans ligne a retirer,
+     * l'echec est remonte.
+     *
+     * @param lignes Index (a partir de 0) de chaque note dans le lot recu
+     * @return Le nombre de notes enregistrees
+     */
+    private int enregistrerLot(List<Note> notes, List<Integer> lignes, RapportLot rapport) {
+        while (!notes.isEmpty()) {
+            try {
+                noteDAO.creerEnLot(notes);
+                return notes.size();
+            } catch (RuntimeException e) {
+                if (!PersistenceManager.estViolationContrainte(e)) {
+                    throw e;
+                }
+                Set<Long> etudiantIds = new HashSet<>();
+                for (Note note : notes) {
+                    etudiantIds.add(note.getEtudiant().getId());
+                }
+                Set<Long> existants = etudiantDAO.filtrerIdsExistants(etudiantIds);
+
+                List<Note> restantes = new ArrayList<>();
+                List<Integer> lignesRestantes = new ArrayList<>();
+                for (int k = 0; k < notes.size(); k++) {
+                    Note note = notes.get(k);
+                    if (existants.contains(note.getEtudiant().getId())) {
+                        // ID attribue par la transaction annulee : la note
+                        // doit etre a nouveau persistee comme une nouvelle note
+                        note.setId(null);
+                        restantes.add(note);
+                        lignesRestantes.add(lignes.get(k));
+                    } else {
+                        rapport.ajouterErreur(lignes.get(k) + 1,
+                            "L'etudiant avec l'ID " + note.getEtudiant().getId() + " n'existe pas");
+                    }
+                }
+                if (restantes.size() == notes.size()) {
+                    throw e;
+                }
+                notes = restantes;
+                lignes = lignesRestantes;
+            }
+        }
+        return 0;
     }
 
     /**
      * Trouver une note par ID
      */
     public Note trouverParId(Long id) {
-        return noteDAO.trouverParId(id);
+        return MESURE_TROUVER_PAR_ID.mesurer(() -> noteDAO.trouverParId(id));
     }
 
     /**
      * Lister toutes les notes d'un étudiant
      */
     public List<Note> listerParEtudiant(Long etudiantId) {
-        return noteDAO.listerParEtudiant(etudiantId);
+        return MESURE_LISTER_PAR_ETUDIANT.mesurer(() -> {
+            EcritureDiffereeNotes.attendreEcriture(etudiantId);
+            return noteDAO.listerParEtudiant(etudiantId);
+        });
     }
 
     /**
      * Lister toutes les notes
      */
     public List<Note> listerToutes() {
-        return noteDAO.listerToutes();
+        return MESURE_LISTER_TOUTES.mesurer(() -> noteDAO.listerToutes());
     }
 
     /**
      * Modifier une note avec validation
+     *
+     * La note doit avoir été lue auparavant (trouverParId) : sa révision est
+     * celle de la lecture. La note enregistrée est relue, en général depuis
+     * le cache de second niveau, pour ajuster les moyennes ; la modification
+     * elle-même est UN UPDATE versionné (NoteDAO.modifier). Une modification
+     * faite entre-temps est signalée au lieu d'être écrasée.
      */
     public void modifierNote(Note note) throws Exception {
-        // Validation
-        validerNote(note);
+        MESURE_MODIFIER_NOTE.mesurerAction(() -> {
+            // Validation des champs (l'existence de l'étudiant : clé étrangère)
+            validerChamps(note);
+
+            // Vérifier que la note existe, à la révision lue par l'appelant
+            Note existante = noteDAO.trouverParId(note.getId());
+            if (existante == null) {
+                throw new Exception("La note avec l'ID " + note.getId() + " n'existe pas");
+            }
+            if (existante.getRevision() != note.getRevision()) {
+                throw noteModifiee();
+            }
+
+            // Modifier la note
+            try {
+                noteDAO.modifier(note, existante);
+            } catch (RuntimeException e) {
+                if (PersistenceManager.estConflitVersion(e)) {
+                    throw noteModifiee();
+                }
+                if (PersistenceManager.estViolationContrainte(e)) {
+                    throw etudiantInexistant(note.getEtudiant().getId());
+                }
+                throw e;
+            }
+        });
+    }
 
-        // Vérifier que la note existe
-        Note existante = noteDAO.trouverParId(note.getId());
-        if (existante == null) {
-            throw new Exception("La note avec l'ID " + note.getId() + " n'existe pas");
-        }
+    private Exception etudiantInexistant(Long etudiantId) {
+        return new Exception("L'etudiant avec l'ID " + etudiantId + " n'existe pas");
+    }
 
-        // Modifier la note
-        noteDAO.modifier(note);
+    private Exception noteModifiee() {
+        return new Exception("La note a été modifiée entre-temps (par un autre utilisateur), "
+                + "veuillez recommencer la modification");
     }
 
     /**
      * Supprimer une note
      */
     public void supprimerNote(Long id) throws Exception {
-        // Vérifier que la note existe
-        Note note = noteDAO.trouverParId(id);
-        if (note == null) {
-            throw new Exception("La note avec l'ID " + id + " n'existe pas");
-        }
-
-        // Supprimer la note
-        noteDAO.supprimer(id);
+        MESURE_SUPPRIMER_NOTE.mesurerAction(() -> {
+            // Vérifier que la note existe
+            Note note = noteDAO.trouverParId(id);
+            if (note == null) {
+                throw new Exception("La note avec l'ID " + id + " n'existe pas");
+            }
+
+            // Supprimer la note
+            noteDAO.supprimer(id);
+        });
     }
 
     /**
@@ -110,41 +313,56 @@ public class NoteService {
      * Total coefficients = 3 + 2 + 1 = 6
      * Moyenne = 90 / 6 = 15/20
      *
+     * OPTIMISATION : Σ(note × coefficient) et Σ(coefficient) ne sont pas
+     * recalcules ici. Ils sont tenus a jour sur la ligne de l'etudiant a
+     * chaque ecriture de note (voir NoteDAO), la lecture est en O(1).
+     *
      * @param etudiantId ID de l'etudiant
      * @return La moyenne ponderee arrondie a 2 decimales
      * ========================================================================
      */
     public double calculerMoyenne(Long etudiantId) {
-        // 1. Recuperer toutes les notes de l'etudiant depuis la BDD
-        List<Note> notes = noteDAO.listerParEtudiant(etudiantId);
-
-        // 2. Si l'etudiant n'a pas de notes, retourner 0
-        if (notes == null || notes.isEmpty()) {
-            return 0.0;
-        }
-
-        // 3. Variables pour le calcul
-        double sommeNotesPonderees = 0.0;  // Numerateur de la formule
-        int sommeCoefficients = 0;         // Denominateur de la formule
-
-        // 4. Boucle sur toutes les notes pour calculer la somme ponderee
-        for (Note note : notes) {
-            // Multiplier chaque note par son coefficient
-            sommeNotesPonderees += note.getValeur() * note.getCoefficient();
+        return MESURE_CALCULER_MOYENNE_LONG.mesurer(() -> {
+            // 1. Recuperer l'etudiant : ses agregats de notes sont stockes sur sa ligne
+            //    (une lecture par cle primaire, la table note n'est pas parcourue),
+            //    apres l'enregistrement de ses notes en file d'ecriture differee
+            EcritureDiffereeNotes.attendreEcriture(etudiantId);
+            Etudiant etudiant = etudiantDAO.trouverParId(etudiantId);
+
+            // 2. Si l'etudiant n'existe pas, retourner 0
+            if (etudiant == null) {
+                return 0.0;
+            }
+
+            // 3. Appliquer la formule sur les agregats
+            return calculerMoyenne(etudiant);
+        });
+    }
 
-            // Additionner les coefficients
-            sommeCoefficients += note.getCoefficient();
-        }
+    /**
+     * SURCHARGE : Calculer la moyenne a partir des agregats deja charges
+     * avec l'etudiant (somme ponderee et somme des coefficients)
+     *
+     * Temps constant : ne depend pas du nombre de notes
+     * Utilise par : detail-etudiant.jsp et l'API REST
+     *
+     * @param etudiant L'etudiant
+     * @return La moyenne ponderee arrondie a 2 decimales
+     */
+    public double calculerMoyenne(Etudiant etudiant) {
+        return MESURE_CALCULER_MOYENNE_ETUDIANT.mesurer(() -> moyenne(etudiant.getSommePonderee(), etudiant.getSommeCoefficients()));
+    }
 
-        // 5. Eviter la division par zero
+    /**
+     * Moyenne ponderee a partir des agregats, arrondie a 2 decimales
+     */
+    private static double moyenne(double sommePonderee, long sommeCoefficients) {
+        // Eviter la division par zero (aucune note)
         if (sommeCoefficients == 0) {
             return 0.0;
         }
 
-        // 6. Calculer la moyenne : diviser la somme ponderee par les coefficients
-        double moyenne = sommeNotesPonderees / sommeCoefficients;
-
-        // 7. Arrondir a 2 decimales (ex: 15.66666 → 15.67)
+        double moyenne = sommePonderee / sommeCoefficients;
         return Math.round(moyenne * 100.0) / 100.0;
     }
 
@@ -153,30 +371,35 @@ public class NoteService {
      * Meme logique que ci-dessus, mais prend une liste en parametre
      * au lieu de l'ID de l'etudiant
      *
-     * Utilise par : detail-etudiant.jsp (evite de recharger les notes)
+     * Utile pour une liste de notes qui n'est pas encore en base
+     * (ex: controle des agregats, calculs hors persistance), ou pour une
+     * moyenne qui doit correspondre exactement aux notes affichees
+     * (notes d'un etudiant en REST, bulletins)
      *
      * @param notes Liste des notes
      * @return La moyenne ponderee
      */
     public double calculerMoyenne(List<Note> notes) {
-        if (notes == null || notes.isEmpty()) {
-            return 0.0;
-        }
-
-        double sommeNotesPonderees = 0.0;
-        int sommeCoefficients = 0;
-
-        for (Note note : notes) {
-            sommeNotesPonderees += note.getValeur() * note.getCoefficient();
-            sommeCoefficients += note.getCoefficient();
-        }
-
-        if (sommeCoefficients == 0) {
-            return 0.0;
-        }
-
-        double moyenne = sommeNotesPonderees / sommeCoefficients;
-        return Math.round(moyenne * 100.0) / 100.0;
+        return MESURE_CALCULER_MOYENNE_LIST.mesurer(() -> {
+            if (notes == null || notes.isEmpty()) {
+                return 0.0;
+            }
+
+            double sommeNotesPonderees = 0.0;
+            int sommeCoefficients = 0;
+
+            for (Note note : notes) {
+                sommeNotesPonderees += note.getValeur() * note.getCoefficient();
+                sommeCoefficients += note.getCoefficient();
+            }
+
+            if (sommeCoefficients == 0) {
+                return 0.0;
+            }
+
+            double moyenne = sommeNotesPonderees / sommeCoefficients;
+            return Math.round(moyenne * 100.0) / 100.0;
+        });
     }
 
     /**
@@ -192,11 +415,39 @@ public class NoteService {
      * 3. Le coefficient doit etre > 0
      * 4. L'etudiant doit exister en base de donnees
      *
-     * @param note La note a valider
+     * @param note       La note a valider
+     * @param etudiantId L'etudiant de la note
      * @throws Exception Si une regle de validation echoue
      * ========================================================================
      */
-    private void validerNote(Note note) throws Exception {
+    private void validerNote(Note note, Long etudiantId) throws Exception {
+        // Verifications 1 a 7 : les champs de la note
+        validerChamps(note, etudiantId);
+
+        // Verification 8 : L'etudiant doit exister en BDD
+        // Evite d'ajouter une note a un etudiant inexistant
+        Etudiant etudiant = etudiantDAO.trouverParId(etudiantId);
+        if (etudiant == null) {
+            throw etudiantInexistant(etudiantId);
+        }
+    }
+
+    /**
+     * Verifier les champs d'une note (regles 1 a 7), sans acces a la BDD
+     * Utilise seul par la saisie en lot, qui verifie l'existence des
+     * etudiants en une requete pour tout le lot
+     *
+     * @param note La note a valider (avec son etudiant)
+     * @throws Exception Si une regle de validation echoue
+     */
+    void validerChamps(Note note) throws Exception {
+        validerChamps(note, note == null || note.getEtudiant() == null ? null : note.getEtudiant().getId());
+    }
+
+    /**
+     * Verifier les champs d'une note dont l'etudiant est donne par son ID
+     */
+    private void validerChamps(Note note, Long etudiantId) throws Exception {
         // Verification 1 : La note ne doit pas etre null
         if (note == null) {
             throw new Exception("La note ne peut pas etre null");
@@ -230,22 +481,56 @@ public class NoteService {
         }
 
         // Verification 7 : L'etudiant est obligatoire
-        if (note.getEtudiant() == null) {
+        if (etudiantId == null) {
             throw new Exception("L'etudiant est obligatoire");
         }
+    }
 
-        // Verification 8 : L'etudiant doit exister en BDD
-        // Evite d'ajouter une note a un etudiant inexistant
-        Etudiant etudiant = etudiantDAO.trouverParId(note.getEtudiant().getId());
-        if (etudiant == null) {
-            throw new Exception("L'etudiant avec l'ID " + note.getEtudiant().getId() + " n'existe pas");
-        }
+    /**
+     * ========================================================================
+     * VERIFICATEUR DE COHERENCE DES AGREGATS
+     * ========================================================================
+     * Compare les agregats stockes sur chaque etudiant avec la table note,
+     * sans rien modifier
+     *
+     * @return Les IDs des etudiants dont les agregats sont incoherents
+     * ========================================================================
+     */
+    public List<Long> listerAgregatsIncoherents() {
+        return MESURE_LISTER_AGREGATS_INCOHERENTS.mesurer(() -> etudiantDAO.listerAgregatsIncoherents());
+    }
+
+    /**
+     * Verifier les agregats et, en cas d'ecart (colonnes nouvellement
+     * ajoutees, modification manuelle en base...), les recalculer tous
+     * depuis zero
+     *
+     * @return Le nombre d'etudiants dont les agregats etaient incoherents
+     */
+    public int verifierEtReparerAgregats() {
+        return MESURE_VERIFIER_ET_REPARER_AGREGATS.mesurer(() -> {
+            List<Long> incoherents = etudiantDAO.listerAgregatsIncoherents();
+            if (!incoherents.isEmpty()) {
+                etudiantDAO.reconstruireAgregats();
+            }
+            return incoherents.size();
+        });
+    }
+
+    /**
+     * Recalculer tous les agregats depuis zero, sans verification prealable
+     * (seuls les etudiants dont les agregats different sont reecrits)
+     *
+     * @return Le nombre d'etudiants mis a jour
+     */
+    public int reconstruireAgregats() {
+        return MESURE_RECONSTRUIRE_AGREGATS.mesurer(() -> etudiantDAO.reconstruireAgregats());
     }
 
     /**
      * Compter le nombre de notes d'un étudiant
      */
     public long compterNotesParEtudiant(Long etudiantId) {
-        return noteDAO.compterParEtudiant(etudiantId);
+        return MESURE_COMPTER_NOTES_PAR_ETUDIANT.mesurer(() -> noteDAO.compterParEtudiant(etudiantId));
     }
 }
@@ -0,0 +1,59 @@
+package com.iua.gestionetudiants.service;
+
+/**
+ * Compte rendu d'une generation de bulletins (voir BulletinService)
+ */
+public class RapportBulletins {
+
+    private long etudiantsAttendus;
+    private int bulletins;
+    private long dureeMs;
+    private double bulletinsParSeconde;
+    private String fichier;
+
+    /**
+     * Enregistrer la duree de la generation et en deduire le debit
+     * (bulletins ecrits par seconde)
+     */
+    void terminer(long dureeNanos) {
+        this.dureeMs = dureeNanos / 1_000_000;
+        this.bulletinsParSeconde = dureeNanos == 0 ? 0.0
+            : Math.round(bulletins * 1e9 / dureeNanos * 10.0) / 10.0;
+    }
+
+    // Getters et Setters
+    public long getEtudiantsAttendus() {
+        return etudiantsAttendus;
+    }
+
+    public void setEtudiantsAttendus(long etudiantsAttendus) {
+        this.etudiantsAttendus = etudiantsAttendus;
+    }
+
+    public int getBulletins() {
+        return bulletins;
+    }
+
+    public void setBulletins(int bulletins) {
+        this.bulletins = bulletins;
+    }
+
+    public long getDureeMs() {
+        return dureeMs;
+    }
+
+    public double getBulletinsParSeconde() {
+        return bulletinsParSeconde;
+    }
+
+    /**
+     * @return Le fichier ZIP sur le disque, ou null pour une archive envoyee en flux
+     */
+    public String getFichier() {
+        return fichier;
+    }
+
+    public void setFichier(String fichier) {
+        this.fichier = fichier;
+    }
+}
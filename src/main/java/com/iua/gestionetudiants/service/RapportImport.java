@@ -0,0 +1,49 @@
+package com.iua.gestionetudiants.service;
+
+/**
+ * Compte rendu d'un import CSV
+ *
+ * Les numeros de ligne sont ceux du fichier (l'en-tete est la ligne 1).
+ * Seules les MAX_ERREURS_DETAILLEES premieres erreurs sont conservees avec
+ * leur message ; les suivantes sont seulement comptees, pour qu'un fichier
+ * entierement invalide ne remplisse pas la memoire.
+ */
+public class RapportImport extends RapportLot {
+
+    public static final int MAX_ERREURS_DETAILLEES = 1000;
+
+    private int lignesEnErreur;
+    private long dureeMs;
+    private double lignesParSeconde;
+
+    @Override
+    public void ajouterErreur(int ligne, String message) {
+        lignesEnErreur++;
+        if (getErreurs().size() < MAX_ERREURS_DETAILLEES) {
+            super.ajouterErreur(ligne, message);
+        }
+    }
+
+    /**
+     * Enregistrer la duree de l'import et en deduire le debit
+     * (lignes lues par seconde, lignes rejetees comprises)
+     */
+    void terminer(long dureeNanos) {
+        this.dureeMs = dureeNanos / 1_000_000;
+        this.lignesParSeconde = dureeNanos == 0 ? 0.0
+            : Math.round(getLignesRecues() * 1e9 / dureeNanos * 10.0) / 10.0;
+    }
+
+    // Getters
+    public int getLignesEnErreur() {
+        return lignesEnErreur;
+    }
+
+    public long getDureeMs() {
+        return dureeMs;
+    }
+
+    public double getLignesParSeconde() {
+        return lignesParSeconde;
+    }
+}
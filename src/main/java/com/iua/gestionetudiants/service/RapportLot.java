@@ -0,0 +1,65 @@
+package com.iua.gestionetudiants.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compte rendu d'une saisie en lot
+ *
+ * Les lignes invalides sont rejetees individuellement (avec leur numero et
+ * le message de validation) sans empecher l'enregistrement des lignes valides.
+ */
+public class RapportLot {
+
+    private int lignesRecues;
+    private int lignesEnregistrees;
+    private final List<ErreurLigne> erreurs = new ArrayList<>();
+
+    /**
+     * Erreur de validation d'une ligne du lot
+     * (numero de ligne a partir de 1, dans l'ordre d'envoi)
+     */
+    public static class ErreurLigne {
+
+        private final int ligne;
+        private final String message;
+
+        public ErreurLigne(int ligne, String message) {
+            this.ligne = ligne;
+            this.message = message;
+        }
+
+        public int getLigne() {
+            return ligne;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    public void ajouterErreur(int ligne, String message) {
+        erreurs.add(new ErreurLigne(ligne, message));
+    }
+
+    // Getters et Setters
+    public int getLignesRecues() {
+        return lignesRecues;
+    }
+
+    public void setLignesRecues(int lignesRecues) {
+        this.lignesRecues = lignesRecues;
+    }
+
+    public int getLignesEnregistrees() {
+        return lignesEnregistrees;
+    }
+
+    public void setLignesEnregistrees(int lignesEnregistrees) {
+        this.lignesEnregistrees = lignesEnregistrees;
+    }
+
+    public List<ErreurLigne> getErreurs() {
+        return erreurs;
+    }
+}
@@ -0,0 +1,129 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Bulletin de notes d'un etudiant en HTML imprimable (voir BulletinService)
+ *
+ * Meme contenu que detail-etudiant.jsp : identite, notes (matiere, note,
+ * coefficient, points), moyenne ponderee et decision. La page est
+ * autonome (styles integres) : elle s'ouvre et s'imprime depuis l'archive,
+ * sans l'application.
+ *
+ * Sans etat : appele en parallele par les threads de generation.
+ */
+final class RenduBulletin {
+
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Moyenne a partir de laquelle l'etudiant est admis (detail-etudiant.jsp) */
+    private static final double MOYENNE_ADMISSION = 10.0;
+
+    private static final String STYLES =
+        "body{font-family:Arial,Helvetica,sans-serif;margin:2cm;color:#222}"
+        + "h1{font-size:1.4em;border-bottom:2px solid #333;padding-bottom:.3em}"
+        + "table{border-collapse:collapse;width:100%;margin:1em 0}"
+        + "th,td{border:1px solid #999;padding:.35em .6em}"
+        + "th{background:#eee;text-align:left}"
+        + "td.nombre{text-align:right}"
+        + ".moyenne{font-size:1.2em;font-weight:bold}"
+        + ".admis{color:#1a7f37}.non-admis{color:#b42318}"
+        + "@media print{body{margin:0}}";
+
+    private RenduBulletin() {
+    }
+
+    /**
+     * Produire le bulletin
+     *
+     * @param etudiant    L'etudiant
+     * @param notes       Ses notes, dans l'ordre d'affichage
+     * @param moyenne     Sa moyenne ponderee (NoteService.calculerMoyenne)
+     * @param dateEdition Date imprimee sur le bulletin
+     */
+    static String html(Etudiant etudiant, List<Note> notes, double moyenne, LocalDate dateEdition) {
+        StringBuilder html = new StringBuilder(2048 + notes.size() * 160);
+        html.append("<!DOCTYPE html>\n<html lang=\"fr\">\n<head>\n<meta charset=\"UTF-8\">\n<title>Bulletin de ");
+        texte(html, etudiant.getPrenom()).append(' ');
+        texte(html, etudiant.getNom()).append("</title>\n<style>").append(STYLES).append("</style>\n</head>\n<body>\n");
+
+        html.append("<h1>Bulletin de notes</h1>\n<table>\n");
+        ligneIdentite(html, "Matricule", etudiant.getMatricule());
+        ligneIdentite(html, "Nom", etudiant.getNom());
+        ligneIdentite(html, "Prénom", etudiant.getPrenom());
+        if (etudiant.getDateNaissance() != null) {
+            ligneIdentite(html, "Date de naissance", FORMAT_DATE.format(etudiant.getDateNaissance()));
+        }
+        html.append("</table>\n");
+
+        if (notes.isEmpty()) {
+            html.append("<p>Aucune note enregistrée.</p>\n");
+        } else {
+            html.append("<table>\n<tr><th>Matière</th><th>Note / 20</th><th>Coefficient</th><th>Points</th></tr>\n");
+            for (Note note : notes) {
+                html.append("<tr><td>");
+                texte(html, note.getMatiere());
+                html.append("</td><td class=\"nombre\">").append(nombre(note.getValeur()))
+                    .append("</td><td class=\"nombre\">").append(note.getCoefficient())
+                    .append("</td><td class=\"nombre\">").append(nombre(note.getValeur() * note.getCoefficient()))
+                    .append("</td></tr>\n");
+            }
+            html.append("</table>\n");
+
+            boolean admis = moyenne >= MOYENNE_ADMISSION;
+            html.append("<p class=\"moyenne\">Moyenne générale (pondérée) : ").append(nombre(moyenne))
+                .append(" / 20 <span class=\"").append(admis ? "admis\">Admis" : "non-admis\">Non admis")
+                .append("</span></p>\n");
+        }
+
+        html.append("<p>Édité le ").append(FORMAT_DATE.format(dateEdition)).append("</p>\n</body>\n</html>\n");
+        return html.toString();
+    }
+
+    private static void ligneIdentite(StringBuilder html, String libelle, String valeur) {
+        html.append("<tr><th>").append(libelle).append("</th><td>");
+        texte(html, valeur);
+        html.append("</td></tr>\n");
+    }
+
+    /**
+     * Nombre a 2 decimales au plus, sans zeros inutiles (comme
+     * fmt:formatNumber maxFractionDigits="2" dans detail-etudiant.jsp)
+     */
+    private static String nombre(double valeur) {
+        return BigDecimal.valueOf(valeur).setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Ajouter un texte saisi en echappant les caracteres speciaux HTML
+     */
+    private static StringBuilder texte(StringBuilder html, String valeur) {
+        if (valeur == null) {
+            return html;
+        }
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            if (c == '<') {
+                html.append("&lt;");
+            } else if (c == '>') {
+                html.append("&gt;");
+            } else if (c == '&') {
+                html.append("&amp;");
+            } else if (c == '"') {
+                html.append("&quot;");
+            } else if (c == '\'') {
+                html.append("&#39;");
+            } else {
+                html.append(c);
+            }
+        }
+        return html;
+    }
+}
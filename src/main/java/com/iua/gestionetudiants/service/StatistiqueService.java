@@ -0,0 +1,76 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.dao.StatistiqueDAO;
+import com.iua.gestionetudiants.dto.StatistiquesMatiere;
+import com.iua.gestionetudiants.metrique.Metriques;
+import com.iua.gestionetudiants.metrique.Minuteur;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ===========================================================================
+ * SERVICE METIER : STATISTIQUES PAR MATIERE
+ * ===========================================================================
+ * Pour chaque matiere : nombre de notes, minimum, maximum, moyenne,
+ * mediane, ecart-type, percentiles au choix et histogramme de 0 a 20.
+ *
+ * Un seul parcours de la table note, fait par la base (GROUP BY) ; les
+ * groupes sont lus en flux et chaque matiere est terminee des que la
+ * suivante commence. La memoire ne depend pas du nombre de notes.
+ * ===========================================================================
+ */
+public class StatistiqueService {
+
+    // Mesures des methodes publiques (Metriques, GET /api/metrics)
+    private static final Minuteur MESURE_CALCULER_PAR_MATIERE = Metriques.service("StatistiqueService.calculerParMatiere");
+
+    /** Note maximale (systeme de notation sur 20) */
+    public static final double NOTE_MAXIMUM = 20.0;
+
+    /** Percentiles calcules si aucun n'est demande */
+    public static final double[] PERCENTILES_PAR_DEFAUT = {10, 25, 75, 90};
+
+    /** Classes de l'histogramme : 1 point par defaut (0-1, 1-2, ..., 19-20) */
+    public static final double LARGEUR_CLASSE_PAR_DEFAUT = 1.0;
+
+    private StatistiqueDAO statistiqueDAO = new StatistiqueDAO();
+
+    /**
+     * Calculer les statistiques de chaque matiere (ou d'une seule)
+     *
+     * @param matiere       Matiere a analyser, ou null pour toutes
+     * @param percentiles   Percentiles voulus, entre 0 et 100
+     * @param largeurClasse Largeur des classes de l'histogramme, entre 0,1 et 20
+     * @return Une entree par matiere, par ordre alphabetique
+     * @throws IllegalArgumentException Si un parametre est hors bornes
+     */
+    public List<StatistiquesMatiere> calculerParMatiere(String matiere, double[] percentiles, double largeurClasse) {
+        return MESURE_CALCULER_PAR_MATIERE.mesurer(() -> {
+            for (double p : percentiles) {
+                if (p < 0 || p > 100) {
+                    throw new IllegalArgumentException("Un percentile doit etre compris entre 0 et 100 : " + p);
+                }
+            }
+            if (largeurClasse < 0.1 || largeurClasse > NOTE_MAXIMUM) {
+                throw new IllegalArgumentException("La largeur des classes doit etre comprise entre 0,1 et 20");
+            }
+
+            List<StatistiquesMatiere> resultats = new ArrayList<>();
+            AccumulateurMatiere[] courant = {null};
+            statistiqueDAO.parcourirGroupes(matiere, groupe -> {
+                if (courant[0] == null || !courant[0].getMatiere().equals(groupe.getMatiere())) {
+                    if (courant[0] != null) {
+                        resultats.add(courant[0].terminer(percentiles, largeurClasse));
+                    }
+                    courant[0] = new AccumulateurMatiere(groupe.getMatiere());
+                }
+                courant[0].ajouter(groupe);
+            });
+            if (courant[0] != null) {
+                resultats.add(courant[0].terminer(percentiles, largeurClasse));
+            }
+            return resultats;
+        });
+    }
+}
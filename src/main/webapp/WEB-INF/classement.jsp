@@ -0,0 +1,106 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="jakarta.tags.core" %>
+<%@ taglib prefix="fmt" uri="jakarta.tags.fmt" %>
+<!DOCTYPE html>
+<html lang="fr">
+<head>
+    <meta charset="UTF-8">
+    <meta name="viewport" content="width=device-width, initial-scale=1.0">
+    <title>Classement Général</title>
+    <link rel="stylesheet" href="${pageContext.request.contextPath}/css/style.css">
+</head>
+<body>
+    <div class="container">
+        <header>
+            <h1>Classement Général</h1>
+            <nav>
+                <a href="${pageContext.request.contextPath}/" class="btn btn-secondary">Accueil</a>
+                <a href="${pageContext.request.contextPath}/etudiants" class="btn btn-primary">Liste des etudiants</a>
+            </nav>
+        </header>
+
+        <main>
+            <div class="table-container">
+                <c:choose>
+                    <c:when test="${classement.etudiantsClasses == 0}">
+                        <div class="empty-state">
+                            <p>Aucun étudiant n'a encore de note : le classement est vide.</p>
+                        </div>
+                    </c:when>
+                    <c:otherwise>
+                        <p>
+                            <strong>${classement.etudiantsClasses}</strong> etudiant(s) classe(s),
+                            <strong>${classement.nombreAdmis}</strong> admis
+                            (<fmt:formatNumber value="${classement.tauxReussite}" maxFractionDigits="1"/> %)
+                        </p>
+
+                        <table class="table">
+                            <thead>
+                                <tr>
+                                    <th>Rang</th>
+                                    <th>Matricule</th>
+                                    <th>Nom</th>
+                                    <th>Prénom</th>
+                                    <th>Notes</th>
+                                    <th>Moyenne</th>
+                                    <th>Résultat</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                <c:forEach items="${classement.lignes}" var="ligne">
+                                    <tr>
+                                        <td><strong>${ligne.rang}</strong></td>
+                                        <td>
+                                            <a href="${pageContext.request.contextPath}/etudiants?action=detail&id=${ligne.etudiantId}">
+                                                <c:out value="${ligne.matricule}"/>
+                                            </a>
+                                        </td>
+                                        <td><c:out value="${ligne.nom}"/></td>
+                                        <td><c:out value="${ligne.prenom}"/></td>
+                                        <td>${ligne.nombreNotes}</td>
+                                        <td><fmt:formatNumber value="${ligne.moyenne}" minFractionDigits="2" maxFractionDigits="2"/> / 20</td>
+                                        <td>
+                                            <c:choose>
+                                                <c:when test="${ligne.admis}">
+                                                    <span class="moyenne-status success">Admis</span>
+                                                </c:when>
+                                                <c:otherwise>
+                                                    <span class="moyenne-status danger">Non admis</span>
+                                                </c:otherwise>
+                                            </c:choose>
+                                        </td>
+                                    </tr>
+                                </c:forEach>
+                            </tbody>
+                        </table>
+
+                        <div class="pagination">
+                            <span>Page <strong>${classement.page}</strong> sur ${classement.nombrePages}</span>
+                            <span>
+                                <c:if test="${classement.pagePrecedente}">
+                                    <c:url var="pagePrecedente" value="/classement">
+                                        <c:param name="page" value="${classement.page - 1}"/>
+                                        <c:param name="taille" value="${classement.taille}"/>
+                                    </c:url>
+                                    <a href="${pagePrecedente}" class="btn btn-sm btn-secondary">Page precedente</a>
+                                </c:if>
+                                <c:if test="${classement.pageSuivante}">
+                                    <c:url var="pageSuivante" value="/classement">
+                                        <c:param name="page" value="${classement.page + 1}"/>
+                                        <c:param name="taille" value="${classement.taille}"/>
+                                    </c:url>
+                                    <a href="${pageSuivante}" class="btn btn-sm btn-primary">Page suivante</a>
+                                </c:if>
+                            </span>
+                        </div>
+                    </c:otherwise>
+                </c:choose>
+            </div>
+        </main>
+
+        <footer>
+            <p>&copy; 2025 Institut Universitaire d'Abidjan</p>
+        </footer>
+    </div>
+</body>
+</html>
@@ -14,6 +14,7 @@
             <h1>Liste des Etudiants</h1>
             <nav>
                 <a href="${pageContext.request.contextPath}/" class="btn btn-secondary">Accueil</a>
+                <a href="${pageContext.request.contextPath}/classement" class="btn btn-secondary">Classement</a>
                 <a href="${pageContext.request.contextPath}/etudiants?action=ajouter" class="btn btn-primary">
                     Ajouter un etudiant
                 </a>
@@ -28,9 +29,70 @@
                 </div>
             </c:if>
 
+            <!-- Recherche (index en mémoire : nom, prénom, matricule, email) -->
+            <form action="${pageContext.request.contextPath}/etudiants" method="get" class="filtres">
+                <div class="form-group">
+                    <label for="q">Rechercher</label>
+                    <input type="search" id="q" name="q" value="<c:out value="${param.q}"/>" class="form-control"
+                           placeholder="Nom, prénom, matricule ou email">
+                </div>
+                <input type="hidden" name="taille" value="${taille}">
+                <button type="submit" class="btn btn-primary">Rechercher</button>
+            </form>
+
+            <c:if test="${not empty erreurRecherche}">
+                <div class="alert alert-danger">
+                    <c:out value="${erreurRecherche}"/>
+                </div>
+            </c:if>
+
+            <!-- Filtres et tri (traités côté serveur) -->
+            <form action="${pageContext.request.contextPath}/etudiants" method="get" class="filtres">
+                <div class="form-group">
+                    <label for="nom">Nom commençant par</label>
+                    <input type="text" id="nom" name="nom" value="<c:out value="${param.nom}"/>" class="form-control">
+                </div>
+                <div class="form-group">
+                    <label for="matricule">Matricule commençant par</label>
+                    <input type="text" id="matricule" name="matricule" value="<c:out value="${param.matricule}"/>" class="form-control">
+                </div>
+                <div class="form-group">
+                    <label for="ordre">Ordre</label>
+                    <select id="ordre" name="ordre" class="form-control">
+                        <option value="asc">Nom A → Z</option>
+                        <option value="desc" ${param.ordre == 'desc' ? 'selected' : ''}>Nom Z → A</option>
+                    </select>
+                </div>
+                <input type="hidden" name="taille" value="${taille}">
+                <button type="submit" class="btn btn-primary">Filtrer</button>
+                <a href="${pageContext.request.contextPath}/etudiants" class="btn btn-secondary">Réinitialiser</a>
+                <!-- Bulletins (archive ZIP) des étudiants du filtre de matricule, ou de tous -->
+                <c:url var="urlBulletins" value="/api/bulletins">
+                    <c:if test="${not empty param.matricule}">
+                        <c:param name="matricule" value="${param.matricule}"/>
+                    </c:if>
+                </c:url>
+                <a href="${urlBulletins}" class="btn btn-info">Bulletins (ZIP)</a>
+            </form>
+
             <!-- Tableau des étudiants -->
             <div class="table-container">
                 <c:choose>
+                    <c:when test="${empty etudiants and not empty recherche}">
+                        <div class="empty-state">
+                            <p>Aucun étudiant ne correspond à « <c:out value="${param.q}"/> ».</p>
+                        </div>
+                    </c:when>
+                    <c:when test="${empty etudiants and not empty param.apres}">
+                        <div class="empty-state">
+                            <p>Aucun étudiant supplémentaire.</p>
+                        </div>
+                    </c:when>
+                    <c:when test="${empty etudiants and (not empty param.nom or not empty param.matricule)}">
+                        <div class="empty-state">
+                            <p>Aucun étudiant ne correspond à ces critères.</p>
+                        </div>
+                    </c:when>
                     <c:when test="${empty etudiants}">
                         <div class="empty-state">
                             <p>Aucun étudiant enregistré pour le moment.</p>
@@ -78,8 +140,37 @@
                             </tbody>
                         </table>
 
-                        <div class="info-box">
-                            <p><strong>Total :</strong> ${etudiants.size()} etudiant(s)</p>
+                        <!-- Pagination par curseur : pas de numéro de page ni de total -->
+                        <div class="pagination">
+                            <c:choose>
+                                <c:when test="${not empty recherche}">
+                                    <span><strong>${recherche.total}</strong> etudiant(s) trouve(s)<c:if test="${recherche.tronque}">, les ${etudiants.size()} premiers sont affiches</c:if></span>
+                                </c:when>
+                                <c:otherwise>
+                                    <span><strong>${etudiants.size()}</strong> etudiant(s) sur cette page</span>
+                                </c:otherwise>
+                            </c:choose>
+                            <span>
+                                <c:if test="${not empty param.apres}">
+                                    <c:url var="premierePage" value="/etudiants">
+                                        <c:param name="nom" value="${param.nom}"/>
+                                        <c:param name="matricule" value="${param.matricule}"/>
+                                        <c:param name="ordre" value="${param.ordre}"/>
+                                        <c:param name="taille" value="${taille}"/>
+                                    </c:url>
+                                    <a href="${premierePage}" class="btn btn-sm btn-secondary">Premiere page</a>
+                                </c:if>
+                                <c:if test="${page.pageSuivante}">
+                                    <c:url var="pageSuivante" value="/etudiants">
+                                        <c:param name="nom" value="${param.nom}"/>
+                                        <c:param name="matricule" value="${param.matricule}"/>
+                                        <c:param name="ordre" value="${param.ordre}"/>
+                                        <c:param name="taille" value="${taille}"/>
+                                        <c:param name="apres" value="${page.curseurSuivant}"/>
+                                    </c:url>
+                                    <a href="${pageSuivante}" class="btn btn-sm btn-primary">Page suivante</a>
+                                </c:if>
+                            </span>
                         </div>
                     </c:otherwise>
                 </c:choose>
@@ -24,6 +24,8 @@
                 <form action="${pageContext.request.contextPath}/etudiants" method="post" class="form">
                     <input type="hidden" name="action" value="modifier">
                     <input type="hidden" name="id" value="${etudiant.id}">
+                    <%-- Revision lue : une modification concurrente est signalee au lieu d'etre ecrasee --%>
+                    <input type="hidden" name="revision" value="${etudiant.revision}">
 
                     <div class="form-group">
                         <label for="matricule">Matricule <span class="required">*</span></label>
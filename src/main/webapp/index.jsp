@@ -37,6 +37,14 @@
                     </a>
                 </div>
 
+                <div class="card">
+                    <h3>Classement</h3>
+                    <p>Classer la promotion par moyenne ponderee (admis a partir de 10/20)</p>
+                    <a href="${pageContext.request.contextPath}/classement" class="btn btn-secondary">
+                        Voir le classement
+                    </a>
+                </div>
+
                 <div class="card">
                     <h3>API REST</h3>
                     <p>Acceder aux donnees au format JSON</p>
@@ -55,6 +63,7 @@
                     <li>Afficher la liste des etudiants</li>
                     <li>Ajouter des notes a un etudiant</li>
                     <li>Calculer la moyenne ponderee automatiquement</li>
+                    <li>Classer les etudiants par moyenne</li>
                     <li>API REST pour acceder aux donnees en JSON</li>
                 </ul>
             </div>
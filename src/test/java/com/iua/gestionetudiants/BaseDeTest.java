@@ -0,0 +1,86 @@
+package com.iua.gestionetudiants;
+
+import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+import com.iua.gestionetudiants.model.Etudiant;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base H2 en mémoire (mode MySQL) partagée par les tests
+ *
+ * persistence.xml n'est pas versionné (il contient les identifiants de la
+ * base) : s'il est absent, l'unité de persistance des tests est celle du
+ * modèle persistence.xml.template, copiée dans target/test-classes. Seules
+ * la connexion et le dialecte sont remplacés, comme pour les benchmarks.
+ */
+public final class BaseDeTest {
+
+    /** Base des tests, ouverte aussi en JDBC direct (statistiques H2) */
+    public static final String URL = "jdbc:h2:mem:tests;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final AtomicInteger ETUDIANTS = new AtomicInteger();
+
+    private BaseDeTest() {
+    }
+
+    /**
+     * Démarrer la persistance sur la base des tests (une fois par JVM)
+     */
+    public static synchronized void demarrer() {
+        installerUnitePersistance();
+        Map<String, Object> proprietes = new HashMap<>();
+        proprietes.put("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        proprietes.put("jakarta.persistence.jdbc.url", URL);
+        proprietes.put("jakarta.persistence.jdbc.user", "sa");
+        proprietes.put("jakarta.persistence.jdbc.password", "");
+        proprietes.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        proprietes.put("hibernate.hbm2ddl.auto", "create-drop");
+        proprietes.put("hibernate.show_sql", "false");
+        proprietes.put("hibernate.format_sql", "false");
+        PersistenceManager.demarrer(proprietes);
+    }
+
+    private static void installerUnitePersistance() {
+        ClassLoader chargeur = BaseDeTest.class.getClassLoader();
+        if (chargeur.getResource("META-INF/persistence.xml") != null) {
+            return;
+        }
+        URL modele = chargeur.getResource("META-INF/persistence.xml.template");
+        if (modele == null) {
+            throw new IllegalStateException("META-INF/persistence.xml.template introuvable");
+        }
+        try (InputStream contenu = modele.openStream()) {
+            Path classesDeTest = Path.of(BaseDeTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            Path unite = classesDeTest.resolve("META-INF").resolve("persistence.xml");
+            Files.createDirectories(unite.getParent());
+            Files.copy(contenu, unite, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unité de persistance des tests non installée", e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Dossier des classes de test introuvable", e);
+        }
+    }
+
+    /**
+     * Enregistrer un étudiant (matricule unique dans la JVM)
+     */
+    public static Etudiant nouvelEtudiant() {
+        int numero = ETUDIANTS.incrementAndGet();
+        Etudiant etudiant = new Etudiant(String.format("TST%05d", numero), "Nom" + numero, "Prenom" + numero,
+                "test" + numero + "@iua.ci", LocalDate.of(2000, 1, 1));
+        new EtudiantDAO().creer(etudiant);
+        return etudiant;
+    }
+}
@@ -0,0 +1,137 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.BaseDeTest;
+import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Écriture différée des notes : rejeu du journal, notes déjà enregistrées,
+ * contre-pression
+ */
+class EcritureDiffereeNotesTest {
+
+    @TempDir
+    Path dossier;
+
+    private final NoteDAO noteDAO = new NoteDAO();
+
+    private Etudiant etudiant;
+    private Path fichier;
+    /** Premier numéro libre dans le journal (colonne unique sequence_journal) */
+    private long sequence;
+
+    @BeforeAll
+    static void demarrer() {
+        BaseDeTest.demarrer();
+    }
+
+    @BeforeEach
+    void preparer() {
+        etudiant = BaseDeTest.nouvelEtudiant();
+        fichier = dossier.resolve("notes.journal");
+        sequence = noteDAO.sequenceJournalMaximum() + 1;
+    }
+
+    @AfterEach
+    void arreter() {
+        EcritureDiffereeNotes.arreter();
+    }
+
+    @Test
+    void rejouerLeJournalAuDemarrage() throws IOException {
+        journaliser(ligne(sequence, "Algèbre"), ligne(sequence + 1, "Réseaux"));
+
+        EcritureDiffereeNotes.configurer(false, fichier, 10, 10, 0);
+
+        assertEquals(2, noteDAO.compterParEtudiant(etudiant.getId()));
+        assertEquals(0, Files.size(fichier));
+    }
+
+    @Test
+    void rejouerSansRecreerLesNotesDejaEnregistrees() throws IOException {
+        JournalNotes.Ligne algebre = ligne(sequence, "Algèbre");
+        JournalNotes.Ligne reseaux = ligne(sequence + 1, "Réseaux");
+        journaliser(algebre, reseaux);
+        EcritureDiffereeNotes.configurer(false, fichier, 10, 10, 0);
+        EcritureDiffereeNotes.arreter();
+
+        // Arrêt brutal avant le vidage du journal : ses notes sont relues
+        // au démarrage suivant, avec une note saisie entre-temps
+        journaliser(algebre, reseaux, ligne(sequence + 2, "Physique"));
+        EcritureDiffereeNotes.configurer(false, fichier, 10, 10, 0);
+
+        assertEquals(3, noteDAO.compterParEtudiant(etudiant.getId()));
+        assertEquals(0, Files.size(fichier));
+    }
+
+    @Test
+    void refuserLaSaisieQuandLaFileEstPleine() throws Exception {
+        // Un lot incomplet attend 3 s : les deux premières notes gardent
+        // leur place pendant que la troisième attend la sienne (2 s)
+        EcritureDiffereeNotes.configurer(true, fichier, 2, 100, 3_000);
+        soumettre("Algèbre");
+        soumettre("Réseaux");
+
+        assertThrows(IllegalStateException.class, () -> soumettre("Physique"));
+        assertEquals(0, EcritureDiffereeNotes.statistiques().get("placesLibres"));
+
+        // Le lot écrit rend ses places : la saisie suivante les attend
+        soumettre("Chimie");
+        EcritureDiffereeNotes.arreter();
+        assertEquals(3, noteDAO.compterParEtudiant(etudiant.getId()));
+    }
+
+    @Test
+    void reprendreUnRejeuEchoueSansPrendreDePlace() throws Exception {
+        // Trois notes du journal que la base refuse (matière trop longue) :
+        // le rejeu échoue, elles passent en file en plus de la capacité
+        String matiereInvalide = "M".repeat(150);
+        journaliser(ligne(sequence, matiereInvalide), ligne(sequence + 1, matiereInvalide),
+                ligne(sequence + 2, matiereInvalide));
+
+        EcritureDiffereeNotes.configurer(true, fichier, 1, 10, 0);
+        assertEquals(1, EcritureDiffereeNotes.statistiques().get("placesLibres"));
+
+        soumettre("Algèbre");
+        assertEquals(0, EcritureDiffereeNotes.statistiques().get("placesLibres"));
+    }
+
+    private void journaliser(JournalNotes.Ligne... lignes) throws IOException {
+        Files.deleteIfExists(fichier);
+        JournalNotes journal = new JournalNotes(fichier);
+        long position = 0;
+        for (JournalNotes.Ligne ligne : lignes) {
+            position = journal.ajouter(ligne);
+        }
+        journal.forcer(position);
+        journal.fermer();
+    }
+
+    private JournalNotes.Ligne ligne(long numero, String matiere) {
+        JournalNotes.Ligne ligne = new JournalNotes.Ligne();
+        ligne.sequence = numero;
+        ligne.etudiantId = etudiant.getId();
+        ligne.matiere = matiere;
+        ligne.valeur = 14;
+        ligne.coefficient = 2;
+        ligne.dateCreation = "2024-01-15";
+        return ligne;
+    }
+
+    private void soumettre(String matiere) {
+        EcritureDiffereeNotes.soumettre(new Note(matiere, 14.0, 2), etudiant.getId());
+    }
+}
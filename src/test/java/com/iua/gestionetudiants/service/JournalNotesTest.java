@@ -0,0 +1,108 @@
+package com.iua.gestionetudiants.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compactage du journal de l'écriture différée (JournalNotes)
+ */
+class JournalNotesTest {
+
+    @TempDir
+    Path dossier;
+
+    @Test
+    void compacterRetireLesLignesEnregistrees() throws IOException {
+        Path fichier = dossier.resolve("notes.journal");
+        JournalNotes journal = new JournalNotes(fichier, 0);
+        for (long sequence = 1; sequence <= 4; sequence++) {
+            journal.ajouter(ligne(sequence));
+        }
+        long avant = journal.taille();
+
+        journal.compacter(3);
+        assertTrue(journal.taille() < avant / 2);
+        long position = journal.ajouter(ligne(5));
+        journal.forcer(position);
+        journal.fermer();
+
+        assertEquals(List.of(4L, 5L), sequences(fichier));
+        assertFalse(Files.exists(dossier.resolve("notes.journal.compactage")));
+    }
+
+    @Test
+    void compacterAttendQueLaMoitieDuJournalSoitEnregistree() throws IOException {
+        Path fichier = dossier.resolve("notes.journal");
+        JournalNotes journal = new JournalNotes(fichier, 0);
+        for (long sequence = 1; sequence <= 4; sequence++) {
+            journal.ajouter(ligne(sequence));
+        }
+        long avant = journal.taille();
+
+        journal.compacter(1);
+        assertEquals(avant, journal.taille());
+        journal.fermer();
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequences(fichier));
+    }
+
+    @Test
+    void compacterVideLeJournalEntierementEnregistre() throws IOException {
+        Path fichier = dossier.resolve("notes.journal");
+        JournalNotes journal = new JournalNotes(fichier);
+        journal.ajouter(ligne(1));
+        journal.ajouter(ligne(2));
+
+        journal.compacter(2);
+        assertEquals(0, journal.taille());
+        journal.fermer();
+        assertEquals(0, Files.size(fichier));
+    }
+
+    @Test
+    void compacterApresRelectureDuJournal() throws IOException {
+        Path fichier = dossier.resolve("notes.journal");
+        JournalNotes ecrit = new JournalNotes(fichier);
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            ecrit.ajouter(ligne(sequence));
+        }
+        ecrit.fermer();
+
+        // Les fins de ligne sont retrouvées à la relecture (démarrage)
+        JournalNotes relu = new JournalNotes(fichier, 0);
+        assertEquals(3, relu.relire().size());
+        relu.compacter(2);
+        relu.fermer();
+        assertEquals(List.of(3L), sequences(fichier));
+    }
+
+    private static List<Long> sequences(Path fichier) throws IOException {
+        JournalNotes journal = new JournalNotes(fichier);
+        try {
+            return journal.relire().stream().map(l -> l.sequence).collect(Collectors.toList());
+        } finally {
+            journal.fermer();
+        }
+    }
+
+    private static JournalNotes.Ligne ligne(long sequence) {
+        JournalNotes.Ligne ligne = new JournalNotes.Ligne();
+        ligne.sequence = sequence;
+        ligne.etudiantId = 1;
+        // Accentuée : les positions du journal sont en octets
+        ligne.matiere = "Algèbre";
+        ligne.valeur = 12.5;
+        ligne.coefficient = 2;
+        ligne.dateCreation = "2024-01-15";
+        return ligne;
+    }
+}
@@ -0,0 +1,177 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.BaseDeTest;
+import com.iua.gestionetudiants.dao.EtudiantDAO;
+import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.dao.PersistenceManager;
+import com.iua.gestionetudiants.dao.StatistiquesRequete;
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Modifications versionnées : un seul UPDATE par modification
+ * (WHERE id = ? AND revision = ?), conflit signalé sans écraser
+ *
+ * Les ordres sont comptés par StatistiquesRequete (tous les ordres de la
+ * requête), et par les statistiques de H2 (exécutions par texte SQL).
+ */
+class ModificationsVersionneesTest {
+
+    private final EtudiantService etudiantService = new EtudiantService();
+    private final NoteService noteService = new NoteService();
+    private final EtudiantDAO etudiantDAO = new EtudiantDAO();
+    private final NoteDAO noteDAO = new NoteDAO();
+
+    private Etudiant etudiant;
+
+    @BeforeAll
+    static void demarrer() {
+        BaseDeTest.demarrer();
+    }
+
+    @BeforeEach
+    void preparer() throws SQLException {
+        etudiant = BaseDeTest.nouvelEtudiant();
+        executer("SET QUERY_STATISTICS TRUE");
+    }
+
+    @AfterEach
+    void terminer() throws SQLException {
+        StatistiquesRequete.terminer();
+        executer("SET QUERY_STATISTICS FALSE");
+    }
+
+    @Test
+    void modifierEtudiantEnUnSeulUpdate() throws Exception {
+        Etudiant modifie = etatModifie("Kouassi");
+
+        viderStatistiquesH2();
+        StatistiquesRequete.demarrer("modifierEtudiant");
+        etudiantService.modifierEtudiant(modifie, etudiant.getRevision());
+        StatistiquesRequete statistiques = StatistiquesRequete.terminer();
+
+        // Ni lecture préalable ni merge() : l'UPDATE est le seul ordre
+        assertEquals(1, statistiques.getOrdresSql());
+        assertEquals(1, executions("UPDATE etudiant SET matricule"));
+        assertEquals("Kouassi", etudiantDAO.trouverParId(etudiant.getId()).getNom());
+        assertEquals(etudiant.getRevision() + 1, etudiantDAO.trouverRevision(etudiant.getId()).getRevision());
+    }
+
+    @Test
+    void modifierEtudiantARevisionPerimeeEstRefuse() throws Exception {
+        long revisionLue = etudiant.getRevision();
+        etudiantService.modifierEtudiant(etatModifie("Kouassi"), revisionLue);
+
+        // Second utilisateur, sur la révision lue avant la première modification
+        Exception erreur = assertThrows(Exception.class,
+                () -> etudiantService.modifierEtudiant(etatModifie("Yao"), revisionLue));
+        assertTrue(erreur.getMessage().contains("modifié entre-temps"), erreur.getMessage());
+        assertEquals("Kouassi", etudiantDAO.trouverParId(etudiant.getId()).getNom());
+    }
+
+    @Test
+    void modifierNoteEnUnSeulUpdate() throws Exception {
+        Note note = creerNote();
+        Note lue = noteService.trouverParId(note.getId());
+        lue.setValeur(16.0);
+
+        viderStatistiquesH2();
+        StatistiquesRequete.demarrer("modifierNote");
+        noteService.modifierNote(lue);
+        StatistiquesRequete statistiques = StatistiquesRequete.terminer();
+
+        // Relecture de la révision par le service, UPDATE de la note,
+        // ajustement des agrégats de l'étudiant
+        assertEquals(3, statistiques.getOrdresSql());
+        assertEquals(1, executions("UPDATE note SET"));
+        assertEquals(16.0, noteDAO.trouverParId(note.getId()).getValeur());
+        assertEquals(16.0, noteService.calculerMoyenne(etudiant.getId()));
+    }
+
+    @Test
+    void modifierNoteARevisionPerimeeEstRefuse() throws Exception {
+        Note note = creerNote();
+        Note premiere = noteService.trouverParId(note.getId());
+        Note seconde = noteService.trouverParId(note.getId());
+        premiere.setValeur(16.0);
+        noteService.modifierNote(premiere);
+
+        seconde.setValeur(8.0);
+        Exception erreur = assertThrows(Exception.class, () -> noteService.modifierNote(seconde));
+        assertTrue(erreur.getMessage().contains("modifiée entre-temps"), erreur.getMessage());
+        assertEquals(16.0, noteDAO.trouverParId(note.getId()).getValeur());
+    }
+
+    @Test
+    void updateDeNoteSansLigneARevisionLueEstUnConflit() throws Exception {
+        // Modification concurrente entre la relecture du service et l'UPDATE
+        Note note = creerNote();
+        Note lue = noteService.trouverParId(note.getId());
+        Note concurrente = noteService.trouverParId(note.getId());
+        concurrente.setValeur(16.0);
+        noteService.modifierNote(concurrente);
+
+        Note modifiee = noteService.trouverParId(note.getId());
+        modifiee.setValeur(8.0);
+        RuntimeException erreur = assertThrows(RuntimeException.class, () -> noteDAO.modifier(modifiee, lue));
+        assertTrue(PersistenceManager.estConflitVersion(erreur));
+        assertEquals(16.0, noteDAO.trouverParId(note.getId()).getValeur());
+        assertEquals(16.0, noteService.calculerMoyenne(etudiant.getId()));
+    }
+
+    private Etudiant etatModifie(String nom) {
+        Etudiant modifie = new Etudiant(etudiant.getMatricule(), nom, etudiant.getPrenom(), etudiant.getEmail(),
+                etudiant.getDateNaissance());
+        modifie.setId(etudiant.getId());
+        return modifie;
+    }
+
+    private Note creerNote() throws Exception {
+        Note note = new Note("Algèbre", 12.0, 2);
+        noteService.creerNote(note, etudiant.getId());
+        return note;
+    }
+
+    private static void viderStatistiquesH2() throws SQLException {
+        executer("SET QUERY_STATISTICS FALSE");
+        executer("SET QUERY_STATISTICS TRUE");
+    }
+
+    /**
+     * Exécutions des ordres dont le texte commence par debut
+     */
+    private static long executions(String debut) throws SQLException {
+        try (Connection connexion = DriverManager.getConnection(BaseDeTest.URL, "sa", "");
+             PreparedStatement requete = connexion.prepareStatement(
+                     "SELECT COALESCE(SUM(EXECUTION_COUNT), 0) FROM INFORMATION_SCHEMA.QUERY_STATISTICS "
+                             + "WHERE SQL_STATEMENT LIKE ?")) {
+            requete.setString(1, debut + "%");
+            try (ResultSet resultat = requete.executeQuery()) {
+                resultat.next();
+                return resultat.getLong(1);
+            }
+        }
+    }
+
+    private static void executer(String ordre) throws SQLException {
+        try (Connection connexion = DriverManager.getConnection(BaseDeTest.URL, "sa", "");
+             Statement instruction = connexion.createStatement()) {
+            instruction.execute(ordre);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.iua.gestionetudiants.service;
+
+import com.iua.gestionetudiants.BaseDeTest;
+import com.iua.gestionetudiants.dao.NoteDAO;
+import com.iua.gestionetudiants.dto.NoteCreee;
+import com.iua.gestionetudiants.model.Etudiant;
+import com.iua.gestionetudiants.model.Note;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saisie unitaire d'une note : l'étudiant désigné par son ID, la nouvelle
+ * moyenne relue avec les agrégats
+ */
+class NoteServiceTest {
+
+    private final NoteService noteService = new NoteService();
+    private final NoteDAO noteDAO = new NoteDAO();
+
+    @BeforeAll
+    static void demarrer() {
+        BaseDeTest.demarrer();
+    }
+
+    @Test
+    void creerNoteRendLaNouvelleMoyenne() throws Exception {
+        Etudiant etudiant = BaseDeTest.nouvelEtudiant();
+        noteService.creerNote(new Note("Algèbre", 12.0, 1), etudiant.getId());
+
+        NoteCreee creee = noteService.creerNote(new Note("Réseaux", 15.0, 2), etudiant.getId());
+
+        assertEquals(14.0, creee.getMoyenne());
+        assertEquals(2, creee.getNombreNotes());
+        assertEquals(etudiant.getId(), noteDAO.trouverParId(creee.getNote().getId()).getEtudiant().getId());
+    }
+
+    @Test
+    void creerNotePourUnEtudiantInexistantEstRefuse() {
+        Exception erreur = assertThrows(Exception.class,
+                () -> noteService.creerNote(new Note("Algèbre", 12.0, 1), Long.MAX_VALUE));
+        assertTrue(erreur.getMessage().contains("n'existe pas"), erreur.getMessage());
+    }
+}